@@ -30,6 +30,16 @@ public interface CacheManager {
 	 * Creates a simple lru cache and register it to this manager.
 	 */
 	<K,V> Cache<K,V> createSimpleLRUCache(String cacheName) throws ObjectExistsException;
+	
+	/**
+	 * Creates a {@link ConcurrentCache}.
+	 */
+	<K,V> ConcurrentCache<K,V> createConcurrentCache(int maxSize, CachePolicy policy);
+	
+	/**
+	 * Creates a {@link ConcurrentCache} and register it to this manager.
+	 */
+	<K,V> ConcurrentCache<K,V> createConcurrentCache(String cacheName, int maxSize, CachePolicy policy) throws ObjectExistsException;
 
 	/**
 	 * Looks up a managed {@link Cache} given it's name.
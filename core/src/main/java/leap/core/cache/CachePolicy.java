@@ -0,0 +1,36 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.cache;
+
+/**
+ * The eviction policy of {@link ConcurrentCache}.
+ */
+public enum CachePolicy {
+
+	/**
+	 * Evicts the least recently used entry.
+	 */
+	LRU,
+
+	/**
+	 * Window TinyLFU, a small lru window in front of a main space guarded by a frequency-aware admission policy.
+	 *
+	 * <p>
+	 * A new entry evicted from the window only replaces the lru entry of the main space if it was used more frequently.
+	 */
+	TINY_LFU;
+
+}
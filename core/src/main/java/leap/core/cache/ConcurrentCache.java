@@ -0,0 +1,520 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.cache;
+
+import leap.lang.Args;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A bounded {@link Cache} backed by a {@link ConcurrentHashMap} which reads without any lock.
+ *
+ * <p>
+ * The accesses are recorded into striped lossy buffers and the writes into a queue,
+ * both of them are replayed against the eviction policy (see {@link CachePolicy}) by one thread at a time.
+ *
+ * <p>
+ * Supports an optional per-entry time to live and records the hit, miss and eviction counts.
+ */
+public class ConcurrentCache<K,V> implements Cache<K, V> {
+
+	public static final int DEFAULT_MAX_SIZE = 2048;
+
+	private static final int NUMBER_OF_READ_BUFFERS = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors() * 2);
+	private static final int READ_BUFFERS_MASK      = NUMBER_OF_READ_BUFFERS - 1;
+
+	private final ConcurrentHashMap<K, Node<K,V>> map;
+
+	private final int             maxSize;
+	private final CachePolicy     policy;
+	private final long            expiresInMs;
+	private final ReentrantLock   evictionLock = new ReentrantLock();
+	private final ReadBuffer[]    readBuffers;
+	private final Queue<Runnable> writeBuffer  = new ConcurrentLinkedQueue<>();
+	private final LongAdder       hits         = new LongAdder();
+	private final LongAdder       misses       = new LongAdder();
+	private final LongAdder       evictions    = new LongAdder();
+
+	//guarded by evictionLock.
+	private final AccessOrder<K,V> window;
+	private final AccessOrder<K,V> main;
+	private final int              windowMaxSize;
+	private final int              mainMaxSize;
+	private final FrequencySketch  sketch;
+
+	public ConcurrentCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	public ConcurrentCache(int maxSize) {
+		this(maxSize, CachePolicy.TINY_LFU);
+	}
+
+	public ConcurrentCache(int maxSize, CachePolicy policy) {
+		this(maxSize, policy, 0);
+	}
+
+	/**
+	 * @param maxSize     the max number of entries.
+	 * @param policy      the eviction policy.
+	 * @param expiresInMs the default time to live of entries in milliseconds, 0 means never expires.
+	 */
+	public ConcurrentCache(int maxSize, CachePolicy policy, long expiresInMs) {
+		Args.assertTrue(maxSize > 0, "maxSize must be positive");
+		Args.notNull(policy, "policy");
+		Args.assertTrue(expiresInMs >= 0, "expiresInMs must not be negative");
+
+		this.maxSize     = maxSize;
+		this.policy      = policy;
+		this.expiresInMs = expiresInMs;
+		this.map         = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+		this.readBuffers = new ReadBuffer[NUMBER_OF_READ_BUFFERS];
+		for(int i=0;i<readBuffers.length;i++) {
+			readBuffers[i] = new ReadBuffer();
+		}
+
+		this.window = new AccessOrder<>();
+		this.main   = new AccessOrder<>();
+
+		if(policy == CachePolicy.TINY_LFU) {
+			this.windowMaxSize = Math.max(1, maxSize / 100);
+			this.mainMaxSize   = maxSize - windowMaxSize;
+			this.sketch        = new FrequencySketch(maxSize);
+		}else{
+			this.windowMaxSize = 0;
+			this.mainMaxSize   = maxSize;
+			this.sketch        = null;
+		}
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public CachePolicy getPolicy() {
+		return policy;
+	}
+
+	public long getExpiresInMs() {
+		return expiresInMs;
+	}
+
+	/**
+	 * Returns the number of entries in this cache, includes the entries expired but not removed yet.
+	 */
+	public int size() {
+		return map.size();
+	}
+
+	/**
+	 * Returns the number of successful lookups.
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of failed lookups.
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of entries evicted by the size bound or time to live.
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	@Override
+	public V get(K key) {
+		Node<K,V> node = map.get(key);
+		if(null == node) {
+			misses.increment();
+			return null;
+		}
+
+		if(node.isExpired(System.currentTimeMillis())) {
+			misses.increment();
+			expire(node);
+			return null;
+		}
+
+		hits.increment();
+		afterRead(node);
+		return node.value;
+	}
+
+	@Override
+	public Map<K, V> getAll() {
+		long now = System.currentTimeMillis();
+
+		Map<K, V> all = new HashMap<>(map.size());
+		for(Node<K,V> node : map.values()) {
+			if(!node.isExpired(now)) {
+				all.put(node.key, node.value);
+			}
+		}
+		return all;
+	}
+
+	@Override
+	public void put(K key, V value) {
+		put(key, value, expiresInMs);
+	}
+
+	/**
+	 * Associates the specified value with the specified key in the cache, expires after the given milliseconds.
+	 *
+	 * <p>
+	 * The value 0 of <code>expiresInMs</code> means the entry never expires.
+	 */
+	public void put(K key, V value, long expiresInMs) {
+		Args.notNull(key, "key");
+		Args.notNull(value, "value");
+
+		long expiresAt = expiresInMs > 0 ? System.currentTimeMillis() + expiresInMs : 0;
+
+		Node<K,V> node  = new Node<>(key, value, expiresAt);
+		Node<K,V> prior = map.put(key, node);
+
+		if(null != prior) {
+			prior.retire();
+			writeBuffer.add(() -> unlink(prior));
+		}
+		writeBuffer.add(() -> link(node));
+
+		drainBuffers();
+	}
+
+	@Override
+	public boolean containsKey(K key) {
+		Node<K,V> node = map.get(key);
+		return null != node && !node.isExpired(System.currentTimeMillis());
+	}
+
+	@Override
+	public boolean remove(K key) {
+		return null != getAndRemove(key);
+	}
+
+	@Override
+	public V getAndRemove(K key) {
+		Node<K,V> node = map.remove(key);
+		if(null == node) {
+			return null;
+		}
+
+		node.retire();
+		writeBuffer.add(() -> unlink(node));
+		drainBuffers();
+
+		return node.isExpired(System.currentTimeMillis()) ? null : node.value;
+	}
+
+	@Override
+	public void clear() {
+		for(K key : map.keySet()) {
+			Node<K,V> node = map.remove(key);
+			if(null != node) {
+				node.retire();
+				writeBuffer.add(() -> unlink(node));
+			}
+		}
+		drainBuffers();
+	}
+
+	private void expire(Node<K,V> node) {
+		if(map.remove(node.key, node)) {
+			node.retire();
+			evictions.increment();
+			writeBuffer.add(() -> unlink(node));
+			drainBuffers();
+		}
+	}
+
+	private void afterRead(Node<K,V> node) {
+		ReadBuffer buffer = readBuffers[(int)Thread.currentThread().getId() & READ_BUFFERS_MASK];
+		if(!buffer.offer(node)) {
+			drainBuffers();
+		}
+	}
+
+	/**
+	 * Replays the buffered reads and writes if no other thread is doing it.
+	 */
+	private void drainBuffers() {
+		while(evictionLock.tryLock()) {
+			try{
+				drainReadBuffers();
+				drainWriteBuffer();
+				evict();
+			}finally{
+				evictionLock.unlock();
+			}
+
+			//A write may be queued while the lock was held by this thread.
+			if(writeBuffer.isEmpty()) {
+				break;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void drainReadBuffers() {
+		for(ReadBuffer buffer : readBuffers) {
+			buffer.drain((n) -> onAccess((Node<K,V>)n));
+		}
+	}
+
+	private void drainWriteBuffer() {
+		Runnable task;
+		while((task = writeBuffer.poll()) != null) {
+			task.run();
+		}
+	}
+
+	private void onAccess(Node<K,V> node) {
+		if(null != sketch) {
+			sketch.increment(node.key);
+		}
+
+		if(node.queue == Node.WINDOW) {
+			window.moveToTail(node);
+		}else if(node.queue == Node.MAIN) {
+			main.moveToTail(node);
+		}
+	}
+
+	private void link(Node<K,V> node) {
+		if(node.isRetired() || node.queue != Node.NONE) {
+			return;
+		}
+
+		if(null != sketch) {
+			sketch.increment(node.key);
+			window.add(node, Node.WINDOW);
+		}else{
+			main.add(node, Node.MAIN);
+		}
+	}
+
+	private void unlink(Node<K,V> node) {
+		if(node.queue == Node.WINDOW) {
+			window.remove(node);
+		}else if(node.queue == Node.MAIN) {
+			main.remove(node);
+		}
+	}
+
+	private void evict() {
+		//Moves the overflow entries from the window to the main space as candidates.
+		while(window.size > windowMaxSize) {
+			Node<K,V> candidate = window.head();
+			window.remove(candidate);
+			main.add(candidate, Node.MAIN);
+
+			if(main.size > mainMaxSize) {
+				Node<K,V> victim = main.head();
+
+				//The admission policy : keeps the one used more frequently.
+				if(victim != candidate && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+					evict(candidate);
+				}else{
+					evict(victim);
+				}
+			}
+		}
+
+		while(main.size > mainMaxSize) {
+			evict(main.head());
+		}
+	}
+
+	private void evict(Node<K,V> node) {
+		unlink(node);
+		if(map.remove(node.key, node)) {
+			evictions.increment();
+		}
+		node.retire();
+	}
+
+	private static int ceilingPowerOfTwo(int x) {
+		int n = 1;
+		while(n < x) {
+			n <<= 1;
+		}
+		return n;
+	}
+
+	private static final class Node<K,V> {
+		static final int NONE   = 0;
+		static final int WINDOW = 1;
+		static final int MAIN   = 2;
+
+		final K    key;
+		final V    value;
+		final long expiresAt;
+
+		private volatile boolean retired;
+
+		//guarded by evictionLock.
+		int       queue;
+		Node<K,V> prev;
+		Node<K,V> next;
+
+		Node(K key, V value, long expiresAt) {
+			this.key       = key;
+			this.value     = value;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired(long now) {
+			return expiresAt > 0 && now >= expiresAt;
+		}
+
+		boolean isRetired() {
+			return retired;
+		}
+
+		void retire() {
+			retired = true;
+		}
+	}
+
+	/**
+	 * A doubly linked list in access order, the head is the least recently used.
+	 */
+	private static final class AccessOrder<K,V> {
+		Node<K,V> first;
+		Node<K,V> last;
+		int       size;
+
+		Node<K,V> head() {
+			return first;
+		}
+
+		void add(Node<K,V> node, int queue) {
+			node.queue = queue;
+			node.prev  = last;
+			node.next  = null;
+
+			if(null == last) {
+				first = node;
+			}else{
+				last.next = node;
+			}
+			last = node;
+			size++;
+		}
+
+		void remove(Node<K,V> node) {
+			if(null == node.prev) {
+				first = node.next;
+			}else{
+				node.prev.next = node.next;
+			}
+
+			if(null == node.next) {
+				last = node.prev;
+			}else{
+				node.next.prev = node.prev;
+			}
+
+			node.prev  = null;
+			node.next  = null;
+			node.queue = Node.NONE;
+			size--;
+		}
+
+		void moveToTail(Node<K,V> node) {
+			if(node != last) {
+				int queue = node.queue;
+				remove(node);
+				add(node, queue);
+			}
+		}
+	}
+
+	/**
+	 * A lossy ring buffer records the accesses, drops the access if the buffer is full.
+	 */
+	private static final class ReadBuffer {
+		static final int SIZE = 16;
+		static final int MASK = SIZE - 1;
+
+		final AtomicLong                   writeCounter = new AtomicLong();
+		final AtomicReferenceArray<Object> buffer       = new AtomicReferenceArray<>(SIZE);
+
+		volatile long readCounter;
+
+		/**
+		 * Returns <code>false</code> if the buffer is full.
+		 */
+		boolean offer(Object node) {
+			long w = writeCounter.get();
+			if(w - readCounter >= SIZE) {
+				return false;
+			}
+
+			if(writeCounter.compareAndSet(w, w + 1)) {
+				buffer.lazySet((int)(w & MASK), node);
+			}
+			return true;
+		}
+
+		void drain(Consumer<Object> consumer) {
+			long r = readCounter;
+			long w = writeCounter.get();
+
+			for(;r < w; r++) {
+				int    index = (int)(r & MASK);
+				Object node  = buffer.get(index);
+				if(null == node) {
+					//Not published yet.
+					break;
+				}
+				buffer.lazySet(index, null);
+				consumer.accept(node);
+			}
+
+			readCounter = r;
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("ConcurrentCache[policy=").append(policy)
+		 .append(",maxSize=").append(maxSize)
+		 .append(",size=").append(map.size())
+		 .append(",hits=").append(hits.sum())
+		 .append(",misses=").append(misses.sum())
+		 .append(",evictions=").append(evictions.sum())
+		 .append("]");
+		return s.toString();
+	}
+}
@@ -16,6 +16,8 @@
 package leap.core.cache;
 
 import leap.core.BeanFactory;
+import leap.core.annotation.ConfigProperty;
+import leap.core.annotation.Configurable;
 import leap.core.ioc.FactoryBean;
 import leap.core.ioc.PostCreateBean;
 import leap.lang.Args;
@@ -28,20 +30,61 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 
+@Configurable(prefix="cache")
 public class DefaultCacheManager implements CacheManager, PostCreateBean, FactoryBean {
 	
 	private static final Log log = LogFactory.get(DefaultCacheManager.class);
 	
 	protected Map<String,Cache<?,?>> caches;
 	
+	protected @ConfigProperty boolean     concurrent;
+	protected @ConfigProperty CachePolicy concurrentPolicy = CachePolicy.TINY_LFU;
+	
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If <code>true</code>, the simple lru caches created by this manager will be {@link ConcurrentCache}.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	public CachePolicy getConcurrentPolicy() {
+		return concurrentPolicy;
+	}
+
+	/**
+	 * Sets the policy of the concurrent caches created by {@link #createSimpleLRUCache(int)}, default is {@link CachePolicy#TINY_LFU}.
+	 */
+	public void setConcurrentPolicy(CachePolicy policy) {
+		this.concurrentPolicy = policy;
+	}
+
     @Override
     public <K, V> Cache<K, V> createSimpleLRUCache(int maxSize) {
+    	if(concurrent) {
+    		return createConcurrentCache(maxSize, concurrentPolicy);
+    	}
         return new SimpleLRUCache<K, V>(maxSize);
     }
 
     @Override
     public <K, V> Cache<K, V> createSimpleLRUCache(String cacheName) throws ObjectExistsException {
-    	Cache<K, V> cache = new SimpleLRUCache<>();
+    	Cache<K, V> cache = createSimpleLRUCache(SimpleLRUCache.DEFAULT_MAX_SIZE);
+    	registerCache(cacheName, cache);
+	    return cache;
+    }
+    
+    @Override
+    public <K, V> ConcurrentCache<K, V> createConcurrentCache(int maxSize, CachePolicy policy) {
+    	return new ConcurrentCache<K, V>(maxSize, policy);
+    }
+
+    @Override
+    public <K, V> ConcurrentCache<K, V> createConcurrentCache(String cacheName, int maxSize, CachePolicy policy) throws ObjectExistsException {
+    	ConcurrentCache<K, V> cache = createConcurrentCache(maxSize, policy);
     	registerCache(cacheName, cache);
 	    return cache;
     }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.cache;
+
+/**
+ * A count-min sketch estimates the access frequency of keys, used by the TinyLFU admission policy.
+ *
+ * <p>
+ * The counters are saturated at 15 and halved when the number of increments reaches the sample size,
+ * so the history decays over time.
+ *
+ * <p>
+ * Not thread safe, the caller must guard it.
+ */
+final class FrequencySketch {
+
+	private static final int[] SEEDS = new int[]{0x97cb3127, 0xb4b82e39, 0x9b1ccfdd, 0xd6e8feb8};
+	private static final int   MAX   = 15;
+
+	private final byte[] counters;
+	private final int    mask;
+	private final int    sampleSize;
+	private int          additions;
+
+	FrequencySketch(int maxSize) {
+		int size = 16;
+		while(size < maxSize * 4 && size < (1 << 24)) {
+			size <<= 1;
+		}
+
+		this.counters   = new byte[size];
+		this.mask       = size - 1;
+		this.sampleSize = Math.max(maxSize, 1) * 10;
+	}
+
+	/**
+	 * Returns the estimated frequency of the key, the value is between 0 and 15.
+	 */
+	int frequency(Object key) {
+		int hash = spread(key.hashCode());
+
+		int min = MAX;
+		for(int i=0;i<SEEDS.length;i++) {
+			int count = counters[index(hash, i)];
+			if(count < min) {
+				min = count;
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * Increments the frequency of the key.
+	 */
+	void increment(Object key) {
+		int hash = spread(key.hashCode());
+
+		boolean added = false;
+		for(int i=0;i<SEEDS.length;i++) {
+			int index = index(hash, i);
+			if(counters[index] < MAX) {
+				counters[index]++;
+				added = true;
+			}
+		}
+
+		if(added && ++additions >= sampleSize) {
+			reset();
+		}
+	}
+
+	private void reset() {
+		for(int i=0;i<counters.length;i++) {
+			counters[i] = (byte)(counters[i] >>> 1);
+		}
+		additions = additions >>> 1;
+	}
+
+	private int index(int hash, int i) {
+		int h = hash * SEEDS[i];
+		h ^= h >>> 17;
+		return h & mask;
+	}
+
+	private static int spread(int h) {
+		h ^= h >>> 16;
+		h *= 0x45d9f3b;
+		h ^= h >>> 16;
+		return h;
+	}
+}
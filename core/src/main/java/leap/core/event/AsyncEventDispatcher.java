@@ -0,0 +1,311 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import leap.core.AppContext;
+import leap.lang.Args;
+import leap.lang.Disposable;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+
+/**
+ * Notifies the listeners of events in the background threads.
+ *
+ * <p>
+ * The events are partitioned by key, each partition has a bounded queue and a thread which takes the queued
+ * events in batches, so the events of the same key are notified in the order they were dispatched.
+ *
+ * <p>
+ * The threads are started at the first dispatching, the listeners are notified with the {@link AppContext}
+ * of the dispatching thread.
+ *
+ * <p>
+ * The queued events are still notified when disposing, the threads are interrupted if the queues are not
+ * drained in the shutdown timeout.
+ */
+public class AsyncEventDispatcher implements Disposable {
+
+	private static final Log log = LogFactory.get(AsyncEventDispatcher.class);
+
+	/**
+	 * The policy if the queue of a partition is full.
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * Blocks the caller until the queue has room.
+		 *
+		 * <p>
+		 * If the caller is the thread of the partition (a listener dispatches an event of the same partition),
+		 * the event is notified in the caller instead, the thread cannot wait for itself to take the queued events.
+		 */
+		BLOCK,
+
+		/**
+		 * Drops the dispatching event.
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * Drops the oldest queued event to make room for the dispatching event.
+		 */
+		DROP_OLDEST
+	}
+
+	protected final String         name;
+	protected final int            partitions;
+	protected final int            queueSize;
+	protected final int            batchSize;
+	protected final OverflowPolicy overflowPolicy;
+
+	protected final Map<EventListener, EventListenerStats> stats   = new ConcurrentHashMap<>();
+	protected final LongAdder                              dropped = new LongAdder();
+
+	protected long shutdownTimeout = 5000;
+
+	private volatile Partition[] workers;
+	private volatile boolean     disposed;
+
+	public AsyncEventDispatcher(String name, int partitions, int queueSize, int batchSize, OverflowPolicy overflowPolicy) {
+		Args.notEmpty(name, "name");
+		Args.assertTrue(partitions > 0, "partitions must be 1 or higher");
+		Args.assertTrue(queueSize > 0, "queueSize must be 1 or higher");
+		Args.assertTrue(batchSize > 0, "batchSize must be 1 or higher");
+		Args.notNull(overflowPolicy, "overflowPolicy");
+
+		this.name           = name;
+		this.partitions     = partitions;
+		this.queueSize      = queueSize;
+		this.batchSize      = batchSize;
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	public long getShutdownTimeout() {
+		return shutdownTimeout;
+	}
+
+	/**
+	 * Sets the max time in milliseconds to wait for the queued events to be notified when disposing.
+	 */
+	public void setShutdownTimeout(long shutdownTimeout) {
+		this.shutdownTimeout = shutdownTimeout;
+	}
+
+	/**
+	 * Returns the latency statistics of the notified listeners.
+	 */
+	public Map<EventListener, EventListenerStats> getListenerStats() {
+		return Collections.unmodifiableMap(stats);
+	}
+
+	/**
+	 * Returns the number of the events dropped by the {@link OverflowPolicy}.
+	 */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Queues the event to the partition of the key, the listeners will be notified in order.
+	 *
+	 * <p>
+	 * Returns <code>false</code> if the event was dropped.
+	 */
+	public boolean dispatch(Object key, Event event, List<EventListener> listeners) {
+		if(disposed) {
+			throw new IllegalStateException("Event dispatcher '" + name + "' was disposed");
+		}
+
+		Dispatch d = new Dispatch(event, listeners, AppContext.tryGetCurrent());
+		Partition               p     = getPartition(key);
+		BlockingQueue<Dispatch> queue = p.queue;
+
+		switch (overflowPolicy) {
+			case BLOCK:
+				if(queue.offer(d)) {
+					return true;
+				}
+				if(Thread.currentThread() == p.thread) {
+					//the app context of dispatching is already bound to the thread.
+					notifyListeners(d, d.event);
+					return true;
+				}
+				try {
+					queue.put(d);
+					return true;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return drop(d);
+				}
+			case DROP_NEWEST:
+				return queue.offer(d) || drop(d);
+			default:
+				while(!queue.offer(d)) {
+					Dispatch oldest = queue.poll();
+					if(null != oldest) {
+						drop(oldest);
+					}
+				}
+				return true;
+		}
+	}
+
+	@Override
+	public void dispose() throws Throwable {
+		disposed = true;
+
+		Partition[] ps = workers;
+		if(null != ps) {
+			log.debug("Shutdown event dispatcher '{}'", name);
+
+			long deadline = System.currentTimeMillis() + shutdownTimeout;
+			for(Partition p : ps) {
+				long timeout = deadline - System.currentTimeMillis();
+				if(timeout > 0) {
+					p.thread.join(timeout);
+				}
+
+				if(p.thread.isAlive()) {
+					log.warn("Interrupt thread '{}' of event dispatcher '{}', {} events not notified",
+							 p.thread.getName(), name, p.queue.size());
+					p.thread.interrupt();
+				}
+			}
+		}
+	}
+
+	protected boolean drop(Dispatch d) {
+		dropped.increment();
+		log.debug("Event '{}' dropped, the queue is full", d.event.getName());
+		return false;
+	}
+
+	protected Partition getPartition(Object key) {
+		Partition[] ps = workers;
+		if(null == ps) {
+			ps = start();
+		}
+
+		int h = null == key ? 0 : key.hashCode();
+		h ^= (h >>> 16);
+		return ps[(h & Integer.MAX_VALUE) % ps.length];
+	}
+
+	protected synchronized Partition[] start() {
+		if(null == workers) {
+			log.debug("Start event dispatcher '{}' with {} partitions", name, partitions);
+
+			Partition[] ps = new Partition[partitions];
+			for(int i=0;i<ps.length;i++) {
+				ps[i] = new Partition(name + "-" + (i + 1));
+				ps[i].thread.start();
+			}
+			workers = ps;
+		}
+		return workers;
+	}
+
+	protected void notifyListeners(Dispatch d) {
+		if(null == d.context) {
+			notifyListeners(d, d.event);
+			return;
+		}
+
+		//Binds the app context as the synchronous listeners running in the dispatching thread.
+		AppContext.setCurrent(d.context);
+		try {
+			notifyListeners(d, d.event);
+		}finally{
+			AppContext.removeCurrent();
+		}
+	}
+
+	private void notifyListeners(Dispatch d, Event event) {
+		for(EventListener listener : d.listeners) {
+			boolean error = false;
+			long    start = System.nanoTime();
+
+			try {
+				listener.onEvent(event);
+			}catch(Throwable e) {
+				error = true;
+				log.error("Error notify listener '" + listener.getClass().getName() + "' on event '" + event.getName() + "'", e);
+			}
+
+			stats.computeIfAbsent(listener, l -> new EventListenerStats(l.getClass().getName()))
+				 .record(System.nanoTime() - start, error);
+
+			if(event.isCancelled()) {
+				break;
+			}
+		}
+	}
+
+	protected static final class Dispatch {
+		final Event               event;
+		final List<EventListener> listeners;
+		final AppContext          context;
+
+		Dispatch(Event event, List<EventListener> listeners, AppContext context) {
+			this.event     = event;
+			this.listeners = listeners;
+			this.context   = context;
+		}
+	}
+
+	protected final class Partition implements Runnable {
+		final BlockingQueue<Dispatch> queue = new ArrayBlockingQueue<>(queueSize);
+		final Thread                  thread;
+
+		Partition(String threadName) {
+			this.thread = new Thread(this, threadName);
+			this.thread.setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			List<Dispatch> batch = new ArrayList<>(batchSize);
+
+			while(!disposed || !queue.isEmpty()) {
+				try {
+					Dispatch d = queue.poll(100, TimeUnit.MILLISECONDS);
+					if(null == d) {
+						continue;
+					}
+					batch.add(d);
+				} catch (InterruptedException e) {
+					break;
+				}
+
+				queue.drainTo(batch, batchSize - 1);
+
+				for(Dispatch d : batch) {
+					notifyListeners(d);
+				}
+				batch.clear();
+			}
+		}
+	}
+}
@@ -15,19 +15,26 @@
  */
 package leap.core.event;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import leap.core.annotation.ConfigProperty;
+import leap.core.annotation.Configurable;
+import leap.core.event.AsyncEventDispatcher.OverflowPolicy;
 import leap.lang.Args;
+import leap.lang.Disposable;
 import leap.lang.Strings;
 import leap.lang.exception.ObjectExistsException;
 import leap.lang.exception.ObjectNotFoundException;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 
-public class DefaultEventManager implements EventManager {
+@Configurable(prefix="event")
+public class DefaultEventManager implements EventManager, Disposable {
 	private static final Log log = LogFactory.get(DefaultEventManager.class);
 	
 	private final Object _lock = new Object();
@@ -37,6 +44,74 @@ public class DefaultEventManager implements EventManager {
 	protected Map<String, List<EventListener>> categoryListeners = new ConcurrentHashMap<String, List<EventListener>>();
 	protected Map<String, List<EventListener>> eventListeners    = new ConcurrentHashMap<String, List<EventListener>>();
 	
+	protected @ConfigProperty int            asyncPartitions     = Math.min(4, Runtime.getRuntime().availableProcessors());
+	protected @ConfigProperty int            asyncQueueSize      = 1024;
+	protected @ConfigProperty int            asyncBatchSize      = 64;
+	protected @ConfigProperty OverflowPolicy asyncOverflowPolicy = OverflowPolicy.BLOCK;
+	protected @ConfigProperty long           asyncShutdownTimeout = 5000;
+	
+	private volatile AsyncEventDispatcher asyncDispatcher;
+	private volatile boolean              hasAsyncListeners;
+	
+	public int getAsyncPartitions() {
+		return asyncPartitions;
+	}
+
+	public void setAsyncPartitions(int asyncPartitions) {
+		this.asyncPartitions = asyncPartitions;
+	}
+
+	public int getAsyncQueueSize() {
+		return asyncQueueSize;
+	}
+
+	public void setAsyncQueueSize(int asyncQueueSize) {
+		this.asyncQueueSize = asyncQueueSize;
+	}
+
+	public int getAsyncBatchSize() {
+		return asyncBatchSize;
+	}
+
+	public void setAsyncBatchSize(int asyncBatchSize) {
+		this.asyncBatchSize = asyncBatchSize;
+	}
+
+	public OverflowPolicy getAsyncOverflowPolicy() {
+		return asyncOverflowPolicy;
+	}
+
+	public void setAsyncOverflowPolicy(OverflowPolicy asyncOverflowPolicy) {
+		this.asyncOverflowPolicy = asyncOverflowPolicy;
+	}
+	
+	public long getAsyncShutdownTimeout() {
+		return asyncShutdownTimeout;
+	}
+
+	/**
+	 * Sets the max time in milliseconds to wait for the queued asynchronous events to be notified when disposing.
+	 */
+	public void setAsyncShutdownTimeout(long asyncShutdownTimeout) {
+		this.asyncShutdownTimeout = asyncShutdownTimeout;
+	}
+	
+	/**
+	 * Returns the latency statistics of the listeners notified asynchronously.
+	 */
+	public Map<EventListener, EventListenerStats> getAsyncListenerStats() {
+		AsyncEventDispatcher dispatcher = asyncDispatcher;
+		return null == dispatcher ? Collections.emptyMap() : dispatcher.getListenerStats();
+	}
+	
+	/**
+	 * Returns the number of the asynchronous events dropped because of the queue is full.
+	 */
+	public long getAsyncDroppedCount() {
+		AsyncEventDispatcher dispatcher = asyncDispatcher;
+		return null == dispatcher ? 0 : dispatcher.getDroppedCount();
+	}
+	
 	@Override
 	public boolean isEventCategoryRegistered(String category){
 		return categoryEvents.containsKey(category);
@@ -95,9 +170,16 @@ public class DefaultEventManager implements EventManager {
 	
 	@Override
     public void addEventCategoryListener(String category, EventListener listener) throws ObjectNotFoundException {
+		addEventCategoryListener(category, listener, false);
+	}
+	
+	@Override
+    public void addEventCategoryListener(String category, EventListener listener, boolean async) throws ObjectNotFoundException {
 		Args.notEmpty(category);
 		Args.notNull(listener);
 		
+		listener = wrapAsync(listener, async);
+		
 		if(Strings.equalsIgnoreCase(category, ALL_CATEGORY)){
 			log.debug("Event listener '{}' listens all events",listener.getClass().getName());
 			allListeners.add(listener);
@@ -124,9 +206,16 @@ public class DefaultEventManager implements EventManager {
 	
 	@Override
     public void addEventNameListener(String eventName, EventListener listener) throws ObjectNotFoundException {
+		addEventNameListener(eventName, listener, false);
+	}
+	
+	@Override
+    public void addEventNameListener(String eventName, EventListener listener, boolean async) throws ObjectNotFoundException {
 		Args.notEmpty(eventName);
 		Args.notNull(listener);
 		
+		listener = wrapAsync(listener, async);
+		
 		synchronized (_lock) {
 			List<EventListener> listeners = eventListeners.get(eventName);
 			
@@ -151,13 +240,59 @@ public class DefaultEventManager implements EventManager {
 			return;
 		}
 		
-		fireEvent(event, allListeners);
+		if(!fireEvent(event, allListeners)){
+			return;
+		}
+		
+		if(hasAsyncListeners){
+			List<EventListener> asyncListeners = new ArrayList<>(2);
+			collectAsyncListeners(listeners, asyncListeners);
+			collectAsyncListeners(allListeners, asyncListeners);
+			
+			if(!asyncListeners.isEmpty()){
+				getAsyncDispatcher().dispatch(event.getName(), event, asyncListeners);
+			}
+		}
+    }
+	
+	@Override
+    public void fireEventAsync(Event event, Object key) throws ObjectNotFoundException {
+		List<EventListener> listeners = eventListeners.get(event.getName());
+		if(null == listeners){
+			throw new ObjectNotFoundException("event name '" + event.getName() + "' not register");
+		}
+		
+		List<EventListener> all = new ArrayList<>(listeners.size() + allListeners.size());
+		for(EventListener listener : listeners){
+			all.add(unwrapAsync(listener));
+		}
+		for(EventListener listener : allListeners){
+			all.add(unwrapAsync(listener));
+		}
+		
+		if(!all.isEmpty()){
+			getAsyncDispatcher().dispatch(key, event, all);
+		}
+    }
+	
+	@Override
+    public void dispose() throws Throwable {
+		if(null != asyncDispatcher){
+			asyncDispatcher.dispose();
+		}
     }
 	
+	/**
+	 * Notifies the listeners except the asynchronous ones, returns <code>false</code> if the event was cancelled.
+	 */
 	protected boolean fireEvent(Event event,List<EventListener> listeners){
 		for(int i=0;i<listeners.size();i++){
 			EventListener listener = listeners.get(i);
 			
+			if(listener instanceof AsyncListenerWrapper){
+				continue;
+			}
+			
 			try{
 				listener.onEvent(event);
 				
@@ -173,4 +308,57 @@ public class DefaultEventManager implements EventManager {
 		
 		return true;
 	}
+	
+	protected void collectAsyncListeners(List<EventListener> listeners, List<EventListener> asyncListeners) {
+		for(int i=0;i<listeners.size();i++){
+			EventListener listener = listeners.get(i);
+			if(listener instanceof AsyncListenerWrapper){
+				asyncListeners.add(((AsyncListenerWrapper)listener).listener);
+			}
+		}
+	}
+	
+	protected AsyncEventDispatcher getAsyncDispatcher() {
+		if(null == asyncDispatcher){
+			synchronized (_lock) {
+				if(null == asyncDispatcher){
+					AsyncEventDispatcher dispatcher =
+							new AsyncEventDispatcher("event-dispatcher", asyncPartitions, asyncQueueSize, asyncBatchSize, asyncOverflowPolicy);
+					dispatcher.setShutdownTimeout(asyncShutdownTimeout);
+					asyncDispatcher = dispatcher;
+				}
+            }
+		}
+		return asyncDispatcher;
+	}
+	
+	protected EventListener wrapAsync(EventListener listener, boolean async) {
+		if(async || listener.getClass().isAnnotationPresent(AsyncListener.class)){
+			log.debug("Event listener '{}' will be notified asynchronously",listener.getClass().getName());
+			hasAsyncListeners = true;
+			return new AsyncListenerWrapper(listener);
+		}
+		return listener;
+	}
+	
+	protected static EventListener unwrapAsync(EventListener listener) {
+		return listener instanceof AsyncListenerWrapper ? ((AsyncListenerWrapper)listener).listener : listener;
+	}
+	
+	/**
+	 * Marks the listener in the listener's lists as asynchronous.
+	 */
+	protected static final class AsyncListenerWrapper implements EventListener {
+		
+		private final EventListener listener;
+		
+		AsyncListenerWrapper(EventListener listener) {
+			this.listener = listener;
+		}
+
+		@Override
+        public void onEvent(Event event) throws Exception {
+			listener.onEvent(event);
+        }
+	}
 }
\ No newline at end of file
@@ -76,7 +76,7 @@ public class DefaultEventRegister implements AppContextInitializable {
 				if(!eventManager.isEventCategoryRegistered(category)){
 					throw new EventRegistrationException("event category '" + category + "' not register, make sure you type the correct name, source : " + bd.getSource());
 				}
-				eventManager.addEventCategoryListener(category, listener);
+				eventManager.addEventCategoryListener(category, listener, reg.isAsync());
 			}	
 		}
 		
@@ -85,7 +85,7 @@ public class DefaultEventRegister implements AppContextInitializable {
 				if(!eventManager.isEventNameRegistered(eventName)){
 					throw new EventRegistrationException("event name '" + eventName + "' not register, make sure you type the correct name, source : " + bd.getSource());
 				}
-				eventManager.addEventNameListener(eventName, listener);
+				eventManager.addEventNameListener(eventName, listener, reg.isAsync());
 			}
 		}
 	}
@@ -22,6 +22,7 @@ public class EventListenerRegistration {
 	protected String[] 				 categories;
 	protected String[] 				 eventNames;
 	protected @NotNull EventListener listener;
+	protected boolean                async;
 	
 	public String[] getCategories() {
 		return categories;
@@ -46,4 +47,15 @@ public class EventListenerRegistration {
 	public void setListener(EventListener listener) {
 		this.listener = listener;
 	}
+
+	public boolean isAsync() {
+		return async;
+	}
+
+	/**
+	 * Sets the listener to be always notified asynchronously, see {@link AsyncListener}.
+	 */
+	public void setAsync(boolean async) {
+		this.async = async;
+	}
 }
\ No newline at end of file
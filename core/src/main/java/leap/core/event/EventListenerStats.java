@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The latency statistics of an {@link EventListener} notified by the {@link AsyncEventDispatcher}.
+ */
+public class EventListenerStats {
+
+	private final String     name;
+	private final LongAdder  count      = new LongAdder();
+	private final LongAdder  errorCount = new LongAdder();
+	private final LongAdder  totalNanos = new LongAdder();
+	private final AtomicLong maxNanos   = new AtomicLong();
+
+	public EventListenerStats(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the class name of the listener.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the number of notifications.
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the number of notifications which throws an exception.
+	 */
+	public long getErrorCount() {
+		return errorCount.sum();
+	}
+
+	/**
+	 * Returns the total time of all the notifications.
+	 */
+	public long getTotalTime(TimeUnit unit) {
+		return unit.convert(totalNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns the average time of a notification.
+	 */
+	public long getAverageTime(TimeUnit unit) {
+		long n = count.sum();
+		return n == 0 ? 0 : unit.convert(totalNanos.sum() / n, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns the max time of a notification.
+	 */
+	public long getMaxTime(TimeUnit unit) {
+		return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	void record(long nanos, boolean error) {
+		count.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulateAndGet(nanos, Math::max);
+		if(error) {
+			errorCount.increment();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name + "[count=" + getCount() + ", errors=" + getErrorCount() +
+			   ", avg=" + getAverageTime(TimeUnit.MICROSECONDS) + "us, max=" + getMaxTime(TimeUnit.MICROSECONDS) + "us]";
+	}
+}
@@ -65,6 +65,17 @@ public interface EventManager {
 	 */
 	void addEventNameListener(String eventName,EventListener listener) throws ObjectNotFoundException;
 	
+	/**
+	 * Adds a listener to the listener's list of the given event name.
+	 * 
+	 * <p>
+	 * The listener is always notified asynchronously if <code>async</code> is <code>true</code>, see {@link AsyncListener}.
+	 * 
+	 * <p>
+	 * Throws {@link ObjectNotFoundException} if the given event name not exists.
+	 */
+	void addEventNameListener(String eventName,EventListener listener,boolean async) throws ObjectNotFoundException;
+	
 	/**
 	 * <p>
 	 * Throws {@link ObjectNotFoundException} if the given event category not exists.
@@ -72,6 +83,15 @@ public interface EventManager {
 	 */
 	void addEventCategoryListener(String category,EventListener listener) throws ObjectNotFoundException;
 	
+	/**
+	 * <p>
+	 * The listener is always notified asynchronously if <code>async</code> is <code>true</code>, see {@link AsyncListener}.
+	 * 
+	 * <p>
+	 * Throws {@link ObjectNotFoundException} if the given event category not exists.
+	 */
+	void addEventCategoryListener(String category,EventListener listener,boolean async) throws ObjectNotFoundException;
+	
 	/**
 	 * Fires the given event to it's listeners.
 	 * 
@@ -80,4 +100,22 @@ public interface EventManager {
 	 */
 	void fireEvent(Event event) throws ObjectNotFoundException;
 	
+	/**
+	 * Fires the given event to it's listeners in background, the events of the same name are notified in order.
+	 * 
+	 * <p>
+	 * Throws {@link ObjectNotFoundException} if the given event's name not exists.
+	 */
+	default void fireEventAsync(Event event) throws ObjectNotFoundException {
+		fireEventAsync(event, event.getName());
+	}
+	
+	/**
+	 * Fires the given event to it's listeners in background, the events of the same key are notified in order.
+	 * 
+	 * <p>
+	 * Throws {@link ObjectNotFoundException} if the given event's name not exists.
+	 */
+	void fireEventAsync(Event event, Object key) throws ObjectNotFoundException;
+	
 }
\ No newline at end of file
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.instrument;
+
+import leap.lang.Args;
+import leap.lang.Charsets;
+import leap.lang.Classes;
+import leap.lang.Strings;
+import leap.lang.codec.MD5;
+import leap.lang.io.Files;
+import leap.lang.io.IO;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Saves the instrumented class data to a directory, so the classes need not be instrumented again at the next startup.
+ *
+ * <p>
+ * The cached data is keyed by the digest of the original class data (and its super classes) and saved under
+ * a sub directory named by the versions of all the {@link AppInstrumentProcessor}s, the classes not instrumented
+ * by any processor are saved as keys in an index file.
+ */
+public class AppInstrumentCache {
+
+    private static final Log log = LogFactory.get(AppInstrumentCache.class);
+
+    protected static final String SKIPPED_FILE = "skipped.idx";
+    protected static final String LOCK_FILE    = ".lock";
+
+    /**
+     * Returns the digest of the class files of the given classes, their member classes, super classes and interfaces
+     * (excludes the jdk classes).
+     */
+    public static String digest(Class<?>... classes) {
+        StringBuilder s       = new StringBuilder();
+        Set<Class<?>> visited = new HashSet<>();
+        for(Class<?> c : classes) {
+            digest(c, s, visited);
+        }
+        return MD5.hex(Strings.getBytesUtf8(s.toString()));
+    }
+
+    private static void digest(Class<?> c, StringBuilder s, Set<Class<?>> visited) {
+        if(null == c || null == c.getClassLoader() || !visited.add(c)) {
+            return;
+        }
+
+        ClassLoader loader = Classes.getClassLoader(c);
+
+        try(InputStream in = loader.getResourceAsStream(Classes.getClassResourcePath(c))) {
+            s.append(null == in ? c.getName() : MD5.hex(IO.readByteArray(in))).append(',');
+        }catch(Exception e) {
+            log.warn("Error reading the class file of '{}', {}", c.getName(), e.getMessage());
+            s.append(c.getName()).append(',');
+        }
+
+        for(Class<?> member : c.getDeclaredClasses()) {
+            digest(member, s, visited);
+        }
+
+        digest(c.getSuperclass(), s, visited);
+
+        for(Class<?> i : c.getInterfaces()) {
+            digest(i, s, visited);
+        }
+    }
+
+    protected final File        dir;
+    protected final Set<String> skipped = new LinkedHashSet<>();
+
+    private boolean skippedChanged;
+
+    public AppInstrumentCache(File baseDir, Collection<AppInstrumentProcessor> processors) {
+        Args.notNull(baseDir, "baseDir");
+
+        StringBuilder version = new StringBuilder();
+        for(AppInstrumentProcessor p : processors) {
+            version.append(p.getClass().getName()).append(':').append(p.getVersion()).append('\n');
+        }
+
+        this.dir = new File(baseDir, MD5.hex(Strings.getBytesUtf8(version.toString())));
+
+        removeOutOfDate(baseDir);
+        loadSkipped();
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    /**
+     * Returns the key of the original class data.
+     */
+    public String getKey(byte[] classData) {
+        return MD5.hex(classData);
+    }
+
+    /**
+     * Returns the key of the class which includes the keys of the resolved super classes.
+     *
+     * <p>
+     * Returns the class key if no super classes.
+     */
+    public String getKey(String classKey, List<String> superKeys) {
+        if(superKeys.isEmpty()) {
+            return classKey;
+        }
+        return MD5.hex(Strings.getBytesUtf8(classKey + "," + Strings.join(superKeys, ',')));
+    }
+
+    /**
+     * Returns <code>true</code> if the class of the key was not instrumented by any processor.
+     */
+    public boolean isSkipped(String key) {
+        return skipped.contains(key);
+    }
+
+    /**
+     * Returns the saved instrumented class data or <code>null</code> if not saved.
+     */
+    public byte[] load(String key) {
+        File file = getFile(key);
+        if(!file.exists()) {
+            return null;
+        }
+
+        try {
+            return IO.readByteArray(file);
+        }catch(Exception e) {
+            log.warn("Error loading instrumented class '{}', {}", file.getAbsolutePath(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves the instrumented class data.
+     */
+    public void save(String key, byte[] data) {
+        File file = getFile(key);
+        File temp = null;
+
+        if(!mkdirs()) {
+            return;
+        }
+
+        try {
+            temp = File.createTempFile(file.getName(), ".tmp", dir);
+
+            try(OutputStream out = new FileOutputStream(temp)) {
+                out.write(data);
+            }
+
+            move(temp, file);
+        }catch(Exception e) {
+            log.warn("Error saving instrumented class '{}', {}", file.getAbsolutePath(), e.getMessage());
+            if(null != temp) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Marks the class of the key as not instrumented, the marks will be saved by {@link #flush()}.
+     */
+    public void skip(String key) {
+        if(skipped.add(key)) {
+            skippedChanged = true;
+        }
+    }
+
+    /**
+     * Saves the changed marks of the classes not instrumented.
+     */
+    public void flush() {
+        if(!skippedChanged || !mkdirs()) {
+            return;
+        }
+
+        File file = new File(dir, SKIPPED_FILE);
+        File temp = null;
+
+        try {
+            temp = File.createTempFile(SKIPPED_FILE, ".tmp", dir);
+
+            IO.writeString(temp, Strings.join(skipped, '\n'), Charsets.UTF_8);
+
+            move(temp, file);
+
+            skippedChanged = false;
+        }catch(Exception e) {
+            log.warn("Error saving instrument cache index '{}', {}", file.getAbsolutePath(), e.getMessage());
+            if(null != temp) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Replaces the file by the temp file written completely, the processes sharing the dir never read a partial file.
+     */
+    protected void move(File temp, File file) throws IOException {
+        try {
+            java.nio.file.Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }catch(AtomicMoveNotSupportedException e) {
+            java.nio.file.Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    protected File getFile(String key) {
+        return new File(dir, key + ".class");
+    }
+
+    protected boolean mkdirs() {
+        if(!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            log.warn("Cannot create the instrument cache dir '{}'", dir.getAbsolutePath());
+            return false;
+        }
+        return true;
+    }
+
+    protected void loadSkipped() {
+        File file = new File(dir, SKIPPED_FILE);
+        if(!file.exists()) {
+            return;
+        }
+
+        try {
+            for(String key : Strings.split(IO.readString(file, Charsets.UTF_8), '\n')) {
+                skipped.add(key);
+            }
+        }catch(Exception e) {
+            log.warn("Error loading instrument cache index '{}', {}", file.getAbsolutePath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the data saved by the other versions of processors.
+     *
+     * <p>
+     * The dirs are removed only if the lock file of the base dir is acquired, else another process is removing them.
+     */
+    protected void removeOutOfDate(File baseDir) {
+        File[] dirs = baseDir.listFiles(d -> d.isDirectory() && d.getName().length() == 32 && !d.getName().equals(dir.getName()));
+        if(null == dirs || dirs.length == 0) {
+            return;
+        }
+
+        File lockFile = new File(baseDir, LOCK_FILE);
+
+        try(FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock    lock    = channel.tryLock()) {
+
+            if(null == lock) {
+                log.debug("The instrument cache '{}' is locked by another process, skip removing", baseDir.getAbsolutePath());
+                return;
+            }
+
+            for(File d : dirs) {
+                log.debug("Remove the out of date instrument cache '{}'", d.getAbsolutePath());
+                Files.deleteQuietly(d);
+            }
+        }catch(OverlappingFileLockException e) {
+            log.debug("The instrument cache '{}' is locked by another cache, skip removing", baseDir.getAbsolutePath());
+        }catch(IOException e) {
+            log.warn("Error locking the instrument cache '{}', {}", lockFile.getAbsolutePath(), e.getMessage());
+        }
+    }
+}
@@ -22,6 +22,17 @@ public interface AppInstrumentProcessor {
 
     default void init(AppConfig conifg) {
 
+    }
+
+    /**
+     * Returns the version of the processor, which is a part of the key of instrumented classes in {@link AppInstrumentCache}.
+     *
+     * <p>
+     * Returns the digest of the class files of the processor (includes its super classes) by default,
+     * overrides it if the instrumented result also depends on other classes.
+     */
+    default String getVersion() {
+        return AppInstrumentCache.digest(getClass());
     }
 	
 	void instrument(AppInstrumentContext context, ResourceSet crs);
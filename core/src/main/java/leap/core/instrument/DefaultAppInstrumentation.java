@@ -36,7 +36,10 @@ import leap.core.AppConfig;
 import leap.core.AppInitException;
 import leap.lang.Classes;
 import leap.lang.Factory;
+import leap.lang.Strings;
+import leap.lang.asm.ClassReader;
 import leap.lang.exception.ObjectNotFoundException;
+import leap.lang.io.IO;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 import leap.lang.resource.Resource;
@@ -44,24 +47,45 @@ import leap.lang.resource.ResourceSet;
 import leap.lang.resource.Resources;
 import leap.lang.resource.SimpleResourceSet;
 
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class DefaultAppInstrumentation implements AppInstrumentation {
 
     private static final Log log = LogFactory.get(DefaultAppInstrumentation.class);
 
+    /**
+     * The property of the dir for saving the instrumented classes, see {@link AppInstrumentCache}.
+     */
+    public static final String CACHE_DIR_PROPERTY = "instrument.cache-dir";
+
     private final List<AppInstrumentProcessor> processors = Factory.newInstances(AppInstrumentProcessor.class);
 
-    private Set<String> instrumented = new HashSet<>();
+    private static final int MAX_INHERIT_LEVELS = 100;
+
+    private Set<String>        instrumented = new HashSet<>();
+    private AppInstrumentCache cache;
 
     @Override
     public void init(AppConfig config) {
         for(AppInstrumentProcessor p : processors) {
             p.init(config);
         }
+
+        String cacheDir = config.getProperty(CACHE_DIR_PROPERTY);
+        if(!Strings.isEmpty(cacheDir)) {
+            cache = new AppInstrumentCache(new File(cacheDir), processors);
+            log.info("Instrument cache enabled at '{}'", cache.getDir().getAbsolutePath());
+        }
     }
 
     @Override
@@ -71,8 +95,15 @@ public class DefaultAppInstrumentation implements AppInstrumentation {
 
     @Override
     public void instrument(ResourceSet rs) {
-        DefaultAppInstrumentContext context = new DefaultAppInstrumentContext();
+        if(null != cache) {
+            instrumentCached(rs);
+            return;
+        }
+
+        postInstrumented(instrument(new DefaultAppInstrumentContext(), rs));
+    }
 
+    protected Collection<AppInstrumentClass> instrument(AppInstrumentContext context, ResourceSet rs) {
         for(AppInstrumentProcessor p : processors){
             try {
                 p.instrument(context, rs);
@@ -81,7 +112,134 @@ public class DefaultAppInstrumentation implements AppInstrumentation {
             }
         }
 
-        postInstrumented(context.getAllInstrumentedClasses());
+        return context.getAllInstrumentedClasses();
+    }
+
+    /**
+     * Instruments the classes which not saved in the {@link AppInstrumentCache} and saves the results.
+     *
+     * <p>
+     * The key of a class includes the names and digests of the super classes resolved in the same classpath root,
+     * so the class will be instrumented again if any super class changed.
+     *
+     * <p>
+     * The classes are defined parent first (ordered by the resolved inheritance levels),
+     * no matter they are loaded from the cache or instrumented now.
+     */
+    protected void instrumentCached(ResourceSet rs) {
+        Map<String, CacheEntry> entries = new LinkedHashMap<>();
+
+        rs.process((resource) -> {
+            String filename = resource.getFilename();
+            if(null == filename || !filename.endsWith(Classes.CLASS_FILE_SUFFIX) || !resource.exists()) {
+                return;
+            }
+
+            CacheEntry entry = readCacheEntry(resource);
+            entries.put(entry.className, entry);
+        });
+
+        List<AppInstrumentClass> cached    = new ArrayList<>();
+        List<Resource>           resources = new ArrayList<>();
+        Map<String, String>      keys      = new LinkedHashMap<>();
+        Map<String, Integer>     levels    = new HashMap<>();
+        Map<String, CacheEntry>  supers    = new HashMap<>();
+
+        for(CacheEntry entry : entries.values()) {
+            List<String> superKeys = new ArrayList<>();
+
+            CacheEntry current = entry;
+            while(null != (current = resolveSuper(current, entries, supers)) && superKeys.size() < MAX_INHERIT_LEVELS) {
+                superKeys.add(current.className + ":" + current.key);
+            }
+
+            String key = cache.getKey(entry.key, superKeys);
+            if(cache.isSkipped(key)) {
+                continue;
+            }
+
+            levels.put(entry.className, superKeys.size());
+
+            byte[] instrumentedData = cache.load(key);
+            if(null != instrumentedData) {
+                cached.add(new SimpleAppInstrumentClass(entry.className, instrumentedData));
+            }else{
+                resources.add(entry.resource);
+                keys.put(entry.className, key);
+            }
+        }
+
+        if(!cached.isEmpty()) {
+            log.debug("Load {} instrumented classes from cache", cached.size());
+        }
+
+        DefaultAppInstrumentContext context = new DefaultAppInstrumentContext();
+        if(!resources.isEmpty()) {
+            instrument(context, new SimpleResourceSet(resources.toArray(new Resource[resources.size()])));
+
+            keys.forEach((className, key) -> {
+                AppInstrumentClass ic = context.getInstrumentedClass(className);
+                if(null == ic) {
+                    cache.skip(key);
+                }else{
+                    cache.save(key, ic.getClassData());
+                }
+            });
+            cache.flush();
+        }
+
+        cached.addAll(context.getAllInstrumentedClasses());
+
+        //The super classes must be defined before the sub classes, the sort is stable.
+        cached.sort(Comparator.comparingInt((ic) -> levels.getOrDefault(ic.getClassName(), 0)));
+
+        postInstrumented(cached);
+    }
+
+    /**
+     * Returns the super class of the entry in the scanned classes or the same classpath root of the entry.
+     *
+     * <p>
+     * Returns <code>null</code> if the super class is <code>java.lang.Object</code> or not found.
+     */
+    protected CacheEntry resolveSuper(CacheEntry entry, Map<String, CacheEntry> entries, Map<String, CacheEntry> supers) {
+        String superName = entry.superName;
+        if(null == superName || superName.equals("java/lang/Object")) {
+            return null;
+        }
+
+        CacheEntry superEntry = entries.get(superName);
+        if(null != superEntry) {
+            return superEntry;
+        }
+
+        if(supers.containsKey(superName)) {
+            return supers.get(superName);
+        }
+
+        String classpath = entry.resource.getClasspath();
+        if(null != classpath) {
+            String   url      = Strings.remove(entry.resource.getURLString(), classpath) + superName + Classes.CLASS_FILE_SUFFIX;
+            Resource resource = Resources.getResource(url);
+            if(null != resource && resource.exists()) {
+                superEntry = readCacheEntry(resource);
+            }
+        }
+
+        supers.put(superName, superEntry);
+        return superEntry;
+    }
+
+    protected CacheEntry readCacheEntry(Resource resource) {
+        byte[] data;
+        try(InputStream in = resource.getInputStream()) {
+            data = IO.readByteArray(in);
+        }catch(Exception e) {
+            throw new AppInitException("Error reading class '" + resource.getFilename() + "', " + e.getMessage(), e);
+        }
+
+        ClassReader cr = new ClassReader(data);
+        return new CacheEntry(resource, cr.getClassName(), cr.getSuperName(), cache.getKey(data));
     }
 
     @Override
@@ -134,4 +292,18 @@ public class DefaultAppInstrumentation implements AppInstrumentation {
             }
         }
     }
+
+    protected static final class CacheEntry {
+        protected final Resource resource;
+        protected final String   className;
+        protected final String   superName;
+        protected final String   key;
+
+        protected CacheEntry(Resource resource, String className, String superName, String key) {
+            this.resource  = resource;
+            this.className = className;
+            this.superName = superName;
+            this.key       = key;
+        }
+    }
 }
@@ -22,4 +22,14 @@ public interface ResultSetReader<T> {
 
 	T read(ResultSet rs) throws SQLException;
 	
+	/**
+	 * Returns the fetch size hint of the statement or <code>0</code> if uses the driver's default.
+	 * 
+	 * <p>
+	 * A positive fetch size means the rows are read by streaming, which is configured by the db dialect.
+	 */
+	default int getFetchSize() {
+		return 0;
+	}
+	
 }
\ No newline at end of file
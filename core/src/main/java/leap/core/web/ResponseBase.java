@@ -107,6 +107,11 @@ public interface ResponseBase {
 	 */
 	void setContentLength(int length);
 	
+	/**
+	 * @see HttpServletResponse#getCharacterEncoding()
+	 */
+	String getCharacterEncoding();
+	
 	/**
 	 * @see HttpServletResponse#setCharacterEncoding(String)
 	 */
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.cache;
+
+import leap.junit.TestBase;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentCacheTest extends TestBase {
+
+	@Test
+	public void testGetAndPut() {
+		ConcurrentCache<String, String> cache = new ConcurrentCache<>(10);
+
+		assertNull(cache.get("a"));
+		cache.put("a", "1");
+		assertEquals("1", cache.get("a"));
+		assertTrue(cache.containsKey("a"));
+
+		cache.put("a", "2");
+		assertEquals("2", cache.get("a"));
+		assertEquals(1, cache.size());
+
+		assertEquals("2", cache.getAndRemove("a"));
+		assertFalse(cache.containsKey("a"));
+
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void testLRUEviction() {
+		ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(3, CachePolicy.LRU);
+
+		cache.put(1, 1);
+		cache.put(2, 2);
+		cache.put(3, 3);
+		cache.put(4, 4);
+
+		assertEquals(3, cache.size());
+		assertFalse(cache.containsKey(1));
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void testTinyLFUKeepsFrequentEntries() {
+		ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(100, CachePolicy.TINY_LFU);
+
+		for(int i=0;i<100;i++) {
+			cache.put(i, i);
+		}
+
+		for(int n=0;n<10;n++) {
+			for(int i=0;i<10;i++) {
+				cache.get(i);
+			}
+		}
+
+		for(int i=1000;i<2000;i++) {
+			cache.put(i, i);
+		}
+
+		assertEquals(100, cache.size());
+		for(int i=0;i<10;i++) {
+			assertTrue("Entry " + i + " should be kept", cache.containsKey(i));
+		}
+	}
+
+	@Test
+	public void testExpires() throws Exception {
+		ConcurrentCache<String, String> cache = new ConcurrentCache<>(10, CachePolicy.LRU, 1000);
+
+		cache.put("a", "1");
+		cache.put("b", "1", 1);
+		Thread.sleep(10);
+
+		assertEquals("1", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void testClear() {
+		ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(10);
+		for(int i=0;i<10;i++) {
+			cache.put(i, i);
+		}
+		cache.clear();
+
+		assertEquals(0, cache.size());
+		assertTrue(cache.getAll().isEmpty());
+	}
+
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		final ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(50);
+		final AtomicReference<Throwable> error = new AtomicReference<>();
+
+		Thread[] threads = new Thread[8];
+		CountDownLatch latch = new CountDownLatch(threads.length);
+
+		for(int t=0;t<threads.length;t++) {
+			final int seed = t;
+			threads[t] = new Thread(() -> {
+				try{
+					for(int i=0;i<10000;i++) {
+						int key = (i * 31 + seed) % 200;
+						Integer v = cache.get(key);
+						if(null == v) {
+							cache.put(key, key);
+						}else if(v != key) {
+							throw new IllegalStateException("Invalid value");
+						}
+					}
+				}catch(Throwable e) {
+					error.set(e);
+				}finally{
+					latch.countDown();
+				}
+			});
+			threads[t].start();
+		}
+
+		latch.await();
+
+		assertNull(error.get());
+		assertTrue(cache.size() <= 50);
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.event;
+
+import leap.core.AppContext;
+import leap.core.event.AsyncEventDispatcher.OverflowPolicy;
+import leap.junit.TestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncEventTest extends TestBase {
+
+    private DefaultEventManager em;
+
+    @Before
+    public void createEventManager() {
+        em = new DefaultEventManager();
+        em.registerEventName("test", "e1");
+        em.registerEventName("test", "e2");
+    }
+
+    @After
+    public void disposeEventManager() throws Throwable {
+        em.dispose();
+    }
+
+    @Test
+    public void testFireEventAsyncInOrder() throws Exception {
+        int n = 1000;
+
+        CountDownLatch      latch  = new CountDownLatch(n);
+        List<Object>        events = Collections.synchronizedList(new ArrayList<>());
+        EventListener       l      = (e) -> { events.add(e.getSource()); latch.countDown(); };
+
+        em.addEventNameListener("e1", l);
+
+        for(int i=0;i<n;i++) {
+            em.fireEventAsync(new DefaultEvent("e1", "test", null, i));
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for(int i=0;i<n;i++) {
+            assertEquals(i, events.get(i));
+        }
+
+        EventListenerStats stats = em.getAsyncListenerStats().get(l);
+        assertNotNull(stats);
+        //the stats of the last event may be recorded after the latch counted down.
+        assertTrue(stats.getCount() >= n - 1);
+        assertEquals(0, stats.getErrorCount());
+    }
+
+    @Test
+    public void testAsyncListener() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done    = new CountDownLatch(2);
+
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+        em.addEventNameListener("e2", new SlowListener(started, release, done));
+        em.addEventNameListener("e2", (e) -> { calls.add("sync"); });
+        em.addEventNameListener("e2", (e) -> { calls.add("async"); done.countDown(); }, true);
+
+        em.fireEvent(new DefaultEvent("e2", "test", null, this));
+        assertEquals(1, calls.size());
+        assertEquals("sync", calls.get(0));
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        release.countDown();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals("async", calls.get(1));
+    }
+
+    @Test
+    public void testDropNewest() throws Throwable {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher("test", 1, 1, 1, OverflowPolicy.DROP_NEWEST);
+        try {
+            List<EventListener> listeners = Collections.singletonList(new SlowListener(started, release, new CountDownLatch(1)));
+            Event event = new DefaultEvent("e1", "test", null, this);
+
+            assertTrue(dispatcher.dispatch("k", event, listeners));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            assertTrue(dispatcher.dispatch("k", event, listeners));
+            assertFalse(dispatcher.dispatch("k", event, listeners));
+            assertEquals(1, dispatcher.getDroppedCount());
+        }finally{
+            release.countDown();
+            dispatcher.dispose();
+        }
+    }
+
+    @Test
+    public void testBlockInPartitionThread() throws Throwable {
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher("test", 1, 1, 1, OverflowPolicy.BLOCK);
+
+        List<Object>        events    = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch      done      = new CountDownLatch(4);
+        List<EventListener> listeners = new ArrayList<>();
+
+        listeners.add((e) -> {
+            events.add(e.getSource());
+            if(e.getSource().equals(0)) {
+                //the queue is full after the first one, the others must not block the partition thread.
+                for(int i=1;i<=3;i++) {
+                    dispatcher.dispatch("k", new DefaultEvent("e1", "test", null, i), listeners);
+                }
+            }
+            done.countDown();
+        });
+
+        try {
+            dispatcher.dispatch("k", new DefaultEvent("e1", "test", null, 0), listeners);
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(4, events.size());
+            assertEquals(0, events.get(0));
+            assertEquals(1, events.get(3));
+            assertEquals(0, dispatcher.getDroppedCount());
+        }finally{
+            dispatcher.dispose();
+        }
+    }
+
+    @Test
+    public void testDisposeNotifiesQueuedEvents() throws Throwable {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Object> events = Collections.synchronizedList(new ArrayList<>());
+
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher("test", 1, 100, 10, OverflowPolicy.BLOCK);
+        List<EventListener> listeners = new ArrayList<>();
+        listeners.add(new SlowListener(started, release, new CountDownLatch(1)));
+        listeners.add((e) -> events.add(e.getSource()));
+
+        for(int i=0;i<10;i++) {
+            dispatcher.dispatch("k", new DefaultEvent("e1", "test", null, i), listeners);
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                //ignore
+            }
+            release.countDown();
+        }).start();
+
+        dispatcher.dispose();
+        assertEquals(10, events.size());
+
+        try {
+            dispatcher.dispatch("k", new DefaultEvent("e1", "test", null, 10), listeners);
+            fail("Should throw IllegalStateException");
+        }catch(IllegalStateException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testDisposeTimeout() throws Throwable {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher("test", 1, 10, 1, OverflowPolicy.BLOCK);
+        dispatcher.setShutdownTimeout(100);
+        try {
+            List<EventListener> listeners = Collections.singletonList(new SlowListener(started, release, new CountDownLatch(1)));
+            dispatcher.dispatch("k", new DefaultEvent("e1", "test", null, this), listeners);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            long start = System.currentTimeMillis();
+            dispatcher.dispose();
+            assertTrue(System.currentTimeMillis() - start < 5000);
+        }finally{
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testAppContextBound() throws Throwable {
+        AppContext context    = new TestAppContext();
+        AppContext standalone = TestAppContext.swapStandalone(null);
+
+        List<AppContext> contexts = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch   done     = new CountDownLatch(2);
+        EventListener    l        = (e) -> { contexts.add(AppContext.tryGetCurrent()); done.countDown(); };
+
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher("test", 1, 10, 1, OverflowPolicy.BLOCK);
+        try {
+            //the worker thread is started without app context.
+            dispatcher.dispatch("k", new DefaultEvent("e1", "test", null, this), Collections.singletonList(l));
+
+            AppContext.setCurrent(context);
+            try {
+                dispatcher.dispatch("k", new DefaultEvent("e1", "test", null, this), Collections.singletonList(l));
+            }finally{
+                AppContext.removeCurrent();
+            }
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertNull(contexts.get(0));
+            assertSame(context, contexts.get(1));
+        }finally{
+            dispatcher.dispose();
+            TestAppContext.swapStandalone(standalone);
+        }
+    }
+
+    static final class TestAppContext extends AppContext {
+        TestAppContext() {
+            super(new HashMap<>(), null, null, null);
+        }
+
+        static AppContext swapStandalone(AppContext context) {
+            AppContext old = getStandalone();
+            setStandalone(context);
+            return old;
+        }
+    }
+
+    @AsyncListener
+    static final class SlowListener implements EventListener {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+        private final CountDownLatch done;
+
+        SlowListener(CountDownLatch started, CountDownLatch release, CountDownLatch done) {
+            this.started = started;
+            this.release = release;
+            this.done    = done;
+        }
+
+        @Override
+        public void onEvent(Event event) throws Exception {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            done.countDown();
+        }
+    }
+}
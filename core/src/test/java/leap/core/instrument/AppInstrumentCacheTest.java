@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.instrument;
+
+import leap.core.transaction.TransactionInstrumentation;
+import leap.junit.TestBase;
+import leap.lang.Strings;
+import leap.lang.io.Files;
+import leap.lang.resource.ResourceSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class AppInstrumentCacheTest extends TestBase {
+
+    private File baseDir;
+
+    @Before
+    public void setUp() {
+        baseDir = new File(System.getProperty("java.io.tmpdir"), "leap-instrument-cache-test");
+        Files.deleteQuietly(baseDir);
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        AppInstrumentCache cache = new AppInstrumentCache(baseDir, Collections.singletonList(new TransactionInstrumentation()));
+
+        String key1 = cache.getKey(Strings.getBytesUtf8("class1"));
+        String key2 = cache.getKey(Strings.getBytesUtf8("class2"));
+        assertNotEquals(key1, key2);
+
+        assertNull(cache.load(key1));
+        cache.save(key1, new byte[]{1, 2, 3});
+        cache.skip(key2);
+        cache.flush();
+
+        cache = new AppInstrumentCache(baseDir, Collections.singletonList(new TransactionInstrumentation()));
+        assertTrue(Arrays.equals(new byte[]{1, 2, 3}, cache.load(key1)));
+        assertFalse(cache.isSkipped(key1));
+        assertTrue(cache.isSkipped(key2));
+    }
+
+    @Test
+    public void testProcessorsChanged() {
+        AppInstrumentCache cache1 = new AppInstrumentCache(baseDir, Collections.singletonList(new TransactionInstrumentation()));
+        cache1.save("k", new byte[]{1});
+        assertTrue(cache1.getDir().exists());
+
+        AppInstrumentCache cache2 = new AppInstrumentCache(baseDir, Collections.singletonList(new VersionedProcessor()));
+        assertNotEquals(cache1.getDir(), cache2.getDir());
+        assertFalse(cache1.getDir().exists());
+        assertNull(cache2.load("k"));
+    }
+
+    @Test
+    public void testRemoveOutOfDateWithLock() throws Exception {
+        AppInstrumentCache cache1 = new AppInstrumentCache(baseDir, Collections.singletonList(new TransactionInstrumentation()));
+        cache1.save("k", new byte[]{1});
+        cache1.skip("s");
+        cache1.flush();
+        assertEquals(2, cache1.getDir().list().length);
+
+        try(FileChannel channel = FileChannel.open(new File(baseDir, AppInstrumentCache.LOCK_FILE).toPath(),
+                                                   StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock    lock    = channel.lock()) {
+
+            new AppInstrumentCache(baseDir, Collections.singletonList(new VersionedProcessor()));
+            assertTrue(cache1.getDir().exists());
+        }
+
+        new AppInstrumentCache(baseDir, Collections.singletonList(new VersionedProcessor()));
+        assertFalse(cache1.getDir().exists());
+    }
+
+    @Test
+    public void testDigestIncludesSuperClasses() {
+        assertEquals(AppInstrumentCache.digest(TransactionInstrumentation.class),
+                     AppInstrumentCache.digest(TransactionInstrumentation.class, AbstractAsmInstrumentProcessor.class));
+
+        assertNotEquals(AppInstrumentCache.digest(TransactionInstrumentation.class),
+                        AppInstrumentCache.digest(AbstractAsmInstrumentProcessor.class));
+    }
+
+    static final class VersionedProcessor implements AppInstrumentProcessor {
+        @Override
+        public String getVersion() {
+            return "1";
+        }
+
+        @Override
+        public void instrument(AppInstrumentContext context, ResourceSet crs) {
+
+        }
+    }
+}
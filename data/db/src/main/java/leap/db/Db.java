@@ -18,6 +18,7 @@ package leap.db;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.function.Consumer;
 
 import javax.sql.DataSource;
 
@@ -417,6 +418,26 @@ public interface Db extends Named , JdbcExecutor {
 	 */
 	int executeUpdate(Connection connection, String sql, Object[] args, int[] types, PreparedStatementHandler<Db> handler) throws NestedSQLException;
 	
+	/**
+	 * Executes the given insert sql for each row of the batch args in chunks and returns the inserted rows of each row.
+	 * 
+	 * <p>
+	 * The rows of a chunk are inserted by a multi-row insert statement if <code>multiRows</code> is <code>true</code> 
+	 * and the dialect supports, otherwise by a jdbc batch. 
+	 * The rows of a multi-row insert statement are limited by {@link DbDialect#getMaxStatementParameters()}, 
+	 * or a default limitation (500 rows) if the dialect has no limitation.
+	 * 
+	 * <p>
+	 * If the generated key callback is not <code>null</code>, the generated key of each row will be passed to it in the order of rows.
+	 * 
+	 * @param chunkSize the max number of rows executed in one round trip, zero means no limitation.
+	 * 
+	 * @see DbDialect#supportsMultiRowInsert()
+	 * @see DbDialect#supportsBatchGeneratedKeys()
+	 */
+	int[] executeBatchInsert(Connection connection, String sql, Object[][] batchArgs, int[] types, 
+							 int chunkSize, boolean multiRows, Consumer<Object> generatedKeyCallback) throws NestedSQLException;
+	
 	/**
 	 * Executes an query and returns the result readed by the given {@link ResultSetReader}.
 	 * 
@@ -87,6 +87,28 @@ public interface DbDialect {
 		return supportsSequence();
 	}
 	
+	/**
+	 * Returns <code>true</code> if this db platform supports inserting multi rows by one insert statement.
+	 * 
+	 * <p>
+	 * Example:
+	 * <pre>
+	 * 	insert into table1(c1,c2) values (?,?),(?,?)
+	 * </pre>
+	 */
+	boolean supportsMultiRowInsert();
+	
+	/**
+	 * Returns <code>true</code> if the jdbc driver returns the generated keys of all the rows
+	 * inserted by a batch or a multi-row insert statement.
+	 */
+	boolean supportsBatchGeneratedKeys();
+	
+	/**
+	 * Returns the max number of parameters in a sql statement, zero means no limitation.
+	 */
+	int getMaxStatementParameters();
+	
 	/**
 	 * Returns <code>true</code> if this db platform supports column comment.
 	 */
@@ -300,6 +322,16 @@ public interface DbDialect {
 	 */
 	List<DbCommand> getSchemaChangeCommands(SchemaChange change,SchemaChangeContext context);
 	
+	/**
+	 * Returns the multi-row insert sql of the given single row insert sql.
+	 * 
+	 * <p>
+	 * Returns <code>null</code> if this dialect not supports multi-row insert or the sql cannot be rewritten.
+	 * 
+	 * @see #supportsMultiRowInsert()
+	 */
+	String getMultiRowInsertSql(String sql, int rows);
+	
 	/**
 	 * Returns a new {@link PreparedStatementHandler} to get the auto increment identity column's generated value.
 	 * 
@@ -337,6 +369,16 @@ public interface DbDialect {
 	 */
 	PreparedStatement createPreparedStatement(Connection connection,String sql, int autoGeneratedKeys) throws SQLException;
 	
+	/**
+	 * Configures the {@link PreparedStatement} to read the rows of the query result from the database in batches
+	 * of the given fetch size instead of loading all the rows into memory.
+	 * 
+	 * <p>
+	 * Returns <code>true</code> if the auto commit of the connection was disabled for streaming,
+	 * the caller must enable it again after the result set closed.
+	 */
+	boolean configureStreaming(Connection connection, PreparedStatement ps, int fetchSize) throws SQLException;
+	
 	/**
 	 * Returns a {@link String} as the page query sql for the underlying db.
 	 * 
@@ -93,6 +93,15 @@ public interface DbMetadata {
 	 */
 	boolean driverSupportsGetParameterType();
 	
+	/**
+	 * Returns <code>true</code> if the tables are read one by one on first access.
+	 * 
+	 * <p>
+	 * The whole schema will not be read by the <code>tryGetTable</code> methods in the lazy mode, 
+	 * so use these methods to lookup tables instead of {@link #getSchema()} if possible.
+	 */
+	boolean isLazy();
+	
 	/**
 	 * Returns the cached default schema name of the underlying datasource.
 	 */
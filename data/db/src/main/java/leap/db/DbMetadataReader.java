@@ -21,6 +21,7 @@ import java.sql.SQLException;
 
 import leap.db.model.DbSchema;
 import leap.db.model.DbSchemaName;
+import leap.db.model.DbTable;
 import leap.lang.exception.NestedSQLException;
 
 public interface DbMetadataReader {
@@ -44,4 +45,24 @@ public interface DbMetadataReader {
 	 */
 	DbSchema readSchema(Connection connection,String catalog,String schema) throws NestedSQLException;
 	
+	/**
+	 * reads the {@link DbTable} object in the given schema of the underlying database associated with the given connection.
+	 * 
+	 * <p>
+	 * returns <code>null</code> if the given table not exists in the underlying database.
+	 * 
+	 * @throws NestedSQLException if a {@link SQLException} error occurs.
+	 */
+	DbTable readTable(Connection connection,String catalog,String schema,String table) throws NestedSQLException;
+	
+	/**
+	 * reads a marker of the given schema which will be changed after the definitions of the schema objects changed.
+	 * 
+	 * <p>
+	 * returns <code>null</code> if the underlying database does not supports.
+	 * 
+	 * @throws NestedSQLException if a {@link SQLException} error occurs.
+	 */
+	String readSchemaChangeMarker(Connection connection,String catalog,String schema) throws NestedSQLException;
+	
 }
\ No newline at end of file
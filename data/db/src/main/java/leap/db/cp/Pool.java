@@ -23,6 +23,7 @@ import leap.lang.logging.LogFactory;
 import leap.lang.logging.StackTraceStringBuilder;
 
 import javax.sql.DataSource;
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLTimeoutException;
@@ -46,6 +47,9 @@ class Pool {
 	private final long 		     			   maxWait;
 	private final int     					   defaultTransactionIsolationLevel;
 	private final ConnectionPool 			   connectionPool;
+	private final PoolMetrics				   metrics;
+	private final PoolGauges				   gauges;
+	private final boolean					   metricsEnabled;
 	private final ScheduledThreadPoolExecutor  scheduledExecutor;
 	
 	private volatile String  name;
@@ -61,6 +65,8 @@ class Pool {
 		this.utils 		    = new PoolUtils(this);
 		this.connectionPool = new ConnectionPool();
 		this.maxWait        = config.getMaxWait();
+		this.metrics        = config.getMetrics();
+		this.metricsEnabled = config.hasMetrics();
 		
 		if(config.hasDefaultTransactionIsolation()) {
 			this.defaultTransactionIsolationLevel = config.getDefaultTransactionIsolation().getValue();
@@ -79,6 +85,9 @@ class Pool {
 		}else{
 			this.scheduledExecutor = null;
 		}
+		
+		this.gauges = new Gauges();
+		this.metrics.init(gauges);
 	}
 	
 	public PoolUtils utils() {
@@ -96,6 +105,20 @@ class Pool {
 		return config;
 	}
 	
+	/**
+	 * Returns the current gauges of this pool.
+	 */
+	public PoolGauges getGauges() {
+		return gauges;
+	}
+	
+	/**
+	 * Returns the {@link PoolMetrics} of this pool, returns {@link PoolMetrics#NOP} if no metrics.
+	 */
+	public PoolMetrics getMetrics() {
+		return metrics;
+	}
+	
 	/**
 	 * Returns the wrapped {@link DataSource}.
 	 */
@@ -124,17 +147,27 @@ class Pool {
 			throw new SQLException("Connection Pool has been closed.");
 		}
 		
-		log.trace("[{}] Borrowing connection...", getName());
+		if(log.isTraceEnabled()) {
+			log.trace("[{}] Borrowing connection...", getName());
+		}
 		
-		final long start = System.currentTimeMillis();
+		final long start = metricsEnabled ? System.nanoTime() : 0L;
 		
 		try{
 			PooledConnection conn = connectionPool.borrowConnection(maxWait);
 			if(null != conn) {
-				log.trace("[{}] A connection was borrowed from pool, setup and return.", getName());
+				if(log.isTraceEnabled()) {
+					log.trace("[{}] A connection was borrowed from pool, setup and return.", getName());
+				}
 				
 				setupConnectionOnBorrow(conn);
 				
+				if(metricsEnabled) {
+					long now = System.nanoTime();
+					conn.setBorrowNanoTime(now);
+					metrics.recordBorrowTime(now - start);
+				}
+				
 				return new ProxyConnection(conn);
 			}
 		}catch(InterruptedException e) {
@@ -142,8 +175,11 @@ class Pool {
 		}
 
 		//Timeout
-		log.warn("[{}] Borrowing connection timeout",getName());
-		throw new SQLTimeoutException("Timeout after " + (System.currentTimeMillis() - start) + "ms of borrowing a connection");
+		if(metricsEnabled) {
+			metrics.recordBorrowTimeout(System.nanoTime() - start);
+		}
+		log.warn("[{}] Borrowing connection timeout, active {}, waiting {}",getName(), connectionPool.getActiveCount(), connectionPool.getWaitingCount());
+		throw new SQLTimeoutException("Timeout after " + maxWait + "ms of borrowing a connection");
 	}
 	
 	public boolean isClose() {
@@ -169,6 +205,11 @@ class Pool {
 		
 		closed = true;
 		connectionPool.close();
+		try {
+			metrics.close();
+		} catch (Throwable e) {
+			log.warn("[{}] Error closing the metrics, {}", getName(), e.getMessage(), e);
+		}
 		log.info("[{}] Connection pool closed!",getName());
 	}
 	
@@ -177,10 +218,16 @@ class Pool {
 			setupConnectionOnReturn(conn);
 		}finally{
 			try{
+				if(metricsEnabled && conn.getBorrowNanoTime() > 0) {
+					metrics.recordUsageTime(System.nanoTime() - conn.getBorrowNanoTime());
+					conn.setBorrowNanoTime(0);
+				}
 				conn.setupOnReturn();
 			}finally {
 				connectionPool.returnConnection(conn);
-				log.trace("A connection was returned to pool");
+				if(log.isTraceEnabled()) {
+					log.trace("[{}] A connection was returned to pool", getName());
+				}
 			}
 		}
 	}
@@ -336,14 +383,16 @@ class Pool {
 	
 	final class ConnectionPool {
 		
-		private final CopyOnWriteArrayList<PooledConnection> list;
-		private final AbstractQueuedLongSynchronizer         synchronizer;
-		private final AtomicLong 							 syncState;
+		private final CopyOnWriteArrayList<PooledConnection>        list;
+		private final AbstractQueuedLongSynchronizer                synchronizer;
+		private final AtomicLong 							        syncState;
+		private final ThreadLocal<WeakReference<PooledConnection>> lastReturned;
 
 		ConnectionPool() {
 			this.list 		  = new CopyOnWriteArrayList<>();
 			this.synchronizer = new Synchronizer();
 			this.syncState    = new AtomicLong(1); 
+			this.lastReturned = new ThreadLocal<>();
 			this.init();
 		}
 		
@@ -385,13 +434,20 @@ class Pool {
 			return count;
 		}
 		
+		int getWaitingCount() {
+			return synchronizer.getQueueLength();
+		}
+		
 		/**
 		 * Borrow a connection from pool.
+		 * 
+		 * <p>
+		 * Each attempt tries the connection returned by current thread at last firstly, it may still be idle and
+		 * can be borrowed without scanning the shared list.
 		 */
 		public PooledConnection borrowConnection(long maxWait) throws InterruptedException{
-			
 			long timeout = maxWait;
-			final long start = System.currentTimeMillis();
+			long start   = 0L;
 			
 			do{
 		        long waitingState;
@@ -399,14 +455,17 @@ class Pool {
 		        do{
 		        	waitingState = syncState.get();
 
-		        	for (final PooledConnection conn : list) {
-		               if (conn.compareStateAndSet(STATE_IDLE, STATE_BUSY)){
-		                  return conn;
-		               }
-		            }
+		        	final PooledConnection conn = tryBorrowConnection();
+		        	if(null != conn) {
+		        		return conn;
+		        	}
 		        	
-		        	//decrease the timeout
-		        	timeout = maxWait - (System.currentTimeMillis() - start);
+		        	//decrease the timeout, the clock is read only if the connection cannot be borrowed at once.
+		        	final long now = System.currentTimeMillis();
+		        	if(start == 0L) {
+		        		start = now;
+		        	}
+		        	timeout = maxWait - (now - start);
 		        	if(timeout <= 0L) {
 		        		//time out.
 		        		return null;
@@ -431,6 +490,24 @@ class Pool {
 			
 			return null;
 		}
+		
+		private PooledConnection tryBorrowConnection() {
+			final WeakReference<PooledConnection> ref = lastReturned.get();
+			if(null != ref) {
+				final PooledConnection conn = ref.get();
+				if(null != conn && conn.compareStateAndSet(STATE_IDLE, STATE_BUSY)) {
+					return conn;
+				}
+			}
+			
+			for (final PooledConnection conn : list) {
+				if (conn.compareStateAndSet(STATE_IDLE, STATE_BUSY)){
+					return conn;
+				}
+			}
+			
+			return null;
+		}
 
         /**
          * Removes the connection from list and realease all the underlying resources.
@@ -445,6 +522,10 @@ class Pool {
 		 * Returns the connection to pool.
 		 */
 		public void returnConnection(PooledConnection conn) {
+			final WeakReference<PooledConnection> ref = lastReturned.get();
+			if(null == ref || ref.get() != conn) {
+				lastReturned.set(new WeakReference<>(conn));
+			}
 			updateToIdleState(conn, STATE_BUSY);
 		}
 		
@@ -496,6 +577,34 @@ class Pool {
 		}
 	}
 	
+	final class Gauges implements PoolGauges {
+
+		@Override
+		public String getName() {
+			return Pool.this.getName();
+		}
+
+		@Override
+		public int getMaxActive() {
+			return config.getMaxActive();
+		}
+
+		@Override
+		public int getActiveCount() {
+			return connectionPool.getActiveCount();
+		}
+
+		@Override
+		public int getIdleCount() {
+			return connectionPool.getIdleCount();
+		}
+
+		@Override
+		public int getWaitingCount() {
+			return connectionPool.getWaitingCount();
+		}
+	}
+	
 	final class HealthWorker implements Runnable {
 
 		@Override
@@ -39,6 +39,7 @@ class PoolConfig {
 	private final long				   idleTimeoutMs;	
 	private final int				   statementTimeout;
 	private final long				   connectionLeakTimeoutMs;
+	private final PoolMetrics		   metrics;
 	
 	
 	PoolConfig(PoolProperties props) {
@@ -60,6 +61,7 @@ class PoolConfig {
 		this.idleTimeoutMs					  = props.getIdleTimeout() * 1000;
 		this.statementTimeout				  = props.getStatementTimeout();
 		this.connectionLeakTimeoutMs          = props.getConnectionLeakTimeout() * 1000;
+		this.metrics						  = null == props.getMetrics() ? PoolMetrics.NOP : props.getMetrics();
 	}
 	
 	public boolean isTestOnBorrow() {
@@ -157,4 +159,12 @@ class PoolConfig {
 	public boolean isHealthCheck() {
 		return healthCheck;
 	}
-}
\ No newline at end of file
+	
+	public PoolMetrics getMetrics() {
+		return metrics;
+	}
+	
+	public boolean hasMetrics() {
+		return PoolMetrics.NOP != metrics;
+	}
+}
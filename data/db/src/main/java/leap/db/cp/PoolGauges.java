@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.db.cp;
+
+/**
+ * The current values of a connection pool, all the values are calculated when reading.
+ */
+public interface PoolGauges {
+
+	/**
+	 * Returns the name of pool.
+	 */
+	String getName();
+
+	/**
+	 * Returns the max number of connections can be borrowed at the same time.
+	 */
+	int getMaxActive();
+
+	/**
+	 * Returns the number of connections borrowed and not returned.
+	 */
+	int getActiveCount();
+
+	/**
+	 * Returns the number of idle connections which have an underlying connection.
+	 */
+	int getIdleCount();
+
+	/**
+	 * Returns the number of threads waiting for a connection to be returned.
+	 */
+	int getWaitingCount();
+
+}
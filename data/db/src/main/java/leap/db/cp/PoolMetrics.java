@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.db.cp;
+
+/**
+ * The callback interface for tracking the metrics of a connection pool.
+ *
+ * <p>
+ * The methods are invoked at the borrowing and returning of connections, so the implementation must be thread-safe and fast.
+ *
+ * @see PoolProperties#setMetrics(PoolMetrics)
+ * @see SimplePoolMetrics
+ */
+public interface PoolMetrics {
+
+	/**
+	 * The metrics do nothing.
+	 */
+	PoolMetrics NOP = new PoolMetrics() {};
+
+	/**
+	 * Called once when the pool was created, the gauges can be read at any time until the pool closed.
+	 */
+	default void init(PoolGauges gauges) {
+
+	}
+
+	/**
+	 * Records the time in nanoseconds of borrowing a connection successfully.
+	 */
+	default void recordBorrowTime(long nanos) {
+
+	}
+
+	/**
+	 * Records the time in nanoseconds of waiting before a borrowing timeout.
+	 */
+	default void recordBorrowTimeout(long nanos) {
+
+	}
+
+	/**
+	 * Records the time in nanoseconds between the borrowing and returning of a connection.
+	 */
+	default void recordUsageTime(long nanos) {
+
+	}
+
+	/**
+	 * Called when the pool was closed.
+	 */
+	default void close() {
+
+	}
+}
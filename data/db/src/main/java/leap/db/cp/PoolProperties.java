@@ -77,6 +77,8 @@ public class PoolProperties {
 	
 	protected boolean healthCheck = true;
 	
+	protected PoolMetrics metrics;
+	
 	protected DataSource dataSource;
 	
 	protected Properties dataSourceProperties = new Properties();
@@ -303,6 +305,20 @@ public class PoolProperties {
 		this.healthCheck = healthCheck;
 	}
 
+	public PoolMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * The {@link PoolMetrics} for tracking the borrow latency, usage time and the gauges of pool.
+	 * 
+	 * <p>
+	 * No metrics will be tracked if <code>null</code>.
+	 */
+	public void setMetrics(PoolMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public DataSource getDataSource() {
 		return dataSource;
 	}
@@ -342,6 +358,7 @@ public class PoolProperties {
 			
 			this.maxWait = props.maxWait;
 			this.maxActive = props.maxActive;
+			this.metrics   = props.metrics;
 		}
 	}
 	
@@ -46,6 +46,7 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
 	private int		  			  transactionState = TRANSACTION_STATE_INIT;
 	private long      			  lastBusyTime;
 	private long	  			  lastIdleTime;
+	private long				  borrowNanoTime;
 	private Thread				  threadOnBorrow;
 	
 	private String realCatalog;
@@ -76,6 +77,14 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
 		statements.reset();
 	}
 	
+	long getBorrowNanoTime() {
+		return borrowNanoTime;
+	}
+	
+	void setBorrowNanoTime(long borrowNanoTime) {
+		this.borrowNanoTime = borrowNanoTime;
+	}
+	
 	long getBusyDurationMs() {
 		return System.currentTimeMillis() - lastBusyTime;
 	}
@@ -66,6 +66,13 @@ public class PooledDataSource extends PoolProperties implements DataSource, Clos
 		return null != pool && pool.isClose();
 	}
 	
+	/**
+	 * Returns the current gauges of the pool.
+	 */
+	public PoolGauges getGauges() {
+		return pool().getGauges();
+	}
+	
 	public DataSource getReal() {
 		return pool().getDataSource();
 	}
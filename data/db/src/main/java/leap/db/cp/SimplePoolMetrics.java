@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.db.cp;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link PoolMetrics} keeps the gauges and the histograms of borrow latency and usage time in memory.
+ */
+public class SimplePoolMetrics implements PoolMetrics {
+
+	protected final Histogram borrowTimes = new Histogram();
+	protected final Histogram usageTimes  = new Histogram();
+	protected final LongAdder timeouts    = new LongAdder();
+
+	protected volatile PoolGauges gauges;
+
+	@Override
+	public void init(PoolGauges gauges) {
+		this.gauges = gauges;
+	}
+
+	@Override
+	public void recordBorrowTime(long nanos) {
+		borrowTimes.record(nanos);
+	}
+
+	@Override
+	public void recordBorrowTimeout(long nanos) {
+		timeouts.increment();
+	}
+
+	@Override
+	public void recordUsageTime(long nanos) {
+		usageTimes.record(nanos);
+	}
+
+	/**
+	 * Returns the gauges of pool or <code>null</code> if not initialized.
+	 */
+	public PoolGauges getGauges() {
+		return gauges;
+	}
+
+	public Histogram getBorrowTimes() {
+		return borrowTimes;
+	}
+
+	public Histogram getUsageTimes() {
+		return usageTimes;
+	}
+
+	public long getTimeoutCount() {
+		return timeouts.sum();
+	}
+
+	@Override
+	public String toString() {
+		PoolGauges g = gauges;
+		return (null == g ? "" : "active=" + g.getActiveCount() + ", idle=" + g.getIdleCount() + ", waiting=" + g.getWaitingCount() + ", ") +
+			   "timeouts=" + getTimeoutCount() + ", borrow={" + borrowTimes + "}, usage={" + usageTimes + "}";
+	}
+
+	/**
+	 * A lock-free histogram of durations with fixed buckets.
+	 */
+	public static final class Histogram {
+
+		/**
+		 * The upper bounds of buckets in nanoseconds, the last bucket has no upper bound.
+		 */
+		private static final long[] BOUNDS = new long[] {
+				TimeUnit.MICROSECONDS.toNanos(100),
+				TimeUnit.MICROSECONDS.toNanos(500),
+				TimeUnit.MILLISECONDS.toNanos(1),
+				TimeUnit.MILLISECONDS.toNanos(5),
+				TimeUnit.MILLISECONDS.toNanos(10),
+				TimeUnit.MILLISECONDS.toNanos(50),
+				TimeUnit.MILLISECONDS.toNanos(100),
+				TimeUnit.MILLISECONDS.toNanos(500),
+				TimeUnit.SECONDS.toNanos(1),
+				TimeUnit.SECONDS.toNanos(5),
+				TimeUnit.SECONDS.toNanos(30)
+		};
+
+		private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length + 1);
+		private final LongAdder       count   = new LongAdder();
+		private final LongAdder       sum     = new LongAdder();
+
+		public void record(long nanos) {
+			int i = 0;
+			while(i < BOUNDS.length && nanos > BOUNDS[i]) {
+				i++;
+			}
+			buckets.incrementAndGet(i);
+			count.increment();
+			sum.add(nanos);
+		}
+
+		public long getCount() {
+			return count.sum();
+		}
+
+		/**
+		 * Returns the mean in nanoseconds.
+		 */
+		public long getMean() {
+			long c = count.sum();
+			return c == 0 ? 0 : sum.sum() / c;
+		}
+
+		/**
+		 * Returns the upper bound in nanoseconds of the bucket contains the given percentile (0 ~ 1.0),
+		 * returns {@link Long#MAX_VALUE} if it is in the last bucket.
+		 */
+		public long getPercentile(double percentile) {
+			long total = 0;
+			for(int i=0;i<buckets.length();i++) {
+				total += buckets.get(i);
+			}
+			if(total == 0) {
+				return 0;
+			}
+
+			long rank = (long)Math.ceil(total * percentile);
+			long seen = 0;
+			for(int i=0;i<BOUNDS.length;i++) {
+				seen += buckets.get(i);
+				if(seen >= rank) {
+					return BOUNDS[i];
+				}
+			}
+			return Long.MAX_VALUE;
+		}
+
+		/**
+		 * Returns the upper bounds of buckets in nanoseconds, the last bucket is unbounded.
+		 */
+		public long[] getBucketBounds() {
+			return BOUNDS.clone();
+		}
+
+		/**
+		 * Returns the counts of buckets, the length is the length of bounds plus one.
+		 */
+		public long[] getBucketCounts() {
+			long[] counts = new long[buckets.length()];
+			for(int i=0;i<counts.length;i++) {
+				counts[i] = buckets.get(i);
+			}
+			return counts;
+		}
+
+		@Override
+		public String toString() {
+			return "count=" + getCount() + ", mean=" + TimeUnit.NANOSECONDS.toMicros(getMean()) + "us" +
+				   ", p99<=" + TimeUnit.NANOSECONDS.toMicros(getPercentile(0.99)) + "us";
+		}
+	}
+}
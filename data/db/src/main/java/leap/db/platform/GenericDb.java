@@ -35,9 +35,20 @@ import leap.lang.time.StopWatch;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.function.Consumer;
 
 public class GenericDb extends DbBase {
 	
+	/**
+	 * The max rows of a multi-row insert statement if the dialect has no limitation of parameters.
+	 */
+	protected static final int DEFAULT_MULTI_ROW_INSERT_ROWS   = 500;
+	
+	/**
+	 * The max parameters of a multi-row insert statement if the dialect has no limitation of parameters.
+	 */
+	protected static final int DEFAULT_MULTI_ROW_INSERT_PARAMS = 10000;
+	
 	public GenericDb(String name,DbPlatform platform, DataSource dataSource, DbMetadata metadata, GenericDbDialect dialect, DbComparator comparator) {
 	    super(name, platform, dataSource, metadata, dialect, comparator);
     }
@@ -362,6 +373,7 @@ public class GenericDb extends DbBase {
 	protected <T> T doExecuteQuery(Connection connection, String sql, Object[] args, int[] types,ResultSetReader<T> reader) throws NestedSQLException {
 		PreparedStatement ps = null;
 		ResultSet rs = null;
+		boolean autoCommitDisabled = false;
 		try{
 			if(log.isDebugEnabled()){
 				log.debug("Executing Sql Update -> \n\n SQL  : {}\n ARGS : {}\n",sql,getDisplayString(args, types));
@@ -370,6 +382,10 @@ public class GenericDb extends DbBase {
 			StopWatch sw = StopWatch.startNew();
 			
 			ps = dialect.createPreparedStatement(connection, sql);
+			
+			if(reader.getFetchSize() > 0) {
+				autoCommitDisabled = dialect.configureStreaming(connection, ps, reader.getFetchSize());
+			}
 
 			if(null != args){
 				if(null != types && types.length > 0){
@@ -393,6 +409,18 @@ public class GenericDb extends DbBase {
 		}finally{
 			JDBC.closeResultSetOnly(rs);
 			JDBC.closeStatementOnly(ps);
+			
+			if(autoCommitDisabled) {
+				restoreAutoCommit(connection);
+			}
+		}
+	}
+	
+	protected void restoreAutoCommit(Connection connection) {
+		try {
+			connection.setAutoCommit(true);
+		} catch (SQLException e) {
+			log.warn("Error enabling auto commit of connection after streaming", e);
 		}
 	}
 
@@ -452,10 +480,213 @@ public class GenericDb extends DbBase {
 		}
 	}
 	
+	@Override
+    public int[] executeBatchInsert(Connection connection, String sql, Object[][] batchArgs, int[] types, 
+    								int chunkSize, boolean multiRows, Consumer<Object> generatedKeyCallback) throws NestedSQLException {
+		Args.notNull(connection, "connection");
+		Args.notEmpty(sql,"sql");
+		Args.notNull(batchArgs,"batch args");
+		
+		int rows = batchArgs.length;
+		if(chunkSize <= 0 || chunkSize > rows) {
+			chunkSize = rows;
+		}
+		
+		int[] result = new int[rows];
+		if(rows == 0) {
+			return result;
+		}
+		
+		if(null != generatedKeyCallback && !dialect.supportsBatchGeneratedKeys()) {
+			doExecuteInsertRowByRow(connection, sql, batchArgs, types, result, generatedKeyCallback);
+			return result;
+		}
+		
+		String multiRowSql = multiRows ? dialect.getMultiRowInsertSql(sql, 2) : null;
+		if(null != multiRowSql) {
+			doExecuteMultiRowInsert(connection, sql, batchArgs, types, chunkSize, result, generatedKeyCallback);
+		}else{
+			doExecuteChunkedBatchInsert(connection, sql, batchArgs, types, chunkSize, result, generatedKeyCallback);
+		}
+		
+		return result;
+	}
+	
 	protected GenericSchemaChanges createSchemaChanges() {
 		return new GenericSchemaChanges(this);
 	}
 	
+	protected void doExecuteInsertRowByRow(Connection connection, String sql, Object[][] batchArgs, int[] types, 
+										   int[] result, Consumer<Object> generatedKeyCallback) throws NestedSQLException {
+		PreparedStatement ps = null;
+		
+		try{
+			StopWatch sw = StopWatch.startNew();
+			
+			if(log.isDebugEnabled()) {
+				log.debug("Executing Batch Sql Insert (row by row) -> \n\n SQL  : {}\n ARGS : {}",sql,getDisplayString(batchArgs, types));
+			}
+			
+			ps = dialect.createPreparedStatement(connection, sql, Statement.RETURN_GENERATED_KEYS);
+			
+			for(int j=0;j<batchArgs.length;j++){
+				setParameters(ps, 0, batchArgs[j], types);
+				
+				result[j] = ps.executeUpdate();
+				
+				readGeneratedKeys(ps, 1, generatedKeyCallback);
+			}
+			
+			log.debug("Sql Batch Insert Executed in {}ms, {} row(s)",sw.getElapsedMilliseconds(), batchArgs.length); 
+		}catch(SQLException e){
+			throw new NestedSQLException(e);
+		}finally{
+			JDBC.closeStatementOnly(ps);
+		}
+	}
+	
+	protected void doExecuteMultiRowInsert(Connection connection, String sql, Object[][] batchArgs, int[] types, int chunkSize,
+										   int[] result, Consumer<Object> generatedKeyCallback) throws NestedSQLException {
+		chunkSize = getMultiRowInsertRows(batchArgs[0].length, chunkSize);
+		
+		PreparedStatement ps   = null;
+		int               size = -1;
+		
+		try{
+			StopWatch sw = StopWatch.startNew();
+			
+			if(log.isDebugEnabled()) {
+				log.debug("Executing Multi Rows Sql Insert -> \n\n SQL  : {}\n ROWS : {}\n ARGS : {}",sql,chunkSize,getDisplayString(batchArgs, types));
+			}
+			
+			for(int start=0;start<batchArgs.length;start+=chunkSize){
+				int rows = Math.min(chunkSize, batchArgs.length - start);
+				
+				//the last chunk may has less rows.
+				if(rows != size) {
+					JDBC.closeStatementOnly(ps);
+					
+					String chunkSql = dialect.getMultiRowInsertSql(sql, rows);
+					ps   = null == generatedKeyCallback ? dialect.createPreparedStatement(connection, chunkSql) :
+							dialect.createPreparedStatement(connection, chunkSql, Statement.RETURN_GENERATED_KEYS);
+					size = rows;
+				}
+				
+				int index = 0;
+				for(int j=start;j<start+rows;j++){
+					index = setParameters(ps, index, batchArgs[j], types);
+				}
+				
+				int affected = ps.executeUpdate();
+				
+				int value = affected == rows ? 1 : Statement.SUCCESS_NO_INFO;
+				for(int j=start;j<start+rows;j++){
+					result[j] = value;
+				}
+				
+				if(null != generatedKeyCallback) {
+					readGeneratedKeys(ps, rows, generatedKeyCallback);
+				}
+			}
+			
+			log.debug("Multi Rows Sql Insert Executed in {}ms, {} row(s)",sw.getElapsedMilliseconds(), batchArgs.length); 
+		}catch(SQLException e){
+			throw new NestedSQLException(e);
+		}finally{
+			JDBC.closeStatementOnly(ps);
+		}
+	}
+	
+	/**
+	 * Returns the max rows of a multi-row insert statement, 
+	 * the rows is limited by the max parameters of the dialect or the default limitations if the dialect has no limitation.
+	 */
+	protected int getMultiRowInsertRows(int params, int chunkSize) {
+		int max = dialect.getMaxStatementParameters();
+		if(max <= 0) {
+			max       = DEFAULT_MULTI_ROW_INSERT_PARAMS;
+			chunkSize = Math.min(chunkSize, DEFAULT_MULTI_ROW_INSERT_ROWS);
+		}
+		
+		if(params > 0 && params * chunkSize > max) {
+			chunkSize = Math.max(1, max / params);
+		}
+		return chunkSize;
+	}
+	
+	protected void doExecuteChunkedBatchInsert(Connection connection, String sql, Object[][] batchArgs, int[] types, int chunkSize, 
+											   int[] result, Consumer<Object> generatedKeyCallback) throws NestedSQLException {
+		PreparedStatement ps = null;
+		
+		try{
+			StopWatch sw = StopWatch.startNew();
+			
+			if(log.isDebugEnabled()) {
+				log.debug("Executing Batch Sql Insert -> \n\n SQL  : {}\n CHUNK : {}\n ARGS : {}",sql,chunkSize,getDisplayString(batchArgs, types));
+			}
+			
+			ps = null == generatedKeyCallback ? dialect.createPreparedStatement(connection, sql) :
+					dialect.createPreparedStatement(connection, sql, Statement.RETURN_GENERATED_KEYS);
+			
+			for(int start=0;start<batchArgs.length;start+=chunkSize){
+				int rows = Math.min(chunkSize, batchArgs.length - start);
+				
+				for(int j=start;j<start+rows;j++){
+					setParameters(ps, 0, batchArgs[j], types);
+					ps.addBatch();
+				}
+				
+				int[] affected = ps.executeBatch();
+				System.arraycopy(affected, 0, result, start, Math.min(rows, affected.length));
+				
+				if(null != generatedKeyCallback) {
+					readGeneratedKeys(ps, rows, generatedKeyCallback);
+				}
+			}
+			
+			log.debug("Sql Batch Insert Executed in {}ms, {} row(s)",sw.getElapsedMilliseconds(), batchArgs.length); 
+		}catch(SQLException e){
+			throw new NestedSQLException(e);
+		}finally{
+			JDBC.closeStatementOnly(ps);
+		}
+	}
+	
+	/**
+	 * Sets the args as the parameters after the given index and returns the last index.
+	 */
+	protected int setParameters(PreparedStatement ps, int index, Object[] args, int[] types) throws SQLException {
+		if(null != types && types.length > 0){
+			for(int i=0;i<args.length;i++){
+				dialect.setParameter(ps, ++index, args[i],types[i]);
+			}
+		}else{
+			for(int i=0;i<args.length;i++){
+				dialect.setParameter(ps, ++index, args[i]);
+			}
+		}
+		return index;
+	}
+	
+	protected void readGeneratedKeys(PreparedStatement ps, int rows, Consumer<Object> callback) throws SQLException {
+		ResultSet rs = null;
+		try{
+			rs = ps.getGeneratedKeys();
+			
+			int count = 0;
+			while(null != rs && rs.next()) {
+				callback.accept(dialect.getColumnValue(rs, 1));
+				count++;
+			}
+			
+			if(count != rows) {
+				throw new SQLException("Expected " + rows + " generated key(s) but " + count + " returned by the driver");
+			}
+		}finally{
+			JDBC.closeResultSetOnly(rs);
+		}
+	}
+	
 	protected String getDisplayString(Object[] args, int[] types){
 		if(args.length == 0){
 			return "[]";
@@ -126,6 +126,21 @@ public abstract class GenericDbDialect extends GenericDbDialectBase implements D
     public boolean supportsRenameColumn() {
 	    return false;
     }
+	
+	@Override
+	public boolean supportsMultiRowInsert() {
+		return false;
+	}
+	
+	@Override
+	public boolean supportsBatchGeneratedKeys() {
+		return false;
+	}
+	
+	@Override
+	public int getMaxStatementParameters() {
+		return 0;
+	}
 
 	@Override
     public String readDefaultValue(int typeCode, String nativeDefaultValue) {
@@ -641,6 +656,71 @@ public abstract class GenericDbDialect extends GenericDbDialectBase implements D
 		return true;
 	}
 	
+	@Override
+	public String getMultiRowInsertSql(String sql, int rows) {
+		if(!supportsMultiRowInsert() || rows < 1) {
+			return null;
+		}
+		
+		if(rows == 1) {
+			return sql;
+		}
+		
+		sql = sql.trim();
+		
+		int index = Strings.lastIndexOfIgnoreCase(sql, "values");
+		if(index <= 0 || !isSingleRowValues(sql, index)) {
+			return null;
+		}
+		
+		String values = sql.substring(index + 6).trim();
+		
+		StringBuilder s = new StringBuilder(index + (values.length() + 1) * rows);
+		s.append(sql, 0, index).append("values ").append(values);
+		for(int i=1;i<rows;i++) {
+			s.append(',').append(values);
+		}
+		return s.toString();
+	}
+	
+	/**
+	 * Checks the sql ends with one values list at the given index, such as <code>values (?,?)</code>.
+	 */
+	protected boolean isSingleRowValues(String sql, int index) {
+		char prev = sql.charAt(index - 1);
+		if(!Character.isWhitespace(prev) && prev != ')') {
+			return false;
+		}
+		
+		int i = index + 6;
+		while(i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+			i++;
+		}
+		
+		if(i == sql.length() || sql.charAt(i) != '(') {
+			return false;
+		}
+		
+		int     depth  = 0;
+		boolean quoted = false;
+		for(;i<sql.length();i++) {
+			char c = sql.charAt(i);
+			if(c == '\'') {
+				quoted = !quoted;
+			}else if(quoted) {
+				continue;
+			}else if(c == '(') {
+				depth++;
+			}else if(c == ')') {
+				depth--;
+				if(depth == 0) {
+					return i == sql.length() - 1;
+				}
+			}
+		}
+		return false;
+	}
+	
 	@Override
     public PreparedStatementHandler<Db> getAutoIncrementIdHandler(Consumer<Object> generatedIdCallback) {
 		if(!supportsAutoIncrement()){
@@ -675,6 +755,12 @@ public abstract class GenericDbDialect extends GenericDbDialectBase implements D
 	    return connection.prepareStatement(sql, autoGeneratedKeys);
     }
 	
+	@Override
+    public boolean configureStreaming(Connection connection, PreparedStatement ps, int fetchSize) throws SQLException {
+		ps.setFetchSize(fetchSize);
+	    return false;
+    }
+	
 	@Override
     public String getLimitQuerySql(DbLimitQuery query) {
 	    throw new UnsupportedOperationException("This dialect '" + db.getDescription() + "' not implements page query");
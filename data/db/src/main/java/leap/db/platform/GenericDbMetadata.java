@@ -23,11 +23,14 @@ import leap.db.model.*;
 import leap.lang.*;
 import leap.lang.logging.Log;
 
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class GenericDbMetadata implements DbMetadata,DbAware {
@@ -51,6 +54,7 @@ public class GenericDbMetadata implements DbMetadata,DbAware {
     protected final boolean          supportsAlterTableWithDropColumn;
     protected final int              maxTableNameLength;
     protected final int              maxColumnNameLength;
+    protected final String			 url;
     protected final String			 catalog;
     protected final String           defaultSchemaName;
     protected final DbMetadataReader metadataReader;
@@ -60,6 +64,12 @@ public class GenericDbMetadata implements DbMetadata,DbAware {
     protected DbSchemaName[]       cachedExtraSchemaNames;
     protected Map<String,DbSchema> cachedSchemas = new ConcurrentHashMap<String, DbSchema>(2);
     
+    protected boolean                         lazy;
+    protected GenericDbSchemaSnapshot         snapshot;
+    protected String                          snapshotVersion;
+    protected Map<String,Optional<DbTable>>   cachedTables     = new ConcurrentHashMap<>();
+    protected Set<String>                     checkedSnapshots = ConcurrentHashMap.newKeySet();
+    
 	public GenericDbMetadata(DatabaseMetaData dm,String defaultSchemaName,DbMetadataReader metadataReader) throws SQLException {
 		Args.notNull(dm,"DatabaseMetaData");
 		Args.notEmpty(defaultSchemaName,"default schema name");
@@ -76,6 +86,7 @@ public class GenericDbMetadata implements DbMetadata,DbAware {
         this.supportsAlterTableWithDropColumn = dm.supportsAlterTableWithDropColumn();
         this.maxTableNameLength				  = dm.getMaxTableNameLength();
         this.maxColumnNameLength			  = dm.getMaxColumnNameLength();
+        this.url							  = dm.getURL();
         this.catalog						  = dm.getConnection().getCatalog();
         this.defaultSchemaName				  = defaultSchemaName;
         this.metadataReader					  = metadataReader;
@@ -87,6 +98,48 @@ public class GenericDbMetadata implements DbMetadata,DbAware {
 		this.db  = (GenericDb)db;
 		this.log = this.db.getLog(this.getClass());
     }
+	
+	@Override
+	public boolean isLazy() {
+		return lazy;
+	}
+	
+	/**
+	 * Sets to read the tables one by one on first access instead of reading the whole schema.
+	 */
+	public void setLazy(boolean lazy) {
+		this.lazy = lazy;
+	}
+	
+	public DbMetadataReader getMetadataReader() {
+		return metadataReader;
+	}
+	
+	public GenericDbSchemaSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Sets the {@link GenericDbSchemaSnapshot} for saving and loading the schemas.
+	 */
+	public void setSnapshot(GenericDbSchemaSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+	
+	public String getSnapshotVersion() {
+		return snapshotVersion;
+	}
+
+	/**
+	 * Sets the version of the schemas for validating the snapshots.
+	 * 
+	 * <p>
+	 * If not empty, the version is used as the change marker of all the schemas and the db will not be queried for it,
+	 * so the version must be changed whenever the schemas changed.
+	 */
+	public void setSnapshotVersion(String snapshotVersion) {
+		this.snapshotVersion = snapshotVersion;
+	}
 
 	@Override
 	public String getProductName() {
@@ -200,7 +253,7 @@ public class GenericDbMetadata implements DbMetadata,DbAware {
     public DbSchema getSchema(String catalog, String schemaName) {
 		schemaName = Strings.isEmpty(schemaName) ? getDefaultSchemaName() : schemaName;
 		
-		String key = Strings.isEmpty(catalog) ? schemaName : catalog + "%" + schemaName;
+		String key = getSchemaKey(catalog, schemaName);
 		
 		log.trace("Try to get the schema '{}' from cache...",schemaName);
 		
@@ -213,7 +266,7 @@ public class GenericDbMetadata implements DbMetadata,DbAware {
                 final String theSchemaName = schemaName;
 
                 return db.executeWithResult((conn) -> {
-                    DbSchema schema = metadataReader.readSchema(conn, catalog, theSchemaName);
+                    DbSchema schema = readSchema(conn, catalog, theSchemaName);
                     cachedSchemas.put(key, schema);
                     return schema;
                 });
@@ -227,20 +280,20 @@ public class GenericDbMetadata implements DbMetadata,DbAware {
 	@Override
     public DbTable tryGetTable(String tableName) {
 		Args.notEmpty(tableName, "table name");
-	    return getSchema().findTable(tableName);
+	    return findTable(this.catalog, getDefaultSchemaName(), tableName);
     }
 
 	@Override
     public DbTable tryGetTable(String schema, String tableName) {
 		Args.notEmpty(tableName, "table name");
-	    return getSchema(schema).findTable(tableName);
+	    return findTable(this.catalog, schema, tableName);
     }
 	
 	@Override
     public DbTable tryGetTable(DbSchemaObjectName tableName) {
 		Args.notNull(tableName,"table name");
 		String schema = Strings.isEmpty(tableName.getSchema()) ? getDefaultSchemaName() : tableName.getSchema();
-	    return getSchema(tableName.getCatalog(),schema).findTable(tableName.getName());
+	    return findTable(tableName.getCatalog(), schema, tableName.getName());
     }
 	
 	@Override
@@ -264,9 +317,116 @@ public class GenericDbMetadata implements DbMetadata,DbAware {
 
 	@Override
     public DbMetadata refresh() {
-		refreshSchemasAsync();
+		if(null != snapshot) {
+			removeSnapshots();
+		}
+		
+		cachedTables.clear();
+		
+		if(lazy) {
+			cachedSchemas.clear();
+		}else{
+			refreshSchemasAsync();
+		}
 		return this;
     }
+	
+	protected String getSchemaKey(String catalog, String schemaName) {
+		return Strings.isEmpty(catalog) ? schemaName : catalog + "%" + schemaName;
+	}
+	
+	protected DbSchema readSchema(Connection conn, String catalog, String schemaName) {
+		if(null == snapshot) {
+			return metadataReader.readSchema(conn, catalog, schemaName);
+		}
+		
+		String marker = readSchemaChangeMarker(conn, catalog, schemaName);
+		if(null == marker) {
+			return metadataReader.readSchema(conn, catalog, schemaName);
+		}
+		
+		DbSchema schema = snapshot.load(url, new DbSchemaName(catalog, schemaName), marker);
+		if(null != schema) {
+			log.debug("Schema '{}' loaded from snapshot", schemaName);
+			return schema;
+		}
+		
+		schema = metadataReader.readSchema(conn, catalog, schemaName);
+		snapshot.save(url, schema, marker);
+		return schema;
+	}
+	
+	protected String readSchemaChangeMarker(Connection conn, String catalog, String schemaName) {
+		if(!Strings.isEmpty(snapshotVersion)) {
+			return snapshotVersion;
+		}
+		return metadataReader.readSchemaChangeMarker(conn, catalog, schemaName);
+	}
+	
+	protected DbTable findTable(String catalog, String schemaName, String tableName) {
+		if(!lazy) {
+			return getSchema(catalog, schemaName).findTable(tableName);
+		}
+		
+		final String theSchemaName = Strings.isEmpty(schemaName) ? getDefaultSchemaName() : schemaName;
+		
+		String   key    = getSchemaKey(catalog, theSchemaName);
+		DbSchema schema = cachedSchemas.get(key);
+		
+		if(null == schema && null != snapshot) {
+			schema = tryLoadSnapshot(key, catalog, theSchemaName);
+		}
+		
+		if(null != schema) {
+			return schema.findTable(tableName);
+		}
+		
+		String            tableKey = key + "." + tableName.toLowerCase();
+		Optional<DbTable> table    = cachedTables.get(tableKey);
+		
+		if(null == table) {
+			log.debug("Table '{}' not cached, read from db...", tableName);
+			
+			table = Optional.ofNullable(db.executeWithResult((conn) -> metadataReader.readTable(conn, catalog, theSchemaName, tableName)));
+			cachedTables.put(tableKey, table);
+		}
+		
+		return table.orElse(null);
+	}
+	
+	/**
+	 * Loads the schema from snapshot if the snapshot is up to date, the snapshot of a schema will be checked only once.
+	 */
+	protected DbSchema tryLoadSnapshot(String key, String catalog, String schemaName) {
+		if(!checkedSnapshots.add(key)) {
+			return null;
+		}
+		
+		DbSchema schema = db.executeWithResult((conn) -> {
+			String marker = readSchemaChangeMarker(conn, catalog, schemaName);
+			return null == marker ? null : snapshot.load(url, new DbSchemaName(catalog, schemaName), marker);
+		});
+		
+		if(null != schema) {
+			log.debug("Schema '{}' loaded from snapshot", schemaName);
+			cachedSchemas.put(key, schema);
+		}
+		
+		return schema;
+	}
+	
+	/**
+	 * Removes the snapshots of the cached schemas and the default schema.
+	 * 
+	 * <p>
+	 * The schema change marker may not detect all the changes, so the snapshots must be removed after executing ddl.
+	 */
+	protected void removeSnapshots() {
+		for(DbSchema schema : cachedSchemas.values()) {
+			snapshot.remove(url, schema);
+		}
+		snapshot.remove(url, new DbSchemaName(this.catalog, getDefaultSchemaName()));
+	}
 
 	protected void refreshSchemasAsync(){
 		cachedSchemas.clear();
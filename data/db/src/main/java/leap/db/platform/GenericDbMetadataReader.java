@@ -23,9 +23,11 @@ import static java.sql.DatabaseMetaData.importedKeySetNull;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -51,6 +53,8 @@ import leap.db.model.DbTableTypes;
 import leap.lang.Assert;
 import leap.lang.Builders;
 import leap.lang.Strings;
+import leap.lang.codec.Digests;
+import leap.lang.codec.Hex;
 import leap.lang.convert.Converts;
 import leap.lang.exception.NestedSQLException;
 import leap.lang.jdbc.JDBC;
@@ -143,6 +147,107 @@ public class GenericDbMetadataReader extends GenericDbMetadataReaderBase impleme
         }
     }
     
+    @Override
+    public DbTable readTable(Connection connection, String catalog, String schema, String table) {
+		try {
+	        DatabaseMetaData   dm     = connection.getMetaData();
+	        MetadataParameters params = createMetadataParameters(connection,dm,catalog,schema);
+	        
+	        for(String pattern : getTableNamePatterns(dm, table)) {
+	        	params.tablePattern = pattern;
+	        	
+	        	//the pattern may matches other tables, such as '_' matches any char.
+	        	List<DbTableBuilder1> tables = readAllTables(connection, dm, params);
+	        	tables.removeIf(t -> !Strings.equalsIgnoreCase(table, t.getName()));
+	        	
+	        	if(tables.isEmpty()) {
+	        		continue;
+	        	}
+	        	
+	        	readAllTableObjects(connection, dm, params, tables);
+	        	postReadTables(connection, dm, params, tables);
+	        	
+	        	return tables.isEmpty() ? null : tables.get(0).build();
+	        }
+	        
+	        return null;
+        } catch (SQLException e) {
+        	throw new NestedSQLException("Error reading table '" + table + "' : " + e.getMessage(),e);
+        }
+    }
+    
+    /**
+     * Returns <code>null</code>, i.e. the schema snapshot is not supported.
+     * 
+     * <p>
+     * The marker must cover the tables, columns, primary keys, indexes, foreign keys and sequences of the schema.
+     * Reading them by {@link DatabaseMetaData} costs as much as reading the schema, 
+     * so the platforms which can read them from the system catalogs in a few queries should override it.
+     * 
+     * @see #digestSchemaChangeMarker(Connection, String, String...)
+     */
+    @Override
+    public String readSchemaChangeMarker(Connection connection, String catalog, String schema) {
+    	return null;
+    }
+    
+    /**
+     * Executes the given sqls and returns a digest of all the returned rows, 
+     * all the parameters of the sqls are set to the given schema.
+     * 
+     * <p>
+     * The sqls should only return few rows, i.e. aggregates the rows at the server side.
+     */
+    protected String digestSchemaChangeMarker(Connection connection, String schema, String... sqls) {
+    	MessageDigest digest = Digests.getDigest("MD5");
+    	StringBuilder row    = new StringBuilder();
+    	
+    	for(String sql : sqls) {
+	    	PreparedStatement ps = null;
+	    	ResultSet         rs = null;
+	    	try {
+	    		ps = connection.prepareStatement(sql);
+	    		for(int i=0,index=1;i<sql.length();i++) {
+	    			if(sql.charAt(i) == '?') {
+	    				ps.setString(index++, schema);
+	    			}
+	    		}
+	    		rs = ps.executeQuery();
+	    		
+	    		int count = rs.getMetaData().getColumnCount();
+	    		while(rs.next()) {
+	    			row.setLength(0);
+	    			for(int i=1;i<=count;i++) {
+	    				row.append(rs.getString(i)).append(i == count ? ';' : ',');
+	    			}
+	    			digest.update(Strings.getBytesUtf8(row.toString()));
+	    		}
+	    	}catch(SQLException e){
+	    		throw new NestedSQLException("Error reading schema change marker : " + e.getMessage(),e);
+	    	}finally{
+	    		JDBC.closeResultSetOnly(rs);
+	    		JDBC.closeStatementOnly(ps);
+	    	}
+    	}
+    	
+    	return Hex.encode(digest.digest());
+    }
+    
+    /**
+     * Returns the patterns for searching the given table name, the stored case of identifiers is tried at first. 
+     */
+    protected String[] getTableNamePatterns(DatabaseMetaData dm, String table) throws SQLException {
+    	String name = table;
+    	
+    	if(dm.storesUpperCaseIdentifiers()) {
+    		name = table.toUpperCase();
+    	}else if(dm.storesLowerCaseIdentifiers()) {
+    		name = table.toLowerCase();
+    	}
+    	
+    	return name.equals(table) ? new String[]{table} : new String[]{name, table};
+    }
+    
     protected void postReadTables(Connection connection,DatabaseMetaData dm,MetadataParameters params,List<DbTableBuilder1> tables) {
     	//A table without columns (empty table) may be dropped, so we should remove it. 
     	List<DbTableBuilder1> emptyTables = new ArrayList<>();
@@ -15,6 +15,7 @@
  */
 package leap.db.platform;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.sql.Connection;
@@ -27,6 +28,8 @@ import java.util.function.Function;
 import javax.sql.DataSource;
 
 import leap.core.BeanFactory;
+import leap.core.annotation.ConfigProperty;
+import leap.core.annotation.Configurable;
 import leap.core.annotation.Inject;
 import leap.core.annotation.LocalizeKey;
 import leap.core.annotation.M;
@@ -36,18 +39,24 @@ import leap.core.ioc.PostCreateBean;
 import leap.db.DbBase;
 import leap.db.DbDriver;
 import leap.db.DbPlatformBase;
+import leap.lang.Strings;
 import leap.lang.exception.NestedIOException;
 import leap.lang.json.JSON;
 import leap.lang.resource.Resource;
 import leap.lang.resource.Resources;
 
 @LocalizeKey("db.platform")
+@Configurable(prefix="db.metadata")
 public abstract class GenericDbPlatform extends DbPlatformBase implements PostCreateBean {
 	
 	protected static final GenericDbDriver[] EMPTY_DRIVES = new GenericDbDriver[]{};
 
     protected @Inject @M MessageSource       messageSource;
     protected @Inject @M GenericDbDriver[]   drivers;
+    
+    protected boolean lazyMetadata;
+    protected String  metadataSnapshotDir;
+    protected String  metadataSnapshotVersion;
 	
 	protected GenericDbPlatform(String type) {
 	    super(type);
@@ -60,6 +69,31 @@ public abstract class GenericDbPlatform extends DbPlatformBase implements PostCr
 	public void setMessageSource(MessageSource messageSource) {
 		this.messageSource = messageSource;
 	}
+	
+	/**
+	 * Sets to read the tables of metadata one by one on first access, config property 'db.metadata.lazy'.
+	 */
+	@ConfigProperty("lazy")
+	public void setLazyMetadata(boolean lazyMetadata) {
+		this.lazyMetadata = lazyMetadata;
+	}
+
+	/**
+	 * Sets the dir for saving the snapshots of schemas, config property 'db.metadata.snapshot-dir'.
+	 */
+	@ConfigProperty("snapshot-dir")
+	public void setMetadataSnapshotDir(String metadataSnapshotDir) {
+		this.metadataSnapshotDir = metadataSnapshotDir;
+	}
+	
+	/**
+	 * Sets the version of schemas for validating the snapshots instead of querying the db, 
+	 * config property 'db.metadata.snapshot-version'.
+	 */
+	@ConfigProperty("snapshot-version")
+	public void setMetadataSnapshotVersion(String metadataSnapshotVersion) {
+		this.metadataSnapshotVersion = metadataSnapshotVersion;
+	}
 
 	@Override
     public DbDriver[] getDrivers() {
@@ -104,8 +138,16 @@ public abstract class GenericDbPlatform extends DbPlatformBase implements PostCr
 											   String defaultSchemaName,
 											   GenericDbMetadataReader metadataReader) throws SQLException{
 		
-		return new GenericDbMetadata(jdbcMetadata,defaultSchemaName,metadataReader);
+		GenericDbMetadata metadata = new GenericDbMetadata(jdbcMetadata,defaultSchemaName,metadataReader);
+		
+		metadata.setLazy(lazyMetadata);
+		
+		if(!Strings.isEmpty(metadataSnapshotDir)) {
+			metadata.setSnapshot(new GenericDbSchemaSnapshot(new File(metadataSnapshotDir)));
+			metadata.setSnapshotVersion(metadataSnapshotVersion);
+		}
 		
+		return metadata;
 	}
 	
 	protected GenericDbComparator createComparator(DatabaseMetaData jdbcMetadata) throws SQLException {
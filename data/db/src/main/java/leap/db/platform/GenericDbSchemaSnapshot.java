@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.db.platform;
+
+import java.io.File;
+
+import leap.db.model.DbSchema;
+import leap.db.model.DbSchemaBuilder;
+import leap.db.model.DbSchemaName;
+import leap.lang.Args;
+import leap.lang.Charsets;
+import leap.lang.Strings;
+import leap.lang.codec.MD5;
+import leap.lang.io.IO;
+import leap.lang.json.JSON;
+import leap.lang.json.JsonObject;
+import leap.lang.json.JsonWriter;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+
+/**
+ * Saves the {@link DbSchema} objects read from the underlying database to the json files in a directory.
+ * 
+ * <p>
+ * The file of a schema is named by the hash of the url of database, the catalog and name of schema. 
+ * The saved schema will be discarded if the schema change marker is not the same when loading.
+ * 
+ * <p>
+ * The url is not saved because it may contains the credentials.
+ */
+public class GenericDbSchemaSnapshot {
+	
+	private static final Log log = LogFactory.get(GenericDbSchemaSnapshot.class);
+	
+	protected final File dir;
+	
+	public GenericDbSchemaSnapshot(File dir) {
+		Args.notNull(dir, "dir");
+		this.dir = dir;
+	}
+	
+	public File getDir() {
+		return dir;
+	}
+
+	/**
+	 * Returns the saved {@link DbSchema} or <code>null</code> if not saved or the marker not matched.
+	 */
+	public DbSchema load(String url, DbSchemaName name, String marker) {
+		File file = getFile(url, name);
+		if(!file.exists()) {
+			return null;
+		}
+		
+		try {
+			JsonObject o = JSON.decodeToJsonValue(IO.readString(file, Charsets.UTF_8)).asJsonObject();
+			
+			if(!Strings.equals(marker, o.getString("marker"))) {
+				log.debug("Schema snapshot '{}' was out of date", file.getName());
+				return null;
+			}
+			
+			DbSchemaBuilder sb = new DbSchemaBuilder();
+			sb.parseJson(o.getObject("schema"));
+			return sb.build();
+		}catch(Exception e) {
+			log.warn("Error loading schema snapshot '{}', {}", file.getAbsolutePath(), e.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * Saves the {@link DbSchema} with the schema change marker.
+	 */
+	public void save(String url, DbSchema schema, String marker) {
+		File file = getFile(url, schema);
+		File temp = new File(dir, file.getName() + ".tmp");
+		
+		try {
+			if(!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+				log.warn("Cannot create the schema snapshot dir '{}'", dir.getAbsolutePath());
+				return;
+			}
+			
+			StringBuilder out = new StringBuilder();
+			JsonWriter    w   = JSON.createWriter(out);
+			
+			w.startObject()
+			 .property("url_hash", MD5.hex(Strings.getBytesUtf8(url)))
+			 .property("marker", marker)
+			 .property("schema", schema)
+			 .endObject();
+			
+			IO.writeString(temp, out.toString(), Charsets.UTF_8);
+			
+			if(file.exists() && !file.delete() || !temp.renameTo(file)) {
+				log.warn("Cannot save the schema snapshot '{}'", file.getAbsolutePath());
+				temp.delete();
+			}
+		}catch(Exception e) {
+			log.warn("Error saving schema snapshot '{}', {}", file.getAbsolutePath(), e.getMessage());
+		}
+	}
+	
+	/**
+	 * Removes the saved {@link DbSchema}.
+	 */
+	public void remove(String url, DbSchemaName name) {
+		File file = getFile(url, name);
+		if(file.exists() && !file.delete()) {
+			log.warn("Cannot remove the schema snapshot '{}'", file.getAbsolutePath());
+		}
+	}
+	
+	protected File getFile(String url, DbSchemaName name) {
+		String key = url + "|" + Strings.nullToEmpty(name.getCatalog()) + "|" + name.getName();
+		return new File(dir, "schema-" + MD5.hex(Strings.getBytesUtf8(key)) + ".json");
+	}
+}
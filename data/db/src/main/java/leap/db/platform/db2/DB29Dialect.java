@@ -53,6 +53,11 @@ public class DB29Dialect extends GenericDbDialect {
 	    return true;
     }
 	
+	@Override
+    public boolean supportsMultiRowInsert() {
+	    return true;
+    }
+	
 	@Override
     protected String getOpenQuoteString() {
 	    return "\"";
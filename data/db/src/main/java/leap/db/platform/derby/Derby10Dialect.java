@@ -117,6 +117,11 @@ public class Derby10Dialect extends GenericDbDialect {
 	    return true;
     }
 	
+	@Override
+    public boolean supportsMultiRowInsert() {
+	    return true;
+    }
+	
 	@Override
     public boolean supportsCurrentSequenceValue() {
 		return false;
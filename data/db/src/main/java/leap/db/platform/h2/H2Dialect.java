@@ -55,6 +55,11 @@ public class H2Dialect extends GenericDbDialect {
 	    return true;
     }
 	
+	@Override
+    public boolean supportsMultiRowInsert() {
+	    return true;
+    }
+	
 	@Override
     public boolean supportsRenameColumn() {
 		return true;
@@ -36,6 +36,60 @@ public class H2MetadataReader extends GenericDbMetadataReader {
 		
 	}
 	
+	/**
+	 * Digests the columns, indexes (including primary keys), foreign keys and sequences 
+	 * in <code>INFORMATION_SCHEMA</code> of the given schema only.
+	 */
+	@Override
+	public String readSchemaChangeMarker(Connection connection, String catalog, String schema) {
+		String columns = "SELECT " +
+						 "TABLE_NAME," +
+						 "COLUMN_NAME," +
+						 "TYPE_NAME," +
+						 "CHARACTER_MAXIMUM_LENGTH," +
+						 "NUMERIC_SCALE," +
+						 "IS_NULLABLE," +
+						 "COLUMN_DEFAULT " +
+						 "FROM INFORMATION_SCHEMA.COLUMNS " +
+						 "WHERE TABLE_SCHEMA = ? " +
+						 "ORDER BY TABLE_NAME,COLUMN_NAME";
+		
+		String indexes = "SELECT " +
+						 "TABLE_NAME," +
+						 "INDEX_NAME," +
+						 "COLUMN_NAME," +
+						 "ORDINAL_POSITION," +
+						 "NON_UNIQUE," +
+						 "PRIMARY_KEY " +
+						 "FROM INFORMATION_SCHEMA.INDEXES " +
+						 "WHERE TABLE_SCHEMA = ? " +
+						 "ORDER BY TABLE_NAME,INDEX_NAME,ORDINAL_POSITION";
+		
+		String foreignKeys = "SELECT " +
+							 "FK_NAME," +
+							 "FKTABLE_NAME," +
+							 "FKCOLUMN_NAME," +
+							 "PKTABLE_SCHEMA," +
+							 "PKTABLE_NAME," +
+							 "PKCOLUMN_NAME," +
+							 "ORDINAL_POSITION," +
+							 "UPDATE_RULE," +
+							 "DELETE_RULE " +
+							 "FROM INFORMATION_SCHEMA.CROSS_REFERENCES " +
+							 "WHERE FKTABLE_SCHEMA = ? " +
+							 "ORDER BY FKTABLE_NAME,FK_NAME,ORDINAL_POSITION";
+		
+		String sequences = "SELECT " +
+						   "SEQUENCE_NAME," +
+						   "INCREMENT," +
+						   "CACHE " +
+						   "FROM INFORMATION_SCHEMA.SEQUENCES " +
+						   "WHERE SEQUENCE_SCHEMA = ? " +
+						   "ORDER BY SEQUENCE_NAME";
+		
+		return digestSchemaChangeMarker(connection, schema, columns, indexes, foreignKeys, sequences);
+	}
+	
 	@Override
     protected ResultSet getPrimaryKeys(Connection connection, DatabaseMetaData metadata, MetadataParameters params) throws SQLException {
 		String sql = "SELECT " + 
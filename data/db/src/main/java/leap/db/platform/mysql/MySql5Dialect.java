@@ -18,6 +18,7 @@ package leap.db.platform.mysql;
 import java.io.BufferedReader;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
@@ -64,6 +65,39 @@ public class MySql5Dialect extends GenericDbDialect {
 
     protected MySql5Dialect(){
     	
+    }
+    
+	/**
+	 * The mysql driver reads all the rows into memory unless the fetch size is {@link Integer#MIN_VALUE}
+	 * or the connection uses server side cursors (<code>useCursorFetch=true</code>).
+	 * 
+	 * <p>
+	 * No other statements can be executed on the connection until the streaming result set closed.
+	 */
+	@Override
+    public boolean configureStreaming(Connection connection, PreparedStatement ps, int fetchSize) throws SQLException {
+		String url = connection.getMetaData().getURL();
+		if(null != url && Strings.containsIgnoreCase(url, "useCursorFetch=true")) {
+			ps.setFetchSize(fetchSize);
+		}else{
+			ps.setFetchSize(Integer.MIN_VALUE);
+		}
+	    return false;
+    }
+
+	@Override
+    public boolean supportsMultiRowInsert() {
+	    return true;
+    }
+	
+	@Override
+    public boolean supportsBatchGeneratedKeys() {
+	    return true;
+    }
+	
+	@Override
+    public int getMaxStatementParameters() {
+	    return 65535;
     }
     
 	@Override
@@ -34,6 +34,43 @@ public class MySql5MetadataReader extends GenericDbMetadataReader {
 	protected MySql5MetadataReader() {
 		
 	}
+	
+	/**
+	 * Aggregates the tables, columns, indexes (including primary keys) and foreign keys 
+	 * in <code>information_schema</code> of the given schema at the server side.
+	 * 
+	 * <p>
+	 * The <code>update_time</code> of tables is not used because it changes on every data modification.
+	 */
+	@Override
+	public String readSchemaChangeMarker(Connection connection, String catalog, String schema) {
+		if(!Strings.isEmpty(schema)) {
+			int index = schema.indexOf("@");
+			if(index > 0) {
+				schema = schema.substring(0,index);
+			}
+		}
+		
+		String tables = "select count(*),max(create_time) from information_schema.tables where table_schema = ?";
+		
+		String columns = "select count(*)," +
+						 "coalesce(sum(crc32(concat_ws(',',table_name,column_name,column_type,is_nullable,column_default))),0) " +
+						 "from information_schema.columns where table_schema = ?";
+		
+		String indexes = "select count(*)," +
+						 "coalesce(sum(crc32(concat_ws(',',table_name,index_name,column_name,seq_in_index,non_unique))),0) " +
+						 "from information_schema.statistics where table_schema = ?";
+		
+		String foreignKeys = "select count(*)," +
+							 "coalesce(sum(crc32(concat_ws(',',k.table_name,k.constraint_name,k.column_name,k.ordinal_position," +
+							 "k.referenced_table_schema,k.referenced_table_name,k.referenced_column_name,r.update_rule,r.delete_rule))),0) " +
+							 "from information_schema.key_column_usage k " +
+							 "join information_schema.referential_constraints r " +
+							 "on r.constraint_schema = k.constraint_schema and r.constraint_name = k.constraint_name " +
+							 "where k.table_schema = ? and k.referenced_table_name is not null";
+		
+		return digestSchemaChangeMarker(connection, schema, tables, columns, indexes, foreignKeys);
+	}
 
 	@Override
     protected ResultSet getSchemas(Connection connection, DatabaseMetaData dm) throws SQLException {
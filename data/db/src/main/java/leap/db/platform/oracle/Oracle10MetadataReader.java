@@ -20,9 +20,11 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 
 import leap.db.platform.GenericDbMetadataReader;
 import leap.lang.Strings;
+import leap.lang.exception.NestedSQLException;
 import leap.lang.jdbc.JDBC;
 
 public class Oracle10MetadataReader extends GenericDbMetadataReader {
@@ -30,6 +32,36 @@ public class Oracle10MetadataReader extends GenericDbMetadataReader {
 	public Oracle10MetadataReader() {
 	}
 
+	/**
+	 * Returns the number of objects and the last ddl time of the objects in the given schema.
+	 * 
+	 * <p>
+	 * The indexes and sequences are objects, the changes of constraints change the last ddl time of the tables.
+	 */
+	@Override
+    public String readSchemaChangeMarker(Connection connection, String catalog, String schema) {
+		String sql = "select count(*),max(last_ddl_time) from all_objects where owner = ?";
+		
+		PreparedStatement ps = null;
+		ResultSet         rs = null;
+		try {
+			ps = connection.prepareStatement(sql);
+			ps.setString(1, Strings.upperCase(schema));
+			
+			rs = ps.executeQuery();
+			rs.next();
+			
+			Timestamp lastDdlTime = rs.getTimestamp(2);
+			
+			return rs.getLong(1) + ":" + (null == lastDdlTime ? 0 : lastDdlTime.getTime());
+		}catch(SQLException e){
+			throw new NestedSQLException("Error reading schema change marker : " + e.getMessage(),e);
+		}finally{
+			JDBC.closeResultSetOnly(rs);
+			JDBC.closeStatementOnly(ps);
+		}
+    }
+
 	@Override
     protected MetadataParameters createMetadataParameters(Connection connection, DatabaseMetaData dm, String catalog, String schema) {
 		return super.createMetadataParameters(connection, dm, catalog, Strings.upperCase(schema));
@@ -67,7 +99,7 @@ public class Oracle10MetadataReader extends GenericDbMetadataReader {
 		   			 "c.table_name,c.column_name,c.position AS key_seq,c.constraint_name AS pk_name " +
 		   			 "FROM all_cons_columns c, all_constraints k " + 
 		   			 "WHERE k.constraint_type = 'P' " +
-					 "AND k.owner = ? " +
+					 "AND k.owner = ? AND k.table_name like ? " +
 		   			 "AND k.constraint_name = c.constraint_name AND k.table_name = c.table_name AND k.owner = c.owner ";
 		
 		PreparedStatement ps = null;
@@ -75,6 +107,7 @@ public class Oracle10MetadataReader extends GenericDbMetadataReader {
 			ps = connection.prepareStatement(sql);
 
 			ps.setString(1, params.schema);
+			ps.setString(2, params.tablePattern);
 			
 			return ps.executeQuery();
 		}catch(SQLException e){
@@ -91,6 +124,7 @@ public class Oracle10MetadataReader extends GenericDbMetadataReader {
 					 "f.constraint_name as fk_name,p.constraint_name as pk_name " +
 					 "FROM all_cons_columns pc, all_constraints p,all_cons_columns fc, all_constraints f " +
 					 "WHERE p.owner = ? " +
+	                 "AND f.table_name like ? " +
 	                 "AND f.constraint_type = 'R' " +
 	                 "AND p.owner = f.r_owner " + 
 	                 "AND p.constraint_name = f.r_constraint_name " + 
@@ -109,6 +143,7 @@ public class Oracle10MetadataReader extends GenericDbMetadataReader {
 			ps = connection.prepareStatement(sql);
 
 			ps.setString(1, params.schema);
+			ps.setString(2, params.tablePattern);
 			
 			return ps.executeQuery();
 		}catch(SQLException e){
@@ -123,7 +158,7 @@ public class Oracle10MetadataReader extends GenericDbMetadataReader {
 					 "null as index_qualifier,i.index_name,1 as type,c.column_position as ordinal_position,c.column_name," + 
 					 "null as asc_or_desc,i.distinct_keys as cardinality,i.leaf_blocks as pages,null as filter_condition " + 
 					 "from all_indexes i, all_ind_columns c " + 
-					 "where i.OWNER = ? " +
+					 "where i.OWNER = ? and i.table_name like ? " +
 					 "and i.index_name = c.index_name " + 
 					 "and i.table_owner = c.table_owner " + 
 					 "and i.table_name = c.table_name " + 
@@ -135,6 +170,7 @@ public class Oracle10MetadataReader extends GenericDbMetadataReader {
 			ps = connection.prepareStatement(sql);
 
 			ps.setString(1, params.schema);
+			ps.setString(2, params.tablePattern);
 			
 			return ps.executeQuery();
 		} catch(SQLException e) {
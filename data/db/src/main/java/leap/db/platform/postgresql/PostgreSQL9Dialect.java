@@ -17,6 +17,7 @@ package leap.db.platform.postgresql;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
@@ -56,6 +57,22 @@ public class PostgreSQL9Dialect extends GenericDbDialect {
         sqlKeyWords.addAll(Arrays.asList(SQL_KEY_WORDS));
     }
 
+    /**
+     * The postgresql driver ignores the fetch size and reads all the rows into memory if the connection is in
+     * auto commit mode, so the auto commit is disabled while streaming if not in a transaction.
+     */
+    @Override
+    public boolean configureStreaming(Connection connection, PreparedStatement ps, int fetchSize) throws SQLException {
+        ps.setFetchSize(fetchSize);
+
+        if(connection.getAutoCommit()) {
+            connection.setAutoCommit(false);
+            return true;
+        }
+
+        return false;
+    }
+
     @Override
     protected String caseQuotedIdentifier(String identifier) {
         //TODO : review
@@ -82,6 +99,16 @@ public class PostgreSQL9Dialect extends GenericDbDialect {
 	    return true;
     }
 	
+	@Override
+    public boolean supportsMultiRowInsert() {
+	    return true;
+    }
+	
+	@Override
+    public int getMaxStatementParameters() {
+	    return 32767;
+    }
+	
 	@Override
     protected boolean supportsColumnCommentInDefinition() {
 		return false;
@@ -32,6 +32,43 @@ public class PostgreSQL9MetadataReader extends GenericDbMetadataReader {
 		super();
 	}
 	
+	/**
+	 * Aggregates the columns, constraints (primary keys, unique and foreign keys), indexes and sequences 
+	 * of the given schema in the system catalogs at the server side.
+	 */
+	@Override
+	public String readSchemaChangeMarker(Connection connection, String catalog, String schema) {
+		String columns = "select count(*)," +
+						 "coalesce(sum(hashtext(c.relname || ',' || a.attname || ',' || a.atttypid::text || ',' || " +
+						 "a.atttypmod::text || ',' || a.attnotnull::text || ',' || " +
+						 "coalesce(pg_get_expr(d.adbin, d.adrelid), ''))::bigint),0) " +
+						 "from pg_catalog.pg_attribute a " +
+						 "join pg_catalog.pg_class c on c.oid = a.attrelid " +
+						 "join pg_catalog.pg_namespace n on n.oid = c.relnamespace " +
+						 "left join pg_catalog.pg_attrdef d on d.adrelid = a.attrelid and d.adnum = a.attnum " +
+						 "where lower(n.nspname) = lower(?) and c.relkind in ('r','v') and a.attnum > 0 and not a.attisdropped";
+		
+		String constraints = "select count(*)," +
+							 "coalesce(sum(hashtext(o.conname || ',' || o.conrelid::text || ',' || " +
+							 "pg_catalog.pg_get_constraintdef(o.oid))::bigint),0) " +
+							 "from pg_catalog.pg_constraint o " +
+							 "join pg_catalog.pg_namespace n on n.oid = o.connamespace " +
+							 "where lower(n.nspname) = lower(?)";
+		
+		String indexes = "select count(*)," +
+						 "coalesce(sum(hashtext(tablename || ',' || indexname || ',' || indexdef)::bigint),0) " +
+						 "from pg_catalog.pg_indexes " +
+						 "where lower(schemaname) = lower(?)";
+		
+		String sequences = "select count(*)," +
+						   "coalesce(sum(hashtext(sequence_name || ',' || increment || ',' || " +
+						   "minimum_value || ',' || maximum_value || ',' || cycle_option)::bigint),0) " +
+						   "from information_schema.sequences " +
+						   "where lower(sequence_schema) = lower(?)";
+		
+		return digestSchemaChangeMarker(connection, schema, columns, constraints, indexes, sequences);
+	}
+	
 	@Override
     protected ResultSet getPrimaryKeys(Connection connection, DatabaseMetaData metadata, MetadataParameters params) throws SQLException {
 		String sql = "select null table_cat," + 
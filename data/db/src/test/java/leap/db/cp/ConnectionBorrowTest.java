@@ -87,4 +87,50 @@ public class ConnectionBorrowTest extends ConnPoolTestBase {
 		}
 	}
 	
+	@Test
+	public void testBorrowLastReturnedConnection() throws SQLException {
+		PooledConnection last;
+		try(ProxyConnection conn = getConnection()) {
+			last = conn.getPooledConnection();
+		}
+		
+		try(ProxyConnection conn1 = getConnection()) {
+			assertSame(last, conn1.getPooledConnection());
+			
+			try(ProxyConnection conn2 = getConnection()) {
+				assertNotSame(last, conn2.getPooledConnection());
+			}
+		}
+	}
+	
+	@Test
+	public void testMetrics() throws SQLException {
+		SimplePoolMetrics metrics = new SimplePoolMetrics();
+		
+		poolds.setMaxActive(1);
+		poolds.setMaxWait(100);
+		poolds.setMetrics(metrics);
+		
+		try(Connection conn = poolds.getConnection()) {
+			PoolGauges gauges = poolds.getGauges();
+			assertSame(gauges, metrics.getGauges());
+			assertEquals(1, gauges.getMaxActive());
+			assertEquals(1, gauges.getActiveCount());
+			assertEquals(0, gauges.getIdleCount());
+			assertEquals(0, gauges.getWaitingCount());
+			
+			try{
+				poolds.getConnection();
+				fail("Should throw a SQLTimeoutException");
+			}catch(SQLTimeoutException e) {
+				assertEquals(1, metrics.getTimeoutCount());
+			}
+		}
+		
+		assertEquals(1, metrics.getBorrowTimes().getCount());
+		assertEquals(1, metrics.getUsageTimes().getCount());
+		assertEquals(0, poolds.getGauges().getActiveCount());
+		assertEquals(1, poolds.getGauges().getIdleCount());
+	}
+	
 }
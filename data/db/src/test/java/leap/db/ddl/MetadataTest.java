@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.db.ddl;
+
+import java.io.File;
+
+import leap.db.DbTestCase;
+import leap.db.DbMetadataReader;
+import leap.db.model.DbColumnBuilder;
+import leap.db.model.DbIndex;
+import leap.db.model.DbIndexBuilder;
+import leap.db.model.DbSchema;
+import leap.db.model.DbTable;
+import leap.db.model.DbTableBuilder1;
+import leap.db.platform.GenericDb;
+import leap.db.platform.GenericDbMetadata;
+import leap.db.platform.GenericDbSchemaSnapshot;
+import leap.lang.Charsets;
+import leap.lang.io.IO;
+
+import org.junit.Test;
+
+public class MetadataTest extends DbTestCase {
+
+	@Test
+	public void testLazyTryGetTable() {
+		DbTable t = new DbTableBuilder1("t_lazy_meta")
+							.addPrimaryKey(DbColumnBuilder.guid("id_"))
+							.addColumn(DbColumnBuilder.varchar("name", 100).notNull().unique())
+							.build();
+		
+		GenericDbMetadata gm = (GenericDbMetadata)metadata;
+		try{
+			gm.setLazy(true);
+			
+			if(db.checkTableExists(t)){
+				assertTrue(db.cmdDropTable(t).execute().success());
+			}
+			assertNull(metadata.tryGetTable("t_lazy_meta"));
+			assertTrue(db.cmdCreateTable(t).execute().success());
+			
+			DbTable t1 = metadata.tryGetTable("T_LAZY_META");
+			assertNotNull(t1);
+			assertTrue(db.getComparator().compareTable(t, t1).isEmpty());
+			assertTrue(db.getComparator().compareTable(metadata.getSchema().findTable("t_lazy_meta"), t1).isEmpty());
+			
+			assertNull(metadata.tryGetTable("t_lazy_not_exists"));
+		}finally{
+			gm.setLazy(false);
+			assertTrue(db.cmdDropTable(t).execute().success());
+		}
+	}
+	
+	@Test
+	public void testSchemaSnapshot() {
+		DbSchema schema = metadata.getSchema();
+		
+		GenericDbSchemaSnapshot snapshot = new GenericDbSchemaSnapshot(new File("./target/snapshots"));
+		snapshot.save("jdbc:test", schema, "m1");
+		
+		//the url may contains credentials.
+		for(File file : snapshot.getDir().listFiles()) {
+			assertFalse(IO.readString(file, Charsets.UTF_8).contains("jdbc:test"));
+		}
+		
+		DbSchema loaded = snapshot.load("jdbc:test", schema, "m1");
+		assertNotNull(loaded);
+		assertEquals(schema.getTables().length, loaded.getTables().length);
+		assertTrue(db.getComparator().compareSchema(schema, loaded).isEmpty());
+		
+		assertNull(snapshot.load("jdbc:test", schema, "m2"));
+		assertNull(snapshot.load("jdbc:other", schema, "m1"));
+		
+		snapshot.remove("jdbc:test", schema);
+		assertNull(snapshot.load("jdbc:test", schema, "m1"));
+	}
+	
+	@Test
+	public void testSchemaChangeMarker() {
+		DbTable t = new DbTableBuilder1("t_schema_marker")
+							.addPrimaryKey(DbColumnBuilder.guid("id_"))
+							.addColumn(DbColumnBuilder.varchar("name", 100))
+							.build();
+		
+		if(db.checkTableExists(t)){
+			assertTrue(db.cmdDropTable(t).execute().success());
+		}
+		
+		String m1 = readSchemaChangeMarker();
+		if(null == m1) {
+			//not supported.
+			return;
+		}
+		assertEquals(m1, readSchemaChangeMarker());
+		
+		try{
+			assertTrue(db.cmdCreateTable(t).execute().success());
+			String m2 = readSchemaChangeMarker();
+			assertNotEquals(m1, m2);
+			
+			DbIndex index = new DbIndexBuilder().setName("idx_schema_marker").addColumnName("name").build();
+			assertTrue(db.cmdCreateIndex(t, index).execute().success());
+			assertNotEquals(m2, readSchemaChangeMarker());
+		}finally{
+			assertTrue(db.cmdDropTable(t).execute().success());
+		}
+	}
+	
+	private String readSchemaChangeMarker() {
+		GenericDbMetadata gm     = (GenericDbMetadata)metadata;
+		DbMetadataReader  reader = gm.getMetadataReader();
+		
+		return ((GenericDb)db).executeWithResult((conn) -> 
+					reader.readSchemaChangeMarker(conn, conn.getCatalog(), metadata.getDefaultSchemaName()));
+	}
+}
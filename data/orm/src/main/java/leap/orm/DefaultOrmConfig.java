@@ -35,6 +35,8 @@ public class DefaultOrmConfig implements OrmConfig,PostCreateBean {
 	protected Set<String> autoGeneratedModelFields 		  = New.linkedHashSet(OrmConstants.CREATED_AT,OrmConstants.UPDATED_AT);
 	protected String	  tableNamingStyle				  = NamingStyles.NAME_LOWER_UNDERSCORE;
 	protected String      columnNamingStyle				  = NamingStyles.NAME_LOWER_UNDERSCORE;
+	protected int		  batchInsertChunkSize			  = 0;
+	protected boolean	  batchInsertMultiRows			  = false;
 
 	@Override
     public long getDefaultMaxResults() {
@@ -106,6 +108,26 @@ public class DefaultOrmConfig implements OrmConfig,PostCreateBean {
 		this.columnNamingStyle = columnNamingStyle;
 	}
 
+	@Override
+	public int getBatchInsertChunkSize() {
+		return batchInsertChunkSize;
+	}
+
+	@ConfigProperty
+	public void setBatchInsertChunkSize(int batchInsertChunkSize) {
+		this.batchInsertChunkSize = batchInsertChunkSize;
+	}
+
+	@Override
+	public boolean isBatchInsertMultiRows() {
+		return batchInsertMultiRows;
+	}
+
+	@ConfigProperty
+	public void setBatchInsertMultiRows(boolean batchInsertMultiRows) {
+		this.batchInsertMultiRows = batchInsertMultiRows;
+	}
+
 	@Override
     public void postCreate(BeanFactory factory) throws Throwable {
 		OrmConfigProperties config = factory.getAppConfig().removeExtension(OrmConfigProperties.class);
@@ -68,4 +68,20 @@ public interface OrmConfig {
 	 * @see NamingStyles
 	 */
 	String getColumnNamingStyle();
+	
+	/**
+	 * Returns the default max number of rows inserted in one round trip by a batch insert command.
+	 * 
+	 * <p/>
+	 * Default is zero, means no limitation.
+	 */
+	int getBatchInsertChunkSize();
+	
+	/**
+	 * Returns true if a batch insert command uses multi-row insert statements by default when the db supports.
+	 * 
+	 * <p/>
+	 * Default is false.
+	 */
+	boolean isBatchInsertMultiRows();
 }
\ No newline at end of file
@@ -51,4 +51,14 @@ public @interface Sequence {
 	 * (Optioonal)
 	 */
 	int cache() default Integer.MIN_VALUE;
+	
+	/**
+	 * (Optional) the number of ids reserved in one round trip and handed out in memory.
+	 */
+	int pool() default Integer.MIN_VALUE;
+	
+	/**
+	 * (Optional) the table of table generator, the ids will be reserved from a row of the table instead of a db sequence.
+	 */
+	String table() default "";
 }
\ No newline at end of file
@@ -16,7 +16,40 @@
 package leap.orm.command;
 
 public interface BatchInsertCommand {
+	
+	/**
+	 * Sets the max number of rows inserted in one round trip, zero means no limitation.
+	 * 
+	 * <p/>
+	 * Default is {@link leap.orm.OrmConfig#getBatchInsertChunkSize()}.
+	 */
+	BatchInsertCommand setChunkSize(int chunkSize);
+	
+	/**
+	 * Sets to use multi-row insert statements if the db supports.
+	 * 
+	 * <p/>
+	 * Default is {@link leap.orm.OrmConfig#isBatchInsertMultiRows()}.
+	 */
+	BatchInsertCommand setMultiRows(boolean multiRows);
+	
+	/**
+	 * Sets to return the generated ids of the auto increment key, the ids will be set back to the records.
+	 * 
+	 * <p/>
+	 * The ids handed out by a {@link leap.orm.generator.PooledIdGenerator} are always set back to the records and returned.
+	 * 
+	 * <p/>
+	 * Default is false.
+	 */
+	BatchInsertCommand setReturnGeneratedIds(boolean returnGeneratedIds);
 
 	int[] execute();
 	
+	/**
+	 * Returns the generated ids in the order of records after execution, 
+	 * or <code>null</code> if not returned.
+	 */
+	Object[] getGeneratedIds();
+	
 }
@@ -17,8 +17,13 @@ package leap.orm.command;
 
 import java.util.List;
 
+import leap.lang.Arrays2;
+import leap.lang.params.Params;
 import leap.orm.dao.Dao;
+import leap.orm.generator.PooledIdGenerator;
 import leap.orm.mapping.EntityMapping;
+import leap.orm.mapping.FieldMapping;
+import leap.orm.sql.BatchSqlStatement;
 import leap.orm.sql.SqlCommand;
 
 public class DefaultBatchInsertCommand extends AbstractEntityDaoCommand implements BatchInsertCommand {
@@ -26,6 +31,11 @@ public class DefaultBatchInsertCommand extends AbstractEntityDaoCommand implemen
 	protected final Object[]	  records;
 	protected final SqlCommand    sqlCommand;
 	
+	protected int      chunkSize;
+	protected boolean  multiRows;
+	protected boolean  returnGeneratedIds;
+	protected Object[] generatedIds;
+	
 	public DefaultBatchInsertCommand(Dao dao,EntityMapping em,List<?> records) {
 		this(dao,em,records.toArray());
 	}
@@ -34,11 +44,100 @@ public class DefaultBatchInsertCommand extends AbstractEntityDaoCommand implemen
 	    super(dao,em);
 	    this.records    = records;
 	    this.sqlCommand = metadata.getSqlCommand(em.getEntityName(), SqlCommand.INSERT_COMMAND_NAME);
+	    this.chunkSize  = context.getConfig().getBatchInsertChunkSize();
+	    this.multiRows  = context.getConfig().isBatchInsertMultiRows();
     }
+	
+	@Override
+	public BatchInsertCommand setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	@Override
+	public BatchInsertCommand setMultiRows(boolean multiRows) {
+		this.multiRows = multiRows;
+		return this;
+	}
+
+	@Override
+	public BatchInsertCommand setReturnGeneratedIds(boolean returnGeneratedIds) {
+		this.returnGeneratedIds = returnGeneratedIds;
+		return this;
+	}
+	
+	@Override
+	public Object[] getGeneratedIds() {
+		return generatedIds;
+	}
 
 	@Override
 	public int[] execute() {
-		return sqlCommand.executeBatchUpdate(this, records);
+		if(records.length == 0) {
+			return Arrays2.EMPTY_INT_ARRAY;
+		}
+		
+		boolean pooledIds = generatePooledIds();
+		boolean returnIds = !pooledIds && returnGeneratedIds && em.isAutoIncrementKey() && !em.isCompositeKey();
+		
+		if(chunkSize <= 0 && !multiRows && !returnIds) {
+			return sqlCommand.executeBatchUpdate(this, records);
+		}
+		
+		BatchSqlStatement stmt = sqlCommand.createBatchStatement(this, records);
+		
+		Object[] ids   = returnIds ? new Object[records.length] : null;
+		int[]    index = new int[1];
+		
+		int[] result = getJdbcExecutor().executeWithResult((conn) -> 
+			db.executeBatchInsert(conn, stmt.getSql(), stmt.getBatchArgs(), stmt.getArgTypes(), chunkSize, multiRows,
+								  returnIds ? (id) -> ids[index[0]++] = id : null));
+		
+		if(returnIds) {
+			setGeneratedIds(ids);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Hands out the ids of the {@link PooledIdGenerator} for the records without id in memory.
+	 * 
+	 * <p>
+	 * Returns <code>false</code> if the key is not generated by a {@link PooledIdGenerator}.
+	 */
+	protected boolean generatePooledIds() {
+		FieldMapping[] keys = em.getKeyFieldMappings();
+		if(keys.length != 1 || !(keys[0].getInsertValue() instanceof PooledIdGenerator)) {
+			return false;
+		}
+		
+		PooledIdGenerator generator = (PooledIdGenerator)keys[0].getInsertValue();
+		String            keyField  = keys[0].getFieldName();
+		
+		Object[] ids = new Object[records.length];
+		for(int i=0;i<records.length;i++) {
+			Params params = context.getParameterStrategy().createParams(records[i]);
+			
+			Object id = params.get(keyField);
+			if(null == id) {
+				id = generator.next();
+				params.set(keyField, id);
+			}
+			ids[i] = id;
+		}
+		
+		this.generatedIds = ids;
+		return true;
+	}
+	
+	protected void setGeneratedIds(Object[] ids) {
+		this.generatedIds = ids;
+		
+		String keyField = em.getKeyFieldNames()[0];
+		for(int i=0;i<records.length;i++) {
+			context.getParameterStrategy().createParams(records[i]).set(keyField, ids[i]);
+		}
 	}
 
-}
\ No newline at end of file
+}
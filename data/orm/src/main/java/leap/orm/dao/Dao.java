@@ -25,6 +25,7 @@ import leap.core.value.Record;
 import leap.orm.Orm;
 import leap.orm.OrmContext;
 import leap.orm.OrmMetadata;
+import leap.orm.command.BatchInsertCommand;
 import leap.orm.command.InsertCommand;
 import leap.orm.command.UpdateCommand;
 import leap.orm.mapping.EntityMapping;
@@ -619,6 +620,33 @@ public abstract class Dao implements JdbcExecutor {
 	 */
 	public abstract int[] batchInsert(EntityMapping em,Object[] records);
 	
+	/**
+	 * Creates a new {@link BatchInsertCommand} for inserting all the records, 
+	 * the chunking, multi-row insert and returning generated ids can be configured in the returned command.
+	 * 
+	 * <p>
+	 * You must invoke the <code>execute()</code> method in the returned command to perform this operation.
+	 * 
+	 * @throws MappingNotFoundException if the given entity not exists.
+	 */
+	public abstract BatchInsertCommand cmdBatchInsert(Class<?> entityClass,List<?> records) throws MappingNotFoundException;
+	
+	/**
+	 * Creates a new {@link BatchInsertCommand} for inserting all the records.
+	 * 
+	 * @throws MappingNotFoundException if the given entity not exists.
+	 * 
+	 * @see #cmdBatchInsert(Class, List)
+	 */
+	public abstract BatchInsertCommand cmdBatchInsert(String entityName,List<?> records) throws MappingNotFoundException;
+	
+	/**
+	 * Creates a new {@link BatchInsertCommand} for inserting all the records.
+	 * 
+	 * @see #cmdBatchInsert(Class, List)
+	 */
+	public abstract BatchInsertCommand cmdBatchInsert(EntityMapping em,Object[] records);
+	
 	/**
 	 * Batch updates all the entities
 	 */
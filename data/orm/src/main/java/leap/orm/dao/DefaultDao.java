@@ -31,6 +31,7 @@ import leap.lang.params.ArrayParams;
 import leap.lang.tostring.ToStringBuilder;
 import leap.orm.Orm;
 import leap.orm.OrmContext;
+import leap.orm.command.BatchInsertCommand;
 import leap.orm.command.InsertCommand;
 import leap.orm.command.UpdateCommand;
 import leap.orm.mapping.EntityMapping;
@@ -615,6 +616,27 @@ public class DefaultDao extends DaoBase implements PreInjectBean {
 		return doBatchInsert(em, records);
 	}
 
+	@Override
+	public BatchInsertCommand cmdBatchInsert(Class<?> entityClass, List<?> records) {
+		Args.notNull(entityClass,"entity class");
+		Args.notNull(records,"records");
+		return commandFactory().newBatchInsertCommand(this, em(entityClass), records.toArray());
+	}
+
+	@Override
+	public BatchInsertCommand cmdBatchInsert(String entityName, List<?> records) {
+		Args.notEmpty(entityName,"entity name");
+		Args.notNull(records,"records");
+		return commandFactory().newBatchInsertCommand(this, em(entityName), records.toArray());
+	}
+
+	@Override
+	public BatchInsertCommand cmdBatchInsert(EntityMapping em, Object[] records) {
+		Args.notNull(em,"entity mapping");
+		Args.notNull(records,"records");
+		return commandFactory().newBatchInsertCommand(this, em, records);
+	}
+
 	@Override
 	public int[] batchUpdate(List<?> entities) {
 		if(null == entities || entities.size() == 0){
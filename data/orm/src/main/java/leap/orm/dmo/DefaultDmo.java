@@ -35,8 +35,10 @@ import leap.orm.mapping.SequenceMapping;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class DefaultDmo extends DmoBase {
 	
@@ -120,10 +122,22 @@ public class DefaultDmo extends DmoBase {
 		DbSchemaBuilder 		     defaultSchema = new DbSchemaBuilder(db.getMetadata().getDefaultSchemaName());
 		Map<String, DbSchemaBuilder> extraSchemas  = null;
 		
+		List<DbTable> tables = new ArrayList<DbTable>();
+		for(EntityMapping em : entityMappings){
+			tables.add(em.getTable());
+		}
+		
+		//the tables of table generators, may be shared by sequences.
+		Set<String> sequenceTables = new HashSet<String>();
+		for(SequenceMapping sm : sequenceMappings){
+			if(sm.isTableGenerator() && sequenceTables.add(sm.getTable().getQualifiedName().toLowerCase())){
+				tables.add(sm.getTable());
+			}
+		}
+		
 		//build tables
-		for(int i=0;i<entityMappings.size();i++){
-			EntityMapping em    = entityMappings.get(i);
-			DbTable       table = em.getTable();
+		for(int i=0;i<tables.size();i++){
+			DbTable table = tables.get(i);
 			
 			String schemaName = table.getSchema();
 			
@@ -149,6 +163,10 @@ public class DefaultDmo extends DmoBase {
 			SequenceMapping sm  = sequenceMappings.get(i);
 			DbSequence      seq = sm.getSequence();
 			
+			if(sm.isTableGenerator()) {
+				continue;
+			}
+			
 			String schemaName = seq.getSchema();
 			if(Strings.isEmpty(schemaName)){
 				defaultSchema.addSequence(seq);
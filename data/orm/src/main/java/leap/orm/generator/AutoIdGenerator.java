@@ -16,6 +16,8 @@
 package leap.orm.generator;
 
 import java.sql.Types;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import leap.core.annotation.Inject;
@@ -30,6 +32,7 @@ import leap.orm.interceptor.EntityExecutionContext;
 import leap.orm.interceptor.EntityExecutionInterceptor;
 import leap.orm.mapping.EntityMappingBuilder;
 import leap.orm.mapping.FieldMappingBuilder;
+import leap.orm.mapping.SequenceMapping;
 import leap.orm.mapping.SequenceMappingBuilder;
 import leap.orm.metadata.MetadataContext;
 
@@ -41,6 +44,12 @@ public class AutoIdGenerator implements IdGenerator {
 	
 	protected int uuidLength = 38;
 	
+	protected int    sequencePoolSize  = 1;
+	protected int    tablePoolSize     = 50;
+	protected String sequenceTableName = "leap_sequences";
+	
+	private final Map<String, PooledIdGenerator> pooledGenerators = new ConcurrentHashMap<>();
+	
 	@Inject(name="uuid")
 	public void setUuidGenerator(ValueGenerator uuidGenerator) {
 		this.uuidGenerator = uuidGenerator;
@@ -49,6 +58,27 @@ public class AutoIdGenerator implements IdGenerator {
 	public void setUuidLength(int uuidLength) {
 		this.uuidLength = uuidLength;
 	}
+	
+	/**
+	 * Sets the default number of ids reserved from a db sequence in one round trip, default is 1 (not pooled).
+	 */
+	public void setSequencePoolSize(int sequencePoolSize) {
+		this.sequencePoolSize = sequencePoolSize;
+	}
+
+	/**
+	 * Sets the default number of ids reserved from the table of table generator in one round trip.
+	 */
+	public void setTablePoolSize(int tablePoolSize) {
+		this.tablePoolSize = tablePoolSize;
+	}
+
+	/**
+	 * Sets the default table name of table generator.
+	 */
+	public void setSequenceTableName(String sequenceTableName) {
+		this.sequenceTableName = sequenceTableName;
+	}
 
 	@Override
     public void mapping(MetadataContext context, EntityMappingBuilder emb, FieldMappingBuilder fmb) {
@@ -57,13 +87,16 @@ public class AutoIdGenerator implements IdGenerator {
 		//smallint, integer or big integer type for sequence , identity or table generator 
 		if(isIntegerType(fmb)){
 			
-			if(db.getDialect().supportsAutoIncrement()){
+			Sequence a = fmb.getBeanProperty() != null ? fmb.getBeanProperty().getAnnotation(Sequence.class) : null;
+			
+			if(null != a && !Strings.isEmpty(a.table())){
+				mappingTable(context, emb, fmb);
+			}else if(db.getDialect().supportsAutoIncrement()){
 				mappingAutoIncrement(context, emb, fmb);
 			}else if(db.getDialect().supportsSequence()){
 				mappingSequence(context, emb, fmb);
 			}else{
-				//TODO : table sequence generator
-				throw new IllegalStateException("db '" + db.getDescription() + "' not supports identity and sequence, can not use autoid");
+				mappingTable(context, emb, fmb);
 			}
 			
 			return ;
@@ -99,16 +132,18 @@ public class AutoIdGenerator implements IdGenerator {
 	protected void mappingSequence(MetadataContext context, EntityMappingBuilder emb,final FieldMappingBuilder fmb){
 		SequenceMappingBuilder seq = new SequenceMappingBuilder();
 		
-		setSequenceProeprties(context, emb, fmb, seq);
+		seq.setPoolSize(sequencePoolSize);
 		
-		fmb.setSequenceName(seq.getName());
+		setSequenceProeprties(context, emb, fmb, seq);
 		
-		if(null == context.getMetadata().tryGetSequenceMapping(seq.getName())){
-			context.getMetadata().addSequenceMapping(seq.build());
-		}else{
-			log.info("Sequence '{}' aleady exists, skip adding it into the metadata",seq.getName());
+		SequenceMapping sm = addSequenceMapping(context, seq);
+		if(sm.isPooled()) {
+			fmb.setValueGenerator(getPooledGenerator(context, sm));
+			return;
 		}
 		
+		fmb.setSequenceName(seq.getName());
+		
 		emb.setInsertInterceptor(new EntityExecutionInterceptor() {
 			@Override
 			public PreparedStatementHandler<Db> getPreparedStatementHandler(final EntityExecutionContext context) {
@@ -127,6 +162,46 @@ public class AutoIdGenerator implements IdGenerator {
 		});
 	}
 	
+	protected void mappingTable(MetadataContext context, EntityMappingBuilder emb, FieldMappingBuilder fmb){
+		SequenceMappingBuilder seq = new SequenceMappingBuilder();
+		
+		seq.setPoolSize(tablePoolSize);
+		seq.setTableName(sequenceTableName);
+		
+		setSequenceProeprties(context, emb, fmb, seq);
+		
+		fmb.setValueGenerator(getPooledGenerator(context, addSequenceMapping(context, seq)));
+	}
+	
+	protected SequenceMapping addSequenceMapping(MetadataContext context, SequenceMappingBuilder seq) {
+		SequenceMapping sm = context.getMetadata().tryGetSequenceMapping(seq.getName());
+		
+		if(null == sm){
+			sm = seq.build();
+			context.getMetadata().addSequenceMapping(sm);
+		}else{
+			log.info("Sequence '{}' aleady exists, skip adding it into the metadata",seq.getName());
+		}
+		
+		return sm;
+	}
+	
+	protected PooledIdGenerator getPooledGenerator(MetadataContext context, SequenceMapping sm) {
+		Db db = context.getDb();
+		
+		return pooledGenerators.computeIfAbsent(db.getName() + ":" + sm.getName().toLowerCase(), (key) -> {
+			if(sm.isTableGenerator()) {
+				return new TableSequenceGenerator(db, sm);
+			}else{
+				PooledSequenceGenerator generator = new PooledSequenceGenerator(db, sm.getName(), sm.getPoolSize());
+				
+				//fail fast if the sequence exists and the increment is not the pool size.
+				generator.checkIncrement();
+				return generator;
+			}
+		});
+	}
+	
 	protected void mappingUUID(MetadataContext context, EntityMappingBuilder emb, FieldMappingBuilder fmb){
 		fmb.setValueGenerator(uuidGenerator);
 		fmb.getColumn().setLength(uuidLength);
@@ -150,6 +225,14 @@ public class AutoIdGenerator implements IdGenerator {
 			if(a.cache() != Integer.MIN_VALUE){
 				seq.setCache(a.cache());
 			}
+			
+			if(a.pool() != Integer.MIN_VALUE){
+				seq.setPoolSize(a.pool());
+			}
+			
+			if(!Strings.isEmpty(a.table())){
+				seq.setTableName(a.table());
+			}
 		}
 		
 		seq.setSchema(emb.getTableSchema());
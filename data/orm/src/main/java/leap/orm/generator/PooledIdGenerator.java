@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.generator;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import leap.lang.Args;
+import leap.lang.expression.AbstractExpression;
+
+/**
+ * A {@link ValueGenerator} reserves a block of ids in one round trip and hands out the ids in memory.
+ * 
+ * <p>
+ * The ids of a block are handed out by an atomic counter without locking, 
+ * only the thread found the block exhausted fetches the next block.
+ */
+public abstract class PooledIdGenerator extends AbstractExpression implements ValueGenerator {
+	
+	protected final String name;
+	protected final int    poolSize;
+	
+	private volatile Block block;
+	
+	protected PooledIdGenerator(String name, int poolSize) {
+		Args.notEmpty(name, "name");
+		Args.assertTrue(poolSize > 0, "pool size must be positive");
+		this.name     = name;
+		this.poolSize = poolSize;
+	}
+	
+	public String getName() {
+		return name;
+	}
+
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	/**
+	 * Returns the next id.
+	 */
+	public long next() {
+		for(;;) {
+			Block b = block;
+			
+			if(null != b) {
+				long id = b.next.getAndIncrement();
+				if(id < b.end) {
+					return id;
+				}
+			}
+			
+			synchronized (this) {
+				if(block == b) {
+					long start = fetchBlock();
+					block = new Block(start, start + poolSize);
+				}
+			}
+		}
+	}
+	
+	@Override
+	protected Object eval(Object context, Map<String, Object> vars) {
+		return next();
+	}
+
+	/**
+	 * Reserves the next block of ids and returns the first id of the block.
+	 */
+	protected abstract long fetchBlock();
+	
+	private static final class Block {
+		private final AtomicLong next;
+		private final long       end;
+		
+		private Block(long start, long end) {
+			this.next = new AtomicLong(start);
+			this.end  = end;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.generator;
+
+import leap.core.jdbc.SimpleScalarReader;
+import leap.core.value.Scalar;
+import leap.db.Db;
+import leap.db.model.DbSequence;
+
+/**
+ * A {@link PooledIdGenerator} reserves the ids from a db sequence.
+ * 
+ * <p>
+ * The increment of the sequence must be the pool size, 
+ * the value returned by the sequence is the first id of the reserved block.
+ * 
+ * <p>
+ * The increment of an existing sequence is checked by {@link #checkIncrement()} before fetching the first block, 
+ * the consecutive blocks will overlap and duplicate ids will be issued if the increment is less than the pool size.
+ */
+public class PooledSequenceGenerator extends PooledIdGenerator {
+	
+	protected final Db     db;
+	protected final String sql;
+	
+	private volatile boolean checked;
+
+	public PooledSequenceGenerator(Db db, String sequenceName, int poolSize) {
+		super(sequenceName, poolSize);
+		this.db  = db;
+		this.sql = db.getDialect().getSelectNextSequenceValueSql(sequenceName);
+	}
+
+	/**
+	 * Checks the increment of the sequence in db equals to the pool size.
+	 * 
+	 * <p>
+	 * Returns <code>false</code> if the sequence not exists in the metadata of db.
+	 * 
+	 * @throws IllegalStateException if the increment of the sequence is known and not equals to the pool size.
+	 */
+	public boolean checkIncrement() throws IllegalStateException {
+		DbSequence sequence = db.getMetadata().tryGetSequence(name);
+		if(null == sequence) {
+			return false;
+		}
+		
+		Integer increment = sequence.getIncrement();
+		if(null != increment && increment != poolSize) {
+			throw new IllegalStateException("The increment " + increment + " of sequence '" + name + 
+											"' must be the pool size " + poolSize + 
+											", alter the sequence or change the pool size");
+		}
+		
+		checked = true;
+		return true;
+	}
+
+	@Override
+	protected long fetchBlock() {
+		if(!checked) {
+			//the metadata is not queried again if the sequence not found in it.
+			checkIncrement();
+			checked = true;
+		}
+		
+		Scalar value = db.executeQuery(sql, SimpleScalarReader.DEFAULT_INSTANCE);
+		if(null == value || null == value.get()) {
+			throw new IllegalStateException("No value returned by the sequence '" + name + "'");
+		}
+		return value.getLong();
+	}
+
+}
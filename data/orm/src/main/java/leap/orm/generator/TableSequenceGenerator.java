@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.generator;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import leap.core.jdbc.SimpleScalarReader;
+import leap.core.value.Scalar;
+import leap.db.Db;
+import leap.db.DbDialect;
+import leap.lang.exception.NestedSQLException;
+import leap.lang.jdbc.JDBC;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.orm.mapping.SequenceMapping;
+
+/**
+ * A {@link PooledIdGenerator} reserves the ids from a row of a sequence table, 
+ * for the db not supports identity and sequence.
+ * 
+ * <p>
+ * The row is updated by compare-and-set in a separated connection, 
+ * so the reserved block will not be rolled back with the transaction of current insertion.
+ * 
+ * @see SequenceMapping#getTable()
+ */
+public class TableSequenceGenerator extends PooledIdGenerator {
+	
+	private static final Log log = LogFactory.get(TableSequenceGenerator.class);
+	
+	private static final int MAX_RETRIES = 100;
+	
+	protected final Db     db;
+	protected final long   start;
+	protected final String selectSql;
+	protected final String insertSql;
+	protected final String updateSql;
+
+	public TableSequenceGenerator(Db db, SequenceMapping sm) {
+		super(sm.getName(), sm.getPoolSize());
+		
+		DbDialect dialect = db.getDialect();
+		String    table   = dialect.qualifySchemaObjectName(sm.getTable());
+		String    nameCol = dialect.quoteIdentifier(SequenceMapping.TABLE_NAME_COLUMN);
+		String    valCol  = dialect.quoteIdentifier(SequenceMapping.TABLE_VALUE_COLUMN);
+		
+		this.db        = db;
+		this.start     = null == sm.getSequence().getStart() ? 1 : sm.getSequence().getStart();
+		this.selectSql = "select " + valCol + " from " + table + " where " + nameCol + "=?";
+		this.insertSql = "insert into " + table + "(" + nameCol + "," + valCol + ") values (?,?)";
+		this.updateSql = "update " + table + " set " + valCol + "=? where " + nameCol + "=? and " + valCol + "=?";
+	}
+
+	@Override
+	protected long fetchBlock() {
+		Connection conn = null;
+		try{
+			conn = db.getDataSource().getConnection();
+			
+			long value = reserve(conn);
+			
+			if(!conn.getAutoCommit()) {
+				conn.commit();
+			}
+			
+			return value;
+		}catch(SQLException e) {
+			throw new NestedSQLException(e);
+		}finally{
+			JDBC.closeConnection(conn);
+		}
+	}
+	
+	protected long reserve(Connection conn) throws SQLException {
+		for(int i=0;i<MAX_RETRIES;i++) {
+			Scalar current = db.executeQuery(conn, selectSql, new Object[]{name}, SimpleScalarReader.DEFAULT_INSTANCE);
+			
+			if(null == current || null == current.get()) {
+				try {
+					db.executeUpdate(conn, insertSql, new Object[]{name, start + poolSize});
+					return start;
+				} catch (NestedSQLException e) {
+					log.debug("Cannot insert the row of sequence '{}', retry : {}", name, e.getMessage());
+					if(!conn.getAutoCommit()) {
+						conn.rollback();
+					}
+					continue;
+				}
+			}
+			
+			long value = current.getLong();
+			if(db.executeUpdate(conn, updateSql, new Object[]{value + poolSize, name, value}) == 1) {
+				return value;
+			}
+		}
+		
+		throw new IllegalStateException("Cannot reserve ids from the sequence '" + name + "' after " + MAX_RETRIES + " retries");
+	}
+	
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.linq.jaque;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+
+/**
+ * Reads the captured args of a lambda object from the fields of the lambda class.
+ * 
+ * <p>
+ * The lambda classes spun by the jdk store the captured args in the fields <code>arg$1 ... arg$n</code>,
+ * the fields are read by the resolved getter handles instead of serializing the lambda object on every call.
+ * 
+ * <p>
+ * Falls back to {@link SerializedLambda} if the fields cannot be resolved.
+ */
+final class CapturedArgs {
+	
+	private static final Log log = LogFactory.get(CapturedArgs.class);
+	
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	
+	private final MethodHandle[] getters;
+	
+	static CapturedArgs of(Class<?> lambdaClass, SerializedLambda sl) {
+		return new CapturedArgs(resolveGetters(lambdaClass, sl.getCapturedArgCount()));
+	}
+	
+	private CapturedArgs(MethodHandle[] getters) {
+		this.getters = getters;
+	}
+	
+	Object[] read(Object lambda) {
+		if(null == getters) {
+			SerializedLambda sl = JaqueConditionParser.getSerializedLambda(lambda);
+			
+			Object[] args = new Object[sl.getCapturedArgCount()];
+			for(int i=0;i<args.length;i++) {
+				args[i] = sl.getCapturedArg(i);
+			}
+			return args;
+		}
+		
+		try {
+			Object[] args = new Object[getters.length];
+			for(int i=0;i<args.length;i++) {
+				args[i] = (Object)getters[i].invokeExact(lambda);
+			}
+			return args;
+		} catch (Throwable e) {
+			throw new IllegalStateException("Error reading the captured args of lambda, " + e.getMessage(), e);
+		}
+	}
+	
+	private static MethodHandle[] resolveGetters(Class<?> lambdaClass, int count) {
+		MethodHandle[] getters = new MethodHandle[count];
+		
+		try {
+			for(Field field : lambdaClass.getDeclaredFields()) {
+				if(Modifier.isStatic(field.getModifiers()) || !field.getName().startsWith("arg$")) {
+					continue;
+				}
+				
+				int index = Integer.parseInt(field.getName().substring(4)) - 1;
+				if(index < 0 || index >= count || null != getters[index]) {
+					return null;
+				}
+				
+				field.setAccessible(true);
+				getters[index] = MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+			}
+		} catch (Exception e) {
+			log.info("Cannot resolve the captured fields of lambda class '{}', {}", lambdaClass.getName(), e.getMessage());
+			return null;
+		}
+		
+		for(MethodHandle getter : getters) {
+			if(null == getter) {
+				return null;
+			}
+		}
+		
+		return getters;
+	}
+
+}
@@ -17,9 +17,6 @@ package leap.orm.linq.jaque;
 
 import java.lang.invoke.SerializedLambda;
 import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import leap.lang.asm.ASM;
@@ -30,43 +27,35 @@ import leap.lang.params.Params;
 import leap.orm.linq.Condition;
 import leap.orm.linq.ConditionParser;
 
-@SuppressWarnings("rawtypes")
 public class JaqueConditionParser implements ConditionParser {
 	
-	private final Map<Object, SqlCondition> objectCache = Collections.synchronizedMap(new WeakHashMap<Object, SqlCondition>());
-    private final Map<Class,  SqlCondition> classCache  = Collections.synchronizedMap(new WeakHashMap<Class, SqlCondition>());
+	//A lambda class is spun for each lambda expression, so the parsed condition can be shared by the instances.
+	//The parsed condition is stored in the lambda class itself, it references the class and must not keep it from unloading.
+	private final ClassValue<ParsedConditionHolder> cache = new ClassValue<ParsedConditionHolder>() {
+		@Override
+		protected ParsedConditionHolder computeValue(Class<?> type) {
+			return new ParsedConditionHolder();
+		}
+	};
 	
 	@Override
     public String parse(Condition condition, Params params, AtomicInteger paramsCounter) {
-		SerializedLambda sl = null;
-		SqlCondition     sc = getSqlConditionFromCache(condition);
+		ParsedConditionHolder holder = cache.get(condition.getClass());
+		ParsedCondition       pc     = holder.value;
 		
-		if(null == sc) {
-			sl = getSerializedLambda(condition);
-			sc = parseCondition(sl, condition);
+		if(null == pc) {
+			SerializedLambda sl = getSerializedLambda(condition);
 			
-			if(sl.getCapturedArgCount() == 0) {
-				objectCache.put(condition, sc);
-			}else{
-				classCache.put(condition.getClass(), sc);
-			}
+			pc = new ParsedCondition(parseCondition(sl, condition), CapturedArgs.of(condition.getClass(), sl));
+			
+			holder.value = pc;
 		}
 		
-		if(sc.hasCapturedParameters() && null == sl) {
-			sl = getSerializedLambda(condition);
-		}
+		Object[] capturedArgs = pc.condition.hasCapturedParameters() ? pc.capturedArgs.read(condition) : null;
 		
-		return sc.toSql(sl, params, paramsCounter);
+		return pc.condition.toSql(capturedArgs, params, paramsCounter);
     }
 	
-	protected SqlCondition getSqlConditionFromCache(Condition condition) {
-		SqlCondition c = objectCache.get(condition);
-		if(null == c){
-			c = classCache.get(condition.getClass());
-		}
-		return c;
-	}
-	
 	protected static String sql(Condition condition) {
 		return parseCondition(getSerializedLambda(condition),condition).toSql();
 	}
@@ -121,7 +110,7 @@ public class JaqueConditionParser implements ConditionParser {
 		return m;
 	}
 
-	private static SerializedLambda getSerializedLambda(Object lambda) {
+	static SerializedLambda getSerializedLambda(Object lambda) {
 		try {
 			//The lambda interface must implements java.io.Serializable
 			Method m = lambda.getClass().getDeclaredMethod("writeReplace");
@@ -134,4 +123,18 @@ public class JaqueConditionParser implements ConditionParser {
 			throw new IllegalStateException("Error resolve 'SerializedLambda' from the lambda oject, " + e.getMessage(), e);
 		}
 	}
+	
+	private static final class ParsedConditionHolder {
+		private volatile ParsedCondition value;
+	}
+	
+	private static final class ParsedCondition {
+		private final SqlCondition condition;
+		private final CapturedArgs capturedArgs;
+		
+		private ParsedCondition(SqlCondition condition, CapturedArgs capturedArgs) {
+			this.condition    = condition;
+			this.capturedArgs = capturedArgs;
+		}
+	}
 }
@@ -24,6 +24,7 @@ import leap.core.metamodel.ReservedMetaFieldName;
 import leap.db.DbMetadata;
 import leap.db.model.DbColumn;
 import leap.db.model.DbColumnBuilder;
+import leap.db.model.DbSchemaObjectName;
 import leap.db.model.DbTable;
 import leap.lang.Args;
 import leap.lang.Strings;
@@ -738,7 +739,7 @@ public class DefaultMappingStrategy extends AbstractReadonlyBean implements Mapp
 	
 	protected boolean checkTableExists(MetadataContext context,EntityMappingBuilder emb){
 		DbMetadata dbmeta = context.getDb().getMetadata();
-		return null != dbmeta.getSchema(emb.getTableCatalog(), emb.getTableSchema()).findTable(emb.getTableName());
+		return null != dbmeta.tryGetTable(new DbSchemaObjectName(emb.getTableCatalog(), emb.getTableSchema(), emb.getTableName()));
 	}
 	
 	protected void autoGeneratedFieldsForModel(MetadataContext context,EntityMappingBuilder emb){
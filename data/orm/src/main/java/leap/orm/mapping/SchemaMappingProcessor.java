@@ -15,9 +15,11 @@
  */
 package leap.orm.mapping;
 
+import leap.db.DbMetadata;
 import leap.db.model.DbColumn;
 import leap.db.model.DbColumnBuilder;
 import leap.db.model.DbSchema;
+import leap.db.model.DbSchemaObjectName;
 import leap.db.model.DbTable;
 import leap.orm.metadata.MetadataContext;
 import leap.orm.metadata.MetadataException;
@@ -28,14 +30,15 @@ public class SchemaMappingProcessor extends MappingProcessorAdapter {
     public void postMappingEntity(MetadataContext context, EntityMappingBuilder emb) throws MetadataException {
 		String entityName = emb.getEntityName();
 		
-		DbSchema schema = context.getDb().getMetadata().getSchema(emb.getTableCatalog(),emb.getTableSchema());
-		DbTable  table  = null;
+		DbMetadata metadata = context.getDb().getMetadata();
+		DbTable    table    = null;
 		
 		//find matched table name in db schema
-		if(!emb.isTableNameDeclared()){
-			table = findTableOf(context, entityName, schema);
+		if(!emb.isTableNameDeclared() && !metadata.isLazy()){
+			table = findTableOf(context, entityName, metadata.getSchema(emb.getTableCatalog(),emb.getTableSchema()));
 		}else{
-			table = schema.findTable(emb.getTableName());
+			//the lazy metadata reads the table by the name resolved by naming strategy only.
+			table = metadata.tryGetTable(new DbSchemaObjectName(emb.getTableCatalog(),emb.getTableSchema(),emb.getTableName()));
 		}
 		
 		if(null != table){
@@ -16,18 +16,37 @@
 package leap.orm.mapping;
 
 import leap.db.model.DbSequence;
+import leap.db.model.DbTable;
 import leap.lang.Args;
 
 public class SequenceMapping {
+	
+	/**
+	 * The column stores the sequence name in the table of a table generator.
+	 */
+	public static final String TABLE_NAME_COLUMN  = "sequence_name";
+	
+	/**
+	 * The column stores the next value in the table of a table generator.
+	 */
+	public static final String TABLE_VALUE_COLUMN = "next_value";
 
 	protected final String     name;
 	protected final DbSequence sequence;
+	protected final int        poolSize;
+	protected final DbTable    table;
 	
 	public SequenceMapping(String name,DbSequence sequence){
+		this(name, sequence, 1, null);
+	}
+	
+	public SequenceMapping(String name,DbSequence sequence,int poolSize,DbTable table){
 		Args.notEmpty(name,"sequence name");
 		Args.notNull(sequence,"sequence");
 		this.name     = name;
 		this.sequence = sequence;
+		this.poolSize = poolSize < 1 ? 1 : poolSize;
+		this.table    = table;
 	}
 	
 	public String getName() {
@@ -37,4 +56,32 @@ public class SequenceMapping {
 	public DbSequence getSequence() {
 		return sequence;
 	}
+	
+	/**
+	 * Returns the number of ids reserved in one round trip.
+	 */
+	public int getPoolSize() {
+		return poolSize;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the ids are reserved in blocks and handed out in memory.
+	 */
+	public boolean isPooled() {
+		return poolSize > 1 || null != table;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the sequence is backed by a row of table instead of a db sequence.
+	 */
+	public boolean isTableGenerator() {
+		return null != table;
+	}
+
+	/**
+	 * Returns the table of table generator or <code>null</code>.
+	 */
+	public DbTable getTable() {
+		return table;
+	}
 }
@@ -15,13 +15,21 @@
  */
 package leap.orm.mapping;
 
+import java.sql.Types;
+
+import leap.db.model.DbColumnBuilder;
 import leap.db.model.DbSequenceBuilder;
+import leap.db.model.DbTable;
+import leap.db.model.DbTableBuilder;
 import leap.lang.Buildable;
+import leap.lang.Strings;
 
 public class SequenceMappingBuilder implements Buildable<SequenceMapping>{
 	
 	protected String            name;
 	protected DbSequenceBuilder sequence = new DbSequenceBuilder();
+	protected Integer           poolSize;
+	protected String            tableName;
 	
 	public SequenceMappingBuilder(){
 		
@@ -65,9 +73,49 @@ public class SequenceMappingBuilder implements Buildable<SequenceMapping>{
 		this.sequence.setCache(cache);
 		return this;
 	}
+	
+	public Integer getPoolSize() {
+		return poolSize;
+	}
+
+	/**
+	 * Sets the number of ids reserved in one round trip.
+	 * 
+	 * <p>
+	 * If greater than 1, the increment of the db sequence will be the pool size.
+	 * An existing sequence is not altered, its increment must be the pool size or the generator fails at startup.
+	 */
+	public SequenceMappingBuilder setPoolSize(Integer poolSize) {
+		this.poolSize = poolSize;
+		return this;
+	}
+	
+	public String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * Sets the table of table generator, the sequence will be backed by a row of the table instead of a db sequence.
+	 */
+	public SequenceMappingBuilder setTableName(String tableName) {
+		this.tableName = tableName;
+		return this;
+	}
 
 	@Override
     public SequenceMapping build() {
-	    return new SequenceMapping(name, sequence.build());
+		int     pool  = null == poolSize ? 1 : poolSize;
+		DbTable table = null;
+		
+		if(!Strings.isEmpty(tableName)) {
+			table = new DbTableBuilder(null, sequence.getSchema(), tableName)
+							.addColumn(new DbColumnBuilder(SequenceMapping.TABLE_NAME_COLUMN, Types.VARCHAR, 100, false).setPrimaryKey(true).build())
+							.addColumn(new DbColumnBuilder(SequenceMapping.TABLE_VALUE_COLUMN, Types.BIGINT, 0, false).build())
+							.build();
+		}else if(pool > 1) {
+			sequence.setIncrement(pool);
+		}
+		
+	    return new SequenceMapping(name, sequence.build(), pool, table);
     }
 }
@@ -16,6 +16,7 @@
 package leap.orm.model;
 
 import leap.core.instrument.AbstractAsmInstrumentProcessor;
+import leap.core.instrument.AppInstrumentCache;
 import leap.core.instrument.AppInstrumentContext;
 import leap.core.instrument.AppInstrumentProcessor;
 import leap.lang.Classes;
@@ -35,6 +36,7 @@ import leap.orm.annotation.Instrument;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -79,6 +81,20 @@ public class ModelInstrumentation extends AbstractAsmInstrumentProcessor impleme
     protected Set<InstrumentModelClass> instrumentModelClasses;
 	protected List<ModelTransformer>    transformers;
 
+    /**
+     * The instrumented model class also depends on the {@link Model} class and the {@link ModelTransformer}s.
+     */
+    @Override
+    public String getVersion() {
+        List<Class<?>> classes = new ArrayList<>();
+        classes.add(getClass());
+        classes.add(Model.class);
+        for(ModelTransformer transformer : Factory.newInstances(ModelTransformer.class)) {
+            classes.add(transformer.getClass());
+        }
+        return AppInstrumentCache.digest(classes.toArray(new Class<?>[classes.size()]));
+    }
+
     @Override
     protected void preInstrument(AppInstrumentContext context, ResourceSet rs) {
         this.transformers = Factory.newInstances(ModelTransformer.class);
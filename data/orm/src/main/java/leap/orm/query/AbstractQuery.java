@@ -34,9 +34,13 @@ import leap.orm.mapping.EntityMapping;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public abstract class AbstractQuery<T> implements Query<T>,QueryContext {
 	
+	public static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+	
 	protected final OrmContext			context;
 	protected final OrmMetadata         metadata;
 	protected final Dao		            dao;
@@ -50,6 +54,7 @@ public abstract class AbstractQuery<T> implements Query<T>,QueryContext {
 	protected String orderBy;
 	protected String groupBy;
 	protected String having;
+	protected int    fetchSize;
 	
 	protected AbstractQuery(Dao dao, Class<T> targetType){
 		this(dao,targetType,null);
@@ -129,6 +134,12 @@ public abstract class AbstractQuery<T> implements Query<T>,QueryContext {
 	    return this;
     }
 
+	@Override
+    public Query<T> fetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	    return this;
+    }
+
 	@Override
     public T first() throws EmptyRecordsException {
 	    return limit(1).result().first();
@@ -154,6 +165,12 @@ public abstract class AbstractQuery<T> implements Query<T>,QueryContext {
 	    return result().list();
     }
 	
+	@Override
+    public <R> R stream(Function<Stream<T>, R> func) {
+		Args.notNull(func, "func");
+	    return executeQueryForStream(this, fetchSize > 0 ? fetchSize : DEFAULT_STREAM_FETCH_SIZE, func);
+    }
+	
 	@Override
     public OrmContext getOrmContext() {
 	    return dao.getOrmContext();
@@ -213,6 +230,8 @@ public abstract class AbstractQuery<T> implements Query<T>,QueryContext {
 
 	protected abstract QueryResult<T> executeQuery(QueryContext context);
 	
+	protected abstract <R> R executeQueryForStream(QueryContext context, int fetchSize, Function<Stream<T>, R> func);
+	
 	protected abstract Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException;
 	
 	protected abstract Scalars executeQueryForScalars(QueryContext context) throws TooManyRecordsException;
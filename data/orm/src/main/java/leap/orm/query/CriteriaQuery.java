@@ -105,6 +105,11 @@ public interface CriteriaQuery<T> extends Query<T> {
 	 */
 	CriteriaQuery<T> limit(Limit limit);
 	
+	/**
+	 * Sets the jdbc fetch size used by {@link #stream(java.util.function.Function)}.
+	 */
+	CriteriaQuery<T> fetchSize(int fetchSize);
+	
 	/**
 	 * Returns the paimary entity mapping for this CriteriaQuery.
 	 */
@@ -26,6 +26,8 @@ import leap.orm.reader.ResultSetReaders;
 import leap.orm.sql.SqlCommand;
 
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class DefaultCommandQuery<T> extends AbstractQuery<T> {
 	
@@ -54,6 +56,11 @@ public class DefaultCommandQuery<T> extends AbstractQuery<T> {
 	    return new DefaultQueryResult<T>(command.toString(),command.executeQuery(qc, params(), reader));
     }
 
+	@Override
+    protected <R> R executeQueryForStream(QueryContext qc, int fetchSize, Function<Stream<T>, R> func) {
+	    return command.executeQuery(qc, params(), ResultSetReaders.forStreamRow(dao.getOrmContext(), resultClass, command, fetchSize, func));
+    }
+
 	@Override
     protected Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException {
 	    return command.executeQuery(context, params(), SimpleScalarReader.DEFAULT_INSTANCE);
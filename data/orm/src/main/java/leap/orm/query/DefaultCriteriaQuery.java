@@ -40,7 +40,9 @@ import leap.orm.sql.SqlStatement;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements CriteriaQuery<T>,QueryContext {
 	
@@ -169,6 +171,11 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
 	    return (CriteriaQuery<T>)super.limit(limit);
     }
 
+	@Override
+    public CriteriaQuery<T> fetchSize(int fetchSize) {
+	    return (CriteriaQuery<T>)super.fetchSize(fetchSize);
+    }
+
 	@Override
     public CriteriaQuery<T> orderBy(String expression) {
 	    return (CriteriaQuery<T>)super.orderBy(expression);
@@ -235,6 +242,11 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
 		return new DefaultQueryResult<T>(sql,statement.executeQuery(reader));
     }
 	
+	@Override
+    protected <R> R executeQueryForStream(QueryContext qc, int fetchSize, Function<Stream<T>, R> func) {
+		return buildQueryStatement(qc).executeQuery(ResultSetReaders.forStreamEntity(dao.getOrmContext(), em, targetType, fetchSize, func));
+    }
+	
 	@Override
     protected Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException {
 	    return buildQueryStatement(context).executeQuery(SimpleScalarReader.DEFAULT_INSTANCE);
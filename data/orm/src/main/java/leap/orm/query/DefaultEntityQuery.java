@@ -27,6 +27,8 @@ import leap.orm.reader.ResultSetReaders;
 import leap.orm.sql.SqlCommand;
 
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class DefaultEntityQuery<T> extends AbstractQuery<T> implements EntityQuery<T> {
 
@@ -60,6 +62,11 @@ public class DefaultEntityQuery<T> extends AbstractQuery<T> implements EntityQue
 	    return new DefaultQueryResult<T>(command.toString(),command.executeQuery(qc, params(), reader));
     }
 
+	@Override
+    protected <R> R executeQueryForStream(QueryContext qc, int fetchSize, Function<Stream<T>, R> func) {
+	    return command.executeQuery(qc, params(), ResultSetReaders.forStreamEntity(dao.getOrmContext(), em, resultClass, fetchSize, func));
+    }
+
 	@Override
     protected Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException {
 	    return command.executeQuery(context, params(), SimpleScalarReader.DEFAULT_INSTANCE);
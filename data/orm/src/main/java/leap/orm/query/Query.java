@@ -28,6 +28,9 @@ import leap.lang.value.Page;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface Query<T> {
 	
@@ -102,6 +105,14 @@ public interface Query<T> {
 	 */
 	Query<T> limit(Limit limit);
 	
+	/**
+	 * Sets the jdbc fetch size used by {@link #stream(Function)} and {@link #forEach(Consumer)}.
+	 * 
+	 * <p>
+	 * Default is {@link AbstractQuery#DEFAULT_STREAM_FETCH_SIZE}, the fetch size may be ignored by some databases, see {@link #stream(Function)}.
+	 */
+	Query<T> fetchSize(int fetchSize);
+	
 	/**
 	 * Executes this query and return the query result.
 	 */
@@ -187,6 +198,41 @@ public interface Query<T> {
 	 */
 	List<T> list();
 	
+	/**
+	 * Executes this query and reads the rows lazily by a {@link Stream}, returns the result of the given function.
+	 * 
+	 * <p>
+	 * The rows will not be loaded into memory at once, 
+	 * the underlying result set and connection are opened until the function returns,
+	 * so the stream must not be used outside the function.
+	 * 
+	 * <p>
+	 * The streaming depends on the jdbc driver and is configured by the {@link leap.db.DbDialect} :
+	 * <ul>
+	 * <li>MySQL : the fetch size is ignored and the rows are read one by one (fetch size {@link Integer#MIN_VALUE}),
+	 *     unless the connection url contains <code>useCursorFetch=true</code>.
+	 *     No other statements can be executed on the same connection until the function returns.</li>
+	 * <li>PostgreSQL : the driver uses a cursor only if auto commit is disabled, so the auto commit
+	 *     of the connection will be disabled while streaming if not in a transaction.</li>
+	 * </ul>
+	 */
+	<R> R stream(Function<Stream<T>, R> func);
+	
+	/**
+	 * Executes this query and passes the rows to the given action one by one without loading all rows into memory.
+	 * 
+	 * <p>
+	 * See {@link #stream(Function)} for the notes of streaming in different databases.
+	 * 
+	 * @see #stream(Function)
+	 */
+	default void forEach(Consumer<? super T> action) {
+		stream(s -> {
+			s.forEach(action);
+			return null;
+		});
+	}
+	
 	/**
 	 * Returns the scalar value in this query result.
 	 * 
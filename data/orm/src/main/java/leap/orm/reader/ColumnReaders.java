@@ -0,0 +1,166 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.reader;
+
+import leap.db.DbDialect;
+import leap.lang.convert.Conversion;
+import leap.lang.convert.Converts;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * Factory methods of {@link ColumnReader}.
+ */
+public class ColumnReaders {
+
+	private static final ColumnReader LONG = (rs, i) -> {
+		long v = rs.getLong(i);
+		return rs.wasNull() ? null : v;
+	};
+
+	private static final ColumnReader INT = (rs, i) -> {
+		int v = rs.getInt(i);
+		return rs.wasNull() ? null : v;
+	};
+
+	private static final ColumnReader SHORT = (rs, i) -> {
+		short v = rs.getShort(i);
+		return rs.wasNull() ? null : v;
+	};
+
+	private static final ColumnReader DOUBLE = (rs, i) -> {
+		double v = rs.getDouble(i);
+		return rs.wasNull() ? null : v;
+	};
+
+	private static final ColumnReader FLOAT = (rs, i) -> {
+		float v = rs.getFloat(i);
+		return rs.wasNull() ? null : v;
+	};
+
+	private static final ColumnReader BOOLEAN = (rs, i) -> {
+		boolean v = rs.getBoolean(i);
+		return rs.wasNull() ? null : v;
+	};
+
+	private static final ColumnReader STRING      = (rs, i) -> rs.getString(i);
+	private static final ColumnReader BIG_DECIMAL = (rs, i) -> rs.getBigDecimal(i);
+	private static final ColumnReader DATE        = (rs, i) -> rs.getDate(i);
+	private static final ColumnReader TIME        = (rs, i) -> rs.getTime(i);
+	private static final ColumnReader TIMESTAMP   = (rs, i) -> rs.getTimestamp(i);
+	private static final ColumnReader BYTES       = (rs, i) -> rs.getBytes(i);
+
+	/**
+	 * Returns a {@link ColumnReader} reads the value of the column and converts it to the target type.
+	 *
+	 * <p>
+	 * Uses the typed getter of {@link java.sql.ResultSet} if the jdbc type of column maps to the target type directly.
+	 *
+	 * <p>
+	 * Returns the raw value read by the dialect if the target type is <code>null</code>.
+	 */
+	public static ColumnReader forColumn(DbDialect dialect, int columnType, Class<?> targetType, Type genericType) {
+		ColumnReader reader = tryTyped(columnType, targetType);
+		if(null != reader) {
+			return reader;
+		}
+
+		if(null == targetType) {
+			return raw(dialect, columnType);
+		}
+
+		Conversion<?> conversion = Converts.resolve(targetType, genericType);
+		return (rs, i) -> {
+			Object value = dialect.getColumnValue(rs, i, columnType);
+			return null == value ? null : conversion.convert(value);
+		};
+	}
+
+	/**
+	 * Returns a {@link ColumnReader} reads the value of column by {@link DbDialect#getColumnValue(java.sql.ResultSet, int, int)}.
+	 */
+	public static ColumnReader raw(DbDialect dialect, int columnType) {
+		return (rs, i) -> dialect.getColumnValue(rs, i, columnType);
+	}
+
+	/**
+	 * Returns a {@link ColumnReader} uses the typed getter of {@link java.sql.ResultSet} or <code>null</code>
+	 * if the jdbc type of column does not map to the target type directly.
+	 */
+	public static ColumnReader tryTyped(int columnType, Class<?> targetType) {
+		if(null == targetType) {
+			return null;
+		}
+
+		switch (columnType) {
+			case Types.BIGINT:
+				return targetType == Long.class || targetType == long.class ? LONG : null;
+
+			case Types.INTEGER:
+				return targetType == Integer.class || targetType == int.class ? INT : null;
+
+			case Types.SMALLINT:
+			case Types.TINYINT:
+				return targetType == Short.class || targetType == short.class ? SHORT : null;
+
+			case Types.DOUBLE:
+			case Types.FLOAT:
+				return targetType == Double.class || targetType == double.class ? DOUBLE : null;
+
+			case Types.REAL:
+				return targetType == Float.class || targetType == float.class ? FLOAT : null;
+
+			case Types.BOOLEAN:
+				return targetType == Boolean.class || targetType == boolean.class ? BOOLEAN : null;
+
+			case Types.DECIMAL:
+			case Types.NUMERIC:
+				return targetType == BigDecimal.class ? BIG_DECIMAL : null;
+
+			case Types.CHAR:
+			case Types.VARCHAR:
+			case Types.LONGVARCHAR:
+			case Types.NCHAR:
+			case Types.NVARCHAR:
+			case Types.LONGNVARCHAR:
+				return targetType == String.class ? STRING : null;
+
+			case Types.DATE:
+				return targetType == java.sql.Date.class ? DATE : null;
+
+			case Types.TIME:
+				return targetType == java.sql.Time.class ? TIME : null;
+
+			case Types.TIMESTAMP:
+				return targetType == Timestamp.class || targetType == java.util.Date.class ? TIMESTAMP : null;
+
+			case Types.BINARY:
+			case Types.VARBINARY:
+			case Types.LONGVARBINARY:
+				return targetType == byte[].class ? BYTES : null;
+
+			default:
+				return null;
+		}
+	}
+
+	protected ColumnReaders() {
+
+	}
+}
@@ -15,12 +15,15 @@
  */
 package leap.orm.reader;
 
+import leap.core.cache.Cache;
+import leap.core.cache.ConcurrentCache;
 import leap.core.exception.TooManyRecordsException;
 import leap.db.DbDialect;
 import leap.lang.Strings;
 import leap.lang.beans.BeanProperty;
+import leap.lang.beans.BeanPropertyAccessor;
 import leap.lang.beans.BeanType;
-import leap.lang.convert.Converts;
+import leap.lang.jdbc.JdbcType;
 import leap.lang.jdbc.JdbcTypes;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
@@ -34,24 +37,26 @@ import leap.orm.value.Entity;
 import leap.orm.value.EntityBase;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public class DefaultEntityReader implements EntityReader {
 	
 	private static final Log log = LogFactory.get(DefaultEntityReader.class);
 	
 	protected final Map<Class<?>, Map<String,Object>> beanColumnMappings = new ConcurrentHashMap<Class<?>, Map<String,Object>>();
+	protected final Cache<RowMapperKey, RowMapper<?>> rowMappers         = new ConcurrentCache<>(1024);
 
 	@Override
     public <T> T readFirst(OrmContext context, ResultSet rs, EntityMapping em, Class<T> resultClass) throws SQLException {
 		if(rs.next()){
-			ResultSetMapping rsm = createResultSetMapping(context, rs, em);
-			return readCurrentRow(context, rs, rsm, resultClass);
+			return getRowMapper(context, rs, em, resultClass).mapRow(rs);
 		}
 		return null;
     }
@@ -59,9 +64,7 @@ public class DefaultEntityReader implements EntityReader {
 	@Override
 	public <T> T readSingle(OrmContext context, ResultSet rs, EntityMapping em, Class<T> resultClass) throws SQLException, TooManyRecordsException {
 		if(rs.next()){
-			ResultSetMapping rsm = createResultSetMapping(context, rs, em);
-			
-			T result = readCurrentRow(context, rs, rsm, resultClass);
+			T result = getRowMapper(context, rs, em, resultClass).mapRow(rs);
 			
 			if(rs.next()){
 				throw new TooManyRecordsException("Found two or more results in the returned result set");
@@ -78,9 +81,9 @@ public class DefaultEntityReader implements EntityReader {
 		List<T> list = new ArrayList<T>();
 		
 		if(rs.next()){
-			ResultSetMapping rsm = createResultSetMapping(context, rs, em);
+			RowMapper<? extends T> mapper = getRowMapper(context, rs, em, resultClass);
 			do{
-				list.add(readCurrentRow(context, rs, rsm, resultClass));
+				list.add(mapper.mapRow(rs));
 			}while(rs.next());
 		}
 		
@@ -91,57 +94,58 @@ public class DefaultEntityReader implements EntityReader {
 		return list;
     }
 	
+	/**
+	 * Returns the cached {@link RowMapper} of the result set shape or compiles a new one.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> RowMapper<T> getRowMapper(OrmContext context, ResultSet rs, EntityMapping em, Class<T> resultClass) throws SQLException {
+		RowMapperKey key = new RowMapperKey(context.getDb().getDialect(), em, resultClass, rs.getMetaData());
+		
+		RowMapper<T> mapper = (RowMapper<T>)rowMappers.get(key);
+		if(null == mapper) {
+			mapper = createRowMapper(context, createResultSetMapping(context, rs, em), resultClass);
+			rowMappers.put(key, mapper);
+		}
+		
+		return mapper;
+	}
+	
 	@SuppressWarnings("unchecked")
-    protected <T> T readCurrentRow(OrmContext context, ResultSet rs,ResultSetMapping rsm,Class<T> resultClass) throws SQLException {
+    protected <T> RowMapper<T> createRowMapper(OrmContext context, ResultSetMapping rsm, Class<T> resultClass) {
 		if(Entity.class.equals(resultClass) || EntityBase.class.equals(resultClass)){
-			return (T)readEntity(context, rs, rsm);
+			String entityName = rsm.getPrimaryEntityMapping().getEntityName();
+			return (RowMapper<T>)createMapRowMapper(context, rsm, () -> new Entity(entityName));
 		}
 		
 		if(Model.class.isAssignableFrom(resultClass)){
-			return (T)readModel(context, rs, rsm,(Class<? extends Model>)resultClass);
+			RowMapper<Map<String,Object>> mapper = createMapRowMapper(context, rsm, () -> new LinkedHashMap<>(rsm.getColumnCount()));
+			return (rs) -> {
+				Model model = (Model)Reflection.newInstance(resultClass);
+				model.setAll(mapper.mapRow(rs));
+				return (T)model;
+			};
 		}
 		
 		if(Map.class.equals(resultClass)){
-			return (T)readMap(context, rs,rsm);
+			return (RowMapper<T>)createMapRowMapper(context, rsm, () -> new LinkedHashMap<>(rsm.getColumnCount()));
 		}
 		
-		return readBean(context, rs,rsm,resultClass);
+		return createBeanRowMapper(context, rsm, resultClass);
 	}
 	
 	protected ResultSetMapping createResultSetMapping(OrmContext context,ResultSet rs,EntityMapping em) throws SQLException {
 		return new DefaultResultSetMapping(context, rs, em);
 	}
 	
-	protected EntityBase readEntity(OrmContext context, ResultSet rs,ResultSetMapping rsm) throws SQLException {
-		Entity entity = new Entity(rsm.getPrimaryEntityMapping().getEntityName());
-		
-		readMap(context, rs, rsm, entity);
-
-		return entity;
-	}
-	
-	protected Object readModel(OrmContext context,ResultSet rs,ResultSetMapping rsm,Class<? extends Model> modelClass) throws SQLException {
-		Model model = Reflection.newInstance(modelClass);
-		
-		model.setAll(readMap(context, rs, rsm));
-		
-		return model;
-	}
-	
-	protected Map<String, Object> readMap(OrmContext context, ResultSet rs,ResultSetMapping rsm) throws SQLException {
-		Map<String,Object> map = new LinkedHashMap<String, Object>(rsm.getColumnCount());
+	protected <T> RowMapper<T> createBeanRowMapper(OrmContext context, ResultSetMapping rsm, Class<T> beanClass) {
+		BeanType  beanType = BeanType.of(beanClass);
+		DbDialect dialect  = context.getDb().getDialect();
 		
-		readMap(context, rs, rsm, map);
-		
-		return map;
-	}
-	
-	protected <T> T readBean(OrmContext context, ResultSet rs,ResultSetMapping rsm,Class<T> beanClass) throws SQLException {
-		BeanType beanType = BeanType.of(beanClass);
-		
-		T bean = beanType.newInstance();
-		
-		DbDialect dialect = context.getDb().getDialect();
+		List<BeanProperty>         properties = new ArrayList<>();
+		List<BeanPropertyAccessor> accessors  = new ArrayList<>();
+		List<ColumnReader>         readers    = new ArrayList<>();
+		List<Integer>              indexes    = new ArrayList<>();
 		
 		for(int i=0;i<rsm.getColumnCount();i++){
 			ResultColumnMapping cm = rsm.getColumnMapping(i);
@@ -159,48 +163,67 @@ public class DefaultEntityReader implements EntityReader {
 			}
 			
 			if(null != bp){
-				bp.setValue(bean, dialect.getColumnValue(rs, i+1,cm.getColumnType()));
+				BeanPropertyAccessor accessor = null;
+				
+				ColumnReader reader = ColumnReaders.tryTyped(cm.getColumnType(), bp.getType());
+				if(null == reader) {
+					//The value will be converted by the bean property.
+					reader = ColumnReaders.raw(dialect, cm.getColumnType());
+				}else if(bp.isWritable()){
+					//The value is of the property type, no conversion.
+					accessor = bp.getAccessor();
+				}
+				
+				properties.add(bp);
+				accessors.add(accessor);
+				readers.add(reader);
+				indexes.add(i+1);
 			}
 		}
 		
-		return bean;
+		return new BeanRowMapper<T>(beanType, 
+									properties.toArray(new BeanProperty[properties.size()]), 
+									accessors.toArray(new BeanPropertyAccessor[accessors.size()]), 
+									readers.toArray(new ColumnReader[readers.size()]), 
+									toIntArray(indexes));
 	}
 	
-	protected void readMap(OrmContext context,ResultSet rs,ResultSetMapping rsm,Map<String,Object> map) throws SQLException {
+	protected <M extends Map<String,Object>> RowMapper<M> createMapRowMapper(OrmContext context, ResultSetMapping rsm, Supplier<M> factory) {
 		DbDialect dialect = context.getDb().getDialect();
 		
+		String[]       keys    = new String[rsm.getColumnCount()];
+		ColumnReader[] readers = new ColumnReader[rsm.getColumnCount()];
+		
 		for(int i=0;i<rsm.getColumnCount();i++){
 			ResultColumnMapping cm = rsm.getColumnMapping(i);
 			FieldMapping  fm = cm.getFieldMapping();
 			
-			Object value = readColumnValue(dialect, rs, cm, fm, i+1);
+			readers[i] = createColumnReader(dialect, cm, fm);
 			
-			if(null == fm) {
-				map.put(cm.getColumnLabel(), value);
-				continue;
-			}
-			
-			if(Strings.equals(cm.getColumnName(), cm.getColumnLabel())) {
-				map.put(fm.getFieldName(), value);
+			if(null != fm && Strings.equals(cm.getColumnName(), cm.getColumnLabel())) {
+				keys[i] = fm.getFieldName();
 			}else{
-				map.put(cm.getColumnLabel(), value);
+				keys[i] = cm.getColumnLabel();
 			}
 		}
-	}
-	
-	protected Object readColumnValue(DbDialect dialect,ResultSet rs,ResultColumnMapping cm,FieldMapping fm, int index) throws SQLException{
-		Object value = dialect.getColumnValue(rs, index, cm.getColumnType());
 		
-		if(null != value){
-			if(null != fm && null != fm.getBeanProperty()){
-				value = Converts.convert(value, fm.getBeanProperty().getType(),fm.getBeanProperty().getGenericType());
-			}else{
-				Class<?> targetType = JdbcTypes.forTypeCode(cm.getColumnType()).getDefaultReadType();
-				value = Converts.convert(value, targetType);
+		return (rs) -> {
+			M map = factory.get();
+			for(int i=0;i<readers.length;i++) {
+				map.put(keys[i], readers[i].read(rs, i+1));
 			}
+			return map;
+		};
+	}
+	
+	protected ColumnReader createColumnReader(DbDialect dialect,ResultColumnMapping cm,FieldMapping fm) {
+		if(null != fm && null != fm.getBeanProperty()){
+			BeanProperty bp = fm.getBeanProperty();
+			return ColumnReaders.forColumn(dialect, cm.getColumnType(), bp.getType(), bp.getGenericType());
+		}else{
+			JdbcType type = JdbcTypes.tryForTypeCode(cm.getColumnType());
+			return ColumnReaders.forColumn(dialect, cm.getColumnType(), null == type ? null : type.getDefaultReadType(), null);
 		}
-		
-		return value;
 	}
 
 	protected BeanProperty getBeanProeprtyByColumn(OrmContext context, BeanType beanType,ResultColumnMapping cm){
@@ -233,4 +256,93 @@ public class DefaultEntityReader implements EntityReader {
 		mappings.put(columnName, Null.VALUE);
 		return null;
 	}
-}
\ No newline at end of file
+	
+	private static int[] toIntArray(List<Integer> list) {
+		int[] a = new int[list.size()];
+		for(int i=0;i<a.length;i++) {
+			a[i] = list.get(i);
+		}
+		return a;
+	}
+	
+	protected static final class BeanRowMapper<T> implements RowMapper<T> {
+		private final BeanType               beanType;
+		private final BeanProperty[]         properties;
+		private final BeanPropertyAccessor[] accessors;
+		private final ColumnReader[]         readers;
+		private final int[]                  indexes;
+		
+		protected BeanRowMapper(BeanType beanType, BeanProperty[] properties, BeanPropertyAccessor[] accessors, ColumnReader[] readers, int[] indexes) {
+			this.beanType   = beanType;
+			this.properties = properties;
+			this.accessors  = accessors;
+			this.readers    = readers;
+			this.indexes    = indexes;
+		}
+
+		@Override
+		public T mapRow(ResultSet rs) throws SQLException {
+			T bean = beanType.newInstance();
+			
+			for(int i=0;i<properties.length;i++) {
+				Object value = readers[i].read(rs, indexes[i]);
+				
+				if(null != accessors[i]) {
+					accessors[i].setValue(bean, value);
+				}else{
+					properties[i].setValue(bean, value);
+				}
+			}
+			
+			return bean;
+		}
+	}
+	
+	/**
+	 * The shape of result set : the dialect, entity mapping, result class and the columns.
+	 */
+	protected static final class RowMapperKey {
+		private final DbDialect     dialect;
+		private final EntityMapping em;
+		private final Class<?>      resultClass;
+		private final String        columns;
+		private final int           hash;
+		
+		protected RowMapperKey(DbDialect dialect, EntityMapping em, Class<?> resultClass, ResultSetMetaData md) throws SQLException {
+			StringBuilder s = new StringBuilder();
+			
+			for(int i=1;i<=md.getColumnCount();i++) {
+				s.append(md.getColumnLabel(i)).append(',')
+				 .append(md.getColumnName(i)).append(',')
+				 .append(md.getTableName(i)).append(',')
+				 .append(md.getColumnType(i)).append(';');
+			}
+			
+			this.dialect     = dialect;
+			this.em          = em;
+			this.resultClass = resultClass;
+			this.columns     = s.toString();
+			this.hash        = 31 * (31 * System.identityHashCode(em) + resultClass.hashCode()) + columns.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			
+			if(!(obj instanceof RowMapperKey)) {
+				return false;
+			}
+			
+			RowMapperKey o = (RowMapperKey)obj;
+			
+			return dialect == o.dialect && em == o.em && resultClass == o.resultClass && columns.equals(o.columns);
+		}
+	}
+}
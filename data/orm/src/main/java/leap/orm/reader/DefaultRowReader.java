@@ -42,6 +42,18 @@ import leap.orm.sql.ast.SqlSelect;
 public class DefaultRowReader implements RowReader {
 	
 	private static final Log log = LogFactory.get(DefaultRowReader.class);
+	
+	@Override
+	public <T> RowMapper<T> getRowMapper(OrmContext context, ResultSet rs, Class<T> resultClass, SqlCommand command) throws SQLException {
+		ResultColumn[] columns = createResultColumns(context, command, rs);
+		
+		if(Record.class.equals(resultClass) || Map.class.equals(resultClass)) {
+			return (r) -> readCurrentRow(context, r, columns, resultClass);
+		}
+		
+		BeanType bt = BeanType.of(resultClass);
+		return (r) -> readBean(context, r, columns, bt);
+	}
 
 	@Override
     public <T> T readFirst(OrmContext context, ResultSet rs, Class<T> resultClass,SqlCommand command) throws SQLException {
@@ -26,6 +26,11 @@ import leap.orm.mapping.EntityMapping;
 
 public interface EntityReader {
 	
+	/**
+	 * Returns a {@link RowMapper} for reading the rows of the given {@link ResultSet} one by one.
+	 */
+	<T> RowMapper<T> getRowMapper(OrmContext context, ResultSet rs, EntityMapping em, Class<T> resultClass) throws SQLException;
+	
 	<T> T readFirst(OrmContext context, ResultSet rs, EntityMapping em, Class<T> resultClass) throws SQLException;
 
 	<T> T readSingle(OrmContext context, ResultSet rs, EntityMapping em, Class<T> resultClass) throws SQLException, TooManyRecordsException;
@@ -18,11 +18,18 @@ package leap.orm.reader;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import leap.core.exception.EmptyRecordsException;
 import leap.core.exception.TooManyRecordsException;
 import leap.core.jdbc.ResultSetReader;
 import leap.core.jdbc.RawScalarReader;
+import leap.lang.exception.NestedSQLException;
 import leap.orm.OrmContext;
 import leap.orm.mapping.EntityMapping;
 import leap.orm.sql.SqlCommand;
@@ -103,6 +110,56 @@ public class ResultSetReaders {
 		};
 	}
 	
+	public static <T,R> ResultSetReader<R> forStreamEntity(final OrmContext context, final EntityMapping em, final Class<? extends T> resultClass,
+														   final int fetchSize, final Function<Stream<T>, R> func){
+		return new ResultSetReader<R>() {
+			@Override
+			public R read(ResultSet rs) throws SQLException {
+				return func.apply(ResultSetReaders.<T>stream(rs, context.getEntityReader().getRowMapper(context, rs, em, resultClass)));
+			}
+
+			@Override
+			public int getFetchSize() {
+				return fetchSize;
+			}
+		};
+	}
+
+	public static <T,R> ResultSetReader<R> forStreamRow(final OrmContext context, final Class<? extends T> resultClass, final SqlCommand command,
+														final int fetchSize, final Function<Stream<T>, R> func){
+		return new ResultSetReader<R>() {
+			@Override
+			public R read(ResultSet rs) throws SQLException {
+				return func.apply(ResultSetReaders.<T>stream(rs, context.getRowReader().getRowMapper(context, rs, resultClass, command)));
+			}
+
+			@Override
+			public int getFetchSize() {
+				return fetchSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns a lazy {@link Stream} reads the rows of the {@link ResultSet} one by one while consuming.
+	 */
+	protected static <T> Stream<T> stream(final ResultSet rs, final RowMapper<? extends T> mapper) {
+		return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action) {
+				try {
+					if(!rs.next()) {
+						return false;
+					}
+					action.accept(mapper.mapRow(rs));
+					return true;
+				} catch (SQLException e) {
+					throw new NestedSQLException(e);
+				}
+			}
+		}, false);
+	}
+	
 	protected ResultSetReaders(){
 		
 	}
@@ -25,6 +25,11 @@ import leap.orm.sql.SqlCommand;
 
 public interface RowReader {
 	
+	/**
+	 * Returns a {@link RowMapper} for reading the rows of the given {@link ResultSet} one by one.
+	 */
+	<T> RowMapper<T> getRowMapper(OrmContext context, ResultSet rs, Class<T> resultClass, SqlCommand command) throws SQLException;
+	
 	<T> T readFirst(OrmContext context, ResultSet rs, Class<T> resultClass,SqlCommand command) throws SQLException;
 
 	<T> T readSingle(OrmContext context, ResultSet rs, Class<T> resultClass,SqlCommand command) throws SQLException, TooManyRecordsException;
@@ -21,6 +21,21 @@ import leap.lang.exception.NestedSQLException;
 
 public interface BatchSqlStatement {
 	
+	/**
+	 * Returns the jdbc sql of this statement.
+	 */
+	String getSql();
+	
+	/**
+	 * Returns the args of each row.
+	 */
+	Object[][] getBatchArgs();
+	
+	/**
+	 * Returns the jdbc types of args, may be <code>null</code> or empty.
+	 */
+	int[] getArgTypes();
+	
 	int[] executeBatchUpdate() throws NestedSQLException;
 	
 	int[] executeBatchUpdate(BatchPreparedStatementHandler<Db> handler) throws NestedSQLException;
@@ -161,6 +161,19 @@ public class DefaultSqlCommand implements SqlCommand {
 	    return doExecuteBatchUpdate(context, batchParams, preparedStatementHandler);
     }
 
+	@Override
+	public BatchSqlStatement createBatchStatement(SqlContext context, Object[] batchParams) throws IllegalStateException {
+        mustPrepare(context);
+
+		Assert.isTrue(null == queryClause,"This command is a query, cannot execute batch update");
+		
+		if(clauses.length == 1){
+			return clauses[0].createBatchStatement(context, batchParams);
+		}else{
+			throw new IllegalStateException("Two or more sql statements in a sql command not supported now");
+		}
+	}
+
 	protected int doExecuteUpdate(SqlContext context, Object params, PreparedStatementHandler<Db> psHandler) {
         mustPrepare(context);
 
@@ -177,15 +190,7 @@ public class DefaultSqlCommand implements SqlCommand {
         if(identity != null){
             log.debug("sql identity:{}",identity.identity());
         }
-        mustPrepare(context);
-
-		Assert.isTrue(null == queryClause,"This command is a query, cannot execute batch update");
-		
-		if(clauses.length == 1){
-			return clauses[0].createBatchStatement(context, batchParams).executeBatchUpdate(psHandler);
-		}else{
-			throw new IllegalStateException("Two or more sql statements in a sql command not supported now");
-		}
+		return createBatchStatement(context, batchParams).executeBatchUpdate(psHandler);
 	}
 
     protected String prepareSql(MetadataContext context, String content) {
@@ -46,6 +46,21 @@ public class DefaultSqlStatement implements SqlStatement,BatchSqlStatement {
 		this.batchArgs = batchArgs;
 	}
 
+	@Override
+	public String getSql() {
+		return sql;
+	}
+
+	@Override
+	public Object[][] getBatchArgs() {
+		return batchArgs;
+	}
+
+	@Override
+	public int[] getArgTypes() {
+		return argTypes;
+	}
+
 	@Override
     public int executeUpdate() throws NestedSQLException {
 		return context.getJdbcExecutor().executeUpdate(sql, args, argTypes);
@@ -15,8 +15,11 @@
  */
 package leap.orm.sql;
 
+import leap.core.cache.CachePolicy;
+import leap.core.cache.ConcurrentCache;
 import leap.core.params.ParamsFactory;
 import leap.db.Db;
+import leap.db.DbDialect;
 import leap.db.DbLimitQuery;
 import leap.lang.Args;
 import leap.lang.Arrays2;
@@ -30,9 +33,11 @@ import leap.lang.params.Params;
 import leap.lang.value.Limit;
 import leap.orm.query.QueryContext;
 import leap.orm.sql.ast.*;
+import leap.orm.sql.ast.SqlSignature.Binding;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
 	
@@ -40,6 +45,8 @@ public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
 	
 	public static final String ORDER_BY_PLACEHOLDER = "$orderBy$";
 	
+	private static final int STATEMENT_CACHE_SIZE = 128;
+	
 	protected final DynamicSqlLanguage lang;
 	protected final Sql 			   sql;
 	
@@ -52,6 +59,14 @@ public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
 	
 	private PreparedBatchSqlStatement preparedBatchStatement;
 	
+	//parsed sql with the order by expression, keyed by dialect and order by.
+	private volatile ConcurrentCache<StatementKey, Sql>      sqlsWithOrderBy;
+	
+	//final limit query sql of the dialect, keyed by dialect, clause signature and paging shape (with or without offset).
+	//the clause signature is resolved from the branches taken and the parameter values without rendering the sql,
+	//the args are bound from the evaluated values and the current limit on every call.
+	private volatile ConcurrentCache<StatementKey, LimitSql> limitSqls;
+	
 	public DynamicSqlClause(DynamicSqlLanguage lang, Sql sql){
 		Args.notNull(lang,"lang");
 		Args.notNull(sql, "sql");
@@ -97,11 +112,129 @@ public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
     }
 	
 	protected SqlStatement createLimitQueryStatement(QueryContext context, Object params) {
-		DbLimitQuery limitQuery = new DynamicSqlLimitQuery(context, params);
+		Db                   db         = context.getOrmContext().getDb();
+		DynamicSqlLimitQuery limitQuery = new DynamicSqlLimitQuery(context, params);
+		Limit                limit      = context.getLimit();
+		
+		//The sql is rendered only if the signature is not cached or cannot be resolved without rendering.
+		SqlSignature signature = limitQuery.resolveSignature(db);
+		
+		String       text = null == signature ? "=" + limitQuery.getSql(db) : "#" + signature.getKey() + Strings.nullToEmpty(limitQuery.getOrderBy());
+		StatementKey key  = new StatementKey(db.getDialect(), text, limit.getStart() > 1);
+		
+		LimitSql limitSql = getLimitSqls().get(key);
+		if(null == limitSql) {
+			List<Object> args = limitQuery.buildStatement(db).getArgs();
+			
+			Binding binding = null == signature ? null : signature.record(limitQuery.statement);
+			
+			int    size = args.size();
+			String sql  = db.getDialect().getLimitQuerySql(limitQuery);
+			
+			int[] slots = resolveLimitSlots(db, limitQuery, sql, args.subList(size, args.size()));
+			if(null != slots && (null == signature || null != binding)) {
+				getLimitSqls().put(key, new LimitSql(sql, binding, slots));
+			}else{
+				log.debug("Limit query sql of the dialect cannot be cached, build it per call : \n {}", sql);
+			}
+			
+			return new DefaultSqlStatement(context, sql, args.toArray(), Arrays2.EMPTY_INT_ARRAY);
+		}
+		
+		List<Object> args = null == signature ? limitQuery.getArgs() : signature.bind(limitSql.binding);
 		
-		String sql = context.getOrmContext().getDb().getDialect().getLimitQuerySql(limitQuery);
+		int offset = limit.getStart() - 1;
+		int rows   = limit.getEnd()   - offset;
+		for(int slot : limitSql.slots) {
+			args.add(slot == LimitSql.OFFSET ? offset : rows);
+		}
 	    
-		return new DefaultSqlStatement(context, sql, limitQuery.getArgs().toArray(), Arrays2.EMPTY_INT_ARRAY);
+		return new DefaultSqlStatement(context, limitSql.sql, args.toArray(), Arrays2.EMPTY_INT_ARRAY);
+	}
+	
+	/**
+	 * Maps the args appended by the dialect to the offset or the rows of the limit.
+	 * 
+	 * <p/>
+	 * Returns <code>null</code> if the args cannot be mapped, the limit query sql will not be cached in that case.
+	 * 
+	 * <p/>
+	 * The sql is cached only if the dialect emits one placeholder for each appended arg and renders the same sql 
+	 * for another limit of the same paging shape, i.e. no offset or rows is inlined into the sql as literal.
+	 */
+	protected int[] resolveLimitSlots(Db db, DbLimitQuery query, String sql, List<Object> limitArgs) {
+		if(countPlaceholders(sql) - countPlaceholders(query.getSql(db)) != limitArgs.size()) {
+			return null;
+		}
+		
+		Limit limit  = query.getLimit();
+		int   offset = limit.getStart() - 1;
+		int   rows   = limit.getEnd()   - offset;
+		
+		//The probe values differ from the current ones and from each other, a literal changes the rendered sql.
+		int probeRows   = rows + 1;
+		int probeOffset = offset > 0 ? offset + rows + 2 : 0;
+		
+		ProbeLimitQuery probe = new ProbeLimitQuery(query, new Limit(probeOffset + 1, probeOffset + probeRows));
+		if(!sql.equals(db.getDialect().getLimitQuerySql(probe)) || probe.args.size() != limitArgs.size()) {
+			return null;
+		}
+		
+		int[] slots = resolveLimitSlots(probe.args, probeOffset, probeRows);
+		if(null == slots) {
+			return null;
+		}
+		
+		for(int i=0;i<slots.length;i++) {
+			Object expected = slots[i] == LimitSql.OFFSET ? offset : rows;
+			if(!expected.equals(limitArgs.get(i))) {
+				return null;
+			}
+		}
+		
+		return slots;
+	}
+	
+	private static int[] resolveLimitSlots(List<Object> limitArgs, int offset, int rows) {
+		int[] slots = new int[limitArgs.size()];
+		
+		for(int i=0;i<slots.length;i++) {
+			Object arg = limitArgs.get(i);
+			
+			if(!(arg instanceof Integer)) {
+				return null;
+			}
+			
+			int value = (Integer)arg;
+			if(value == offset) {
+				slots[i] = LimitSql.OFFSET;
+			}else if(value == rows) {
+				slots[i] = LimitSql.ROWS;
+			}else{
+				return null;
+			}
+		}
+		
+		return slots;
+	}
+	
+	/**
+	 * Counts the jdbc placeholders outside of the quoted literals in the given sql.
+	 */
+	private static int countPlaceholders(String sql) {
+		int     count  = 0;
+		boolean quoted = false;
+		
+		for(int i=0;i<sql.length();i++) {
+			char c = sql.charAt(i);
+			if(c == '\'') {
+				quoted = !quoted;
+			}else if(c == '?' && !quoted) {
+				count++;
+			}
+		}
+		
+		return count;
 	}
 	
 	protected SqlStatement createOrderByQueryStatement(QueryContext context, Object params) {
@@ -221,6 +354,51 @@ public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
 		return nodes;
 	}
 	
+	/**
+	 * Returns the parsed {@link Sql} of this clause with the given order by expression.
+	 */
+	protected Sql getSqlWithOrderBy(QueryContext context, Db db, String orderBy) {
+		StatementKey key = new StatementKey(db.getDialect(), orderBy, false);
+		
+		Sql sql = getSqlsWithOrderBy().get(key);
+		if(null == sql) {
+			String sqlWithOrderBy;
+			
+			if(hasOrderByPlaceHolder){
+				sqlWithOrderBy = Strings.replace(sqlWithoutOrderByString, ORDER_BY_PLACEHOLDER, orderBy);
+			}else{
+				sqlWithOrderBy = db.getDialect().addOrderBy(sqlWithoutOrderByString, orderBy);
+			}
+			
+			sql = lang.parseClause(context.getOrmContext(), sqlWithOrderBy).getSql();
+			getSqlsWithOrderBy().put(key, sql);
+		}
+		
+		return sql;
+	}
+	
+	private ConcurrentCache<StatementKey, Sql> getSqlsWithOrderBy() {
+		if(null == sqlsWithOrderBy) {
+			synchronized (this) {
+				if(null == sqlsWithOrderBy) {
+					sqlsWithOrderBy = new ConcurrentCache<>(STATEMENT_CACHE_SIZE, CachePolicy.TINY_LFU);
+				}
+			}
+		}
+		return sqlsWithOrderBy;
+	}
+	
+	private ConcurrentCache<StatementKey, LimitSql> getLimitSqls() {
+		if(null == limitSqls) {
+			synchronized (this) {
+				if(null == limitSqls) {
+					limitSqls = new ConcurrentCache<>(STATEMENT_CACHE_SIZE, CachePolicy.TINY_LFU);
+				}
+			}
+		}
+		return limitSqls;
+	}
+	
 	protected PreparedBatchSqlStatement prepareBatchSqlStatement(SqlContext context) {
 		if(null == preparedBatchStatement) {
 			synchronized (this) {
@@ -299,14 +477,16 @@ public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
 		private final QueryContext 		   context;
 		private final Params    	   parameters;
 		private String               	   orderBy;
-		private DefaultSqlStatementBuilder statement;
+		private SqlSignature.Recorder      statement;
+		private boolean                    built;
+		private String                     renderedSql;
 		
 		//private boolean hasOrderByPlaceHolder = false;
 		
 		protected DynamicSqlLimitQuery(QueryContext context,Object params){
 			this.context    = context;
 			this.parameters = createParameters(context,params);
-			this.statement  = new DefaultSqlStatementBuilder(context, true);
+			this.statement  = new SqlSignature.Recorder(context, true);
 			
 			if(!Strings.isEmpty(context.getOrderBy())){
 				orderBy = "order by " + context.getOrderBy();
@@ -317,35 +497,38 @@ public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
 		
 		@Override
         public String getSql(Db db) {
-			buildStatement(db);
-			return statement.getSql().toString();
+			if(null == renderedSql) {
+				buildStatement(db);
+				renderedSql = statement.getSql().toString();
+			}
+			return renderedSql;
         }
 		
 		public DefaultSqlStatementBuilder buildStatement(Db db) {
-			Sql sql = null;
-			
-			if(Strings.isEmpty(orderBy)) {
-				sql = sqlWithoutOrderBy;
-			}else{
-				//TODO : optimize
-				String sqlWithOrderBy = null;
-				
-				String sqlWithoutOrderBy = getSqlWithoutOrderBy(db);
-				
-				if(hasOrderByPlaceHolder){
-					sqlWithOrderBy = Strings.replace(sqlWithoutOrderBy, ORDER_BY_PLACEHOLDER, orderBy);
-				}else{
-					sqlWithOrderBy = db.getDialect().addOrderBy(sqlWithoutOrderBy, orderBy);
-				}
-				
-				DynamicSqlClause sqlClauseWithOrderBy = lang.parseClause(context.getOrmContext(), sqlWithOrderBy);
-				sql = sqlClauseWithOrderBy.getSql();
+			if(built) {
+				return statement;
 			}
+			built = true;
 			
-			sql.buildStatement(statement, parameters);
+			resolveSql(db).buildStatement(statement, parameters);
 			
 			return statement;
 		}
+		
+		/**
+		 * Returns the signature of the sql for the parameters, or <code>null</code> if it cannot be resolved without rendering.
+		 */
+		public SqlSignature resolveSignature(Db db) {
+			return SqlSignature.resolve(context, resolveSql(db), parameters);
+		}
+		
+		protected Sql resolveSql(Db db) {
+			if(Strings.isEmpty(orderBy)) {
+				return sqlWithoutOrderBy;
+			}else{
+				return getSqlWithOrderBy(context, db, orderBy);
+			}
+		}
 
 		@Override
         public String getSqlWithoutOrderBy(Db db) {
@@ -405,4 +588,86 @@ public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
 	        return statement.getArgs();
         }
 	}
-}
\ No newline at end of file
+	
+	protected static final class StatementKey {
+		private final DbDialect dialect;
+		private final String    text;
+		private final boolean   offset;
+		private final int       hash;
+		
+		StatementKey(DbDialect dialect, String text, boolean offset) {
+			this.dialect = dialect;
+			this.text    = text;
+			this.offset  = offset;
+			this.hash    = Objects.hash(System.identityHashCode(dialect), text, offset);
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(!(obj instanceof StatementKey)) {
+				return false;
+			}
+			StatementKey o = (StatementKey)obj;
+			return dialect == o.dialect && offset == o.offset && text.equals(o.text);
+		}
+	}
+	
+	protected static final class ProbeLimitQuery implements DbLimitQuery {
+		private final DbLimitQuery query;
+		private final Limit        limit;
+		private final List<Object> args = new ArrayList<Object>();
+		
+		ProbeLimitQuery(DbLimitQuery query, Limit limit) {
+			this.query = query;
+			this.limit = limit;
+		}
+
+		@Override
+		public String getSql(Db db) {
+			return query.getSql(db);
+		}
+
+		@Override
+		public String getSqlWithoutOrderBy(Db db) {
+			return query.getSqlWithoutOrderBy(db);
+		}
+
+		@Override
+		public Limit getLimit() {
+			return limit;
+		}
+
+		@Override
+		public String getOrderBy() {
+			return query.getOrderBy();
+		}
+
+		@Override
+		public List<Object> getArgs() {
+			return args;
+		}
+	}
+	
+	protected static final class LimitSql {
+		static final int OFFSET = 0;
+		static final int ROWS   = 1;
+		
+		private final String  sql;
+		private final Binding binding;
+		private final int[]   slots;
+		
+		LimitSql(String sql, Binding binding, int[] slots) {
+			this.sql     = sql;
+			this.binding = binding;
+			this.slots   = slots;
+		}
+	}
+}
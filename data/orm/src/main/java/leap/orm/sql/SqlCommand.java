@@ -117,5 +117,12 @@ public interface SqlCommand extends Sourced {
 	 * @see PreparedStatement#executeBatch()
 	 */
 	int[] executeBatchUpdate(SqlContext context,Object[] batchParams,BatchPreparedStatementHandler<Db> preparedStatementHandler) throws IllegalStateException, NestedSQLException;
+	
+	/**
+	 * Creates a batch statement of the given params without executing it.
+	 * 
+	 * @throws IllegalStateException if this command is not an update command.
+	 */
+	BatchSqlStatement createBatchStatement(SqlContext context,Object[] batchParams) throws IllegalStateException;
 
 }
\ No newline at end of file
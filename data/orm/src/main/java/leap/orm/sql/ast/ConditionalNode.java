@@ -36,6 +36,10 @@ public class ConditionalNode extends SqlNodeContainer {
         this.condition = condition;
     }
 
+    public Expression getCondition() {
+        return condition;
+    }
+
     @Override
     protected void buildStatement_(SqlStatementBuilder stm, Params params) throws IOException {
         if(EL.test(condition, null, params.map())) {
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.sql.ast;
+
+import leap.core.el.EL;
+import leap.lang.Enumerables;
+import leap.lang.Strings;
+import leap.lang.annotation.Internal;
+import leap.lang.convert.Converts;
+import leap.lang.params.Params;
+import leap.orm.sql.DefaultSqlStatementBuilder;
+import leap.orm.sql.Sql;
+import leap.orm.sql.SqlContext;
+import leap.orm.sql.SqlStatement;
+import leap.orm.sql.SqlStatementBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The branches taken and the shapes of the parameter values when building the statement of a {@link Sql}.
+ *
+ * <p>
+ * The signature is resolved by evaluating the conditions and the parameters of the taken branches only, no sql text is rendered.
+ * The statements built for the same signature have the same sql text and bind the args in the same order,
+ * so the rendered text can be reused by the signature and the args are bound from the evaluated values by a {@link Binding}.
+ */
+@Internal
+public final class SqlSignature {
+
+	private static final int WHOLE = -1;
+	private static final int NULL  = -2;
+
+	/**
+	 * Returns the signature of the sql for the given parameters.
+	 *
+	 * <p>
+	 * Returns <code>null</code> if the sql contains a node which cannot be resolved without rendering, such as a dynamic table name.
+	 */
+	public static SqlSignature resolve(SqlContext context, Sql sql, Params params) {
+		SqlSignature signature = new SqlSignature(context, params);
+
+		return signature.resolve(sql.nodes()) ? signature : null;
+	}
+
+	private final Params         params;
+	private final EvalBuilder    stm;
+	private final StringBuilder  key    = new StringBuilder();
+	private final List<Object>   values = new ArrayList<>();
+	private final List<Object[]> items  = new ArrayList<>();
+
+	private SqlSignature(SqlContext context, Params params) {
+		this.params = params;
+		this.stm    = new EvalBuilder(context);
+	}
+
+	/**
+	 * Returns the text of this signature.
+	 */
+	public String getKey() {
+		return key.toString();
+	}
+
+	/**
+	 * Resolves the {@link Binding} of the args added to the given recorder.
+	 *
+	 * <p>
+	 * Returns <code>null</code> if an arg is not the evaluated value of a parameter or an item of it,
+	 * i.e. the parameter value is not the same when evaluated again.
+	 */
+	public Binding record(Recorder recorder) {
+		List<Object> args = recorder.getArgs();
+		if(args.size() != recorder.size) {
+			return null;
+		}
+
+		int[] indexes  = Arrays.copyOf(recorder.params, recorder.size);
+		int[] ordinals = new int[indexes.length];
+		int[] next     = new int[values.size()];
+
+		for(int i=0;i<ordinals.length;i++) {
+			int    p   = indexes[i];
+			Object arg = args.get(i);
+
+			if(p < 0 || p >= values.size()) {
+				return null;
+			}
+
+			Object   value = values.get(p);
+			Object[] list  = items.get(p);
+
+			if(null == list || Objects.equals(arg, value)) {
+				if(!Objects.equals(arg, value)) {
+					return null;
+				}
+				ordinals[i] = WHOLE;
+			}else if(null == arg) {
+				ordinals[i] = NULL;
+			}else{
+				int ordinal = next[p]++;
+				if(ordinal >= list.length || !Objects.equals(arg, list[ordinal])) {
+					return null;
+				}
+				ordinals[i] = ordinal;
+			}
+		}
+
+		return new Binding(indexes, ordinals);
+	}
+
+	/**
+	 * Returns the args bound from the values evaluated by this signature.
+	 */
+	public List<Object> bind(Binding binding) {
+		List<Object> args = new ArrayList<>(binding.params.length + 2);
+
+		for(int i=0;i<binding.params.length;i++) {
+			int p       = binding.params[i];
+			int ordinal = binding.ordinals[i];
+
+			if(ordinal == WHOLE) {
+				args.add(values.get(p));
+			}else if(ordinal == NULL) {
+				args.add(null);
+			}else{
+				args.add(items.get(p)[ordinal]);
+			}
+		}
+
+		return args;
+	}
+
+	private boolean resolve(AstNode[] nodes) {
+		for(AstNode node : nodes) {
+			if(!resolve(node)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean resolve(AstNode node) {
+		if(node instanceof IfClause) {
+			IfClause clause = (IfClause)node;
+
+			boolean condition = false;
+			for(IfStatement ifStatement : clause.getIfStatements()) {
+				boolean test = Boolean.TRUE.equals(ifStatement.getCondition().eval(stm, params));
+
+				key.append(test ? 'T' : 'F');
+				if(test) {
+					if(!resolve(ifStatement.getBodyNodes())) {
+						return false;
+					}
+					condition = true;
+				}
+			}
+
+			if(!condition && null != clause.getElseStatement()) {
+				return resolve(clause.getElseStatement().getBodyNodes());
+			}
+			return true;
+		}
+
+		if(node instanceof DynamicClause) {
+			DynamicClause clause = (DynamicClause)node;
+
+			boolean test = clause.test(params);
+
+			key.append(test ? 'T' : 'F');
+			return !test || resolve(clause.getBodyNodes());
+		}
+
+		if(node instanceof ConditionalNode) {
+			ConditionalNode conditional = (ConditionalNode)node;
+
+			boolean test = EL.test(conditional.getCondition(), null, params.map());
+
+			key.append(test ? 'T' : 'F');
+			return !test || resolve(conditional.getNodes());
+		}
+
+		if(node instanceof ParamBase) {
+			resolveParam((ParamBase)node);
+			return true;
+		}
+
+		if(node instanceof SqlTableName && null != ((SqlTableName) node).getDynamicTableName()) {
+			return false;
+		}
+
+		if(node instanceof SqlNodeContainer) {
+			return resolve(((SqlNodeContainer) node).getNodes());
+		}
+
+		//the text of the other nodes depends on the dialect only.
+		return node instanceof Text || node instanceof SqlNode;
+	}
+
+	/**
+	 * The shape of a value decides the placeholders and the 'is null' rewriting, the replaced text is a part of the signature.
+	 */
+	private void resolveParam(ParamBase param) {
+		stm.increaseAndGetParameterIndex();
+
+		Object value = param.eval(stm, params);
+
+		values.add(value);
+
+		if(param.isReplace()) {
+			String text = Strings.nullToEmpty(Converts.toString(value));
+
+			key.append('R').append(text.length()).append(':').append(text);
+			items.add(null);
+			return;
+		}
+
+		if(null == value) {
+			key.append('N');
+			items.add(null);
+		}else if(isEnumerable(value)) {
+			List<Object> list = new ArrayList<>();
+			for(Object item : Enumerables.of(value)) {
+				if(null != item && !"".equals(item)) {
+					list.add(item);
+				}
+			}
+
+			key.append('[').append(list.size()).append(']');
+			items.add(list.toArray());
+		}else{
+			key.append('V');
+			items.add(null);
+		}
+	}
+
+	private static boolean isEnumerable(Object value) {
+		return value instanceof Iterable || value.getClass().isArray();
+	}
+
+	/**
+	 * The parameter and the item of the parameter value bound to each arg.
+	 */
+	public static final class Binding {
+		private final int[] params;
+		private final int[] ordinals;
+
+		private Binding(int[] params, int[] ordinals) {
+			this.params   = params;
+			this.ordinals = ordinals;
+		}
+	}
+
+	/**
+	 * A {@link DefaultSqlStatementBuilder} which records the parameter of each added arg.
+	 */
+	public static final class Recorder extends DefaultSqlStatementBuilder {
+
+		private int[] params = new int[8];
+		private int   size;
+
+		public Recorder(SqlContext context, boolean query) {
+			super(context, query);
+		}
+
+		@Override
+		public DefaultSqlStatementBuilder addParameter(Object value) {
+			if(size == params.length) {
+				params = Arrays.copyOf(params, size * 2);
+			}
+			params[size++] = currentParameterIndex();
+
+			return super.addParameter(value);
+		}
+	}
+
+	/**
+	 * Evaluates the parameters without building any statement.
+	 */
+	private static final class EvalBuilder implements SqlStatementBuilder {
+
+		private final SqlContext context;
+
+		private int pi = -1;
+
+		EvalBuilder(SqlContext context) {
+			this.context = context;
+		}
+
+		@Override
+		public SqlContext context() {
+			return context;
+		}
+
+		@Override
+		public boolean isQuery() {
+			return true;
+		}
+
+		@Override
+		public int increaseAndGetParameterIndex() {
+			return ++pi;
+		}
+
+		@Override
+		public int currentParameterIndex() {
+			return pi;
+		}
+
+		@Override
+		public SqlStatementBuilder addParameter(Object value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean isLastInOperator() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean removeLastEqualsOperator() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Appendable append(CharSequence csq) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Appendable append(CharSequence csq, int start, int end) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Appendable append(char c) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public SqlStatement build() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+}
@@ -17,6 +17,7 @@ package leap.orm.dao;
 
 import leap.lang.New;
 import leap.orm.OrmTestCase;
+import leap.orm.command.BatchInsertCommand;
 import leap.orm.tested.model.petclinic.Owner;
 
 import org.junit.Test;
@@ -68,6 +69,64 @@ public class BatchTest extends OrmTestCase {
 		assertEquals(0, results.length);
 	}
 
+	@Test
+	public void testCmdBatchInsertMultiRowsWithoutChunkSize() {
+		deleteAll(Owner.class);
+		
+		//more rows than the default limitation of a multi-row insert statement.
+		List<Owner> owners = New.arrayList();
+		for(int i=0;i<1201;i++) {
+			Owner o = new Owner();
+			o.setFirstName("f" + i);
+			o.setLastName("l" + i);
+			owners.add(o);
+		}
+		
+		int[] results = dao.cmdBatchInsert(Owner.class, owners).setMultiRows(true).execute();
+		assertEquals(1201, results.length);
+		assertEquals(1201, Owner.count());
+		
+		deleteAll(Owner.class);
+	}
+	
+	@Test
+	public void testCmdBatchInsert() {
+		deleteAll(Owner.class);
+		
+		List<Owner> owners = New.arrayList();
+		for(int i=0;i<5;i++) {
+			Owner o = new Owner();
+			o.setFirstName("f" + i);
+			o.setLastName("l" + i);
+			owners.add(o);
+		}
+		
+		int[] results = dao.cmdBatchInsert(Owner.class, owners).setChunkSize(2).setMultiRows(true).execute();
+		assertEquals(5, results.length);
+		assertEquals(5, Owner.count());
+		
+		deleteAll(Owner.class);
+		
+		results = dao.cmdBatchInsert(Owner.class, owners).setChunkSize(2).execute();
+		assertEquals(5, results.length);
+		assertEquals(1, results[4]);
+		assertEquals(5, Owner.count());
+		
+		deleteAll(Owner.class);
+		
+		BatchInsertCommand command = 
+				dao.cmdBatchInsert(Owner.class, owners).setChunkSize(2).setMultiRows(true).setReturnGeneratedIds(true);
+		results = command.execute();
+		assertEquals(5, results.length);
+		
+		Object[] ids = command.getGeneratedIds();
+		assertEquals(5, ids.length);
+		for(int i=0;i<owners.size();i++) {
+			assertNotNull(ids[i]);
+			assertEquals(owners.get(i).getFirstName(), Owner.<Owner>find(owners.get(i).getId()).getFirstName());
+		}
+	}
+
 	protected void assertSuccess(int[] results) {
 		assertEquals(2,results.length);
 		assertEquals(1,results[0]);
@@ -15,7 +15,10 @@
  */
 package leap.orm.dao.query;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import leap.lang.Confirm;
 import leap.orm.tested.model.file.Directory;
@@ -81,6 +84,30 @@ public class CriteriaQueryTest extends OrmTestCase {
 		assertEquals("b 0",owners.get(1).getFullName());		
 	}
 	
+	@Test
+	public void testStreamAndForEach() {
+		deleteAll(Owner.class);
+		
+		for(int i=0;i<5;i++) {
+			new Owner().setFullName("a" + i, "0").save();
+		}
+		
+		List<String> names = new ArrayList<>();
+		Owner.<Owner>query().orderBy("firstName asc").fetchSize(2).forEach(o -> names.add(o.getFirstName()));
+		assertEquals(5, names.size());
+		assertEquals("a0", names.get(0));
+		assertEquals("a4", names.get(4));
+		
+		List<String> filtered = Owner.<Owner>query().orderBy("firstName asc")
+				.stream(s -> s.map(Owner::getFirstName).filter(n -> n.compareTo("a2") > 0).collect(Collectors.toList()));
+		assertEquals(2, filtered.size());
+		assertEquals("a3", filtered.get(0));
+		
+		assertEquals(5L, (long)dao.createSqlQuery("select * from owners").stream(s -> s.count()));
+		assertEquals("a0", dao.createSqlQuery(Map.class, "select first_name from owners order by first_name asc")
+				.stream(s -> s.findFirst().get().get("firstName")));
+	}
+	
 	@Test
 	public void testEqualsToIsNull() {
 		deleteAll(Owner.class);
@@ -76,6 +76,75 @@ public class OrderByTest extends OrmTestCase {
 		assertEquals("b",owners.get(1).getFirstName());		
 	}
 	
+	@Test
+	public void testRepeatedLimitAndOrderByByNamedSql() {
+		deleteAll(Owner.class);
+		
+		new Owner().setFullName("b", "l").save();
+		new Owner().setFullName("a", "l").save();
+		new Owner().setFullName("c", "l").save();
+		new Owner().setFullName("d", "x").save();
+		
+		for(int i=0;i<3;i++) {
+			List<Owner> owners = 
+					Owner.<Owner>query("testOrderByQuery.testSimpleOrderByWithParam")
+						 .orderBy("firstName asc").param("lastName", "l")
+						 .limit(2, 3)
+						 .list();
+			
+			assertEquals(2, owners.size());
+			assertEquals("b",owners.get(0).getFirstName());
+			assertEquals("c",owners.get(1).getFirstName());
+			
+			owners = 
+					Owner.<Owner>query("testOrderByQuery.testSimpleOrderByWithParam")
+						 .orderBy("firstName desc").param("lastName", "l")
+						 .limit(1)
+						 .list();
+			
+			assertEquals(1, owners.size());
+			assertEquals("c",owners.get(0).getFirstName());
+			
+			owners = 
+					Owner.<Owner>query("testOrderByQuery.testSimpleOrderByWithParam")
+						 .orderBy("firstName desc").param("lastName", "x")
+						 .limit(1)
+						 .list();
+			
+			assertEquals(1, owners.size());
+			assertEquals("d",owners.get(0).getFirstName());
+		}
+	}
+	
+	@Test
+	public void testPagingByNamedSql() {
+		deleteAll(Owner.class);
+
+		new Owner().setFullName("b", "l").save();
+		new Owner().setFullName("a", "l").save();
+		new Owner().setFullName("e", "l").save();
+		new Owner().setFullName("c", "l").save();
+		new Owner().setFullName("d", "l").save();
+
+		String[] names = new String[]{"a","b","c","d","e"};
+
+		for(int size=1;size<=3;size++) {
+			for(int start=1;start<=names.length;start+=size) {
+				List<Owner> owners =
+						Owner.<Owner>query("testOrderByQuery.testSimpleOrderByWithParam")
+							 .orderBy("firstName asc").param("lastName", "l")
+							 .limit(start, start + size - 1)
+							 .list();
+
+				int expected = Math.min(size, names.length - start + 1);
+				assertEquals(expected, owners.size());
+				for(int i=0;i<expected;i++) {
+					assertEquals(names[start - 1 + i], owners.get(i).getFirstName());
+				}
+			}
+		}
+	}
+
 	@Test
 	public void testSimpleOrderByWithParamByNamedSql() {
 		deleteAll(Owner.class);
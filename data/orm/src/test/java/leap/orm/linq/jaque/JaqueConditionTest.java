@@ -15,7 +15,11 @@
  */
 package leap.orm.linq.jaque;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import leap.junit.TestBase;
+import leap.lang.params.Params;
+import leap.lang.params.ParamsMap;
 import leap.orm.linq.Condition;
 import leap.orm.linq.jaque.JaqueConditionTest.O.Status;
 
@@ -55,6 +59,23 @@ public class JaqueConditionTest extends TestBase {
 		assertEquals("name = :p1", sqlWithArg1("x"));
 	}
 	
+	@Test
+	public void testCapturedArgsOfCachedCondition() {
+		JaqueConditionParser parser = new JaqueConditionParser();
+		
+		for(String s : new String[]{"x", "y"}) {
+			Params        params  = new ParamsMap();
+			AtomicInteger counter = new AtomicInteger();
+			
+			assertEquals("name = :p1", parser.parse(condition(s), params, counter));
+			assertEquals(s, params.get("p1"));
+		}
+		
+		Params params = new ParamsMap();
+		assertEquals("age > :p1", parser.parse(condition(10), params, new AtomicInteger()));
+		assertEquals(10, params.get("p1"));
+	}
+	
 	/*TODO : bug
 	@Test
 	public void testAndOr() {
@@ -72,6 +93,14 @@ public class JaqueConditionTest extends TestBase {
 		return sql(o -> o.name.equals(s));
 	}
 	
+	private static Condition<O> condition(String s) {
+		return o -> o.name == s;
+	}
+	
+	private static Condition<O> condition(int age) {
+		return o -> o.age > age;
+	}
+	
 	private static String sql(Condition<O> cnd) {
 		return JaqueConditionParser.sql(cnd);
 	}
@@ -15,14 +15,20 @@
  */
 package leap.orm.model;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import leap.db.model.DbSequence;
+import leap.db.model.DbSequenceBuilder;
 import leap.orm.OrmTestCase;
+import leap.orm.command.BatchInsertCommand;
+import leap.orm.generator.PooledSequenceGenerator;
 import leap.orm.tested.model.ModelWithGuid;
 import leap.orm.tested.model.ModelWithId;
 import leap.orm.tested.model.ModelWithId1;
 import leap.orm.tested.model.ModelWithId2;
 import leap.orm.tested.model.ModelWithId3;
+import leap.orm.tested.model.ModelWithTableSequence;
 
 import org.junit.Test;
 
@@ -107,6 +113,42 @@ public class ModelIdTest extends OrmTestCase {
 		assertEquals(id1,m.id());
 	}
 	
+	@Test
+	public void testModelWithTableSequence() {
+		ModelWithTableSequence m1 = new ModelWithTableSequence();
+		m1.setField1("a");
+		m1.save();
+		assertNotNull(m1.getId());
+		
+		//more than one block of the pool
+		long prev = m1.getId();
+		for(int i=0;i<4;i++) {
+			ModelWithTableSequence m = new ModelWithTableSequence();
+			m.setField1("a" + i);
+			m.save();
+			assertEquals(prev + 1, m.getId().longValue());
+			prev = m.getId();
+		}
+		
+		List<ModelWithTableSequence> models = new ArrayList<>();
+		for(int i=0;i<4;i++) {
+			ModelWithTableSequence m = new ModelWithTableSequence();
+			m.setField1("b" + i);
+			models.add(m);
+		}
+		
+		BatchInsertCommand command = dao.cmdBatchInsert(ModelWithTableSequence.class, models);
+		assertEquals(4, command.execute().length);
+		assertEquals(4, command.getGeneratedIds().length);
+		
+		for(ModelWithTableSequence m : models) {
+			assertEquals(prev + 1, m.getId().longValue());
+			prev = m.getId();
+			
+			assertEquals(m.getField1(), ModelWithTableSequence.<ModelWithTableSequence>find(m.getId()).getField1());
+		}
+	}
+	
 	@Test
 	public void testModelWithId2() {
 		deleteAll(ModelWithId2.class);
@@ -173,4 +215,48 @@ public class ModelIdTest extends OrmTestCase {
 		List<ModelWithId3> models = ModelWithId3.findList(new Object[]{id1,id2});
 		assertEquals(2,models.size());
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void testPooledSequenceIncrement() {
+		if(!db.getDialect().supportsSequence()) {
+			return;
+		}
+		
+		try {
+			db.getDialect().getSelectNextSequenceValueSql("tested_pooled_seq");
+		} catch (IllegalStateException e) {
+			//the dialect can not select the next value of sequence.
+			return;
+		}
+		
+		DbSequence sequence = new DbSequenceBuilder("tested_pooled_seq").setIncrement(1).build();
+		if(db.checkSequenceExists(sequence)) {
+			db.cmdDropSequence(sequence).execute();
+		}
+		db.cmdCreateSequence(sequence).execute();
+		
+		try{
+			db.getMetadata().refresh();
+			
+			assertTrue(new PooledSequenceGenerator(db, "tested_pooled_seq", 1).checkIncrement());
+			
+			PooledSequenceGenerator generator = new PooledSequenceGenerator(db, "tested_pooled_seq", 10);
+			try {
+				generator.checkIncrement();
+				fail("Should throw IllegalStateException");
+			} catch (IllegalStateException e) {
+				assertContains(e.getMessage(), "pool size 10");
+			}
+			
+			try {
+				generator.next();
+				fail("Should throw IllegalStateException");
+			} catch (IllegalStateException e) {
+				
+			}
+		}finally{
+			db.cmdDropSequence(sequence).execute();
+			db.getMetadata().refresh();
+		}
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.model;
+
+import leap.core.AppConfig;
+import leap.core.instrument.AppInstrumentClass;
+import leap.core.instrument.AppInstrumentContext;
+import leap.core.instrument.DefaultAppInstrumentation;
+import leap.junit.TestBase;
+import leap.lang.asm.ClassReader;
+import leap.lang.asm.ClassVisitor;
+import leap.lang.asm.ClassWriter;
+import leap.lang.asm.Opcodes;
+import leap.lang.io.Files;
+import leap.lang.io.IO;
+import leap.lang.resource.ByteArrayResource;
+import leap.lang.resource.Resource;
+import leap.lang.resource.ResourceSet;
+import leap.lang.resource.Resources;
+import leap.lang.resource.SimpleResourceSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class ModelInstrumentCacheTest extends TestBase {
+
+    private File cacheDir;
+
+    @Before
+    public void setUp() {
+        cacheDir = new File(System.getProperty("java.io.tmpdir"), "leap-model-instrument-cache-test");
+        Files.deleteQuietly(cacheDir);
+    }
+
+    @Test
+    public void testBootTwiceWithModelHierarchy() {
+        String parent = internalName(ParentModel.class);
+        String child  = internalName(ChildModel.class);
+
+        //The sub class is scanned before the super class.
+        CachedInstrumentation first = boot();
+        assertEquals(2, first.instrumented.size());
+        assertDefinedParentFirst(first, parent, child);
+
+        CachedInstrumentation second = boot();
+        assertTrue(second.instrumented.isEmpty());
+        assertDefinedParentFirst(second, parent, child);
+
+        for(int i = 0; i < first.defined.size(); i++) {
+            assertEquals(first.defined.get(i).getClassName(), second.defined.get(i).getClassName());
+            assertArrayEquals(first.defined.get(i).getClassData(), second.defined.get(i).getClassData());
+        }
+    }
+
+    @Test
+    public void testSuperClassChanged() throws Exception {
+        Resource child  = classResource(PlainChild.class);
+        Resource parent = classResource(PlainParent.class);
+
+        assertEquals(2, boot(child, parent).instrumented.size());
+        assertTrue(boot(child, parent).instrumented.isEmpty());
+
+        //The sub class must not be skipped if the super class changed.
+        byte[] data;
+        try(InputStream in = parent.getInputStream()) {
+            data = IO.readByteArray(in);
+        }
+        ClassWriter cw = new ClassWriter(0);
+        new ClassReader(data).accept(new ClassVisitor(Opcodes.ASM5, cw) {
+            @Override
+            public void visitEnd() {
+                cv.visitField(Opcodes.ACC_PUBLIC, "changed", "I", null, null).visitEnd();
+                super.visitEnd();
+            }
+        }, 0);
+
+        Resource changed = new ByteArrayResource(cw.toByteArray()) {
+            @Override
+            public String getFilename() {
+                return parent.getFilename();
+            }
+        };
+
+        List<Resource> instrumented = boot(child, changed).instrumented;
+        assertEquals(2, instrumented.size());
+        assertTrue(instrumented.contains(child));
+    }
+
+    private void assertDefinedParentFirst(CachedInstrumentation inst, String parent, String child) {
+        List<String> names = new ArrayList<>();
+        inst.defined.forEach((ic) -> names.add(ic.getClassName()));
+
+        assertTrue(names.contains(parent));
+        assertTrue(names.contains(child));
+        assertTrue(names.indexOf(parent) < names.indexOf(child));
+    }
+
+    private CachedInstrumentation boot() {
+        return boot(classResource(ChildModel.class), classResource(ParentModel.class));
+    }
+
+    private CachedInstrumentation boot(Resource... resources) {
+        CachedInstrumentation inst = new CachedInstrumentation();
+        inst.init(config(cacheDir.getAbsolutePath()));
+        inst.instrument(new SimpleResourceSet(resources));
+        return inst;
+    }
+
+    private static String internalName(Class<?> c) {
+        return c.getName().replace('.', '/');
+    }
+
+    private static Resource classResource(Class<?> c) {
+        return Resources.getResource("classpath:" + internalName(c) + ".class");
+    }
+
+    private static AppConfig config(String cacheDir) {
+        return (AppConfig)Proxy.newProxyInstance(AppConfig.class.getClassLoader(), new Class<?>[]{AppConfig.class}, (proxy, method, args) -> {
+            if(method.getName().equals("getProperty") && null != args && args.length == 1 &&
+                    DefaultAppInstrumentation.CACHE_DIR_PROPERTY.equals(args[0])) {
+                return cacheDir;
+            }
+            return null;
+        });
+    }
+
+    static final class CachedInstrumentation extends DefaultAppInstrumentation {
+        final List<Resource>           instrumented = new ArrayList<>();
+        final List<AppInstrumentClass> defined      = new ArrayList<>();
+
+        @Override
+        protected Collection<AppInstrumentClass> instrument(AppInstrumentContext context, ResourceSet rs) {
+            rs.process(instrumented::add);
+            return super.instrument(context, rs);
+        }
+
+        @Override
+        public void postInstrumented(Collection<AppInstrumentClass> instrumentClasses) {
+            defined.addAll(instrumentClasses);
+        }
+    }
+
+    public static class ParentModel extends Model {
+
+    }
+
+    public static class ChildModel extends ParentModel {
+
+    }
+
+    public static class PlainParent {
+
+    }
+
+    public static class PlainChild extends PlainParent {
+
+    }
+}
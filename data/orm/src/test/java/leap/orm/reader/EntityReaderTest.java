@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.reader;
+
+import leap.orm.OrmTestCase;
+import leap.orm.mapping.EntityMapping;
+import leap.orm.tested.model.petclinic.Owner;
+
+import org.junit.Test;
+
+public class EntityReaderTest extends OrmTestCase {
+
+	@Test
+	public void testRowMapperCache() {
+		deleteAll(Owner.class);
+		
+		new Owner().setFullName("a", "b").save();
+		
+		EntityMapping em    = metadata.getEntityMapping(Owner.class);
+		String        table = em.getTableName();
+		String        first = em.getFieldMapping("firstName").getColumnName();
+		String        last  = em.getFieldMapping("lastName").getColumnName();
+		
+		String sql1 = "select " + first + "," + last + " from " + table;
+		String sql2 = "select " + last + "," + first + " from " + table;
+		String sql3 = "select " + first + " from " + table;
+		
+		//the same column layout.
+		RowMapper<Owner> mapper = getRowMapper(em, sql1);
+		assertSame(mapper, getRowMapper(em, sql1));
+		assertSame(mapper, getRowMapper(em, sql1 + " where 1=1"));
+		
+		//the different column layouts.
+		assertNotSame(mapper, getRowMapper(em, sql2));
+		assertNotSame(mapper, getRowMapper(em, sql3));
+		assertSame(getRowMapper(em, sql2), getRowMapper(em, sql2));
+		
+		Owner owner = readFirst(em, sql1);
+		assertEquals("a", owner.getFirstName());
+		assertEquals("b", owner.getLastName());
+		
+		owner = readFirst(em, sql2);
+		assertEquals("a", owner.getFirstName());
+		assertEquals("b", owner.getLastName());
+		
+		owner = readFirst(em, sql3);
+		assertEquals("a", owner.getFirstName());
+		assertNull(owner.getLastName());
+	}
+	
+	private RowMapper<Owner> getRowMapper(EntityMapping em, String sql) {
+		return db.executeQuery(sql, (rs) -> context.getEntityReader().getRowMapper(context, rs, em, Owner.class));
+	}
+	
+	private Owner readFirst(EntityMapping em, String sql) {
+		return db.executeQuery(sql, (rs) -> context.getEntityReader().readFirst(context, rs, em, Owner.class));
+	}
+}
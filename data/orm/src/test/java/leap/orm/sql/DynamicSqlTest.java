@@ -62,6 +62,25 @@ public class DynamicSqlTest extends OrmTestCase {
         query = dao.createSqlQuery("select * from owners where 1=1 {?and last_name = #lastName# ; nullable:true}");
         assertEquals(0, query.param("lastName", null).count());
 	}
+	@Test
+	public void testLimitDynamicClauseRepeatedly() {
+		deleteAll(Owner.class);
+
+		new Owner().setFullName("a", "0").save();
+		new Owner().setFullName("b", "1").save();
+		new Owner().setFullName("c", "1").save();
+
+		for(int i=0;i<3;i++) {
+			assertEquals(3, dao.createNamedQuery("test.sql.dynamic.clause.simple").limit(1, 10).list().size());
+			assertEquals(2, dao.createNamedQuery("test.sql.dynamic.clause.simple").param("lastName", "1").limit(1, 10).list().size());
+			assertEquals(1, dao.createNamedQuery("test.sql.dynamic.clause.simple").param("lastName", "0").limit(1, 10).list().size());
+			assertEquals(1, dao.createNamedQuery("test.sql.dynamic.clause.simple").param("lastName", "1").limit(2, 3).list().size());
+
+			assertEquals(2, dao.createNamedQuery("test.sql.dynamic.clause.simple_1").param("lastName", "1").limit(1, 10).list().size());
+			assertEquals(1, dao.createNamedQuery("test.sql.dynamic.clause.simple_1").param("lastName", "0").limit(1, 10).list().size());
+		}
+	}
+
 	@Test
 	public void testIfClauseDynamicSql(){
 		deleteAll(Owner.class);
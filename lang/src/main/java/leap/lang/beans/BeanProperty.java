@@ -48,6 +48,8 @@ public class BeanProperty implements Named,TypeInfoGetter,AnnotationsGetter,Refl
 	private boolean       _transient;
 	private Annotation[]  annotations = new Annotation[]{};
 	
+	private volatile BeanPropertyAccessor accessor;
+	
 	protected BeanProperty(BeanType beanType,String name){
 		this.name     = name;
 		this.beanType = beanType;
@@ -134,12 +136,26 @@ public class BeanProperty implements Named,TypeInfoGetter,AnnotationsGetter,Refl
         return null != field ? field.getValue(bean) : getValue(bean);
     }
 
+	/**
+	 * Returns the typed accessor of this property, see {@link BeanPropertyAccessor}.
+	 *
+	 * <p>
+	 * The accessor is not used by {@link #getValue(Object)} and {@link #setValue(Object, Object)},
+	 * the hot paths which read or write the values of known type can use it directly.
+	 */
+	public BeanPropertyAccessor getAccessor() {
+		if(null == accessor) {
+			accessor = new BeanPropertyAccessor(this);
+		}
+		return accessor;
+	}
+
     public Object getValue(Object bean) {
 		if(!readable){
 			throw new IllegalStateException("Property '" + name + "' of '" + beanType.getBeanClass().getName() + "' not readable");
 		}
 		
-		return null != getter ? getter.invoke(bean) : field.getValue(bean,true);
+		return readValue(bean);
 	}
 	
 	public void setValue(Object bean,Object value){
@@ -151,11 +167,7 @@ public class BeanProperty implements Named,TypeInfoGetter,AnnotationsGetter,Refl
 			value = Converts.convert(value, type,genericType);
 		}
 		
-		if(null != setter){
-			setter.invoke(bean,value);
-		}else{
-			field.setValue(bean, value, true);
-		}
+		writeValue(bean, value);
 	}
 	
 	public boolean trySetValue(Object bean,Object value) {
@@ -165,11 +177,7 @@ public class BeanProperty implements Named,TypeInfoGetter,AnnotationsGetter,Refl
 	            	value = Converts.convert(value, type,genericType);
 	            }
 	            
-	    		if(null != setter){
-	    			setter.invoke(bean,value);
-	    		}else{
-	    			field.setValue(bean, value, true);
-	    		}
+	    		writeValue(bean, value);
 	    		
 	    		return true;
             } catch (ConvertUnsupportedException e) {
@@ -179,6 +187,24 @@ public class BeanProperty implements Named,TypeInfoGetter,AnnotationsGetter,Refl
 		return false;
 	}
 	
+	/**
+	 * Reads the value by the reflective getter or field, also used if the {@link BeanPropertyAccessor} cannot create the method handles.
+	 */
+	Object readValue(Object bean) {
+		return null != getter ? getter.invoke(bean) : field.getValue(bean,true);
+	}
+	
+	/**
+	 * Writes the value by the reflective setter or field, also used if the {@link BeanPropertyAccessor} cannot create the method handles.
+	 */
+	void writeValue(Object bean,Object value) {
+		if(null != setter){
+			setter.invoke(bean,value);
+		}else{
+			field.setValue(bean, value, true);
+		}
+	}
+	
 	protected void setType(Class<?> type){
 		this.type = type;
 	}
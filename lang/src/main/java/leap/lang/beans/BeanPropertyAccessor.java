@@ -0,0 +1,605 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.beans;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import leap.lang.Classes;
+import leap.lang.Primitives;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.lang.reflect.ReflectException;
+
+/**
+ * The typed accessor of a {@link BeanProperty}.
+ *
+ * <p>
+ * The getter and setter methods are bound to functional interfaces by {@link LambdaMetafactory},
+ * the primitive variants (e.g. {@link #intGetter()}, {@link #intSetter()}) read and write the primitive values
+ * without boxing, so the hot paths can call them directly.
+ *
+ * <p>
+ * The fields (or the methods cannot be bound) are accessed by {@link MethodHandle}s, and by reflection
+ * if the method handles cannot be created.
+ *
+ * <p>
+ * The getter and setter are created separately at the first reading and writing.
+ */
+public final class BeanPropertyAccessor {
+
+	private static final Log log = LogFactory.get(BeanPropertyAccessor.class);
+
+	private static final int ALL_MODES = Lookup.PUBLIC | Lookup.PRIVATE | Lookup.PROTECTED | Lookup.PACKAGE;
+
+	private static final Method              PRIVATE_LOOKUP_IN;
+	private static final Constructor<Lookup> LOOKUP_CONSTRUCTOR;
+
+	static {
+		Method              privateLookupIn   = null;
+		Constructor<Lookup> lookupConstructor = null;
+
+		try {
+			privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, Lookup.class);
+		}catch(NoSuchMethodException e) {
+			try {
+				lookupConstructor = Lookup.class.getDeclaredConstructor(Class.class, int.class);
+				lookupConstructor.setAccessible(true);
+			}catch(Exception ex) {
+				log.info("Cannot access the constructor of Lookup, {}", ex.getMessage());
+			}
+		}
+
+		PRIVATE_LOOKUP_IN  = privateLookupIn;
+		LOOKUP_CONSTRUCTOR = lookupConstructor;
+	}
+
+	/**
+	 * Sets a boolean value to the object.
+	 */
+	@FunctionalInterface
+	public interface ObjBooleanConsumer<T> {
+		void accept(T t, boolean value);
+	}
+
+	private final BeanProperty property;
+	private final Class<?>     type;
+	private final Member       getterMember;
+	private final Member       setterMember;
+	private final boolean      getterMethod;
+	private final boolean      setterMethod;
+
+	private volatile boolean      getterResolved;
+	private volatile boolean      setterResolved;
+	private volatile MethodHandle getterHandle;
+	private volatile MethodHandle setterHandle;
+
+	private volatile Function<Object, Object>   getter;
+	private volatile BiConsumer<Object, Object> setter;
+
+	private volatile ToIntFunction<Object>      intGetter;
+	private volatile ToLongFunction<Object>     longGetter;
+	private volatile ToDoubleFunction<Object>   doubleGetter;
+	private volatile Predicate<Object>          booleanGetter;
+	private volatile ObjIntConsumer<Object>     intSetter;
+	private volatile ObjLongConsumer<Object>    longSetter;
+	private volatile ObjDoubleConsumer<Object>  doubleSetter;
+	private volatile ObjBooleanConsumer<Object> booleanSetter;
+
+	BeanPropertyAccessor(BeanProperty property) {
+		this.property = property;
+		this.type     = property.getType();
+
+		Method getter = property.getGetter();
+		Method setter = property.getSetter();
+		Field  field  = property.getField();
+
+		this.getterMethod = null != getter;
+		this.setterMethod = null != setter;
+		this.getterMember = property.isReadable() ? (null != getter ? getter : field) : null;
+		this.setterMember = property.isWritable() ? (null != setter ? setter : field) : null;
+	}
+
+	public BeanProperty getProperty() {
+		return property;
+	}
+
+	/**
+	 * Returns the (boxed) property value of the bean.
+	 */
+	public Object getValue(Object bean) {
+		try {
+			return readableGetter().apply(bean);
+		}catch(RuntimeException | Error e) {
+			throw e;
+		}catch(Throwable e) {
+			throw new ReflectException("Error reading property '" + property.getName() + "', " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Sets the (boxed) property value of the bean, the default value of primitive type will be set if the value is null.
+	 *
+	 * <p>
+	 * The value must be an instance of the property type.
+	 */
+	public void setValue(Object bean, Object value) {
+		MethodHandle handle = null == value && property.isWritable() ? setterHandle() : null;
+		if(null != handle) {
+			Class<?> valueType = handle.type().parameterType(1);
+			if(valueType.isPrimitive()) {
+				value = Classes.getDefaultValue(valueType);
+			}
+		}
+
+		try {
+			writableSetter().accept(bean, value);
+		}catch(RuntimeException | Error e) {
+			throw e;
+		}catch(Throwable e) {
+			throw new ReflectException("Error writing property '" + property.getName() + "', " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Returns the boxed getter.
+	 */
+	public Function<Object, Object> getter() {
+		return readableGetter();
+	}
+
+	/**
+	 * Returns the boxed setter, the value must not be null if the property type is primitive.
+	 */
+	public BiConsumer<Object, Object> setter() {
+		return writableSetter();
+	}
+
+	/**
+	 * Returns the getter of an <code>int</code> property.
+	 */
+	public ToIntFunction<Object> intGetter() {
+		ToIntFunction<Object> f = intGetter;
+		if(null == f) {
+			intGetter = f = createTypedGetter(ToIntFunction.class, "applyAsInt", int.class);
+		}
+		return f;
+	}
+
+	/**
+	 * Returns the getter of a <code>long</code> property.
+	 */
+	public ToLongFunction<Object> longGetter() {
+		ToLongFunction<Object> f = longGetter;
+		if(null == f) {
+			longGetter = f = createTypedGetter(ToLongFunction.class, "applyAsLong", long.class);
+		}
+		return f;
+	}
+
+	/**
+	 * Returns the getter of a <code>double</code> property.
+	 */
+	public ToDoubleFunction<Object> doubleGetter() {
+		ToDoubleFunction<Object> f = doubleGetter;
+		if(null == f) {
+			doubleGetter = f = createTypedGetter(ToDoubleFunction.class, "applyAsDouble", double.class);
+		}
+		return f;
+	}
+
+	/**
+	 * Returns the getter of a <code>boolean</code> property.
+	 */
+	public Predicate<Object> booleanGetter() {
+		Predicate<Object> f = booleanGetter;
+		if(null == f) {
+			booleanGetter = f = createTypedGetter(Predicate.class, "test", boolean.class);
+		}
+		return f;
+	}
+
+	/**
+	 * Returns the setter of an <code>int</code> property.
+	 */
+	public ObjIntConsumer<Object> intSetter() {
+		ObjIntConsumer<Object> f = intSetter;
+		if(null == f) {
+			intSetter = f = createTypedSetter(ObjIntConsumer.class, int.class);
+		}
+		return f;
+	}
+
+	/**
+	 * Returns the setter of a <code>long</code> property.
+	 */
+	public ObjLongConsumer<Object> longSetter() {
+		ObjLongConsumer<Object> f = longSetter;
+		if(null == f) {
+			longSetter = f = createTypedSetter(ObjLongConsumer.class, long.class);
+		}
+		return f;
+	}
+
+	/**
+	 * Returns the setter of a <code>double</code> property.
+	 */
+	public ObjDoubleConsumer<Object> doubleSetter() {
+		ObjDoubleConsumer<Object> f = doubleSetter;
+		if(null == f) {
+			doubleSetter = f = createTypedSetter(ObjDoubleConsumer.class, double.class);
+		}
+		return f;
+	}
+
+	/**
+	 * Returns the setter of a <code>boolean</code> property.
+	 */
+	public ObjBooleanConsumer<Object> booleanSetter() {
+		ObjBooleanConsumer<Object> f = booleanSetter;
+		if(null == f) {
+			booleanSetter = f = createTypedSetter(ObjBooleanConsumer.class, boolean.class);
+		}
+		return f;
+	}
+
+	public int getInt(Object bean) {
+		return intGetter().applyAsInt(bean);
+	}
+
+	public long getLong(Object bean) {
+		return longGetter().applyAsLong(bean);
+	}
+
+	public double getDouble(Object bean) {
+		return doubleGetter().applyAsDouble(bean);
+	}
+
+	public boolean getBoolean(Object bean) {
+		return booleanGetter().test(bean);
+	}
+
+	public void setInt(Object bean, int value) {
+		intSetter().accept(bean, value);
+	}
+
+	public void setLong(Object bean, long value) {
+		longSetter().accept(bean, value);
+	}
+
+	public void setDouble(Object bean, double value) {
+		doubleSetter().accept(bean, value);
+	}
+
+	public void setBoolean(Object bean, boolean value) {
+		booleanSetter().accept(bean, value);
+	}
+
+	private Function<Object, Object> readableGetter() {
+		Function<Object, Object> f = getter;
+		if(null == f) {
+			if(!property.isReadable()) {
+				throw new IllegalStateException("Property '" + property.getName() + "' of '" + property.getBeanType().getBeanClass().getName() + "' not readable");
+			}
+			MethodHandle handle = getterHandle();
+			getter = f = null == handle ? property::readValue : createGetter(handle);
+		}
+		return f;
+	}
+
+	private BiConsumer<Object, Object> writableSetter() {
+		BiConsumer<Object, Object> c = setter;
+		if(null == c) {
+			if(!property.isWritable()) {
+				throw new IllegalStateException("Property '" + property.getName() + "' of '" + property.getBeanType().getBeanClass().getName() + "' not writable");
+			}
+			MethodHandle handle = setterHandle();
+			setter = c = null == handle ? property::writeValue : createSetter(handle);
+		}
+		return c;
+	}
+
+	/**
+	 * Returns the method handle of the getter (or field), creates it at the first reading.
+	 */
+	private MethodHandle getterHandle() {
+		if(!getterResolved) {
+			getterHandle   = unreflect(getterMember, true);
+			getterResolved = true;
+		}
+		return getterHandle;
+	}
+
+	/**
+	 * Returns the method handle of the setter (or field), creates it at the first writing.
+	 */
+	private MethodHandle setterHandle() {
+		if(!setterResolved) {
+			setterHandle   = unreflect(setterMember, false);
+			setterResolved = true;
+		}
+		return setterHandle;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Function<Object, Object> createGetter(MethodHandle getterHandle) {
+		Class<?> declaringClass = getterHandle.type().parameterType(0);
+
+		Function<Object, Object> f = getterMethod ?
+				bind(Function.class, "apply", MethodType.methodType(Object.class, Object.class), getterHandle,
+					 MethodType.methodType(Primitives.wrap(getterHandle.type().returnType()), declaringClass)) : null;
+
+		if(null == f) {
+			MethodHandle mh = getterHandle.asType(MethodType.methodType(Object.class, Object.class));
+			f = (bean) -> {
+				try {
+					return (Object)mh.invokeExact(bean);
+				}catch(Throwable e) {
+					throw wrap(e);
+				}
+			};
+		}
+
+		return f;
+	}
+
+	@SuppressWarnings("unchecked")
+	private BiConsumer<Object, Object> createSetter(MethodHandle setterHandle) {
+		Class<?> declaringClass = setterHandle.type().parameterType(0);
+
+		BiConsumer<Object, Object> c = setterMethod ?
+				bind(BiConsumer.class, "accept", MethodType.methodType(void.class, Object.class, Object.class), setterHandle,
+					 MethodType.methodType(void.class, declaringClass, Primitives.wrap(setterHandle.type().parameterType(1)))) : null;
+
+		if(null == c) {
+			MethodHandle mh = setterHandle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			c = (bean, value) -> {
+				try {
+					mh.invokeExact(bean, value);
+				}catch(Throwable e) {
+					throw wrap(e);
+				}
+			};
+		}
+
+		return c;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T createTypedGetter(Class<?> fi, String name, Class<?> primitiveType) {
+		Function<Object, Object> getter = readableGetter();
+		checkType(primitiveType);
+
+		MethodHandle getterHandle = getterHandle();
+		if(null == getterHandle) {
+			return (T)unboxingGetter(primitiveType, getter);
+		}
+
+		T f = getterMethod ?
+				bind(fi, name, MethodType.methodType(primitiveType, Object.class), getterHandle,
+					 MethodType.methodType(primitiveType, getterHandle.type().parameterType(0))) : null;
+
+		if(null == f) {
+			MethodHandle mh = getterHandle.asType(MethodType.methodType(primitiveType, Object.class));
+
+			if(primitiveType == int.class) {
+				f = (T)(ToIntFunction<Object>)(bean) -> {
+					try {
+						return (int)mh.invokeExact(bean);
+					}catch(Throwable e) {
+						throw wrap(e);
+					}
+				};
+			}else if(primitiveType == long.class) {
+				f = (T)(ToLongFunction<Object>)(bean) -> {
+					try {
+						return (long)mh.invokeExact(bean);
+					}catch(Throwable e) {
+						throw wrap(e);
+					}
+				};
+			}else if(primitiveType == double.class) {
+				f = (T)(ToDoubleFunction<Object>)(bean) -> {
+					try {
+						return (double)mh.invokeExact(bean);
+					}catch(Throwable e) {
+						throw wrap(e);
+					}
+				};
+			}else{
+				f = (T)(Predicate<Object>)(bean) -> {
+					try {
+						return (boolean)mh.invokeExact(bean);
+					}catch(Throwable e) {
+						throw wrap(e);
+					}
+				};
+			}
+		}
+
+		return f;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T createTypedSetter(Class<?> fi, Class<?> primitiveType) {
+		BiConsumer<Object, Object> setter = writableSetter();
+		checkType(primitiveType);
+
+		MethodHandle setterHandle = setterHandle();
+		if(null == setterHandle) {
+			return (T)boxingSetter(primitiveType, setter);
+		}
+
+		T c = setterMethod ?
+				bind(fi, "accept", MethodType.methodType(void.class, Object.class, primitiveType), setterHandle,
+					 MethodType.methodType(void.class, setterHandle.type().parameterType(0), primitiveType)) : null;
+
+		if(null == c) {
+			MethodHandle mh = setterHandle.asType(MethodType.methodType(void.class, Object.class, primitiveType));
+
+			if(primitiveType == int.class) {
+				c = (T)(ObjIntConsumer<Object>)(bean, v) -> {
+					try {
+						mh.invokeExact(bean, v);
+					}catch(Throwable e) {
+						throw wrap(e);
+					}
+				};
+			}else if(primitiveType == long.class) {
+				c = (T)(ObjLongConsumer<Object>)(bean, v) -> {
+					try {
+						mh.invokeExact(bean, v);
+					}catch(Throwable e) {
+						throw wrap(e);
+					}
+				};
+			}else if(primitiveType == double.class) {
+				c = (T)(ObjDoubleConsumer<Object>)(bean, v) -> {
+					try {
+						mh.invokeExact(bean, v);
+					}catch(Throwable e) {
+						throw wrap(e);
+					}
+				};
+			}else{
+				c = (T)(ObjBooleanConsumer<Object>)(bean, v) -> {
+					try {
+						mh.invokeExact(bean, v);
+					}catch(Throwable e) {
+						throw wrap(e);
+					}
+				};
+			}
+		}
+
+		return c;
+	}
+
+	private static Object unboxingGetter(Class<?> primitiveType, Function<Object, Object> getter) {
+		if(primitiveType == int.class) {
+			return (ToIntFunction<Object>)(bean) -> (Integer)getter.apply(bean);
+		}else if(primitiveType == long.class) {
+			return (ToLongFunction<Object>)(bean) -> (Long)getter.apply(bean);
+		}else if(primitiveType == double.class) {
+			return (ToDoubleFunction<Object>)(bean) -> (Double)getter.apply(bean);
+		}else{
+			return (Predicate<Object>)(bean) -> (Boolean)getter.apply(bean);
+		}
+	}
+
+	private static Object boxingSetter(Class<?> primitiveType, BiConsumer<Object, Object> setter) {
+		if(primitiveType == int.class) {
+			return (ObjIntConsumer<Object>)setter::accept;
+		}else if(primitiveType == long.class) {
+			return (ObjLongConsumer<Object>)setter::accept;
+		}else if(primitiveType == double.class) {
+			return (ObjDoubleConsumer<Object>)setter::accept;
+		}else{
+			return (ObjBooleanConsumer<Object>)setter::accept;
+		}
+	}
+
+	private void checkType(Class<?> primitiveType) {
+		if(type != primitiveType) {
+			throw new IllegalStateException("Property '" + property.getName() + "' of '" + property.getBeanType().getBeanClass().getName() +
+											"' is not of type '" + primitiveType.getName() + "'");
+		}
+	}
+
+	private RuntimeException wrap(Throwable e) {
+		if(e instanceof RuntimeException) {
+			return (RuntimeException)e;
+		}
+		if(e instanceof Error) {
+			throw (Error)e;
+		}
+		return new ReflectException("Error accessing property '" + property.getName() + "', " + e.getMessage(), e);
+	}
+
+	/**
+	 * Binds the method handle to an instance of the functional interface, returns <code>null</code> if failed.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T bind(Class<?> fi, String name, MethodType samType, MethodHandle impl, MethodType instantiatedType) {
+		Class<?> declaringClass = instantiatedType.parameterType(0);
+
+		try {
+			Lookup lookup = privateLookup(declaringClass);
+			if(null == lookup) {
+				return null;
+			}
+
+			CallSite site = LambdaMetafactory.metafactory(lookup, name, MethodType.methodType(fi), samType, impl, instantiatedType);
+			return (T)site.getTarget().invoke();
+		}catch(Throwable e) {
+			log.debug("Cannot bind {} of property '{}' by LambdaMetafactory, {}", fi.getSimpleName(), property.getName(), e.getMessage());
+			return null;
+		}
+	}
+
+	private static MethodHandle unreflect(Object member, boolean read) {
+		try {
+			Lookup lookup = MethodHandles.lookup();
+
+			if(member instanceof Method) {
+				Method m = (Method)member;
+				if(Modifier.isStatic(m.getModifiers())) {
+					return null;
+				}
+				m.setAccessible(true);
+				return lookup.unreflect(m);
+			}
+
+			Field f = (Field)member;
+			if(Modifier.isStatic(f.getModifiers())) {
+				return null;
+			}
+			f.setAccessible(true);
+			return read ? lookup.unreflectGetter(f) : lookup.unreflectSetter(f);
+		}catch(Exception e) {
+			log.debug("Cannot unreflect '{}', {}", member, e.getMessage());
+			return null;
+		}
+	}
+
+	private static Lookup privateLookup(Class<?> c) throws Exception {
+		if(null != PRIVATE_LOOKUP_IN) {
+			return (Lookup)PRIVATE_LOOKUP_IN.invoke(null, c, MethodHandles.lookup());
+		}
+		if(null != LOOKUP_CONSTRUCTOR) {
+			return LOOKUP_CONSTRUCTOR.newInstance(c, ALL_MODES);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.convert;
+
+/**
+ * A conversion to a target type resolved by {@link Converts#resolve(Class, Class, java.lang.reflect.Type)}.
+ *
+ * <p>
+ * Holds the converters resolved for the source type, so the resolution is not repeated when converting
+ * many values of the same type, i.e. in a loop.
+ */
+@FunctionalInterface
+public interface Conversion<T> {
+
+	/**
+	 * Converts the value to the target type, same as {@link Converts#convert(Object, Class, java.lang.reflect.Type)}.
+	 */
+	T convert(Object value) throws ConvertUnsupportedException;
+
+}
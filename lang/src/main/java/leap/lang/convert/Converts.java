@@ -25,8 +25,10 @@ import java.nio.charset.Charset;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -53,6 +55,10 @@ public class Converts {
 	
 	private static final Object NOT_CONVERTED = new Object();
 	
+	private static final int                                    MAX_RESOLVED = 4096;
+	private static final int                                    MAX_SCAN     = 64;
+	private static final Map<ConversionKey, ResolvedConversion> resolved     = new ConcurrentHashMap<ConversionKey, ResolvedConversion>();
+	
 	private static Converter     beanConverter  = new BeanConverter();
 	private static Converter     arrayConverter = new ArrayConverter();
 	private static Converter     enumConverter  = new EnumConverter();
@@ -115,10 +121,43 @@ public class Converts {
 	
 	public static void register(Class<?> clazz,Converter<?> converter){
 		converters.put(clazz,converter);
+		resolved.clear();
 	}
 	
 	public static void registerAssignableFrom(Class<?> superType,Converter<?> converter){
 		assignableFromConverters.put(superType, converter);
+		resolved.clear();
+	}
+	
+	/**
+	 * Returns the {@link Conversion} which converts the values of the source type to the target type.
+	 * 
+	 * <p>
+	 * The converters are resolved once and cached by the source type, target type and generic type, 
+	 * the returned conversion can be hoisted out of a loop.
+	 */
+	public static <T> Conversion<T> resolve(Class<?> sourceType, Class<T> targetType, Type genericType) {
+		Args.notNull(sourceType, "sourceType");
+		Args.notNull(targetType, "targetType");
+		return (Conversion<T>)resolveConversion(sourceType, targetType, genericType);
+	}
+	
+	/**
+	 * Returns the {@link Conversion} which converts the values to the target type.
+	 * 
+	 * <p>
+	 * The conversion resolved for the type of last converted value is reused if the next value is of the same type. 
+	 */
+	public static <T> Conversion<T> resolve(Class<T> targetType, Type genericType) {
+		Args.notNull(targetType, "targetType");
+		return new TargetConversion<T>(targetType, genericType);
+	}
+	
+	/**
+	 * Returns true if a converter was registered for the given type (or the super type of it).
+	 */
+	public static boolean hasConverter(Class<?> type) {
+		return null != findConverter(type);
 	}
 	
 	public static <T> T convert(Object value,Class<T> targetType) throws ConvertUnsupportedException {
@@ -162,94 +201,50 @@ public class Converts {
         	return (T)Classes.getDefaultValue(targetType);
         }
         
-        Class<?> sourceType = value.getClass();
-        
-        //target and source type is same
-        if(targetType.equals(sourceType)){
-        	return (T)value;
-        }
-        
-        //string target type
-        if(targetType.equals(String.class)){
-        	return (T)toString(value);
-        }
-        
-        //enum value
-        if(sourceType.isEnum()){
-        	value      = Enums.getValue((Enum<?>)value);
-        	sourceType = value.getClass();
-        }
-        
-        if(targetType.isEnum()){
-        	return (T)Enums.valueOf((Class<? extends Enum>)targetType,value);
-        }
-        
-        try {
-	        //value is Convertible
-	        Out<Object> out = new Out<Object>();
-	        
-	        if(value instanceof ConvertibleTo) {
-	        	if(((ConvertibleTo)value).convertTo(targetType, genericType, out)){
-	        		return (T)out.getValue();
-	        	}
-	        }
-	        
-	        //get converter fro target type
-	        Converter converter = findConverter(targetType);
-	        
-	        //convert from
-	        if(null != converter && converter.convertFrom(value, targetType, genericType, out)){
-	        	return (T)out.getValue();
-	        }
-
-	        //get converter for source type
-	        converter = findConverter(sourceType);
-	        
-	        //convert to
-	        if(null != converter && converter.convertTo(value, targetType, genericType, out)){
-	        	return (T)out.getValue();
-	        }
-	        
-	        //assignablefrom convert
-	        if(targetType.isAssignableFrom(sourceType)){
-	        	return (T)value;
-	        }
-	        
-	        for(Entry<Class<?>, Converter> entry : assignableFromConverters.entrySet()){
-	        	Class<?> superType = entry.getKey();
-	        
-	        	if(superType.isAssignableFrom(targetType) && entry.getValue().convertFrom(value, targetType, genericType, out)){
-	        		return (T)out.getValue();
-	        	}
-	        	
-	        	if(superType.isAssignableFrom(sourceType) && entry.getValue().convertTo(value, targetType, genericType, out)){
-	        		return (T)out.getValue();
-	        	}
-	        }
-	        
-	        //object type convert
-	        if(targetType.equals(Object.class)){
-	            return (T)value;
-	        }
-	        
-	        if(beanConverter.convertFrom(value, targetType, genericType, out) ){
-	        	return (T)out.getValue();
-	        }
-	        
-	        if(beanConverter.convertTo(value, targetType, genericType, out)){
-	        	return (T)out.getValue();
-	        }
-	        
-	        if(value instanceof Valued){
-	        	return convert(((Valued) value).getValue(),targetType,genericType);
-	        }
-        } catch (ConvertException e){
-        	throw e;
-        } catch (Throwable e) {
-        	throw new ConvertException(Strings.format("Error converting '{0}' to '{1}', value : {2}",sourceType.getName(),targetType.getName(),value),e);
-        }
-        
-        return (T)NOT_CONVERTED;
+        return resolveConversion(value.getClass(), targetType, genericType).apply(value);
+	}
+	
+	static ResolvedConversion resolveConversion(Class<?> sourceType, Class<?> targetType, Type genericType) {
+		if(targetType.equals(genericType)) {
+			genericType = null;
+		}
+		
+		ConversionKey      key = new ConversionKey(sourceType, targetType, genericType);
+		ResolvedConversion rc  = resolved.get(key);
+		
+		if(null == rc) {
+			rc = new ResolvedConversion(sourceType, targetType, genericType);
+			
+			if(resolved.size() >= MAX_RESOLVED) {
+				evictResolved();
+			}
+			resolved.put(key, rc);
+		}else if(!rc.referenced) {
+			rc.referenced = true;
+		}
+		
+		return rc;
+	}
+	
+	/**
+	 * Evicts a resolved conversion by the second chance policy, the referenced conversions are skipped once
+	 * (but at most {@link #MAX_SCAN} of them).
+	 */
+	private static void evictResolved() {
+		int scanned = 0;
+		for(Iterator<ResolvedConversion> it = resolved.values().iterator(); it.hasNext();) {
+			ResolvedConversion rc = it.next();
+			if(rc.referenced && scanned++ < MAX_SCAN) {
+				rc.referenced = false;
+				continue;
+			}
+			it.remove();
+			return;
+		}
+	}
+	
+	static int getResolvedSize() {
+		return resolved.size();
 	}
 	
 	public static int toInt(Object value){
@@ -434,4 +429,256 @@ public class Converts {
 		
 		return value;
 	}
+	
+	private static final class ConversionKey {
+		private final Class<?> sourceType;
+		private final Class<?> targetType;
+		private final Type     genericType;
+		private final int      hash;
+		
+		ConversionKey(Class<?> sourceType, Class<?> targetType, Type genericType) {
+			this.sourceType  = sourceType;
+			this.targetType  = targetType;
+			this.genericType = genericType;
+			this.hash        = 31 * (31 * sourceType.hashCode() + targetType.hashCode()) + (null == genericType ? 0 : genericType.hashCode());
+		}
+
+		@Override
+        public int hashCode() {
+	        return hash;
+        }
+
+		@Override
+        public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			
+			if(!(obj instanceof ConversionKey)) {
+				return false;
+			}
+			
+			ConversionKey o = (ConversionKey)obj;
+			
+			return sourceType == o.sourceType && targetType == o.targetType && 
+				   (null == genericType ? null == o.genericType : genericType.equals(o.genericType));
+        }
+	}
+	
+	/**
+	 * The converters resolved for a source type and a target type, the steps are the same as the unresolved conversion 
+	 * but the steps cannot apply to the types are skipped.
+	 */
+	static final class ResolvedConversion implements Conversion<Object> {
+		
+		private static final int PRIMITIVE   = 1;
+		private static final int IDENTITY    = 2;
+		private static final int TO_STRING   = 3;
+		private static final int ENUM_SOURCE = 4;
+		private static final int TO_ENUM     = 5;
+		private static final int STEPS       = 6;
+		private static final int UNSUPPORTED = 7;
+		
+		private final Class<?>    sourceType;
+		private final Class<?>    targetType;
+		private final Type        genericType;
+		private final boolean     trim;
+		private final int         kind;
+		private final boolean     convertible;
+		private final Converter   targetConverter;
+		private final Converter   sourceConverter;
+		private final boolean     assignable;
+		private final Converter[] assignableFromConverters;
+		private final boolean[]   assignableFromSource;
+		private final boolean     objectTarget;
+		private final boolean     valued;
+		
+		//used by the eviction of resolved conversions.
+		volatile boolean referenced;
+		
+		ResolvedConversion(Class<?> sourceType, Class<?> targetType, Type genericType) {
+			this.sourceType      = sourceType;
+			this.targetType      = targetType;
+			this.genericType     = genericType;
+			this.trim            = !CharSequence.class.isAssignableFrom(targetType);
+			this.convertible     = ConvertibleTo.class.isAssignableFrom(sourceType);
+			this.targetConverter = findConverter(targetType);
+			this.sourceConverter = findConverter(sourceType);
+			this.assignable      = targetType.isAssignableFrom(sourceType);
+			this.objectTarget    = targetType.equals(Object.class);
+			this.valued          = Valued.class.isAssignableFrom(sourceType);
+			
+			List<Converter> afConverters = new ArrayList<Converter>();
+			List<Boolean>   afSource     = new ArrayList<Boolean>();
+			for(Entry<Class<?>, Converter> entry : Converts.assignableFromConverters.entrySet()){
+				Class<?> superType = entry.getKey();
+				
+				if(superType.isAssignableFrom(targetType)) {
+					afConverters.add(entry.getValue());
+					afSource.add(false);
+				}
+				
+				if(superType.isAssignableFrom(sourceType)) {
+					afConverters.add(entry.getValue());
+					afSource.add(true);
+				}
+			}
+			this.assignableFromConverters = afConverters.toArray(new Converter[afConverters.size()]);
+			this.assignableFromSource     = new boolean[afSource.size()];
+			for(int i=0;i<assignableFromSource.length;i++) {
+				assignableFromSource[i] = afSource.get(i);
+			}
+			
+			if(targetType.isPrimitive()) {
+				kind = PRIMITIVE;
+			}else if(targetType.equals(sourceType)) {
+				kind = IDENTITY;
+			}else if(targetType.equals(String.class)) {
+				kind = TO_STRING;
+			}else if(sourceType.isEnum()) {
+				kind = ENUM_SOURCE;
+			}else if(targetType.isEnum()) {
+				kind = TO_ENUM;
+			}else if(!convertible && null == targetConverter && null == sourceConverter && !assignable && 
+					 assignableFromConverters.length == 0 && !objectTarget && !valued && 
+					 !Map.class.isAssignableFrom(sourceType) && !Map.class.isAssignableFrom(targetType)) {
+				kind = UNSUPPORTED;
+			}else{
+				kind = STEPS;
+			}
+		}
+
+		@Override
+        public Object convert(Object value) throws ConvertUnsupportedException {
+			if(null == value || value.getClass() != sourceType || Null.is(value)) {
+				return Converts.convert(value, targetType, genericType);
+			}
+			
+			if(trim && value instanceof String) {
+				value = Strings.trimToNull((String)value);
+				if(null == value) {
+					return Classes.getDefaultValue(targetType);
+				}
+			}
+			
+			Object v = apply(value);
+			if(NOT_CONVERTED == v) {
+				throw new ConvertUnsupportedException(Strings.format("Cannot convert '{0}' to '{1}', value : {2}",value.getClass(),targetType.getName(),value.toString()));
+			}
+			return v;
+        }
+		
+		/**
+		 * Converts the non null value of the source type, returns {@link Converts#NOT_CONVERTED} if not supported.
+		 */
+		Object apply(Object value) {
+			switch (kind) {
+				case PRIMITIVE:
+					return toPrimitive(value, targetType);
+				case IDENTITY:
+					return value;
+				case TO_STRING:
+					return Converts.toString(value);
+				case ENUM_SOURCE:
+					value = Enums.getValue((Enum<?>)value);
+					if(targetType.isEnum()) {
+						return Enums.valueOf((Class<? extends Enum>)targetType,value);
+					}
+					return resolveConversion(value.getClass(), targetType, genericType).applySteps(value);
+				case TO_ENUM:
+					return Enums.valueOf((Class<? extends Enum>)targetType,value);
+				case UNSUPPORTED:
+					return NOT_CONVERTED;
+				default:
+					return applySteps(value);
+			}
+		}
+		
+		private Object applySteps(Object value) {
+	        try {
+		        Out<Object> out = new Out<Object>();
+		        
+		        //value is Convertible
+		        if(convertible && ((ConvertibleTo)value).convertTo(targetType, genericType, out)) {
+	        		return out.getValue();
+		        }
+		        
+		        //convert from
+		        if(null != targetConverter && targetConverter.convertFrom(value, targetType, genericType, out)){
+		        	return out.getValue();
+		        }
+
+		        //convert to
+		        if(null != sourceConverter && sourceConverter.convertTo(value, targetType, genericType, out)){
+		        	return out.getValue();
+		        }
+		        
+		        //assignablefrom convert
+		        if(assignable){
+		        	return value;
+		        }
+		        
+		        for(int i=0;i<assignableFromConverters.length;i++){
+		        	Converter converter = assignableFromConverters[i];
+		        	
+		        	if(assignableFromSource[i] ? converter.convertTo(value, targetType, genericType, out) : 
+		        								 converter.convertFrom(value, targetType, genericType, out)){
+		        		return out.getValue();
+		        	}
+		        }
+		        
+		        //object type convert
+		        if(objectTarget){
+		            return value;
+		        }
+		        
+		        if(beanConverter.convertFrom(value, targetType, genericType, out) ){
+		        	return out.getValue();
+		        }
+		        
+		        if(beanConverter.convertTo(value, targetType, genericType, out)){
+		        	return out.getValue();
+		        }
+		        
+		        if(valued){
+		        	return Converts.convert(((Valued) value).getValue(),targetType,genericType);
+		        }
+	        } catch (ConvertException e){
+	        	throw e;
+	        } catch (Throwable e) {
+	        	throw new ConvertException(Strings.format("Error converting '{0}' to '{1}', value : {2}",value.getClass().getName(),targetType.getName(),value),e);
+	        }
+	        
+	        return NOT_CONVERTED;
+		}
+	}
+	
+	/**
+	 * Caches the conversion resolved for the type of last converted value.
+	 */
+	private static final class TargetConversion<T> implements Conversion<T> {
+		private final Class<T> targetType;
+		private final Type     genericType;
+		
+		private volatile ResolvedConversion last;
+		
+		TargetConversion(Class<T> targetType, Type genericType) {
+			this.targetType  = targetType;
+			this.genericType = genericType;
+		}
+
+		@Override
+        public T convert(Object value) throws ConvertUnsupportedException {
+			if(null == value) {
+				return Converts.convert(value, targetType, genericType);
+			}
+			
+			ResolvedConversion rc = last;
+			if(null == rc || rc.sourceType != value.getClass()) {
+				last = rc = resolveConversion(value.getClass(), targetType, genericType);
+			}
+			
+	        return (T)rc.convert(value);
+        }
+	}
 }
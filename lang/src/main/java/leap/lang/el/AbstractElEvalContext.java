@@ -66,6 +66,20 @@ public abstract class AbstractElEvalContext extends AbstractElContext implements
 		return v;
 	}
 	
+	/**
+	 * The qualified name never matches a property of the bean context, so only the variables and map context are looked up.
+	 */
+	@Override
+	public Object resolveQualifiedVariable(String qName) {
+		Object v = vars.get(qName);
+		
+		if(null == v && ctx instanceof Map && !vars.containsKey(qName)){
+			v = resolveContextProperty(qName);
+		}
+		
+		return v;
+	}
+	
 	@Override
     public boolean isVariableResolved(String name) {
 	    return vars.containsKey(name);
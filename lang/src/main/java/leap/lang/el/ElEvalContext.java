@@ -27,6 +27,13 @@ public interface ElEvalContext extends ElContext {
 	 */
 	Object resolveVariable(String name);
 	
+	/**
+	 * Returns the resolved variable of the qualified name (such as 'a.b') or <code>null</code>.
+	 */
+	default Object resolveQualifiedVariable(String qName) {
+		return resolveVariable(qName);
+	}
+	
 	/**
 	 * Returns <code>true</code> if the given variabel was resolved.
 	 */
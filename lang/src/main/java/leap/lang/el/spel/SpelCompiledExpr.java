@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.el.spel;
+
+import leap.lang.el.ElEvalContext;
+
+/**
+ * The base class of the class generated for a parsed spel expression.
+ *
+ * @see SpelExpression#compile()
+ */
+public abstract class SpelCompiledExpr {
+
+	protected final Object[] constants;
+
+	protected SpelCompiledExpr(Object[] constants) {
+		this.constants = constants;
+	}
+
+	/**
+	 * Evaluates the expression, same as {@link leap.lang.el.spel.ast.AstExpr#eval(ElEvalContext)}.
+	 */
+	public abstract Object eval(ElEvalContext context);
+
+	/**
+	 * Tests the evaluated value, the boolean value is tested without calling the context.
+	 */
+	public static boolean test(ElEvalContext context, Object v) {
+		if(v instanceof Boolean) {
+			return ((Boolean)v).booleanValue();
+		}
+		return context.test(v);
+	}
+
+}
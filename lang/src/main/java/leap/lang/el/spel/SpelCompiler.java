@@ -0,0 +1,370 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.el.spel;
+
+import static leap.lang.asm.Opcodes.AALOAD;
+import static leap.lang.asm.Opcodes.AASTORE;
+import static leap.lang.asm.Opcodes.ACC_FINAL;
+import static leap.lang.asm.Opcodes.ACC_PUBLIC;
+import static leap.lang.asm.Opcodes.ACC_SUPER;
+import static leap.lang.asm.Opcodes.ACONST_NULL;
+import static leap.lang.asm.Opcodes.ALOAD;
+import static leap.lang.asm.Opcodes.ANEWARRAY;
+import static leap.lang.asm.Opcodes.ARETURN;
+import static leap.lang.asm.Opcodes.ASTORE;
+import static leap.lang.asm.Opcodes.CHECKCAST;
+import static leap.lang.asm.Opcodes.DUP;
+import static leap.lang.asm.Opcodes.GETFIELD;
+import static leap.lang.asm.Opcodes.GETSTATIC;
+import static leap.lang.asm.Opcodes.GOTO;
+import static leap.lang.asm.Opcodes.IFEQ;
+import static leap.lang.asm.Opcodes.IFNE;
+import static leap.lang.asm.Opcodes.IFNONNULL;
+import static leap.lang.asm.Opcodes.INVOKEINTERFACE;
+import static leap.lang.asm.Opcodes.INVOKESPECIAL;
+import static leap.lang.asm.Opcodes.INVOKESTATIC;
+import static leap.lang.asm.Opcodes.INVOKEVIRTUAL;
+import static leap.lang.asm.Opcodes.POP;
+import static leap.lang.asm.Opcodes.RETURN;
+import static leap.lang.asm.Opcodes.V1_6;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import leap.lang.Arrays2;
+import leap.lang.asm.ClassWriter;
+import leap.lang.asm.Label;
+import leap.lang.asm.MethodVisitor;
+import leap.lang.asm.Type;
+import leap.lang.el.ElEvalContext;
+import leap.lang.el.spel.ast.AstBinary;
+import leap.lang.el.spel.ast.AstBinary.BOperator;
+import leap.lang.el.spel.ast.AstBinary.CompareOperator;
+import leap.lang.el.spel.ast.AstBinary.StrictOperator;
+import leap.lang.el.spel.ast.AstChoice;
+import leap.lang.el.spel.ast.AstExpr;
+import leap.lang.el.spel.ast.AstLiteral;
+import leap.lang.el.spel.ast.AstMethod;
+import leap.lang.el.spel.ast.AstNode;
+import leap.lang.el.spel.ast.AstProperty;
+import leap.lang.el.spel.ast.AstUnary;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.lang.reflect.ClassDefiner;
+
+/**
+ * Generates a {@link SpelCompiledExpr} class for a parsed expression.
+ *
+ * <p>
+ * The literals are loaded as constants, the boolean operators and conditions are generated as branches and
+ * the operands of property reads, method calls and strict binary operators are evaluated by the generated code,
+ * the property and method sites keep their inline caches of the resolved members.
+ *
+ * <p>
+ * The other nodes are evaluated by the interpreter, see {@link AstNode#eval(ElEvalContext)}.
+ */
+final class SpelCompiler {
+
+	private static final Log log = LogFactory.get(SpelCompiler.class);
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	private static final String SUPER_NAME    = Type.getInternalName(SpelCompiledExpr.class);
+	private static final String CONTEXT_NAME  = Type.getInternalName(ElEvalContext.class);
+	private static final String NODE_NAME     = Type.getInternalName(AstNode.class);
+	private static final String PROPERTY_NAME = Type.getInternalName(AstProperty.class);
+	private static final String METHOD_NAME   = Type.getInternalName(AstMethod.class);
+	private static final String STRICT_NAME   = Type.getInternalName(StrictOperator.class);
+	private static final String COMPARE_NAME  = Type.getInternalName(CompareOperator.class);
+	private static final String CONTEXT_DESC  = "L" + CONTEXT_NAME + ";";
+	private static final String OBJECT_DESC   = "Ljava/lang/Object;";
+	private static final String EVAL_VALUES_DESC = "(" + CONTEXT_DESC + "I" + OBJECT_DESC + "I" + OBJECT_DESC + ")" + OBJECT_DESC;
+
+	/**
+	 * Returns the compiled expression or <code>null</code> if the expression cannot be compiled.
+	 */
+	static SpelCompiledExpr compile(AstExpr expr) {
+		if(!isCompilable(expr)) {
+			return null;
+		}
+
+		try {
+			return new SpelCompiler().doCompile(expr);
+		}catch(Throwable e) {
+			log.info("Cannot compile expression '{}', {}", expr, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Returns <code>false</code> if no node of the expression can be generated.
+	 */
+	private static boolean isCompilable(AstExpr expr) {
+		Class<?> c = expr.getClass();
+		return c == AstProperty.class || c == AstMethod.class || c == AstBinary.class ||
+			   c == AstUnary.class    || c == AstChoice.class;
+	}
+
+	private final String       className = SUPER_NAME + "$" + counter.incrementAndGet();
+	private final ClassWriter  cw        = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+	private final List<Object> constants = new ArrayList<>();
+
+	private MethodVisitor mv;
+	private int           locals = 3; //this, context, constants
+
+	private SpelCompiler() {
+
+	}
+
+	private SpelCompiledExpr doCompile(AstExpr expr) throws Exception {
+		cw.visit(V1_6, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, SUPER_NAME, null);
+
+		mv = cw.visitMethod(ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", "([Ljava/lang/Object;)V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		mv = cw.visitMethod(ACC_PUBLIC, "eval", "(" + CONTEXT_DESC + ")" + OBJECT_DESC, null, null);
+		mv.visitCode();
+
+		//Object[] c = this.constants;
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, SUPER_NAME, "constants", "[Ljava/lang/Object;");
+		mv.visitVarInsn(ASTORE, 2);
+
+		generate(expr);
+
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+
+		byte[]   data = cw.toByteArray();
+		Class<?> c    = ClassDefiner.define(SpelCompiledExpr.class.getClassLoader(), className.replace('/', '.'), data);
+
+		return (SpelCompiledExpr)c.getConstructor(Object[].class).newInstance(new Object[]{constants.toArray()});
+	}
+
+	/**
+	 * Generates the code leaves the evaluated value on the stack.
+	 */
+	private void generate(AstNode node) {
+		Class<?> c = node.getClass();
+
+		if(node instanceof AstLiteral) {
+			Object v = ((AstLiteral) node).getLiteralValue();
+			if(null == v) {
+				mv.visitInsn(ACONST_NULL);
+			}else{
+				loadConstant(v, null);
+			}
+		}else if(c == AstProperty.class) {
+			generateProperty((AstProperty)node);
+		}else if(c == AstMethod.class) {
+			generateMethod((AstMethod)node);
+		}else if(c == AstBinary.class) {
+			generateBinary((AstBinary)node);
+		}else if(c == AstUnary.class) {
+			generateUnary((AstUnary)node);
+		}else if(c == AstChoice.class) {
+			generateChoice((AstChoice)node);
+		}else{
+			interpret(node);
+		}
+	}
+
+	private void interpret(AstNode node) {
+		loadConstant(node, NODE_NAME);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitMethodInsn(INVOKEVIRTUAL, NODE_NAME, "eval", "(" + CONTEXT_DESC + ")" + OBJECT_DESC, false);
+	}
+
+	private void generateProperty(AstProperty p) {
+		Label end = new Label();
+
+		//Object v = context.resolveQualifiedVariable(qName);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitLdcInsn(p.getQualifiedName());
+		mv.visitMethodInsn(INVOKEINTERFACE, CONTEXT_NAME, "resolveQualifiedVariable", "(Ljava/lang/String;)" + OBJECT_DESC, true);
+		mv.visitInsn(DUP);
+		mv.visitJumpInsn(IFNONNULL, end);
+		mv.visitInsn(POP);
+
+		//p.getValue(context, owner)
+		loadConstant(p, PROPERTY_NAME);
+		mv.visitVarInsn(ALOAD, 1);
+		generate(p.getOwner());
+		mv.visitMethodInsn(INVOKEVIRTUAL, PROPERTY_NAME, "getValue", "(" + CONTEXT_DESC + OBJECT_DESC + ")" + OBJECT_DESC, false);
+
+		mv.visitLabel(end);
+	}
+
+	private void generateMethod(AstMethod m) {
+		Label call = new Label();
+		Label end  = new Label();
+
+		//the parameters are not evaluated if the owner is null.
+		int owner = locals++;
+		generate(m.getOwner());
+		mv.visitVarInsn(ASTORE, owner);
+		mv.visitVarInsn(ALOAD, owner);
+		mv.visitJumpInsn(IFNONNULL, call);
+		mv.visitInsn(ACONST_NULL);
+		mv.visitJumpInsn(GOTO, end);
+
+		mv.visitLabel(call);
+		loadConstant(m, METHOD_NAME);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, owner);
+
+		AstExpr[] parameters = m.getParameters();
+		if(parameters.length == 0) {
+			mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Arrays2.class), "EMPTY_OBJECT_ARRAY", "[Ljava/lang/Object;");
+		}else{
+			mv.visitLdcInsn(parameters.length);
+			mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+			for(int i=0;i<parameters.length;i++) {
+				mv.visitInsn(DUP);
+				mv.visitLdcInsn(i);
+				generate(parameters[i]);
+				mv.visitInsn(AASTORE);
+			}
+		}
+
+		mv.visitMethodInsn(INVOKEVIRTUAL, METHOD_NAME, "invoke", "(" + CONTEXT_DESC + OBJECT_DESC + "[Ljava/lang/Object;)" + OBJECT_DESC, false);
+		mv.visitLabel(end);
+	}
+
+	private void generateBinary(AstBinary b) {
+		BOperator op = b.getOperator();
+
+		if(op == AstBinary.AND || op == AstBinary.OR) {
+			Label shortcut = new Label();
+			Label end      = new Label();
+			int   jump     = op == AstBinary.AND ? IFEQ : IFNE;
+
+			test(b.getLeft());
+			mv.visitJumpInsn(jump, shortcut);
+			test(b.getRight());
+			mv.visitJumpInsn(jump, shortcut);
+			loadBoolean(op == AstBinary.AND);
+			mv.visitJumpInsn(GOTO, end);
+			mv.visitLabel(shortcut);
+			loadBoolean(op == AstBinary.OR);
+			mv.visitLabel(end);
+			return;
+		}
+
+		if(op instanceof CompareOperator) {
+			Label eval = new Label();
+			Label end  = new Label();
+
+			//the right operand is not evaluated if the left is null.
+			int left = locals++;
+			generate(b.getLeft());
+			mv.visitVarInsn(ASTORE, left);
+			mv.visitVarInsn(ALOAD, left);
+			mv.visitJumpInsn(IFNONNULL, eval);
+			loadBoolean(false);
+			mv.visitJumpInsn(GOTO, end);
+
+			mv.visitLabel(eval);
+			loadConstant(op, COMPARE_NAME);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitLdcInsn(b.getLeftType());
+			mv.visitVarInsn(ALOAD, left);
+			mv.visitLdcInsn(b.getRightType());
+			generate(b.getRight());
+			mv.visitMethodInsn(INVOKEVIRTUAL, COMPARE_NAME, "evalValues", EVAL_VALUES_DESC, false);
+			mv.visitLabel(end);
+			return;
+		}
+
+		if(op instanceof StrictOperator) {
+			loadConstant(op, STRICT_NAME);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitLdcInsn(b.getLeftType());
+			generate(b.getLeft());
+			mv.visitLdcInsn(b.getRightType());
+			generate(b.getRight());
+			mv.visitMethodInsn(INVOKEINTERFACE, STRICT_NAME, "evalValues", EVAL_VALUES_DESC, true);
+		}else{
+			interpret(b);
+		}
+	}
+
+	private void generateUnary(AstUnary u) {
+		if(u.getOperator() == AstUnary.NOT) {
+			Label f   = new Label();
+			Label end = new Label();
+
+			test(u.getExpr());
+			mv.visitJumpInsn(IFNE, f);
+			loadBoolean(true);
+			mv.visitJumpInsn(GOTO, end);
+			mv.visitLabel(f);
+			loadBoolean(false);
+			mv.visitLabel(end);
+		}else if(u.getOperator() == AstUnary.PLUS) {
+			generate(u.getExpr());
+		}else{
+			interpret(u);
+		}
+	}
+
+	private void generateChoice(AstChoice c) {
+		Label no  = new Label();
+		Label end = new Label();
+
+		test(c.getQuestion());
+		mv.visitJumpInsn(IFEQ, no);
+		generate(c.getYes());
+		mv.visitJumpInsn(GOTO, end);
+		mv.visitLabel(no);
+		generate(c.getNo());
+		mv.visitLabel(end);
+	}
+
+	/**
+	 * Generates the code leaves the tested boolean of the evaluated value on the stack.
+	 */
+	private void test(AstNode node) {
+		mv.visitVarInsn(ALOAD, 1);
+		generate(node);
+		mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "test", "(" + CONTEXT_DESC + OBJECT_DESC + ")Z", false);
+	}
+
+	private void loadBoolean(boolean b) {
+		mv.visitFieldInsn(GETSTATIC, "java/lang/Boolean", b ? "TRUE" : "FALSE", "Ljava/lang/Boolean;");
+	}
+
+	private void loadConstant(Object value, String type) {
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitLdcInsn(constants.size());
+		mv.visitInsn(AALOAD);
+		if(null != type) {
+			mv.visitTypeInsn(CHECKCAST, type);
+		}
+		constants.add(value);
+	}
+
+}
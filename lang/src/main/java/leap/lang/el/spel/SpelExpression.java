@@ -24,20 +24,68 @@ import leap.lang.expression.AbstractExpression;
 
 public class SpelExpression extends AbstractExpression {
 	
+	/**
+	 * The system property of the number of interpreted evaluations before compiling the expression.
+	 * 
+	 * <p>
+	 * Defaults to 100, zero compiles at the first evaluation and a negative value disables the compiling.
+	 */
+	public static final String COMPILE_THRESHOLD_PROPERTY = "leap.spel.compile-threshold";
+	
+	private static final int COMPILE_THRESHOLD = Integer.getInteger(COMPILE_THRESHOLD_PROPERTY, 100);
+	
 	protected final AstExpr expr;
 	
+	private volatile SpelCompiledExpr compiled;
+	private volatile boolean          compileTried;
+	private int                       interpreted;
+	
 	public SpelExpression(AstExpr expr) {
 		this.expr = expr;
 	}
 
 	@Override
     protected Object eval(Object context, Map<String, Object> vars) {
-	    return expr.eval(new DefaultElEvalContext(context, vars));
+	    return eval(new DefaultElEvalContext(context, vars));
     }
 
 	public Object eval(ElEvalContext context) {
+		SpelCompiledExpr compiled = this.compiled;
+		if(null != compiled) {
+			return compiled.eval(context);
+		}
+		
+		if(COMPILE_THRESHOLD >= 0 && !compileTried && interpreted++ >= COMPILE_THRESHOLD && compile()) {
+			return this.compiled.eval(context);
+		}
+		
 		return expr.eval(context);
 	}
+	
+	/**
+	 * Compiles the expression to a generated class now, returns <code>false</code> if the expression cannot be compiled.
+	 * 
+	 * <p>
+	 * The expression is compiled at most once, the interpreter is used if not compiled.
+	 */
+	public boolean compile() {
+		if(!compileTried) {
+			synchronized (this) {
+				if(!compileTried) {
+					compiled     = SpelCompiler.compile(expr);
+					compileTried = true;
+				}
+			}
+		}
+		return null != compiled;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the expression was compiled.
+	 */
+	public boolean isCompiled() {
+		return null != compiled;
+	}
 
 	@Override
     public String toString() {
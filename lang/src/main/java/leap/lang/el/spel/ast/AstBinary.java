@@ -31,6 +31,17 @@ public class AstBinary extends AstExpr {
 		Object eval(ElEvalContext context,int ltype, AstNode left, int rtype, AstNode right);
 	}
 	
+	/**
+	 * The operator always evaluates both operands (left first).
+	 */
+	public static interface StrictOperator extends BOperator {
+		
+		/**
+		 * Evaluates the operator with the evaluated operands.
+		 */
+		Object evalValues(ElEvalContext context,int ltype, Object lval, int rtype, Object rval);
+	}
+	
 	public static abstract class AbstractOperator implements BOperator {
 		protected final String literal;
 		protected final int    priority;
@@ -61,15 +72,26 @@ public class AstBinary extends AstExpr {
         }
 	}
 	
-	protected static abstract class SimpleOperator extends AbstractOperator{
-		public SimpleOperator(String literal, int priority) {
+	public static abstract class StrictOperatorBase extends AbstractOperator implements StrictOperator {
+		public StrictOperatorBase(String literal, int priority) {
 	        super(literal,priority);
         }
 
 		@Override
         public final Object eval(ElEvalContext context, int ltype, AstNode left, int rtype, AstNode right) {
-	        return apply(context, ltype, left.eval(context), rtype, right.eval(context));
+	        return evalValues(context, ltype, left.eval(context), rtype, right.eval(context));
+        }
+	}
+	
+	protected static abstract class SimpleOperator extends StrictOperatorBase {
+		public SimpleOperator(String literal, int priority) {
+	        super(literal,priority);
         }
+
+		@Override
+		public final Object evalValues(ElEvalContext context, int ltype, Object lval, int rtype, Object rval) {
+			return apply(context, ltype, lval, rtype, rval);
+		}
 		
 		protected abstract Object apply(ElEvalContext context,int ltype, Object left, int rtype, Object right);
 	}
@@ -140,17 +162,14 @@ public class AstBinary extends AstExpr {
         }
 	};
 	
-	public static abstract class EqOperatorBase extends AbstractOperator {
+	public static abstract class EqOperatorBase extends StrictOperatorBase {
 
 		public EqOperatorBase(String literal, int priority) {
 	        super(literal, priority);
         }
-
+		
 		@Override
-        public Object eval(ElEvalContext context, int ltype, AstNode left, int rtype, AstNode right) {
-			Object lval = left.eval(context);
-			Object rval = right.eval(context);
-			
+		public Object evalValues(ElEvalContext context, int ltype, Object lval, int rtype, Object rval) {
 			if(lval == rval){
 				return Boolean.TRUE;
 			}
@@ -160,7 +179,7 @@ public class AstBinary extends AstExpr {
 			}
 			
 			return apply(context, ltype, lval, rtype, rval);
-        }
+		}
 		
 		protected abstract Object apply(ElEvalContext context,int ltype, Object lval, int rtype, Object rval);
 	}
@@ -186,17 +205,30 @@ public class AstBinary extends AstExpr {
 		}
 	};
 	
-	public static final BOperator GT = new AbstractOperator(">",110) {
+	/**
+	 * The right operand is not evaluated if the left is null, so it is not a strict operator.
+	 */
+	public static abstract class CompareOperator extends AbstractOperator {
+
+		public CompareOperator(String literal, int priority) {
+	        super(literal, priority);
+        }
 
 		@Override
-        public Object eval(ElEvalContext ctx, int ltype, AstNode left, int rtype, AstNode right) {
+        public final Object eval(ElEvalContext ctx, int ltype, AstNode left, int rtype, AstNode right) {
 			Object lval = left.eval(ctx);
 			if(null == lval){
 				return Boolean.FALSE;
 			}
 			
-			Object rval = right.eval(ctx);
-			if(null == rval){
+			return evalValues(ctx, ltype, lval, rtype, right.eval(ctx));
+        }
+		
+		/**
+		 * Evaluates the operator with the evaluated operands, returns false if any operand is null.
+		 */
+		public final Object evalValues(ElEvalContext ctx, int ltype, Object lval, int rtype, Object rval) {
+			if(null == lval || null == rval){
 				return Boolean.FALSE;
 			}
 			
@@ -204,38 +236,30 @@ public class AstBinary extends AstExpr {
 				return Boolean.FALSE;
 			}
 			
+			return apply(ctx, ltype, lval, rtype, rval);
+		}
+		
+		protected abstract Object apply(ElEvalContext ctx, int ltype, Object lval, int rtype, Object rval);
+	}
+	
+	public static final BOperator GT = new CompareOperator(">",110) {
+		@Override
+		protected Object apply(ElEvalContext ctx, int ltype, Object lval, int rtype, Object rval) {
 			return Ops.gt(ctx, ltype, lval, rtype, rval);
-        }
+		}
 	};
 	
-	public static final BOperator LT = new AbstractOperator("<",110) {
+	public static final BOperator LT = new CompareOperator("<",110) {
 		@Override
-        public Object eval(ElEvalContext ctx, int ltype, AstNode left, int rtype, AstNode right) {
-			Object lval = left.eval(ctx);
-			if(null == lval){
-				return Boolean.FALSE;
-			}
-			
-			Object rval = right.eval(ctx);
-			if(null == rval){
-				return Boolean.FALSE;
-			}
-			
-			if(lval == rval){
-				return Boolean.FALSE;
-			}
-			
+		protected Object apply(ElEvalContext ctx, int ltype, Object lval, int rtype, Object rval) {
 			return Ops.lt(ctx, ltype, lval, rtype, rval);
-        }
+		}
 	};
 	
-	public static final BOperator NE = new AbstractOperator("!=",110) {
+	public static final BOperator NE = new StrictOperatorBase("!=",110) {
 
 		@Override
-        public Object eval(ElEvalContext context, int ltype, AstNode left, int rtype, AstNode right) {
-			Object lval = left.eval(context);
-			Object rval = right.eval(context);
-			
+		public Object evalValues(ElEvalContext context, int ltype, Object lval, int rtype, Object rval) {
 			if(lval == rval){
 				return false;
 			}
@@ -363,6 +387,14 @@ public class AstBinary extends AstExpr {
 	public BOperator getOperator() {
 		return this.operator;
 	}
+	
+	public int getLeftType() {
+		return ltype;
+	}
+	
+	public int getRightType() {
+		return rtype;
+	}
 
 	public void setOperator(BOperator operator) {
 		this.operator = operator;
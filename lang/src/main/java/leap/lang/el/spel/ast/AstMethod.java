@@ -28,8 +28,7 @@ public class AstMethod extends AstInvocable implements Serializable {
     
     private AstExpr  owner;
     
-    private Class<?> c;
-    private ElMethod m;
+    private final InlineCache<ElMethod> cache = new InlineCache<>();
 
     public AstMethod() {
 
@@ -56,38 +55,32 @@ public class AstMethod extends AstInvocable implements Serializable {
     		return null;
     	}
     	
+    	return invoke(context, o, evalParameters(context));
+    }
+    
+    /**
+     * Invokes this method on the evaluated owner with the evaluated arguments.
+     */
+    public Object invoke(ElEvalContext context, Object o, Object[] args) {
+    	if(null == o){
+    		return null;
+    	}
+    	
     	if(o instanceof ElMethodInvocable){
     		try {
-	            return ((ElMethodInvocable) o).invokeMethod(context, name, evalParameters(context));
+	            return ((ElMethodInvocable) o).invokeMethod(context, name, args);
             } catch (Throwable e) {
             	throw new ElException(context.getMessage("el.errors.methodInvokeError", name, o, e.getMessage()),e);
             }
     	}
     	
-    	Object[] args = evalParameters(context);
+    	boolean  isStatic = o instanceof Class<?>;
+    	Class<?> c        = isStatic ? (Class<?>)o : o.getClass();
     	
+    	ElMethod m = cache.get(c, isStatic);
     	if(null == m){
-    		synchronized (this) {
-	            if(null == m){
-	            	if(o instanceof Class<?>){
-	            		this.c = (Class<?>)o;
-	            		this.m = resolveMethod(context, c, args);
-	            	}else{
-	            		this.c = o.getClass();
-	            		this.m = resolveMethod(context, o, c, args);
-	            	}
-	            }
-            }
-    	}
-    	
-    	ElMethod m = this.m;
-    	Class<?> c = AstProperty.cls(o);
-    	if(this.c != c){
-    		if(c == o){
-    			m = resolveMethod(context, c, args);	
-    		}else{
-    			m = resolveMethod(context, o, c, args);
-    		}
+    		m = isStatic ? resolveMethod(context, c, args) : resolveMethod(context, o, c, args);
+    		cache.put(c, isStatic, m);
     	}
     	
     	try {
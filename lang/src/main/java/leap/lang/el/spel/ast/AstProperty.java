@@ -32,8 +32,8 @@ public class AstProperty extends AstExpr implements Named {
     private String  name;
     private String  qName;
     
-    private Class<?>   c;
-    private ElProperty p;
+    
+    private final InlineCache<ElProperty> cache = new InlineCache<>();
     
     public AstProperty() {
 
@@ -64,24 +64,30 @@ public class AstProperty extends AstExpr implements Named {
         this.name = name;
     }
 
-    @Override
-    @SuppressWarnings("rawtypes")
-    public Object eval(ElEvalContext context) {
+    /**
+     * Returns the qualified name of this property, such as 'a.b'.
+     */
+    public String getQualifiedName() {
         if(null == qName) {
             qName = owner.toString() + "." + name;
-            Object o = context.resolveVariable(qName);
-            if(null != o) {
-                return o;
-            }
-        }else{
-            Object o = context.resolveVariable(qName);
-            if(null != o) {
-                return o;
-            }
         }
-        
-    	Object o = owner.eval(context);
-    	
+        return qName;
+    }
+
+    @Override
+    public Object eval(ElEvalContext context) {
+        Object o = context.resolveQualifiedVariable(getQualifiedName());
+        if(null != o) {
+            return o;
+        }
+        return getValue(context, owner.eval(context));
+    }
+    
+    /**
+     * Returns the value of this property in the evaluated owner.
+     */
+    @SuppressWarnings("rawtypes")
+    public Object getValue(ElEvalContext context, Object o) {
     	if(null == o){
     		return null;
     	}
@@ -98,28 +104,13 @@ public class AstProperty extends AstExpr implements Named {
     		return ((DynaBean) o).getProperty(name);
     	}
     	
-    	if(null == this.p){
-    		synchronized (this) {
-	            if(null == this.p){
-	            	if(o instanceof Class<?>){
-	            		this.c = (Class<?>)o;
-	            		this.p = resolveProperty(context, c);
-	            	}else{
-	            		this.c = o.getClass();
-	            		this.p = resolveProperty(context, o, c);
-	            	}
-	            }
-    		}
-    	}
+    	boolean  isStatic = o instanceof Class<?>;
+    	Class<?> c        = isStatic ? (Class<?>)o : o.getClass();
     	
-    	ElProperty p = this.p;
-    	Class<?> c = cls(o);
-    	if(this.c != c){
-    		if(c == o){
-    			p = resolveProperty(context, c);
-    		}else{
-    			p = resolveProperty(context, o, c);
-    		}
+    	ElProperty p = cache.get(c, isStatic);
+    	if(null == p){
+    		p = isStatic ? resolveProperty(context, c) : resolveProperty(context, o, c);
+    		cache.put(c, isStatic, p);
     	}
 
     	try {
@@ -145,15 +136,6 @@ public class AstProperty extends AstExpr implements Named {
     	return p;
     }
     
-    static Class<?> cls(Object o){
-    	Class<?> c = o.getClass();
-    	if(c == Class.class){
-    		return (Class<?>)o;
-    	}else{
-    		return c;
-    	}
-    }
-    
 	protected void doAccept(AstVisitor visitor) {
         if (visitor.startVisit(this)) {
         	acceptChild(visitor, this.owner);
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.el.spel.ast;
+
+/**
+ * A small polymorphic inline cache of the members resolved by the class of receiver at an ast site.
+ *
+ * <p>
+ * At most {@link #MAX_ENTRIES} classes are cached, the other classes are resolved at every evaluation.
+ */
+final class InlineCache<T> {
+
+	static final int MAX_ENTRIES = 4;
+
+	private static final Entry<?>[] EMPTY = new Entry<?>[0];
+
+	@SuppressWarnings("unchecked")
+	private volatile Entry<T>[] entries = (Entry<T>[])EMPTY;
+
+	/**
+	 * Returns the cached value or <code>null</code>.
+	 *
+	 * <p>
+	 * The static flag tells the receiver is the class itself, i.e. <code>T(Type).member</code>.
+	 */
+	T get(Class<?> c, boolean isStatic) {
+		Entry<T>[] a = entries;
+		for(int i=0;i<a.length;i++) {
+			Entry<T> e = a[i];
+			if(e.c == c && e.isStatic == isStatic) {
+				return e.value;
+			}
+		}
+		return null;
+	}
+
+	void put(Class<?> c, boolean isStatic, T value) {
+		synchronized (this) {
+			Entry<T>[] a = entries;
+			if(a.length < MAX_ENTRIES && null == get(c, isStatic)) {
+				@SuppressWarnings("unchecked")
+				Entry<T>[] n = new Entry[a.length + 1];
+				System.arraycopy(a, 0, n, 0, a.length);
+				n[a.length] = new Entry<>(c, isStatic, value);
+				entries = n;
+			}
+		}
+	}
+
+	int size() {
+		return entries.length;
+	}
+
+	private static final class Entry<T> {
+		final Class<?> c;
+		final boolean  isStatic;
+		final T        value;
+
+		Entry(Class<?> c, boolean isStatic, T value) {
+			this.c        = c;
+			this.isStatic = isStatic;
+			this.value    = value;
+		}
+	}
+}
@@ -29,6 +29,9 @@ import java.io.Reader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.UnsupportedCharsetException;
 
@@ -363,6 +366,82 @@ public class IO {
 		return count;
 	}
 
+	/**
+	 * Copies the bytes of the file region to an <code>OutputStream</code>.
+	 * <p>
+	 * If the output is a {@link WritableByteChannel} or a {@link FileOutputStream} the bytes are transferred by
+	 * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which may avoid copying through the java heap.
+	 * Otherwise (e.g. a servlet output stream) the bytes are copied by a buffer, the same as {@link #copy(InputStream, OutputStream)}.
+	 * 
+	 * @param file the file to read from
+	 * @param position the start position in the file
+	 * @param count the number of bytes to transfer
+	 * @param output the <code>OutputStream</code> to write to
+	 * @return the number of bytes transferred
+	 * @throws NestedIOException if an I/O error occurs
+	 */
+	public static long transferTo(File file, long position, long count, OutputStream output) throws NestedIOException {
+		try(FileInputStream in = new FileInputStream(file)) {
+			return transferTo(in.getChannel(), position, count, output);
+		} catch (IOException e) {
+			throw Exceptions.wrap(e);
+		}
+	}
+
+	/**
+	 * Copies the bytes of the channel region to an <code>OutputStream</code>, the position of the channel is not changed.
+	 * <p>
+	 * The same as {@link #transferTo(File, long, long, OutputStream)}, but the channel can be reused to copy several regions.
+	 * 
+	 * @param channel the file channel to read from
+	 * @param position the start position in the file
+	 * @param count the number of bytes to transfer
+	 * @param output the <code>OutputStream</code> to write to
+	 * @return the number of bytes transferred
+	 * @throws NestedIOException if an I/O error occurs
+	 */
+	public static long transferTo(FileChannel channel, long position, long count, OutputStream output) throws NestedIOException {
+		WritableByteChannel target = null;
+		if(output instanceof WritableByteChannel) {
+			target = (WritableByteChannel)output;
+		}else if(output instanceof FileOutputStream) {
+			target = ((FileOutputStream)output).getChannel();
+		}
+
+		try {
+			long end   = Math.min(position + count, channel.size());
+			long total = 0;
+
+			if(null == target) {
+				byte[]     buffer = new byte[DEFAULT_BUFFER_SIZE];
+				ByteBuffer bb     = ByteBuffer.wrap(buffer);
+				while(position < end) {
+					bb.clear().limit((int)Math.min(buffer.length, end - position));
+					int n = channel.read(bb, position);
+					if(n < 0) {
+						break;
+					}
+					output.write(buffer, 0, n);
+					position += n;
+					total    += n;
+				}
+				return total;
+			}
+
+			while(position < end) {
+				long n = channel.transferTo(position, end - position, target);
+				if(n <= 0) {
+					break;
+				}
+				position += n;
+				total    += n;
+			}
+			return total;
+		} catch (IOException e) {
+			throw Exceptions.wrap(e);
+		}
+	}
+
 	/**
 	 * Copy bytes from an <code>InputStream</code> to chars on a <code>Writer</code> using the default character
 	 * encoding of the platform.
@@ -15,8 +15,16 @@
  */
 package leap.lang.json;
 
+import java.io.BufferedReader;
+import java.io.CharArrayReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.StringReader;
 import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 import java.util.Map;
 
 import leap.lang.convert.Converts;
@@ -46,6 +54,13 @@ public class JSON {
     	return new JsonWriterCreatorImpl(out).create();
     }
     
+    /**
+     * Creates a new {@link JsonByteWriter} writes utf-8 encoded json to the given {@link OutputStream}.
+     */
+    public static JsonByteWriter createByteWriter(OutputStream out) {
+    	return new JsonByteWriter(out);
+    }
+    
     /**
      * Creates a {@link JsonEncoder} for the given value.
      */
@@ -110,10 +125,40 @@ public class JSON {
 	}
 	
     /**
-     * Parse the json string and converts the raw value to the target type.
+     * Parse the json and decodes it to the target type while reading.
+     * 
+     * @see #decode(Reader, Class, Type)
      */
     public static <T> T decode(Reader json,Class<? extends T> targetType){
-        return Converts.convert(decoder.decode(json),targetType);
+        return decode(json, targetType, null);
+    }
+    
+    /**
+     * Parse the json and decodes it to the target type while reading.
+     * 
+     * <p>
+     * The beans, collections and maps are filled by the tokens of {@link JsonPullParser} directly,
+     * the whole json will not be parsed to an intermediate raw value at first.
+     */
+    public static <T> T decode(Reader json,Class<? extends T> targetType,Type genericType){
+        return JsonStreamDecoder.decode(createPullParser(json), targetType, genericType);
+    }
+    
+    /**
+     * Creates a new {@link JsonPullParser} reads the json from the given {@link Reader}.
+     */
+    public static JsonPullParser createPullParser(Reader json) {
+    	if(!(json instanceof BufferedReader) && !(json instanceof StringReader) && !(json instanceof CharArrayReader)) {
+    		json = new BufferedReader(json);
+    	}
+    	return new JsonPullParserImpl(json);
+    }
+    
+    /**
+     * Creates a new {@link JsonPullParser} reads the json from the given {@link InputStream} in the given charset.
+     */
+    public static JsonPullParser createPullParser(InputStream json, Charset charset) {
+    	return createPullParser(new InputStreamReader(json, charset));
     }
     
     /**
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import leap.lang.beans.BeanProperty;
+import leap.lang.beans.BeanType;
+import leap.lang.naming.NamingStyle;
+import leap.lang.naming.NamingStyles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The cached json properties of a bean class, resolved once per class.
+ */
+final class JsonBeanSerializer {
+
+	private static final ConcurrentMap<Class<?>, JsonBeanSerializer> CACHE = new ConcurrentHashMap<>();
+
+	static JsonBeanSerializer of(Class<?> beanClass) {
+		return CACHE.computeIfAbsent(beanClass, c -> new JsonBeanSerializer(BeanType.of(c)));
+	}
+
+	private final Class<?>   beanClass;
+	private final Property[] properties;
+
+	private volatile GeneratedJsonSerializer generated;
+	private volatile boolean                 generateFailed;
+
+	private JsonBeanSerializer(BeanType beanType) {
+		this.beanClass = beanType.getBeanClass();
+
+		List<Property> list = new ArrayList<>();
+
+		for(BeanProperty bp : beanType.getProperties()){
+			if(bp.isTransient()){
+				continue;
+			}
+
+			if(!bp.isReadable() || !bp.isField()){
+				continue;
+			}
+
+			if(null == bp.getAnnotation(JsonField.class) && bp.isAnnotationPresent(JsonIgnore.class)){
+				continue;
+			}
+
+			JsonName named = bp.getAnnotation(JsonName.class);
+
+			list.add(null == named ? new Property(bp, bp.getName(), false) : new Property(bp, named.value(), true));
+		}
+
+		this.properties = list.toArray(new Property[list.size()]);
+	}
+
+	Property[] properties() {
+		return properties;
+	}
+
+	/**
+	 * Returns the generated serializer of the bean class or <code>null</code> if cannot be generated.
+	 */
+	GeneratedJsonSerializer generated() {
+		if(null == generated && !generateFailed) {
+			synchronized (this) {
+				if(null == generated && !generateFailed) {
+					GeneratedJsonSerializer g = JsonSerializerGenerator.generate(beanClass, properties);
+					if(null == g) {
+						generateFailed = true;
+					}else{
+						generated = g;
+					}
+				}
+			}
+		}
+		return generated;
+	}
+
+	static final class Property {
+		final BeanProperty bp;
+		final String       name;
+		final boolean      named; //the name specified by @JsonName
+		final byte[]       quotedKey;
+		final byte[]       unquotedKey;
+
+		//the name and keys of the last used naming style.
+		private volatile StyledName styled;
+
+		Property(BeanProperty bp, String name, boolean named) {
+			this.bp          = bp;
+			this.name        = name;
+			this.named       = named;
+			this.quotedKey   = JsonByteWriter.encodeKey(name, true);
+			this.unquotedKey = JsonByteWriter.encodeKey(name, false);
+		}
+
+		Object getValue(Object bean) {
+			return bp.getValue(bean);
+		}
+
+		byte[] key(boolean quoted) {
+			return quoted ? quotedKey : unquotedKey;
+		}
+
+		/**
+		 * Returns the name in the given naming style.
+		 */
+		String name(NamingStyle ns) {
+			return isRaw(ns) ? name : styled(ns).name;
+		}
+
+		/**
+		 * Returns the pre-encoded key of the name in the given naming style.
+		 */
+		byte[] key(boolean quoted, NamingStyle ns) {
+			if(isRaw(ns)) {
+				return key(quoted);
+			}
+			StyledName s = styled(ns);
+			return quoted ? s.quotedKey : s.unquotedKey;
+		}
+
+		private boolean isRaw(NamingStyle ns) {
+			return named || null == ns || ns == NamingStyles.RAW;
+		}
+
+		private StyledName styled(NamingStyle ns) {
+			StyledName s = styled;
+			if(null == s || s.ns != ns) {
+				styled = s = new StyledName(ns, ns.of(name));
+			}
+			return s;
+		}
+	}
+
+	private static final class StyledName {
+		final NamingStyle ns;
+		final String      name;
+		final byte[]      quotedKey;
+		final byte[]      unquotedKey;
+
+		StyledName(NamingStyle ns, String name) {
+			this.ns          = ns;
+			this.name        = name;
+			this.quotedKey   = JsonByteWriter.encodeKey(name, true);
+			this.unquotedKey = JsonByteWriter.encodeKey(name, false);
+		}
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import leap.lang.codec.Base64;
+import leap.lang.exception.NestedIOException;
+import leap.lang.naming.NamingStyle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * A {@link JsonWriter} writes utf-8 encoded json to an {@link OutputStream}.
+ *
+ * <p>
+ * The output is buffered, {@link #flush()} must be called after writing.
+ *
+ * <p>
+ * The output differs from {@link JsonWriterImpl} writing to an {@link Appendable} :
+ * <ul>
+ * <li>The control chars (less than 0x20) without short escapes are escaped as <code>&#92;u00XX</code> instead of written as is.</li>
+ * <li>The keys are escaped the same as the string values instead of written as is.</li>
+ * </ul>
+ */
+public class JsonByteWriter extends JsonWriterImpl {
+
+	private static final byte[] NULL_BYTES  = NULL_STRING.getBytes();
+	private static final byte[] TRUE_BYTES  = "true".getBytes();
+	private static final byte[] FALSE_BYTES = "false".getBytes();
+	private static final byte[] EMPTY_BYTES = EMPTY_STRING.getBytes();
+
+	private final JsonOutput buf;
+
+	public JsonByteWriter(OutputStream out) {
+		this(out, true, false, false, false, false, true, true, MAX_DEPTH, null);
+	}
+
+	public JsonByteWriter(OutputStream out, boolean keyQuoted, boolean ignoreNull, boolean ignoreFalse, boolean ignoreEmptyString,
+						  boolean ignoreEmptyArray, boolean detectCyclicReferences, boolean ignoreCyclicReferences,
+						  int maxDepth,
+						  NamingStyle ns) {
+		this(new JsonOutput(out), keyQuoted, ignoreNull, ignoreFalse, ignoreEmptyString, ignoreEmptyArray,
+			 detectCyclicReferences, ignoreCyclicReferences, maxDepth, ns);
+	}
+
+	private JsonByteWriter(JsonOutput buf, boolean keyQuoted, boolean ignoreNull, boolean ignoreFalse, boolean ignoreEmptyString,
+						   boolean ignoreEmptyArray, boolean detectCyclicReferences, boolean ignoreCyclicReferences,
+						   int maxDepth,
+						   NamingStyle ns) {
+		super(buf, keyQuoted, ignoreNull, ignoreFalse, ignoreEmptyString, ignoreEmptyArray,
+			  detectCyclicReferences, ignoreCyclicReferences, maxDepth, ns);
+		this.buf = buf;
+	}
+
+	/**
+	 * Writes the buffered bytes to the underlying {@link OutputStream}.
+	 *
+	 * <p>
+	 * The underlying stream will not be flushed, so a servlet container may still send the response with content length.
+	 */
+	public void flush() throws NestedIOException {
+		try {
+			buf.flush();
+		} catch (IOException e) {
+			throw new NestedIOException(e);
+		}
+	}
+
+	@Override
+	public JsonWriter startObject() {
+		buf.writeByte((byte)OPEN_OBJECT);
+		startProperty = true;
+		return this;
+	}
+
+	@Override
+	public JsonWriter endObject() {
+		buf.writeByte((byte)CLOSE_OBJECT);
+		startProperty = false;
+		return this;
+	}
+
+	@Override
+	public JsonWriter startArray() {
+		buf.writeByte((byte)OPEN_ARRAY);
+		return this;
+	}
+
+	@Override
+	public JsonWriter endArray() {
+		buf.writeByte((byte)CLOSE_ARRAY);
+		return this;
+	}
+
+	@Override
+	public JsonWriter separator() {
+		buf.writeByte((byte)COMMA_CHAR);
+		return this;
+	}
+
+	@Override
+	public JsonWriter key(String key) {
+		if(startProperty){
+			startProperty = false;
+		}else{
+			buf.writeByte((byte)COMMA_CHAR);
+		}
+
+		if(isKeyQuoted()){
+			buf.writeByte((byte)DOUBLE_QUOTE);
+			buf.writeEscaped(key);
+			buf.writeByte((byte)DOUBLE_QUOTE);
+		}else{
+			buf.writeEscaped(key);
+		}
+		buf.writeByte((byte)CLOSE_KEY);
+		return this;
+	}
+
+	/**
+	 * Writes the pre-encoded bytes of key, includes the quotes and the close key char.
+	 */
+	JsonWriter key(byte[] encodedKey) {
+		if(startProperty){
+			startProperty = false;
+		}else{
+			buf.writeByte((byte)COMMA_CHAR);
+		}
+		buf.writeBytes(encodedKey);
+		return this;
+	}
+
+	@Override
+	public JsonWriter null_() {
+		buf.writeBytes(NULL_BYTES);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(boolean bool) {
+		buf.writeBytes(bool ? TRUE_BYTES : FALSE_BYTES);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(byte b) {
+		buf.writeInt(b);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(short s) {
+		buf.writeInt(s);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(int i) {
+		buf.writeInt(i);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(long l) {
+		buf.writeLong(l);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(float f) {
+		buf.writeAscii(Float.toString(f));
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(double d) {
+		buf.writeAscii(Double.toString(d));
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(BigDecimal decimal) {
+		if(null == decimal) {
+			return null_();
+		}
+		buf.writeAscii(decimal.toString());
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(Number number) {
+		if(null == number) {
+			return null_();
+		}
+
+		if(number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+			buf.writeLong(number.longValue());
+		}else{
+			buf.writeAscii(number.toString());
+		}
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(Date date) {
+		if(null == date) {
+			return null_();
+		}
+		buf.writeLong(date.getTime());
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(byte[] bytes) {
+		if(null == bytes || bytes.length == 0) {
+			buf.writeBytes(EMPTY_BYTES);
+		}else{
+			buf.writeByte((byte)DOUBLE_QUOTE);
+			buf.writeBytes(Base64.encodeToBytes(bytes));
+			buf.writeByte((byte)DOUBLE_QUOTE);
+		}
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(String string) {
+		if(null == string) {
+			buf.writeBytes(NULL_BYTES);
+		}else if(string.length() == 0) {
+			buf.writeBytes(EMPTY_BYTES);
+		}else{
+			buf.writeByte((byte)DOUBLE_QUOTE);
+			buf.writeEscaped(string);
+			buf.writeByte((byte)DOUBLE_QUOTE);
+		}
+		return this;
+	}
+
+	@Override
+	public JsonWriter raw(String string) {
+		buf.append(string);
+		return this;
+	}
+
+	/**
+	 * Returns the pre-encoded bytes of the key for {@link #key(byte[])}.
+	 */
+	static byte[] encodeKey(String key, boolean quoted) {
+		JsonOutput out = new JsonOutput();
+		if(quoted) {
+			out.writeByte((byte)DOUBLE_QUOTE);
+			out.writeEscaped(key);
+			out.writeByte((byte)DOUBLE_QUOTE);
+		}else{
+			out.writeEscaped(key);
+		}
+		out.writeByte((byte)CLOSE_KEY);
+		return out.toByteArray();
+	}
+}
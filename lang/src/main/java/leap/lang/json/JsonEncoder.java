@@ -17,6 +17,8 @@ package leap.lang.json;
 
 import leap.lang.exception.NestedIOException;
 
+import java.io.OutputStream;
+
 public interface JsonEncoder {
 
     /**
@@ -24,6 +26,14 @@ public interface JsonEncoder {
      */
 	void encode(Appendable out) throws NestedIOException;
 	
+	/**
+	 * Encodes the value to utf-8 encoded json bytes and output to the given {@link OutputStream}.
+	 * 
+	 * <p>
+	 * The control chars and the keys are escaped, see {@link JsonByteWriter}.
+	 */
+	void encode(OutputStream out) throws NestedIOException;
+	
 	/**
 	 * Encodes the value to json string and return. 
 	 */
@@ -16,6 +16,7 @@
 package leap.lang.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.IdentityHashMap;
@@ -25,8 +26,6 @@ import leap.lang.Args;
 import leap.lang.Enums;
 import leap.lang.Exceptions;
 import leap.lang.Strings;
-import leap.lang.beans.BeanProperty;
-import leap.lang.beans.BeanType;
 import leap.lang.beans.DynaBean;
 import leap.lang.exception.NestedIOException;
 import leap.lang.reflect.ReflectClass;
@@ -64,6 +63,7 @@ class JsonEncoderImpl implements JsonEncoder {
     		JsonWriter writer = JSON.writer(out)
     								.setIgnoreNull(settings.isIgnoreNull())
     								.setKeyQuoted(settings.isKeyQuoted())
+    								.setNamingStyle(settings.getNamingStyle())
     								.create();
     		
     		if(value instanceof JsonStringable) {
@@ -75,6 +75,24 @@ class JsonEncoderImpl implements JsonEncoder {
     	}
     }
     
+    @Override
+    public void encode(OutputStream out) throws NestedIOException {
+    	Args.notNull(out,"out");
+    	
+    	JsonByteWriter writer = new JsonByteWriter(out, settings.isKeyQuoted(), settings.isIgnoreNull(),
+    											   false, false, false, true, true, JsonWriter.MAX_DEPTH, settings.getNamingStyle());
+    	if(null == value){
+    		writer.null_();
+    	}else if(value instanceof JsonStringable) {
+    		((JsonStringable) value).toJson(writer);
+    	}else{
+    		encode(null,value,writer);
+    		references.clear();
+    	}
+    	
+    	writer.flush();
+    }
+    
     @Override
     public String encodeToString() throws NestedIOException {
         Appendable out = new StringBuilder();
@@ -257,44 +275,35 @@ class JsonEncoderImpl implements JsonEncoder {
         writer.startObject();
         
         try {
-        	BeanType beanType = BeanType.of(bean.getClass());
+        	JsonBeanSerializer serializer = JsonBeanSerializer.of(bean.getClass());
+        	
+        	if(settings.isGenerateSerializer()) {
+        		GeneratedJsonSerializer generated = serializer.generated();
+        		if(null != generated) {
+        			generated.serialize(bean, new PropertyWriter(writer), serializer.properties());
+        			writer.endObject();
+        			return;
+        		}
+        	}
+        	
+        	JsonByteWriter byteWriter = writer instanceof JsonByteWriter ? (JsonByteWriter)writer : null;
 
-            for(BeanProperty prop : beanType.getProperties()){
-            	if(prop.isTransient()){
-            		continue;
-            	}
-            	
-            	if(!prop.isReadable() || !prop.isField()){
-            		continue;
-            	}
-            	
-            	JsonField jsonField = prop.getAnnotation(JsonField.class);
-            	
-                if(null != jsonField || !prop.isAnnotationPresent(JsonIgnore.class)){
-                    String propName = prop.getName();
-                    
-                    JsonName named = prop.getAnnotation(JsonName.class);
-                    
-                    if(null != named){
-                    	propName = named.value();
-                    }
-                    
-                    Object propValue = prop.getValue(bean);
-                    
-                    if(null == propValue && settings.isIgnoreNull()){
-                        continue;
-                    }
-                    
-                    if(settings.isIgnoreEmpty() && Strings.isNullOrBlank(propValue)){
-                        continue;
-                    }
-                    
-                    //detect cyclic references
-//                    if(references.containsKey(propValue)){
-//                    	continue;
-//                    }                    
-                    
-                    encodeNamedValue(propName, propValue, writer);
+            for(JsonBeanSerializer.Property prop : serializer.properties()){
+                Object propValue = prop.getValue(bean);
+                
+                if(null == propValue && settings.isIgnoreNull()){
+                    continue;
+                }
+                
+                if(settings.isIgnoreEmpty() && Strings.isNullOrBlank(propValue)){
+                    continue;
+                }
+                
+                if(null != byteWriter) {
+                	byteWriter.key(prop.key(settings.isKeyQuoted(), settings.getNamingStyle()));
+                	encode(prop.name, propValue, writer);
+                }else{
+                	encodeNamedValue(prop.name(settings.getNamingStyle()), propValue, writer);
                 }
             }
         } catch (JsonException e){
@@ -310,4 +319,84 @@ class JsonEncoderImpl implements JsonEncoder {
         writer.key(name);
         encode(name,value, writer);
     }
+
+    /**
+     * The {@link JsonPropertyWriter} used by the generated serializers, applies the same rules as {@link #encodeBean(String, Object, JsonWriter)}.
+     */
+    private final class PropertyWriter implements JsonPropertyWriter {
+    	
+    	private final JsonWriter     writer;
+    	private final JsonByteWriter byteWriter;
+    	
+    	PropertyWriter(JsonWriter writer) {
+    		this.writer     = writer;
+    		this.byteWriter = writer instanceof JsonByteWriter ? (JsonByteWriter)writer : null;
+    	}
+
+		@Override
+        public void writeBoolean(Object key, boolean v) {
+			key(key).value(v);
+        }
+
+		@Override
+        public void writeInt(Object key, int v) {
+			key(key).value(v);
+        }
+
+		@Override
+        public void writeLong(Object key, long v) {
+			key(key).value(v);
+        }
+
+		@Override
+        public void writeFloat(Object key, float v) {
+			key(key).value(v);
+        }
+
+		@Override
+        public void writeDouble(Object key, double v) {
+			key(key).value(v);
+        }
+
+		@Override
+        public void writeString(Object key, String v) {
+			if(null == v && settings.isIgnoreNull()) {
+				return;
+			}
+			
+			if(settings.isIgnoreEmpty() && Strings.isNullOrBlank(v)) {
+				return;
+			}
+			
+			key(key).value(v);
+        }
+
+		@Override
+        public void writeObject(Object key, Object v) {
+			if(null == v && settings.isIgnoreNull()) {
+				return;
+			}
+			
+			if(settings.isIgnoreEmpty() && Strings.isNullOrBlank(v)) {
+				return;
+			}
+			
+			key(key);
+			encode(((JsonBeanSerializer.Property)key).name, v, writer);
+        }
+
+		@Override
+        public void writeProperty(Object key, Object bean) {
+			writeObject(key, ((JsonBeanSerializer.Property)key).getValue(bean));
+        }
+		
+		private JsonWriter key(Object key) {
+			JsonBeanSerializer.Property prop = (JsonBeanSerializer.Property)key;
+			if(null != byteWriter) {
+				return byteWriter.key(prop.key(settings.isKeyQuoted(), settings.getNamingStyle()));
+			}else{
+				return writer.key(prop.name(settings.getNamingStyle()));
+			}
+		}
+    }
 }
\ No newline at end of file
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An {@link Appendable} encodes the chars to utf-8 bytes directly into a byte buffer.
+ *
+ * <p>
+ * If created with an {@link OutputStream}, the buffer is borrowed from the current thread and
+ * returned back by {@link #flush()}, otherwise the buffer grows in memory.
+ *
+ * <p>
+ * An unpaired surrogate char is written as the <code>&#92;uXXXX</code> escape, so it is not lost.
+ */
+final class JsonOutput implements Appendable {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final ThreadLocal<SoftReference<byte[]>> BUFFERS = new ThreadLocal<>();
+
+	private static final byte[] HEX_BYTES = new byte[]{
+		'0','1','2','3','4','5','6','7','8','9','A','B','C','D','E','F'
+	};
+
+	private static final byte[] MIN_LONG = "-9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+
+	//0 : no escape, 'u' : unicode escape, others : the char after '\'.
+	private static final byte[] ESCAPES = new byte[128];
+
+	static {
+		for(int i=0;i<0x20;i++) {
+			ESCAPES[i] = 'u';
+		}
+		ESCAPES['"']  = '"';
+		ESCAPES['\\'] = '\\';
+		ESCAPES['\b'] = 'b';
+		ESCAPES['\t'] = 't';
+		ESCAPES['\n'] = 'n';
+		ESCAPES['\f'] = 'f';
+		ESCAPES['\r'] = 'r';
+	}
+
+	private final OutputStream out;
+
+	private byte[] buf;
+	private int    limit;
+	private int    pos;
+	private char   highSurrogate;
+
+	JsonOutput() {
+		this.out   = null;
+		this.buf   = new byte[256];
+		this.limit = buf.length;
+	}
+
+	JsonOutput(OutputStream out) {
+		this.out = out;
+	}
+
+	@Override
+	public Appendable append(CharSequence cs) {
+		return append(cs, 0, cs.length());
+	}
+
+	@Override
+	public Appendable append(CharSequence cs, int start, int end) {
+		for(int i=start;i<end;i++) {
+			append(cs.charAt(i));
+		}
+		return this;
+	}
+
+	@Override
+	public Appendable append(char c) {
+		if(highSurrogate != 0) {
+			if(Character.isLowSurrogate(c)) {
+				writeCodePoint(Character.toCodePoint(highSurrogate, c));
+				highSurrogate = 0;
+				return this;
+			}
+			writeHighSurrogate();
+		}
+
+		if(c < 0x80) {
+			if(pos == limit) {
+				require(1);
+			}
+			buf[pos++] = (byte)c;
+		}else if(Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		}else{
+			writeChar(c);
+		}
+		return this;
+	}
+
+	void writeByte(byte b) {
+		if(highSurrogate != 0) {
+			writeHighSurrogate();
+		}
+		if(pos == limit) {
+			require(1);
+		}
+		buf[pos++] = b;
+	}
+
+	void writeBytes(byte[] bytes) {
+		if(highSurrogate != 0) {
+			writeHighSurrogate();
+		}
+		int len = bytes.length;
+		if(pos + len > limit) {
+			require(len);
+		}
+		System.arraycopy(bytes, 0, buf, pos, len);
+		pos += len;
+	}
+
+	/**
+	 * Writes the string contains ascii chars only.
+	 */
+	void writeAscii(String s) {
+		if(highSurrogate != 0) {
+			writeHighSurrogate();
+		}
+		int len = s.length();
+		if(pos + len > limit) {
+			require(len);
+		}
+		for(int i=0;i<len;i++) {
+			buf[pos++] = (byte)s.charAt(i);
+		}
+	}
+
+	void writeInt(int i) {
+		writeLong(i);
+	}
+
+	void writeLong(long v) {
+		if(highSurrogate != 0) {
+			writeHighSurrogate();
+		}
+		if(v == Long.MIN_VALUE) {
+			writeBytes(MIN_LONG);
+			return;
+		}
+
+		if(pos + 20 > limit) {
+			require(20);
+		}
+
+		if(v < 0) {
+			buf[pos++] = '-';
+			v = -v;
+		}
+
+		int start = pos;
+		do{
+			buf[pos++] = (byte)('0' + (v % 10));
+			v /= 10;
+		}while(v != 0);
+
+		for(int i=start,j=pos-1;i<j;i++,j--) {
+			byte b = buf[i];
+			buf[i] = buf[j];
+			buf[j] = b;
+		}
+	}
+
+	/**
+	 * Writes the escaped string without quotes, copies the runs of ascii chars in bulk.
+	 */
+	void writeEscaped(String s) {
+		if(highSurrogate != 0) {
+			writeHighSurrogate();
+		}
+
+		int len = s.length();
+		int i   = 0;
+
+		while(i < len) {
+			if(pos + 6 > limit) {
+				require(6);
+			}
+
+			int end = Math.min(len, i + (limit - pos));
+			for(;i<end;i++) {
+				char c = s.charAt(i);
+				if(c >= 0x80 || ESCAPES[c] != 0) {
+					break;
+				}
+				buf[pos++] = (byte)c;
+			}
+
+			if(i == end) {
+				continue;
+			}
+
+			char c = s.charAt(i++);
+			if(c < 0x80) {
+				writeEscape(c);
+			}else if(Character.isHighSurrogate(c) && i < len && Character.isLowSurrogate(s.charAt(i))) {
+				writeCodePoint(Character.toCodePoint(c, s.charAt(i++)));
+			}else{
+				writeChar(c);
+			}
+		}
+	}
+
+	void flush() throws IOException {
+		if(highSurrogate != 0) {
+			writeHighSurrogate();
+		}
+		if(null != out) {
+			if(pos > 0) {
+				out.write(buf, 0, pos);
+				pos = 0;
+			}
+			release();
+		}
+	}
+
+	byte[] toByteArray() {
+		if(highSurrogate != 0) {
+			writeHighSurrogate();
+		}
+		return Arrays.copyOf(buf, pos);
+	}
+
+	@Override
+	public String toString() {
+		return null == buf ? "" : new String(buf, 0, pos, StandardCharsets.UTF_8);
+	}
+
+	private void writeEscape(char c) {
+		byte e = ESCAPES[c];
+		if(e == 'u') {
+			writeUnicodeEscape(c);
+			return;
+		}
+		if(pos + 2 > limit) {
+			require(2);
+		}
+		buf[pos++] = '\\';
+		buf[pos++] = e;
+	}
+
+	private void writeUnicodeEscape(char c) {
+		if(pos + 6 > limit) {
+			require(6);
+		}
+		buf[pos++] = '\\';
+		buf[pos++] = 'u';
+		buf[pos++] = HEX_BYTES[c >> 12];
+		buf[pos++] = HEX_BYTES[(c >> 8) & 0xF];
+		buf[pos++] = HEX_BYTES[(c >> 4) & 0xF];
+		buf[pos++] = HEX_BYTES[c & 0xF];
+	}
+
+	//writes the pending high surrogate which is not followed by a low surrogate.
+	private void writeHighSurrogate() {
+		char c = highSurrogate;
+		highSurrogate = 0;
+		writeUnicodeEscape(c);
+	}
+
+	private void writeChar(char c) {
+		if(Character.isSurrogate(c)) {
+			writeUnicodeEscape(c);
+			return;
+		}
+		if(pos + 3 > limit) {
+			require(3);
+		}
+		if(c < 0x800) {
+			buf[pos++] = (byte)(0xC0 | (c >> 6));
+			buf[pos++] = (byte)(0x80 | (c & 0x3F));
+		}else{
+			buf[pos++] = (byte)(0xE0 | (c >> 12));
+			buf[pos++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+			buf[pos++] = (byte)(0x80 | (c & 0x3F));
+		}
+	}
+
+	private void writeCodePoint(int cp) {
+		if(pos + 4 > limit) {
+			require(4);
+		}
+		buf[pos++] = (byte)(0xF0 | (cp >> 18));
+		buf[pos++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+		buf[pos++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+		buf[pos++] = (byte)(0x80 | (cp & 0x3F));
+	}
+
+	/**
+	 * Makes sure the buffer has enough room for the given number of bytes.
+	 */
+	private void require(int n) {
+		if(null == buf) {
+			borrow();
+		}
+
+		if(pos + n <= limit) {
+			return;
+		}
+
+		if(null != out && pos > 0) {
+			try {
+				out.write(buf, 0, pos);
+			} catch (IOException e) {
+				throw new JsonException(e.getMessage(), e);
+			}
+			pos = 0;
+		}
+
+		if(pos + n > buf.length) {
+			buf   = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+			limit = buf.length;
+		}
+	}
+
+	private void borrow() {
+		SoftReference<byte[]> ref = BUFFERS.get();
+		byte[] b = null == ref ? null : ref.get();
+		if(null == b) {
+			b = new byte[BUFFER_SIZE];
+		}else{
+			BUFFERS.set(null);
+		}
+		buf   = b;
+		limit = b.length;
+	}
+
+	private void release() {
+		if(null != buf && buf.length == BUFFER_SIZE) {
+			BUFFERS.set(new SoftReference<>(buf));
+		}
+		buf   = null;
+		limit = 0;
+	}
+}
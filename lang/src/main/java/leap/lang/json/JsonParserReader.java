@@ -43,6 +43,13 @@ class JsonParserReader extends JsonParserStream {
 		return super.parse();
 	}
 
+	/**
+	 * Sets the input for parsing by the sub classes.
+	 */
+	protected void setInput(Reader in) {
+		this.in = in;
+	}
+
 	protected void read() throws IOException {
 		int i = in.read();
 		c = (i == -1) ? (char) EOI : (char) i;
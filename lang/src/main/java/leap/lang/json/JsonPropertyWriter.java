@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+/**
+ * Writes the properties of a bean, used by the generated serializers.
+ *
+ * <p>
+ * The key is the opaque property key passed to {@link GeneratedJsonSerializer#serialize(Object, JsonPropertyWriter, Object[])}.
+ */
+public interface JsonPropertyWriter {
+
+	void writeBoolean(Object key, boolean v);
+
+	void writeInt(Object key, int v);
+
+	void writeLong(Object key, long v);
+
+	void writeFloat(Object key, float v);
+
+	void writeDouble(Object key, double v);
+
+	void writeString(Object key, String v);
+
+	void writeObject(Object key, Object v);
+
+	/**
+	 * Reads the property value of bean by reflection and writes it, for the properties cannot be accessed directly.
+	 */
+	void writeProperty(Object key, Object bean);
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+/**
+ * A pull parser reads the json input token by token, the whole json will not be held in memory.
+ *
+ * <p>
+ * Not thread-safe.
+ *
+ * @see JSON#createPullParser(java.io.Reader)
+ */
+public interface JsonPullParser {
+
+	/**
+	 * Reads and returns the next token, returns {@link JsonToken#END} if the json value was read completely.
+	 *
+	 * @throws JsonParserException if the json is invalid.
+	 */
+	JsonToken next() throws JsonParserException;
+
+	/**
+	 * Returns the last token returned by {@link #next()} or <code>null</code> if not started.
+	 */
+	JsonToken current();
+
+	/**
+	 * Returns the nesting depth of objects and arrays at the current token.
+	 */
+	int getDepth();
+
+	/**
+	 * Returns the position of the current token in the input.
+	 */
+	int getPosition();
+
+	/**
+	 * Returns the name of the last {@link JsonToken#KEY}.
+	 */
+	String getName();
+
+	/**
+	 * Returns the value of current scalar token, may be {@link String}, {@link Number}, {@link Boolean} or <code>null</code>.
+	 */
+	Object getValue();
+
+	/**
+	 * Returns the value of current scalar token as string.
+	 */
+	default String getString() {
+		Object v = getValue();
+		return null == v ? null : v.toString();
+	}
+
+	/**
+	 * Reads the whole value starts at the current token and returns it as the raw value,
+	 * an object will be read as {@link java.util.Map}, an array will be read as {@link java.util.List}.
+	 */
+	Object readValue() throws JsonParserException;
+
+	/**
+	 * Skips the whole value starts at the current token.
+	 */
+	void skipValue() throws JsonParserException;
+
+}
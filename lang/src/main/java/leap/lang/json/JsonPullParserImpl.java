@@ -0,0 +1,353 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import static leap.lang.json.JsonParserException.ERROR_UNEXPECTED_CHAR;
+import static leap.lang.json.JsonParserException.ERROR_UNEXPECTED_DUPLICATE_KEY;
+import static leap.lang.json.JsonParserException.ERROR_UNEXPECTED_EOF;
+import static leap.lang.json.JsonParserException.ERROR_UNEXPECTED_TOKEN;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link JsonPullParser} reuses the scanning of {@link JsonParserReader}, accepts the same syntax as {@link JsonParser}.
+ */
+class JsonPullParserImpl extends JsonParserReader implements JsonPullParser {
+
+	private static final int OBJECT = 1;
+	private static final int ARRAY  = 2;
+
+	//the states of the current object or array.
+	private static final int FIRST = 0;
+	private static final int NEXT  = 1;
+	private static final int VALUE = 2;
+
+	private int[] types  = new int[16];
+	private int[] states = new int[16];
+	private int   depth;
+
+	private boolean   started;
+	private JsonToken token;
+	private String    name;
+	private Object    value;
+
+	JsonPullParserImpl(Reader in) {
+		this(in, JsonParser.MODE_PERMISSIVE);
+	}
+
+	JsonPullParserImpl(Reader in, int permissiveMode) {
+		super(permissiveMode);
+		setInput(in);
+	}
+
+	@Override
+	public JsonToken next() throws JsonParserException {
+		try {
+			token = doNext();
+		} catch (IOException e) {
+			throw new JsonParserException(pos, e);
+		}
+		return token;
+	}
+
+	@Override
+	public JsonToken current() {
+		return token;
+	}
+
+	@Override
+	public int getDepth() {
+		return depth;
+	}
+
+	@Override
+	public int getPosition() {
+		return pos;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Object getValue() {
+		return value;
+	}
+
+	@Override
+	public Object readValue() throws JsonParserException {
+		if(null == token) {
+			next();
+		}
+
+		switch (token) {
+			case START_OBJECT:
+				Map<String, Object> map = new LinkedHashMap<String, Object>();
+				while(next() == JsonToken.KEY) {
+					String key = name;
+					next();
+					if(null != map.put(key, readValue())) {
+						throw new JsonParserException(pos, ERROR_UNEXPECTED_DUPLICATE_KEY, key);
+					}
+				}
+				return map;
+			case START_ARRAY:
+				List<Object> list = new ArrayList<Object>();
+				while(next() != JsonToken.END_ARRAY) {
+					list.add(readValue());
+				}
+				return list;
+			case STRING:
+			case NUMBER:
+			case BOOLEAN:
+			case NULL:
+				return value;
+			default:
+				throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, token);
+		}
+	}
+
+	@Override
+	public void skipValue() throws JsonParserException {
+		if(token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+			int d = depth;
+			while(depth >= d) {
+				next();
+			}
+		}
+	}
+
+	protected JsonToken doNext() throws JsonParserException, IOException {
+		if(!started) {
+			started = true;
+			pos = -1;
+			read();
+			return readValue(stopX);
+		}
+
+		if(depth == 0) {
+			if(checkTaillingData) {
+				skipSpaces();
+				if(c != EOI) {
+					throw new JsonParserException(pos - 1, ERROR_UNEXPECTED_TOKEN, c);
+				}
+			}
+			return JsonToken.END;
+		}
+
+		skipSpaces();
+
+		int i     = depth - 1;
+		int state = states[i];
+
+		if(types[i] == OBJECT) {
+			if(state == VALUE) {
+				states[i] = NEXT;
+				return readValue(stopValue);
+			}
+
+			if(c == '}') {
+				return endObject();
+			}
+
+			if(state == NEXT) {
+				if(c != ',') {
+					throw unexpected();
+				}
+				read();
+				skipSpaces();
+				if(c == '}') {
+					if(!acceptUselessComma) {
+						throw unexpected();
+					}
+					return endObject();
+				}
+			}
+
+			if(c == '"' || c == '\'') {
+				readString();
+			}else{
+				if(c == EOI || c == ',' || c == ':' || c == '{' || c == '[' || c == ']') {
+					throw unexpected();
+				}
+				readNQString(stopKey);
+				if (!acceptNonQuote) {
+					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
+				}
+			}
+			name = xs;
+
+			while (c != ':' && c != EOI) {
+				read();
+			}
+			if (c == EOI) {
+				throw new JsonParserException(pos - 1, ERROR_UNEXPECTED_EOF, null);
+			}
+			read(); /* skip : */
+
+			states[i] = VALUE;
+			return JsonToken.KEY;
+		}
+
+		if(c == ']') {
+			return endArray();
+		}
+
+		if(state == NEXT) {
+			if(c != ',') {
+				throw unexpected();
+			}
+			read();
+			skipSpaces();
+			if(c == ']') {
+				if(!acceptUselessComma) {
+					throw unexpected();
+				}
+				return endArray();
+			}
+		}
+
+		states[i] = NEXT;
+		return readValue(stopArray);
+	}
+
+	protected JsonToken readValue(boolean[] stop) throws JsonParserException, IOException {
+		skipSpaces();
+
+		value = null;
+		switch (c) {
+			case '{':
+				push(OBJECT);
+				read();
+				return JsonToken.START_OBJECT;
+			case '[':
+				push(ARRAY);
+				read();
+				return JsonToken.START_ARRAY;
+			case '"':
+			case '\'':
+				readString();
+				value = xs;
+				return JsonToken.STRING;
+			case ':':
+			case '}':
+			case ']':
+			case ',':
+				throw unexpected();
+			case EOI:
+				//the empty input is parsed as empty string by JsonParser.
+				if(depth == 0 && acceptNonQuote) {
+					value = "";
+					return JsonToken.STRING;
+				}
+				throw new JsonParserException(pos - 1, ERROR_UNEXPECTED_EOF, "EOF");
+			case 'n':
+				readNQString(stop);
+				if ("null".equals(xs)) {
+					return JsonToken.NULL;
+				}
+				return nonQuoteString();
+			case 'f':
+			case 't':
+				readNQString(stop);
+				if ("false".equals(xs)) {
+					value = Boolean.FALSE;
+					return JsonToken.BOOLEAN;
+				}
+				if ("true".equals(xs)) {
+					value = Boolean.TRUE;
+					return JsonToken.BOOLEAN;
+				}
+				return nonQuoteString();
+			case 'N':
+				readNQString(stop);
+				if (!acceptNaN) {
+					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
+				}
+				if ("NaN".equals(xs)) {
+					value = Float.valueOf(Float.NaN);
+					return JsonToken.NUMBER;
+				}
+				return nonQuoteString();
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+			case '-':
+				value = readNumber(stop);
+				return value instanceof Number ? JsonToken.NUMBER : JsonToken.STRING;
+			default:
+				readNQString(stop);
+				return nonQuoteString();
+		}
+	}
+
+	private JsonToken nonQuoteString() throws JsonParserException {
+		if (!acceptNonQuote) {
+			throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
+		}
+		value = xs;
+		return JsonToken.STRING;
+	}
+
+	private JsonToken endObject() throws IOException {
+		depth--;
+		read(); /* unstack */
+		return JsonToken.END_OBJECT;
+	}
+
+	private JsonToken endArray() throws IOException {
+		depth--;
+		read(); /* unstack */
+		return JsonToken.END_ARRAY;
+	}
+
+	private void push(int type) {
+		if(depth == types.length) {
+			types  = Arrays.copyOf(types,  depth * 2);
+			states = Arrays.copyOf(states, depth * 2);
+		}
+		types[depth]  = type;
+		states[depth] = FIRST;
+		depth++;
+	}
+
+	private void skipSpaces() throws IOException {
+		while(c == ' ' || c == '\r' || c == '\n' || c == '\t') {
+			read();
+		}
+	}
+
+	private JsonParserException unexpected() {
+		if(c == EOI) {
+			return new JsonParserException(pos - 1, ERROR_UNEXPECTED_EOF, "EOF");
+		}
+		return new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, c);
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import static leap.lang.asm.Opcodes.AALOAD;
+import static leap.lang.asm.Opcodes.ACC_PUBLIC;
+import static leap.lang.asm.Opcodes.ACC_SUPER;
+import static leap.lang.asm.Opcodes.ALOAD;
+import static leap.lang.asm.Opcodes.ASTORE;
+import static leap.lang.asm.Opcodes.CHECKCAST;
+import static leap.lang.asm.Opcodes.GETFIELD;
+import static leap.lang.asm.Opcodes.INVOKEINTERFACE;
+import static leap.lang.asm.Opcodes.INVOKESPECIAL;
+import static leap.lang.asm.Opcodes.INVOKESTATIC;
+import static leap.lang.asm.Opcodes.INVOKEVIRTUAL;
+import static leap.lang.asm.Opcodes.RETURN;
+import static leap.lang.asm.Opcodes.V1_6;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import leap.lang.asm.ClassWriter;
+import leap.lang.asm.MethodVisitor;
+import leap.lang.asm.Type;
+import leap.lang.beans.BeanProperty;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.lang.reflect.ClassDefiner;
+
+/**
+ * Generates a {@link GeneratedJsonSerializer} class for a bean class.
+ *
+ * <p>
+ * The generated class is defined in the package and class loader of the bean class,
+ * it reads the properties by invoking the getters (or fields) directly and
+ * falls back to {@link JsonPropertyWriter#writeProperty(Object, Object)} for the inaccessible properties.
+ */
+final class JsonSerializerGenerator {
+
+	private static final Log log = LogFactory.get(JsonSerializerGenerator.class);
+
+	private static final String SUPER_NAME  = Type.getInternalName(GeneratedJsonSerializer.class);
+	private static final String WRITER_NAME = Type.getInternalName(JsonPropertyWriter.class);
+
+	/**
+	 * Returns the generated serializer or <code>null</code> if the bean class not supports.
+	 */
+	static GeneratedJsonSerializer generate(Class<?> beanClass, JsonBeanSerializer.Property[] properties) {
+		ClassLoader loader = beanClass.getClassLoader();
+		String      name   = beanClass.getName();
+
+		if(null == loader || name.startsWith("java.") || name.startsWith("javax.") ||
+		   beanClass.isAnonymousClass() || !isAccessible(beanClass, beanClass.getModifiers(), beanClass)) {
+			return null;
+		}
+
+		String className = name + "$LeapJsonSerializer";
+
+		try {
+			Class<?> c;
+			try {
+				c = loader.loadClass(className);
+			}catch(ClassNotFoundException e) {
+				byte[] data = generateClass(beanClass, className.replace('.', '/'), properties);
+				c = ClassDefiner.defineInPackage(beanClass, className, data);
+			}
+			return (GeneratedJsonSerializer)c.getDeclaredConstructor().newInstance();
+		}catch(Throwable e) {
+			log.warn("Cannot generate json serializer for '{}', use the reflective serializer, {}", name, e.getMessage());
+			return null;
+		}
+	}
+
+	private static byte[] generateClass(Class<?> beanClass, String className, JsonBeanSerializer.Property[] properties) {
+		String beanName = Type.getInternalName(beanClass);
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(V1_6, ACC_PUBLIC | ACC_SUPER, className, null, SUPER_NAME, null);
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", "()V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		//serialize(Object bean, JsonPropertyWriter w, Object[] keys)
+		mv = cw.visitMethod(ACC_PUBLIC, "serialize", "(Ljava/lang/Object;L" + WRITER_NAME + ";[Ljava/lang/Object;)V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitTypeInsn(CHECKCAST, beanName);
+		mv.visitVarInsn(ASTORE, 4);
+
+		for(int i=0;i<properties.length;i++) {
+			BeanProperty bp = properties[i].bp;
+
+			mv.visitVarInsn(ALOAD, 2);
+			mv.visitVarInsn(ALOAD, 3);
+			mv.visitLdcInsn(i);
+			mv.visitInsn(AALOAD);
+
+			Method getter = bp.getGetter();
+			Field  field  = bp.getField();
+
+			Class<?> type;
+			if(null != getter && isAccessible(beanClass, getter)) {
+				type = getter.getReturnType();
+				mv.visitVarInsn(ALOAD, 4);
+				mv.visitMethodInsn(INVOKEVIRTUAL, beanName, getter.getName(), Type.getMethodDescriptor(getter), false);
+			}else if(null == getter && null != field && !Modifier.isStatic(field.getModifiers()) && isAccessible(beanClass, field)) {
+				type = field.getType();
+				mv.visitVarInsn(ALOAD, 4);
+				mv.visitFieldInsn(GETFIELD, Type.getInternalName(field.getDeclaringClass()), field.getName(), Type.getDescriptor(type));
+			}else{
+				mv.visitVarInsn(ALOAD, 1);
+				mv.visitMethodInsn(INVOKEINTERFACE, WRITER_NAME, "writeProperty", "(Ljava/lang/Object;Ljava/lang/Object;)V", true);
+				continue;
+			}
+
+			writeValue(mv, type);
+		}
+
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static void writeValue(MethodVisitor mv, Class<?> type) {
+		String method;
+		String desc;
+
+		if(type == boolean.class) {
+			method = "writeBoolean";
+			desc   = "Z";
+		}else if(type == int.class || type == short.class || type == byte.class) {
+			method = "writeInt";
+			desc   = "I";
+		}else if(type == long.class) {
+			method = "writeLong";
+			desc   = "J";
+		}else if(type == float.class) {
+			method = "writeFloat";
+			desc   = "F";
+		}else if(type == double.class) {
+			method = "writeDouble";
+			desc   = "D";
+		}else if(type == String.class) {
+			method = "writeString";
+			desc   = "Ljava/lang/String;";
+		}else{
+			if(type == char.class) {
+				mv.visitMethodInsn(INVOKESTATIC, "java/lang/Character", "valueOf", "(C)Ljava/lang/Character;", false);
+			}
+			method = "writeObject";
+			desc   = "Ljava/lang/Object;";
+		}
+
+		mv.visitMethodInsn(INVOKEINTERFACE, WRITER_NAME, method, "(Ljava/lang/Object;" + desc + ")V", true);
+	}
+
+	private static boolean isAccessible(Class<?> beanClass, Member member) {
+		return isAccessible(beanClass, member.getModifiers(), member.getDeclaringClass()) &&
+			   isAccessible(beanClass, member.getDeclaringClass().getModifiers(), member.getDeclaringClass());
+	}
+
+	/**
+	 * Checks the member can be accessed from a class in the package of bean class.
+	 *
+	 * <p>
+	 * The private nested classes are package visible in bytecode, so only the same package is required for them.
+	 */
+	private static boolean isAccessible(Class<?> beanClass, int modifiers, Class<?> declaringClass) {
+		if(Modifier.isPublic(modifiers)) {
+			return true;
+		}
+
+		if(Modifier.isPrivate(modifiers) && declaringClass.getDeclaringClass() == null) {
+			return false;
+		}
+
+		return declaringClass.getClassLoader() == beanClass.getClassLoader() &&
+			   packageName(declaringClass).equals(packageName(beanClass));
+	}
+
+	private static String packageName(Class<?> c) {
+		String name = c.getName();
+		int    i    = name.lastIndexOf('.');
+		return i < 0 ? "" : name.substring(0, i);
+	}
+
+	private JsonSerializerGenerator() {
+
+	}
+}
@@ -15,6 +15,8 @@
  */
 package leap.lang.json;
 
+import leap.lang.naming.NamingStyle;
+
 public class JsonSettings {
 	
 	public static JsonSettings MAX = new Builder().build();
@@ -26,11 +28,23 @@ public class JsonSettings {
     private final boolean keyQuoted;
     private final boolean ignoreNull;
     private final boolean ignoreEmpty;
+    private final boolean generateSerializer;
+    private final NamingStyle namingStyle;
     
     public JsonSettings(boolean keyQuoted,boolean ignoreNull,boolean ignoreEmpty) {
-    	this.keyQuoted   = keyQuoted;
-    	this.ignoreNull  = ignoreNull;
-    	this.ignoreEmpty = ignoreEmpty;
+    	this(keyQuoted, ignoreNull, ignoreEmpty, false);
+    }
+    
+    public JsonSettings(boolean keyQuoted,boolean ignoreNull,boolean ignoreEmpty,boolean generateSerializer) {
+    	this(keyQuoted, ignoreNull, ignoreEmpty, generateSerializer, null);
+    }
+    
+    public JsonSettings(boolean keyQuoted,boolean ignoreNull,boolean ignoreEmpty,boolean generateSerializer,NamingStyle namingStyle) {
+    	this.keyQuoted          = keyQuoted;
+    	this.ignoreNull         = ignoreNull;
+    	this.ignoreEmpty        = ignoreEmpty;
+    	this.generateSerializer = generateSerializer;
+    	this.namingStyle        = namingStyle;
     }
 
 	public boolean isKeyQuoted() {
@@ -45,11 +59,33 @@ public class JsonSettings {
 		return ignoreEmpty;
 	}
 	
+	/**
+	 * Returns true if encodes the beans by the serializer classes generated at runtime instead of reflection.
+	 *
+	 * <p>
+	 * The serializer is generated once for each bean class at the first encoding.
+	 */
+	public boolean isGenerateSerializer() {
+		return generateSerializer;
+	}
+	
+	/**
+	 * Returns the naming style of the bean property names, <code>null</code> means the raw names.
+	 *
+	 * <p>
+	 * The names specified by {@link JsonName} are not changed by the naming style.
+	 */
+	public NamingStyle getNamingStyle() {
+		return namingStyle;
+	}
+	
 	public static final class Builder {
 		
 		private boolean keyQuoted  = true;
 		private boolean ignoreNull  = false;
 		private boolean ignoreEmpty = false;
+		private boolean generateSerializer = false;
+		private NamingStyle namingStyle;
 		
 		public Builder() {
 	        super();
@@ -82,8 +118,26 @@ public class JsonSettings {
 			return this;
 		}
 
+		public boolean isGenerateSerializer() {
+			return generateSerializer;
+		}
+
+		public Builder setGenerateSerializer(boolean generateSerializer) {
+			this.generateSerializer = generateSerializer;
+			return this;
+		}
+
+		public NamingStyle getNamingStyle() {
+			return namingStyle;
+		}
+
+		public Builder setNamingStyle(NamingStyle namingStyle) {
+			this.namingStyle = namingStyle;
+			return this;
+		}
+
 		public JsonSettings build(){
-			return new JsonSettings(keyQuoted, ignoreNull, ignoreEmpty);
+			return new JsonSettings(keyQuoted, ignoreNull, ignoreEmpty, generateSerializer, namingStyle);
 		}
 	}
 }
\ No newline at end of file
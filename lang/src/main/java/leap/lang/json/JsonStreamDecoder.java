@@ -0,0 +1,251 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import static leap.lang.json.JsonParserException.ERROR_UNEXPECTED_DUPLICATE_KEY;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import leap.lang.Types;
+import leap.lang.annotation.Name;
+import leap.lang.beans.BeanProperty;
+import leap.lang.beans.BeanType;
+import leap.lang.convert.Converts;
+import leap.lang.reflect.ReflectClass;
+import leap.lang.serialize.Serialize;
+import leap.lang.serialize.Serializer;
+import leap.lang.serialize.Serializes;
+
+/**
+ * Decodes the tokens of {@link JsonPullParser} to the target type directly.
+ *
+ * <p>
+ * The beans are filled property by property while reading, the collections and maps are decoded element by element.
+ * Other values are read as raw value and converted by {@link Converts}, the same as {@link JSON#decode(String, Class)}.
+ *
+ * <p>
+ * The keys are bound the same as parsing to a map and converting it by the bean converter: a duplicate key
+ * is an error unless the previous value is null, and a property is set by the first key matches it ignoring case.
+ */
+final class JsonStreamDecoder {
+
+	private static final Map<Class<?>, BeanDecoder> BEANS = new ConcurrentHashMap<>();
+	private static final BeanDecoder                NONE  = new BeanDecoder();
+
+	/**
+	 * Decodes the value starts at the current token (reads the first token if not started) of the parser.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T decode(JsonPullParser parser, Class<T> type, Type genericType) {
+		if(null == parser.current()) {
+			parser.next();
+		}
+		return (T)decodeValue(parser, type, genericType);
+	}
+
+	private static Object decodeValue(JsonPullParser parser, Class<?> type, Type genericType) {
+		JsonToken token = parser.current();
+
+		if(token == JsonToken.START_OBJECT) {
+			if(Map.class.isAssignableFrom(type)) {
+				return decodeMap(parser, type, genericType);
+			}
+
+			BeanDecoder bd = beanDecoder(type);
+			if(NONE != bd) {
+				return bd.decode(parser);
+			}
+		}else if(token == JsonToken.START_ARRAY) {
+			if(type.isArray() || Collection.class.isAssignableFrom(type) || Iterable.class.equals(type)) {
+				return decodeCollection(parser, type, genericType);
+			}
+		}
+
+		return Converts.convert(parser.readValue(), type, genericType);
+	}
+
+	private static Object decodeMap(JsonPullParser parser, Class<?> type, Type genericType) {
+		Type valueGenericType = Object.class;
+		if(genericType instanceof ParameterizedType) {
+			Type[] typeArguments = ((ParameterizedType) genericType).getActualTypeArguments();
+			if(typeArguments.length == 2) {
+				valueGenericType = typeArguments[1];
+			}
+		}
+		Class<?> valueType = actualType(valueGenericType);
+
+		Map<String, Object> map = new LinkedHashMap<>();
+		while(parser.next() == JsonToken.KEY) {
+			String key = parser.getName();
+			parser.next();
+			if(null != map.put(key, decodeValue(parser, valueType, valueGenericType))) {
+				throw new JsonParserException(parser.getPosition(), ERROR_UNEXPECTED_DUPLICATE_KEY, key);
+			}
+		}
+
+		return Converts.convert(map, type, genericType);
+	}
+
+	private static Object decodeCollection(JsonPullParser parser, Class<?> type, Type genericType) {
+		Type elementGenericType;
+		if(type.isArray()) {
+			elementGenericType = type.getComponentType();
+		}else if(genericType instanceof ParameterizedType) {
+			elementGenericType = Types.getTypeArgument(genericType);
+		}else{
+			elementGenericType = Object.class;
+		}
+		Class<?> elementType = actualType(elementGenericType);
+
+		List<Object> list = new ArrayList<>();
+		while(parser.next() != JsonToken.END_ARRAY) {
+			list.add(decodeValue(parser, elementType, elementGenericType));
+		}
+
+		return Converts.convert(list, type, genericType);
+	}
+
+	private static Class<?> actualType(Type type) {
+		if(type instanceof WildcardType) {
+			Type[] bounds = ((WildcardType) type).getUpperBounds();
+			type = bounds.length == 1 ? bounds[0] : Object.class;
+		}
+		Class<?> c = Types.getActualType(type);
+		return null == c ? Object.class : c;
+	}
+
+	private static BeanDecoder beanDecoder(Class<?> type) {
+		BeanDecoder bd = BEANS.get(type);
+		if(null == bd) {
+			bd = isDecodableBean(type) ? new BeanDecoder(BeanType.of(type)) : NONE;
+			BEANS.put(type, bd);
+		}
+		return bd;
+	}
+
+	/**
+	 * Returns true if the type will be converted from map by the bean converter of {@link Converts}.
+	 */
+	private static boolean isDecodableBean(Class<?> type) {
+		if(type.isPrimitive() || type.isArray() || type.isEnum() || type.isInterface() ||
+		   Modifier.isAbstract(type.getModifiers())) {
+			return false;
+		}
+
+		if(type.getName().startsWith("java.") || Iterable.class.isAssignableFrom(type) || Converts.hasConverter(type)) {
+			return false;
+		}
+
+		return ReflectClass.of(type).hasDefaultConstructor();
+	}
+
+	private static final class BeanDecoder {
+		private final BeanType                  beanType;
+		private final Map<String, BeanProperty> properties  = new LinkedHashMap<>();
+		private final Map<String, Serializer>   serializers = new LinkedHashMap<>();
+
+		private BeanDecoder() {
+			this.beanType = null;
+		}
+
+		private BeanDecoder(BeanType beanType) {
+			this.beanType = beanType;
+
+			for(BeanProperty bp : beanType.getProperties()) {
+				if(!bp.isWritable()) {
+					continue;
+				}
+
+				for(Annotation a : bp.getAnnotations()) {
+					Name nameAnnotation = a.annotationType().getAnnotation(Name.class);
+					if(null != nameAnnotation) {
+						String name = (String)ReflectClass.of(a.getClass()).getMethod(nameAnnotation.value()).invoke(a);
+						properties.putIfAbsent(key(name), bp);
+						break;
+					}
+				}
+				properties.putIfAbsent(key(bp.getName()), bp);
+
+				Serializer serializer = Serializes.getSerializer(bp.getAnnotation(Serialize.class));
+				if(null != serializer) {
+					serializers.put(bp.getName(), serializer);
+				}
+			}
+		}
+
+		Object decode(JsonPullParser parser) {
+			Object bean = beanType.newInstance();
+
+			Map<String, Boolean>       keys    = new HashMap<>();         //key -> the value is not null
+			Map<BeanProperty, String>  matches = new IdentityHashMap<>(); //property -> the first key matches it
+
+			while(parser.next() == JsonToken.KEY) {
+				String       name = parser.getName();
+				BeanProperty bp   = properties.get(key(name));
+				parser.next();
+
+				if(Boolean.TRUE.equals(keys.put(name, parser.current() != JsonToken.NULL))) {
+					throw new JsonParserException(parser.getPosition(), ERROR_UNEXPECTED_DUPLICATE_KEY, name);
+				}
+
+				if(null == bp) {
+					parser.skipValue();
+					continue;
+				}
+
+				String first = matches.putIfAbsent(bp, name);
+				if(null != first && !first.equals(name)) {
+					parser.skipValue();
+					continue;
+				}
+
+				Object value;
+
+				Serializer serializer = serializers.get(bp.getName());
+				if(null != serializer && parser.current() == JsonToken.STRING) {
+					value = Converts.convert(serializer.tryDeserialize(parser.getString()), bp.getType(), bp.getGenericType());
+				}else{
+					value = decodeValue(parser, bp.getType(), bp.getGenericType());
+				}
+
+				bp.setValue(bean, value);
+			}
+
+			return bean;
+		}
+
+		private static String key(String name) {
+			return name.toLowerCase(Locale.ROOT);
+		}
+	}
+
+	private JsonStreamDecoder() {
+
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+/**
+ * The tokens returned by {@link JsonPullParser#next()}.
+ */
+public enum JsonToken {
+
+	START_OBJECT,
+
+	END_OBJECT,
+
+	START_ARRAY,
+
+	END_ARRAY,
+
+	/**
+	 * The name of a property in object.
+	 */
+	KEY,
+
+	STRING,
+
+	NUMBER,
+
+	BOOLEAN,
+
+	NULL,
+
+	/**
+	 * The end of the json input.
+	 */
+	END;
+
+	/**
+	 * Returns true if the token is a string, number, boolean or null value.
+	 */
+	public boolean isScalar() {
+		return this == STRING || this == NUMBER || this == BOOLEAN || this == NULL;
+	}
+}
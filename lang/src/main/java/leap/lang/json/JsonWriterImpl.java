@@ -51,7 +51,7 @@ public class JsonWriterImpl implements JsonWriter {
 	private final int		  maxDepth;
 	private final NamingStyle namingStyle;
 
-	private boolean							startProperty;
+	protected boolean						startProperty;
 	private int							    depth;
 	private IdentityHashMap<Object,Integer> references;
 	
@@ -382,6 +382,7 @@ public class JsonWriterImpl implements JsonWriter {
 	            if(i > 0){
 	                separator();
 	            }
+	            value(array[i]);
 	        }
 		}
 		endArray();
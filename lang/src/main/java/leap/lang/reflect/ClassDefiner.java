@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.reflect;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import leap.lang.Args;
+
+/**
+ * Defines the generated classes.
+ *
+ * <p>
+ * A class which accesses the package-private members of a host class is defined in the package of the host by
+ * {@link #defineInPackage(Class, String, byte[])}, it uses <code>MethodHandles.Lookup.defineClass</code> on Java 9 or later
+ * and <code>ClassLoader.defineClass</code> on Java 8, so no <code>--add-opens</code> is required.
+ *
+ * <p>
+ * A class which accesses the public members only is defined by {@link #define(ClassLoader, String, byte[])}
+ * in a child loader shared by all the classes of the same parent loader.
+ */
+public final class ClassDefiner {
+
+	private static final Method PRIVATE_LOOKUP_IN;   //MethodHandles.privateLookupIn(Class, Lookup), java 9+
+	private static final Method LOOKUP_DEFINE_CLASS; //Lookup.defineClass(byte[]), java 9+
+
+	private static final Map<ClassLoader, WeakReference<DefinerLoader>> loaders = new WeakHashMap<>();
+
+	static {
+		Method privateLookupIn   = null;
+		Method lookupDefineClass = null;
+
+		try {
+			privateLookupIn   = MethodHandles.class.getMethod("privateLookupIn", Class.class, Lookup.class);
+			lookupDefineClass = Lookup.class.getMethod("defineClass", byte[].class);
+		}catch(NoSuchMethodException e) {
+			//java 8
+		}
+
+		PRIVATE_LOOKUP_IN   = privateLookupIn;
+		LOOKUP_DEFINE_CLASS = lookupDefineClass;
+	}
+
+	/**
+	 * Defines the class in the class loader and package of the host class.
+	 *
+	 * @throws ReflectException if the class cannot be defined.
+	 */
+	public static Class<?> defineInPackage(Class<?> host, String name, byte[] data) throws ReflectException {
+		Args.notNull(host, "host");
+		Args.notEmpty(name, "name");
+
+		if(null == host.getClassLoader()) {
+			throw new ReflectException("Cannot define class '" + name + "' in the package of bootstrap class '" + host.getName() + "'");
+		}
+
+		if(!packageName(name).equals(packageName(host.getName()))) {
+			throw new ReflectException("Class '" + name + "' must be in the package of host class '" + host.getName() + "'");
+		}
+
+		try {
+			if(null != LOOKUP_DEFINE_CLASS) {
+				Object lookup = PRIVATE_LOOKUP_IN.invoke(null, host, MethodHandles.lookup());
+				return (Class<?>)LOOKUP_DEFINE_CLASS.invoke(lookup, (Object)data);
+			}
+
+			Method method = ClassLoader.class.getDeclaredMethod("defineClass", String.class, byte[].class, int.class, int.class);
+			method.setAccessible(true);
+			return (Class<?>)method.invoke(host.getClassLoader(), name, data, 0, data.length);
+		}catch(InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			throw new ReflectException("Cannot define class '" + name + "', " + cause.getMessage(), cause);
+		}catch(Exception e) {
+			throw new ReflectException("Cannot define class '" + name + "', " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Defines the class in the shared child loader of the given parent loader.
+	 *
+	 * <p>
+	 * The class is in a different runtime package of the parent loader, so it can access the public members only.
+	 *
+	 * @throws ReflectException if the class cannot be defined.
+	 */
+	public static Class<?> define(ClassLoader parent, String name, byte[] data) throws ReflectException {
+		Args.notEmpty(name, "name");
+		try {
+			return loader(parent).define(name, data);
+		}catch(LinkageError e) {
+			throw new ReflectException("Cannot define class '" + name + "', " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * The loader is referenced weakly, it is kept by the defined classes and may be unloaded with them.
+	 */
+	private static DefinerLoader loader(ClassLoader parent) {
+		synchronized (loaders) {
+			WeakReference<DefinerLoader> ref    = loaders.get(parent);
+			DefinerLoader                loader = null == ref ? null : ref.get();
+			if(null == loader) {
+				loader = new DefinerLoader(parent);
+				loaders.put(parent, new WeakReference<>(loader));
+			}
+			return loader;
+		}
+	}
+
+	private static String packageName(String className) {
+		int i = className.lastIndexOf('.');
+		return i < 0 ? "" : className.substring(0, i);
+	}
+
+	private static final class DefinerLoader extends ClassLoader {
+
+		DefinerLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		Class<?> define(String name, byte[] data) {
+			return defineClass(name, data, 0, data.length);
+		}
+	}
+
+	private ClassDefiner() {
+
+	}
+}
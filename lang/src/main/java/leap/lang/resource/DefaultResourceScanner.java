@@ -371,6 +371,9 @@ class DefaultResourceScanner implements ResourceScanner {
 	}
 	
 	protected void scan(Set<Resource> result,Resource rootDirResource,String rootDirPath,String subPattern) throws IOException{
+		if (scanIndex(result, rootDirResource, rootDirPath, subPattern)) {
+			return;
+		}
 		if (isJarResource(rootDirResource)) {
 			result.addAll(doFindPathMatchingJarResources(rootDirResource, subPattern));
 		} else if (rootDirResource.getURL().getProtocol().startsWith(Urls.PROTOCOL_VFS)) {
@@ -380,6 +383,125 @@ class DefaultResourceScanner implements ResourceScanner {
 		}		
 	}
 	
+	/**
+	 * Matches the entries in the {@link ResourceIndex} of the classpath root instead of walking the jar file or directory.
+	 * 
+	 * <p>
+	 * Returns <code>false</code> if the root dir is not a classpath location or the classpath root has no index,
+	 * or the index of a directory is out of date, or the index of a jar file not covers all the entries (e.g. a shaded jar).
+	 */
+	protected boolean scanIndex(Set<Resource> result,Resource rootDirResource,String rootDirPath,String subPattern) throws IOException {
+		String rootEntryPath = extractClasspathEntryPath(rootDirPath);
+		if(null == rootEntryPath) {
+			return false;
+		}
+		
+		URL     url = rootDirResource.getURL();
+		boolean jar = isJarResource(rootDirResource);
+		if(!jar && !Urls.PROTOCOL_FILE.equals(url.getProtocol())) {
+			return false;
+		}
+		
+		String rootUrl = url.toExternalForm();
+		if(!rootUrl.endsWith(rootEntryPath)) {
+			return false;
+		}
+		
+		ResourceIndex index = ResourceIndex.get(rootUrl.substring(0, rootUrl.length() - rootEntryPath.length()));
+		if(null == index) {
+			return false;
+		}
+		
+		File rootDir = jar ? null : rootDirResource.getFile().getAbsoluteFile();
+		if(!jar && !index.isUpToDate(getClasspathRoot(rootDir, rootEntryPath), rootEntryPath)) {
+			logger.debug("Resource index of '{}' is out of date, scan the directory", rootDir);
+			return false;
+		}
+		
+		if(jar && !isIndexComplete(rootDirResource, index)) {
+			return false;
+		}
+		
+		for(String path : index.getPaths(rootEntryPath)) {
+			String relativePath = path.substring(rootEntryPath.length());
+			
+			if(jar) {
+				if(getPathMatcher().match(subPattern, relativePath)) {
+					result.add(rootDirResource.createRelative(relativePath));
+				}
+			}else{
+				//the path of directory in the file system does not ends with '/'.
+				if(relativePath.endsWith("/")) {
+					relativePath = relativePath.substring(0, relativePath.length() - 1);
+				}
+				if(!relativePath.isEmpty() && getPathMatcher().match(subPattern, relativePath)) {
+					result.add(new SimpleFileResource(new File(rootDir, relativePath), rootEntryPath + relativePath));
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the index covers all the entries of the jar file, see {@link ResourceIndex#isComplete(JarFile)}.
+	 */
+	protected boolean isIndexComplete(Resource rootDirResource, ResourceIndex index) throws IOException {
+		Boolean complete = index.getComplete();
+		if(null != complete) {
+			return complete;
+		}
+		
+		URLConnection con = rootDirResource.getURL().openConnection();
+		if(!(con instanceof JarURLConnection)) {
+			return false;
+		}
+		
+		JarURLConnection jarCon = (JarURLConnection) con;
+		NET.useCachesIfNecessary(jarCon);
+		
+		JarFile jarFile = jarCon.getJarFile();
+		try {
+			if(index.isComplete(jarFile)) {
+				return true;
+			}
+			logger.warn("Resource index of '{}' not covers all the entries, scan the jar file", jarCon.getJarFileURL());
+			return false;
+		}finally{
+			if(!jarCon.getUseCaches()) {
+				jarFile.close();
+			}
+		}
+	}
+	
+	/**
+	 * Returns the classpath root directory of the given directory at the entry path.
+	 */
+	protected File getClasspathRoot(File dir, String entryPath) {
+		File root = dir;
+		for(String name : Strings.split(entryPath, '/')) {
+			if(!name.isEmpty() && null != root) {
+				root = root.getParentFile();
+			}
+		}
+		return root;
+	}
+	
+	/**
+	 * Returns the entry path (without leading '/') of the classpath location, or <code>null</code> if not a classpath location.
+	 */
+	protected String extractClasspathEntryPath(String rootDirPath) {
+		String path;
+		if(rootDirPath.startsWith(Urls.CLASSPATH_ALL_URL_PREFIX)) {
+			path = rootDirPath.substring(Urls.CLASSPATH_ALL_URL_PREFIX.length());
+		}else if(rootDirPath.startsWith(Urls.CLASSPATH_ONE_URL_PREFIX)) {
+			path = rootDirPath.substring(Urls.CLASSPATH_ONE_URL_PREFIX.length());
+		}else{
+			return null;
+		}
+		return path.startsWith("/") ? path.substring(1) : path;
+	}
+	
 	protected Resource resolveRootDirResource(Resource original) throws IOException {
 		if (equinoxResolveMethod != null) {
 			URL url = original.getURL();
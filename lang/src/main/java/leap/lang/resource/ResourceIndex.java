@@ -0,0 +1,337 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.resource;
+
+import leap.lang.Args;
+import leap.lang.Charsets;
+import leap.lang.Strings;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * The index file of all the entries in a classpath root (a jar file or a classes directory), generated at build time.
+ *
+ * <p>
+ * The index file is located at {@link #LOCATION} in the classpath root, the first line is the {@link #HEADER} of the index format,
+ * each other line is the path of an entry relative to the root, the path of directory ends with '/'.
+ * An index without the expected header (e.g. generated by another version) is ignored and the root is scanned.
+ *
+ * <p>
+ * The {@link DefaultResourceScanner} matches the entries in the index instead of walking the jar file or directory if the index exists.
+ * The index of a directory is not used if the entries in any indexed directory not match the index, see {@link #isUpToDate(File, String)}.
+ * The index of a jar file is not used if it not covers all the entries of the jar file, see {@link #isComplete(JarFile)}.
+ * Set the system property {@link #ENABLED_PROPERTY} to <code>false</code> to disable it.
+ *
+ * @see ResourceIndexProcessor
+ */
+public final class ResourceIndex {
+
+	private static final Log log = LogFactory.get(ResourceIndex.class);
+
+	public static final String LOCATION         = "META-INF/leap/resources.idx";
+	public static final String ENABLED_PROPERTY = "leap.resources.index";
+	public static final String HEADER           = "#leap-resources-index 1";
+
+	private static final ResourceIndex NONE = new ResourceIndex(Collections.emptyList());
+
+	private static final Map<String, ResourceIndex> cache   = new ConcurrentHashMap<>();
+	private static final boolean                    enabled = !"false".equals(System.getProperty(ENABLED_PROPERTY));
+
+	/**
+	 * Returns the index of the given classpath root url (ends with '/'), or <code>null</code> if no index.
+	 */
+	public static ResourceIndex get(String rootUrl) {
+		if(!enabled) {
+			return null;
+		}
+
+		ResourceIndex index = cache.get(rootUrl);
+		if(null == index) {
+			index = load(rootUrl);
+			cache.put(rootUrl, index);
+		}
+
+		return index == NONE ? null : index;
+	}
+
+	/**
+	 * Returns the paths of all the entries under the given root directory.
+	 */
+	public static Collection<String> list(File root) {
+		Args.notNull(root, "root");
+
+		TreeSet<String> paths = new TreeSet<>();
+		list(root, "", paths);
+		paths.remove(LOCATION);
+		return paths;
+	}
+
+	/**
+	 * Returns <code>true</code> if the entries of all the indexed directories starts with the given prefix
+	 * in the given root directory are the same as the index.
+	 *
+	 * <p>
+	 * Only the names of the entries in the indexed directories are listed and compared, the files are not walked.
+	 * The last modified time can not be used because the index file is generated before the class files are written by the compiler.
+	 *
+	 * <p>
+	 * The class files of local and anonymous classes (not indexed by {@link ResourceIndexProcessor}) are ignored
+	 * if the class file of the outer class is indexed.
+	 */
+	public boolean isUpToDate(File root, String prefix) {
+		String base = null == prefix ? "" : prefix;
+
+		//the names of indexed entries in each indexed directory.
+		Map<String, Set<String>> dirs = new HashMap<>();
+		if(base.isEmpty() || base.endsWith("/")) {
+			dirs.put(base, new HashSet<>());
+		}
+
+		for(String path : getPaths(base)) {
+			boolean dir  = path.endsWith("/");
+			String  name = dir ? path.substring(0, path.length() - 1) : path;
+			if(dir) {
+				dirs.computeIfAbsent(path, (key) -> new HashSet<>());
+			}
+
+			int i = name.lastIndexOf('/');
+			String parent = i < 0 ? "" : name.substring(0, i + 1);
+			if(parent.length() >= base.length()) {
+				dirs.computeIfAbsent(parent, (key) -> new HashSet<>()).add(name.substring(i + 1));
+			}
+		}
+
+		for(Map.Entry<String, Set<String>> entry : dirs.entrySet()) {
+			String[] names = new File(root, entry.getKey()).list();
+			if(null == names) {
+				return false;
+			}
+
+			Set<String> indexed = entry.getValue();
+			int         matched = 0;
+			for(String name : names) {
+				if(indexed.contains(name)) {
+					matched++;
+				}else if(!isIndexFile(entry.getKey(), name) && !isNestedClass(indexed, name)) {
+					return false;
+				}
+			}
+
+			//some indexed entries were removed.
+			if(matched != indexed.size()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns <code>true</code> if all the files in the given jar file are indexed and all the indexed files exist in it.
+	 *
+	 * <p>
+	 * A shaded or assembled jar may contain the index of one module only, such index must not be used.
+	 * The manifest, maven metadata and signature files (not seen by the compiler) are not required to be indexed.
+	 *
+	 * <p>
+	 * The jar file is walked once, the result is cached in this index, see {@link #getComplete()}.
+	 */
+	public boolean isComplete(JarFile jar) {
+		Boolean c = complete;
+		if(null == c) {
+			complete = c = checkComplete(jar);
+		}
+		return c;
+	}
+
+	/**
+	 * Returns the cached result of {@link #isComplete(JarFile)}, or <code>null</code> if not checked.
+	 */
+	public Boolean getComplete() {
+		return complete;
+	}
+
+	/**
+	 * Writes the given paths as the content of index file.
+	 */
+	public static void write(Writer out, Collection<String> paths) throws IOException {
+		out.write(HEADER);
+		out.write('\n');
+		for(String path : paths) {
+			out.write(path);
+			out.write('\n');
+		}
+	}
+
+	private static boolean isIndexFile(String dir, String name) {
+		return LOCATION.length() == dir.length() + name.length() && LOCATION.startsWith(dir) && LOCATION.endsWith(name);
+	}
+
+	private boolean checkComplete(JarFile jar) {
+		Set<String> indexed = new HashSet<>(paths);
+
+		int files = 0;
+		for(String path : paths) {
+			if(!path.endsWith("/")) {
+				files++;
+			}
+		}
+
+		int matched = 0;
+		for(Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements();) {
+			JarEntry entry = entries.nextElement();
+			if(entry.isDirectory()) {
+				continue;
+			}
+
+			String path = entry.getName();
+			if(indexed.contains(path)) {
+				matched++;
+				continue;
+			}
+
+			int    i    = path.lastIndexOf('/');
+			String dir  = path.substring(0, i + 1);
+			String name = path.substring(i + 1);
+			if(!isIndexFile(dir, name) && !isJarMetadata(dir, name) && !isNestedClass(indexed, path)) {
+				return false;
+			}
+		}
+
+		//some indexed files not exist.
+		return matched == files;
+	}
+
+	private static boolean isJarMetadata(String dir, String name) {
+		if(dir.startsWith("META-INF/maven/")) {
+			return true;
+		}
+		if(!dir.equals("META-INF/")) {
+			return false;
+		}
+		return name.equals("MANIFEST.MF") || name.equals("INDEX.LIST") ||
+			   name.endsWith(".SF") || name.endsWith(".RSA") || name.endsWith(".DSA") || name.endsWith(".EC");
+	}
+
+	private static boolean isNestedClass(Set<String> indexed, String name) {
+		int start = name.lastIndexOf('/') + 1;
+		int i     = name.indexOf('$', start);
+		return i > start && name.endsWith(".class") && indexed.contains(name.substring(0, i) + ".class");
+	}
+
+	private static void list(File dir, String prefix, Collection<String> paths) {
+		File[] files = dir.listFiles();
+		if(null == files) {
+			return;
+		}
+
+		for(File file : files) {
+			if(file.isDirectory()) {
+				String path = prefix + file.getName() + "/";
+				paths.add(path);
+				list(file, path, paths);
+			}else{
+				paths.add(prefix + file.getName());
+			}
+		}
+	}
+
+	private static ResourceIndex load(String rootUrl) {
+		try {
+			URL url = new URL(rootUrl + LOCATION);
+
+			List<String> paths = new ArrayList<>();
+			try(InputStream is = url.openStream()) {
+				BufferedReader reader = new BufferedReader(new InputStreamReader(is, Charsets.UTF_8));
+
+				String header = reader.readLine();
+				if(!HEADER.equals(header)) {
+					log.warn("Unsupported resource index '{}' (header '{}'), scans the classpath root", url, header);
+					return NONE;
+				}
+
+				String line;
+				while((line = reader.readLine()) != null) {
+					if(!line.isEmpty()) {
+						paths.add(line);
+					}
+				}
+			}
+
+			log.debug("Load resource index '{}', {} entries", url, paths.size());
+			return new ResourceIndex(paths);
+		}catch(FileNotFoundException e) {
+			return NONE;
+		}catch(IOException e) {
+			log.warn("Error loading resource index in '{}', {}", rootUrl, e.getMessage());
+			return NONE;
+		}
+	}
+
+	private final List<String> paths;
+
+	private volatile Boolean complete;
+
+	private ResourceIndex(List<String> paths) {
+		this.paths = paths;
+	}
+
+	/**
+	 * Returns the paths of all the indexed entries.
+	 */
+	public List<String> getPaths() {
+		return paths;
+	}
+
+	/**
+	 * Returns the paths starts with the given prefix.
+	 */
+	public List<String> getPaths(String prefix) {
+		if(Strings.isEmpty(prefix)) {
+			return paths;
+		}
+
+		List<String> list = new ArrayList<>();
+		for(String path : paths) {
+			if(path.startsWith(prefix)) {
+				list.add(path);
+			}
+		}
+		return list;
+	}
+}
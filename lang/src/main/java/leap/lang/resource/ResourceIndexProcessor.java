@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.resource;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.File;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An annotation processor generates the {@link ResourceIndex} file into the class output directory at build time.
+ *
+ * <p>
+ * The index contains all the resources and classes in the class output directory and the classes compiled by current compilation, 
+ * the local and anonymous classes compiled at first time are not included.
+ *
+ * <p>
+ * The processor is registered in <code>META-INF/services</code> but does nothing unless the processor option 
+ * {@link #ENABLED_OPTION} is <code>true</code>, enables it by the maven profile 'leap-index' of leap-pom 
+ * or the javac option <code>-Aleap.resources.index=true</code>.
+ */
+@SupportedOptions(ResourceIndexProcessor.ENABLED_OPTION)
+public class ResourceIndexProcessor extends AbstractProcessor {
+
+	public static final String ENABLED_OPTION = ResourceIndex.ENABLED_PROPERTY;
+
+	private final Set<String> classes = new TreeSet<>();
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		if(isEnabled()) {
+			return Collections.singleton("*");
+		}
+		return Collections.emptySet();
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if(!isEnabled()) {
+			return false;
+		}
+
+		for(Element e : roundEnv.getRootElements()) {
+			addClass(e);
+		}
+
+		if(roundEnv.processingOver()) {
+			writeIndex();
+		}
+
+		//do not claim the annotations.
+		return false;
+	}
+
+	private boolean isEnabled() {
+		return null != processingEnv && "true".equals(processingEnv.getOptions().get(ENABLED_OPTION));
+	}
+
+	private void addClass(Element e) {
+		if(e instanceof TypeElement) {
+			String name = processingEnv.getElementUtils().getBinaryName((TypeElement)e).toString();
+			classes.add(name.replace('.', '/') + ".class");
+
+			for(Element member : e.getEnclosedElements()) {
+				addClass(member);
+			}
+		}
+	}
+
+	private void writeIndex() {
+		try {
+			FileObject fo   = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ResourceIndex.LOCATION);
+			String     path = new File(fo.toUri()).getAbsolutePath();
+			File       root = new File(path.substring(0, path.length() - ResourceIndex.LOCATION.length()));
+
+			Collection<String> paths = new TreeSet<>(ResourceIndex.list(root));
+			paths.addAll(classes);
+			for(String cls : classes) {
+				addParentDirs(paths, cls);
+			}
+			//the directories of the index file itself.
+			addParentDirs(paths, ResourceIndex.LOCATION);
+
+			try(Writer out = fo.openWriter()) {
+				ResourceIndex.write(out, paths);
+			}
+
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Generated resource index with " + paths.size() + " entries");
+		}catch(Exception e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Cannot generate resource index, " + e.getMessage());
+		}
+	}
+
+	private static void addParentDirs(Collection<String> paths, String path) {
+		int i = path.lastIndexOf('/');
+		while(i > 0) {
+			if(!paths.add(path.substring(0, i + 1))) {
+				break;
+			}
+			i = path.lastIndexOf('/', i - 1);
+		}
+	}
+}
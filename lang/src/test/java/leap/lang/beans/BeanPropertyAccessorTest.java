@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.beans;
+
+import leap.junit.TestBase;
+import leap.lang.reflect.ReflectException;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+
+public class BeanPropertyAccessorTest extends TestBase {
+
+	@Test
+	public void testPrimitiveAccessors() {
+		BeanType  bt   = BeanType.of(PublicBean.class);
+		PublicBean bean = new PublicBean();
+
+		BeanPropertyAccessor i = bt.getProperty("i").getAccessor();
+		i.setInt(bean, 10);
+		assertEquals(10, bean.getI());
+		assertEquals(10, i.getInt(bean));
+		assertEquals(10, i.intGetter().applyAsInt(bean));
+
+		BeanPropertyAccessor l = bt.getProperty("l").getAccessor();
+		l.longSetter().accept(bean, 100L);
+		assertEquals(100L, l.getLong(bean));
+
+		BeanPropertyAccessor d = bt.getProperty("d").getAccessor();
+		d.setDouble(bean, 1.5d);
+		assertEquals(1.5d, d.getDouble(bean), 0);
+
+		BeanPropertyAccessor b = bt.getProperty("b").getAccessor();
+		b.setBoolean(bean, true);
+		assertTrue(b.getBoolean(bean));
+
+		try {
+			i.longGetter();
+			fail("Should throw IllegalStateException");
+		}catch(IllegalStateException e) {
+			//expected
+		}
+	}
+
+	@Test
+	public void testBoxedAccessors() {
+		BeanType   bt   = BeanType.of(PublicBean.class);
+		PublicBean bean = new PublicBean();
+
+		bt.getProperty("s").setValue(bean, "s1");
+		assertEquals("s1", bt.getProperty("s").getValue(bean));
+
+		bt.getProperty("i").setValue(bean, "5");
+		assertEquals(5, bt.getProperty("i").getValue(bean));
+
+		bt.getProperty("i").setValue(bean, null);
+		assertEquals(0, bean.getI());
+
+		bt.getProperty("f").setValue(bean, "f1");
+		assertEquals("f1", bean.f);
+		assertEquals("f1", bt.getProperty("f").getValue(bean));
+	}
+
+	@Test
+	public void testNonPublicClass() {
+		BeanType    bt   = BeanType.of(PackageBean.class);
+		PackageBean bean = new PackageBean();
+
+		bt.getProperty("n").getAccessor().setInt(bean, 3);
+		assertEquals(3, bt.getProperty("n").getAccessor().getInt(bean));
+		assertEquals(3, bt.getProperty("n").getValue(bean));
+	}
+
+	@Test
+	public void testCheckedException() {
+		BeanType bt = BeanType.of(PublicBean.class);
+
+		try {
+			bt.getProperty("error").getValue(new PublicBean());
+			fail("Should throw ReflectException");
+		}catch(ReflectException e) {
+			assertEquals("checked", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testCreateGetterAndSetterSeparately() throws Exception {
+		BeanType             bt       = BeanType.of(LazyBean.class);
+		BeanPropertyAccessor accessor = bt.getProperty("v").getAccessor();
+		LazyBean             bean     = new LazyBean();
+
+		assertNull(field(accessor, "getter"));
+		assertNull(field(accessor, "setter"));
+
+		assertNull(accessor.getValue(bean));
+		assertNotNull(field(accessor, "getter"));
+		assertNull(field(accessor, "setter"));
+		assertNull(field(accessor, "setterHandle"));
+
+		accessor.setValue(bean, "v1");
+		assertNotNull(field(accessor, "setter"));
+		assertEquals("v1", bean.getV());
+	}
+
+	private static Object field(Object o, String name) throws Exception {
+		Field f = o.getClass().getDeclaredField(name);
+		f.setAccessible(true);
+		return f.get(o);
+	}
+
+	public static class LazyBean {
+		private String v;
+
+		public String getV() {
+			return v;
+		}
+
+		public void setV(String v) {
+			this.v = v;
+		}
+	}
+
+	public static class PublicBean {
+		public String f;
+
+		private int     i;
+		private long    l;
+		private double  d;
+		private boolean b;
+		private String  s;
+
+		public int getI() {
+			return i;
+		}
+
+		public void setI(int i) {
+			this.i = i;
+		}
+
+		public long getL() {
+			return l;
+		}
+
+		public void setL(long l) {
+			this.l = l;
+		}
+
+		public double getD() {
+			return d;
+		}
+
+		public void setD(double d) {
+			this.d = d;
+		}
+
+		public boolean isB() {
+			return b;
+		}
+
+		public void setB(boolean b) {
+			this.b = b;
+		}
+
+		public String getS() {
+			return s;
+		}
+
+		public void setS(String s) {
+			this.s = s;
+		}
+
+		public String getError() throws Exception {
+			throw new Exception("checked");
+		}
+	}
+
+	static class PackageBean {
+		private int n;
+
+		public int getN() {
+			return n;
+		}
+
+		public void setN(int n) {
+			this.n = n;
+		}
+	}
+}
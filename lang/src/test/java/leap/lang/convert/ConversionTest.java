@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.convert;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import leap.junit.concurrent.ConcurrentIgnore;
+import leap.junit.concurrent.ConcurrentTestCase;
+import leap.lang.New;
+
+import org.junit.Test;
+
+public class ConversionTest extends ConcurrentTestCase {
+
+	@Test
+	public void testResolve() {
+		Conversion<Integer> c = Converts.resolve(String.class, Integer.class, null);
+		assertSame(c, Converts.resolve(String.class, Integer.class, Integer.class));
+
+		assertEquals(new Integer(10), c.convert("10"));
+		assertEquals(new Integer(10), c.convert(" 10 "));
+		assertEquals(new Integer(1),  c.convert(new BigDecimal("1")));
+		assertNull(c.convert(""));
+		assertNull(c.convert(null));
+
+		assertEquals(new Integer(1), Converts.resolve(String.class, int.class, null).convert("1"));
+		assertEquals(new Integer(0), Converts.resolve(String.class, int.class, null).convert(null));
+	}
+
+	@Test
+	public void testIdentityAndUnsupported() {
+		Date d = new Date();
+		assertSame(d, Converts.resolve(Date.class, Date.class, null).convert(d));
+		assertSame(d, Converts.resolve(Date.class, Object.class, null).convert(d));
+
+		Timestamp ts = new Timestamp(d.getTime());
+		assertSame(ts, Converts.resolve(Timestamp.class, Date.class, null).convert(ts));
+
+		Conversion<Thread> c = Converts.resolve(StringBuilder.class, Thread.class, null);
+		try {
+			c.convert(new StringBuilder("x"));
+			fail("Should throw ConvertUnsupportedException");
+		}catch(ConvertUnsupportedException e) {
+			//expected
+		}
+	}
+
+	@Test
+	public void testExpectedValues() {
+		Object[][] cases = new Object[][]{
+			{"1",       String.class,   "1"},
+			{"1",       Integer.class,  1},
+			{"1",       Long.class,     1L},
+			{"1",       Double.class,   1.0d},
+			{"a,b",     List.class,     Arrays.asList("a", "b")},
+			{2L,        String.class,   "2"},
+			{2L,        Integer.class,  2},
+			{2L,        Double.class,   2.0d},
+			{3.5d,      String.class,   "3.5"},
+			{true,      String.class,   "true"},
+			{"true",    Boolean.class,  true},
+			{"A",       TestEnum.class, TestEnum.A},
+			{TestEnum.B,String.class,   "B"},
+			{TestEnum.A,TestEnum.class, TestEnum.A},
+			{New.hashMap("name", "n"), TestBean.class, bean("n")},
+		};
+
+		for(Object[] c : cases) {
+			Object   value    = c[0];
+			Class<?> type     = (Class<?>)c[1];
+			Object   expected = c[2];
+
+			assertEquals(expected, Converts.convert(value, type));
+			assertEquals(expected, Converts.resolve(value.getClass(), type, null).convert(value));
+			assertEquals(expected, Converts.resolve(type, null).convert(value));
+		}
+	}
+
+	@Test
+	@ConcurrentIgnore
+	public void testBoundedResolved() {
+		Conversion<Integer> hot = Converts.resolve(String.class, Integer.class, null);
+
+		for(int i=0;i<10000;i++) {
+			Converts.resolveConversion(String.class, String.class, new Type(){});
+			assertSame(hot, Converts.resolve(String.class, Integer.class, null));
+		}
+
+		assertTrue(Converts.getResolvedSize() <= 4096);
+	}
+
+	private static TestBean bean(String name) {
+		TestBean bean = new TestBean();
+		bean.setName(name);
+		return bean;
+	}
+
+	@Test
+	public void testTargetConversion() {
+		Conversion<Long> c = Converts.resolve(Long.class, null);
+
+		for(Object v : Arrays.asList(1, "2", 3L, new BigDecimal("4"))) {
+			assertEquals(Long.valueOf(v.toString()), c.convert(v));
+		}
+	}
+
+	public enum TestEnum {
+		A, B
+	}
+
+	public static class TestBean {
+		private String name;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof TestBean && java.util.Objects.equals(name, ((TestBean)obj).name);
+		}
+
+		@Override
+		public int hashCode() {
+			return null == name ? 0 : name.hashCode();
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.el.spel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import leap.lang.New;
+import leap.lang.el.DefaultElEvalContext;
+import org.junit.Test;
+
+public class SpelCompilerTest extends SpelTestCase {
+
+	@Test
+	public void testCompiled() {
+		assertTrue(SPEL.createExpression("a.b").compile());
+		assertTrue(SPEL.createExpression("a > 1 && b").compile());
+		assertFalse(SPEL.createExpression("a").compile());
+		assertFalse(SPEL.createExpression("1").compile());
+	}
+
+	@Test
+	public void testSameAsInterpreter() {
+		Map<String, Object> vars = new HashMap<>();
+		vars.put("i",    1);
+		vars.put("s",    "abc");
+		vars.put("b",    true);
+		vars.put("n",    null);
+		vars.put("list", New.arrayList(1, 2, 3));
+		vars.put("map",  New.hashMap("k", "v"));
+		vars.put("bean", new Item("x", 10));
+
+		String[] exprs = new String[]{
+			"i + 1", "i * 2 - 3 / 1", "'n' + s", "i == 1", "i != 1", "i > 0", "i < 0", "n > 1", "1 < n", "n == null",
+			"b && i > 0", "b || n", "!b", "!n", "i > 0 ? 'y' : 'n'", "n ? 1 : 2", "-i", "+i",
+			"s.length()", "s.indexOf('b')", "n.length()", "list.size()", "list[1]", "map.k", "map['k']",
+			"bean.name", "bean.value > 5 && bean.name == 'x'", "n.x.y", "T(leap.lang.el.spel.SpelInvokeTest).t()",
+			"bean.name.toUpperCase().length() + bean.value"
+		};
+
+		for(String expr : exprs) {
+			SpelExpression interpreted = SPEL.createExpression(expr);
+			SpelExpression compiled    = SPEL.createExpression(expr);
+
+			compiled.compile();
+
+			assertEquals(expr, interpreted.eval(new DefaultElEvalContext(vars)),
+								compiled.eval(new DefaultElEvalContext(vars)));
+		}
+	}
+
+	@Test
+	public void testQualifiedVariable() {
+		SpelExpression expr = SPEL.createExpression("bean.name");
+		assertTrue(expr.compile());
+
+		Map<String, Object> vars = new HashMap<>();
+		vars.put("bean", new Item("x", 1));
+		assertEquals("x", expr.getValue(vars));
+
+		vars.put("bean.name", "y");
+		assertEquals("y", expr.getValue(vars));
+	}
+
+	@Test
+	public void testPolymorphicSite() {
+		SpelExpression expr = SPEL.createExpression("o.name");
+		assertTrue(expr.compile());
+
+		List<Object> objects = new ArrayList<>();
+		objects.add(new Item("a", 1));
+		objects.add(new SubItem("b", 2));
+		objects.add(New.hashMap("name", "c"));
+		objects.add(new NamedA());
+		objects.add(new NamedB());
+		objects.add(new NamedC());
+		objects.add(new NamedD());
+
+		for(int i=0;i<3;i++) {
+			for(Object o : objects) {
+				Object expected = o instanceof Map ? ((Map<?,?>)o).get("name") : ((Named)o).getName();
+				assertEquals(expected, expr.getValue(New.hashMap("o", o)));
+			}
+		}
+	}
+
+	public interface Named {
+		String getName();
+	}
+
+	public static class Item implements Named {
+		private final String name;
+		private final int    value;
+
+		public Item(String name, int value) {
+			this.name  = name;
+			this.value = value;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getValue() {
+			return value;
+		}
+	}
+
+	public static class SubItem extends Item {
+		public SubItem(String name, int value) {
+			super(name, value);
+		}
+	}
+
+	public static class NamedA implements Named {
+		public String getName() {
+			return "A";
+		}
+	}
+
+	public static class NamedB implements Named {
+		public String getName() {
+			return "B";
+		}
+	}
+
+	public static class NamedC implements Named {
+		public String getName() {
+			return "C";
+		}
+	}
+
+	public static class NamedD implements Named {
+		public String getName() {
+			return "D";
+		}
+	}
+}
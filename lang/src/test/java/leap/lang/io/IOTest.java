@@ -15,12 +15,17 @@
  */
 package leap.lang.io;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 
 import org.junit.Test;
 
+import leap.junit.concurrent.ConcurrentIgnore;
 import leap.junit.concurrent.ConcurrentTestCase;
+import leap.lang.Charsets;
 
 public class IOTest extends ConcurrentTestCase {
 
@@ -31,4 +36,26 @@ public class IOTest extends ConcurrentTestCase {
 		
 	}
 	
+	@Test
+	@ConcurrentIgnore
+	public void testTransferTo() throws Exception {
+		File file = new File("target/test-io/transfer.txt");
+		file.getParentFile().mkdirs();
+		IO.writeString(file, "0123456789", Charsets.UTF_8);
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(4, IO.transferTo(file, 2, 4, out));
+		assertEquals("2345", out.toString());
+		
+		out.reset();
+		assertEquals(3, IO.transferTo(file, 7, 100, out));
+		assertEquals("789", out.toString());
+		
+		File target = new File("target/test-io/transfer-target.txt");
+		try(FileOutputStream fos = new FileOutputStream(target)) {
+			assertEquals(10, IO.transferTo(file, 0, 10, fos));
+		}
+		assertEquals("0123456789", IO.readString(target, Charsets.UTF_8));
+	}
+	
 }
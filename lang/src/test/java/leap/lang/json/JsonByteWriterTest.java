@@ -0,0 +1,168 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import leap.junit.TestBase;
+import leap.lang.naming.NamingStyles;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class JsonByteWriterTest extends TestBase {
+
+	@Test
+	public void testSameAsStringEncoding() {
+		assertSameEncoding(null);
+		assertSameEncoding("test");
+		assertSameEncoding("");
+		assertSameEncoding("a\"b\\c\n\r\t\b\f");
+		assertSameEncoding("中文 テスト");
+		assertSameEncoding(100);
+		assertSameEncoding(-100L);
+		assertSameEncoding(Long.MIN_VALUE);
+		assertSameEncoding(Integer.MAX_VALUE);
+		assertSameEncoding(100.1f);
+		assertSameEncoding(100.01d);
+		assertSameEncoding(new BigDecimal("100.1"));
+		assertSameEncoding(true);
+		assertSameEncoding((byte)1);
+		assertSameEncoding('c');
+		assertSameEncoding(new Date());
+		assertSameEncoding(Color.RED);
+		assertSameEncoding(new int[]{1,2,3});
+		assertSameEncoding(new String[]{"a","b"});
+		assertSameEncoding(Arrays.asList("1", 2, null));
+		assertSameEncoding(new TestBean("xiaoming",100,null));
+		assertSameEncoding(new TestBean("xiaoming",100,"key"));
+
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("k1", "v1");
+		map.put("k2", null);
+		map.put("k3", new TestBean("name",1,"\"k\""));
+		assertSameEncoding(map);
+
+		JsonSettings settings = new JsonSettings(false, true, true);
+		assertEquals(JSON.encode(map, settings), encodeToBytes(map, settings));
+		assertEquals(JSON.encode(new TestBean("x",1,""), settings),
+					 encodeToBytes(new TestBean("x",1,""), settings));
+	}
+
+	@Test
+	public void testEscapeAndSurrogates() {
+		assertEquals("\"\\u0001\"", encodeToBytes("\u0001", JsonSettings.MAX));
+		assertEquals("\"\uD83D\uDE00\"", encodeToBytes("\uD83D\uDE00", JsonSettings.MAX));
+	}
+
+	@Test
+	public void testOrphanSurrogates() {
+		assertEquals("\"a\\uD83D\"", encodeToBytes("a\uD83D", JsonSettings.MAX));
+		assertEquals("\"\\uD83Db\"", encodeToBytes("\uD83Db", JsonSettings.MAX));
+		assertEquals("\"\\uDE00\"", encodeToBytes("\uDE00", JsonSettings.MAX));
+
+		JsonOutput out = new JsonOutput();
+		out.append('\uD83D');
+		assertEquals("\\uD83D", new String(out.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testNamingStyle() {
+		JsonSettings settings = new JsonSettings.Builder().setNamingStyle(NamingStyles.UPPER).build();
+		TestBean bean = new TestBean("x",1,"y");
+
+		String json = encodeToBytes(bean, settings);
+		assertEquals(JSON.encode(bean, settings), json);
+		assertTrue(json.contains("\"NAME\":\"x\""));
+		assertTrue(json.contains("\"AGE\":1"));
+		assertTrue(json.contains("\"k\":\"y\""));
+	}
+
+	@Test
+	public void testLargeString() {
+		StringBuilder s = new StringBuilder();
+		for(int i=0;i<10000;i++) {
+			s.append(i % 10 == 0 ? "\"中" : "abc");
+		}
+		assertSameEncoding(s.toString());
+	}
+
+	@Test
+	public void testWriter() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		JsonByteWriter w = JSON.createByteWriter(out);
+		w.startObject()
+		 .property("a", 1)
+		 .property("b", "s")
+		 .property("c", new long[]{1,2})
+		 .endObject();
+		w.flush();
+
+		assertEquals("{\"a\":1,\"b\":\"s\",\"c\":[1,2]}", new String(out.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	private static void assertSameEncoding(Object value) {
+		assertEquals(JSON.encode(value), encodeToBytes(value, JsonSettings.MAX));
+	}
+
+	private static String encodeToBytes(Object value, JsonSettings settings) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JSON.createEncoder(value, settings).encode(out);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	enum Color {
+		RED
+	}
+
+	static final class TestBean {
+		private String name;
+		private int    age;
+
+		@JsonName("k")
+		private String key;
+
+		@JsonIgnore
+		private String ignored = "ignored";
+
+		TestBean(String name, int age, String key) {
+			this.name = name;
+			this.age  = age;
+			this.key  = key;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getAge() {
+			return age;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public String getIgnored() {
+			return ignored;
+		}
+	}
+}
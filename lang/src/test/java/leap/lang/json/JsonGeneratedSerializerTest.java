@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import leap.junit.TestBase;
+import leap.lang.naming.NamingStyles;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+public class JsonGeneratedSerializerTest extends TestBase {
+
+	@Test
+	public void testGenerated() {
+		assertNotNull(JsonBeanSerializer.of(TypesBean.class).generated());
+		assertNotNull(JsonBeanSerializer.of(FieldBean.class).generated());
+		assertNull(JsonBeanSerializer.of(Date.class).generated());
+	}
+
+	@Test
+	public void testSameAsReflection() {
+		TypesBean bean = new TypesBean();
+		assertSameEncoding(bean);
+
+		bean.s = "";
+		bean.o = Arrays.asList(1, "2");
+		bean.nested = new TypesBean();
+		assertSameEncoding(bean);
+
+		FieldBean fb = new FieldBean();
+		fb.name  = "n";
+		fb.value = 100;
+		assertSameEncoding(fb);
+		assertSameEncoding(Arrays.asList(fb, new FieldBean()));
+	}
+
+	@Test
+	public void testNamingStyle() {
+		FieldBean fb = new FieldBean();
+		fb.name  = "n";
+		fb.value = 100;
+
+		JsonSettings reflect   = new JsonSettings(true, false, false, false, NamingStyles.UPPER);
+		JsonSettings generated = new JsonSettings(true, false, false, true, NamingStyles.UPPER);
+
+		assertEquals("{\"NAME\":\"n\",\"VALUE\":100}", JSON.encode(fb, reflect));
+		assertEquals("{\"NAME\":\"n\",\"VALUE\":100}", JSON.encode(fb, generated));
+		assertEquals("{\"NAME\":\"n\",\"VALUE\":100}", encodeToBytes(fb, generated));
+
+		TypesBean bean = new TypesBean();
+		String expected = JSON.encode(bean, reflect);
+		assertTrue(expected.contains("\"renamed\":\"x\""));
+		assertEquals(expected, JSON.encode(bean, generated));
+		assertEquals(expected, encodeToBytes(bean, generated));
+	}
+
+	private static void assertSameEncoding(Object value) {
+		for(boolean keyQuoted : new boolean[]{true, false}) {
+			for(boolean ignoreNull : new boolean[]{true, false}) {
+				for(boolean ignoreEmpty : new boolean[]{true, false}) {
+					JsonSettings reflect   = new JsonSettings(keyQuoted, ignoreNull, ignoreEmpty, false);
+					JsonSettings generated = new JsonSettings(keyQuoted, ignoreNull, ignoreEmpty, true);
+
+					String expected = JSON.encode(value, reflect);
+					assertEquals(expected, JSON.encode(value, generated));
+					assertEquals(expected, encodeToBytes(value, generated));
+				}
+			}
+		}
+	}
+
+	private static String encodeToBytes(Object value, JsonSettings settings) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JSON.createEncoder(value, settings).encode(out);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	public static class TypesBean {
+		boolean   b  = true;
+		byte      bt = 1;
+		short     sh = 2;
+		int       i  = -3;
+		long      l  = Long.MAX_VALUE;
+		float     f  = 1.5f;
+		double    d  = 2.25d;
+		char      c  = 'c';
+		String    s  = "s\"中";
+		Integer   n;
+		List<?>   o;
+		TypesBean nested;
+
+		@JsonName("renamed")
+		String    named = "x";
+
+		@JsonIgnore
+		String    ignored = "ignored";
+
+		public boolean isB() {
+			return b;
+		}
+
+		public byte getBt() {
+			return bt;
+		}
+
+		public short getSh() {
+			return sh;
+		}
+
+		public int getI() {
+			return i;
+		}
+
+		public long getL() {
+			return l;
+		}
+
+		public float getF() {
+			return f;
+		}
+
+		public double getD() {
+			return d;
+		}
+
+		public char getC() {
+			return c;
+		}
+
+		public String getS() {
+			return s;
+		}
+
+		public Integer getN() {
+			return n;
+		}
+
+		public List<?> getO() {
+			return o;
+		}
+
+		public TypesBean getNested() {
+			return nested;
+		}
+
+		public String getNamed() {
+			return named;
+		}
+
+		public String getIgnored() {
+			return ignored;
+		}
+	}
+
+	static class FieldBean {
+		public  String name;
+		public  int    value;
+		private String hidden = "h";
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import leap.junit.TestBase;
+import leap.lang.io.IO;
+import leap.lang.resource.Resource;
+import leap.lang.resource.Resources;
+
+import org.junit.Test;
+
+public class JsonPullParserTest extends TestBase {
+
+	@Test
+	public void testTokens() {
+		JsonPullParser p = JSON.createPullParser(new StringReader("{ \"a\" : 1, b:[true, null, 'x', 1.5], \"c\":{} }"));
+
+		assertEquals(JsonToken.START_OBJECT, p.next());
+		assertEquals(JsonToken.KEY, p.next());
+		assertEquals("a", p.getName());
+		assertEquals(JsonToken.NUMBER, p.next());
+		assertEquals(1L, ((Number)p.getValue()).longValue());
+		assertEquals(JsonToken.KEY, p.next());
+		assertEquals("b", p.getName());
+		assertEquals(JsonToken.START_ARRAY, p.next());
+		assertEquals(2, p.getDepth());
+		assertEquals(JsonToken.BOOLEAN, p.next());
+		assertEquals(Boolean.TRUE, p.getValue());
+		assertEquals(JsonToken.NULL, p.next());
+		assertEquals(JsonToken.STRING, p.next());
+		assertEquals("x", p.getString());
+		assertEquals(JsonToken.NUMBER, p.next());
+		assertEquals(JsonToken.END_ARRAY, p.next());
+		assertEquals(JsonToken.KEY, p.next());
+		assertEquals(JsonToken.START_OBJECT, p.next());
+		assertEquals(JsonToken.END_OBJECT, p.next());
+		assertEquals(JsonToken.END_OBJECT, p.next());
+		assertEquals(JsonToken.END, p.next());
+		assertEquals(0, p.getDepth());
+	}
+
+	@Test
+	public void testSkipValue() {
+		JsonPullParser p = JSON.createPullParser(new StringReader("[{\"a\":[1,{\"b\":2}]},3]"));
+
+		assertEquals(JsonToken.START_ARRAY, p.next());
+		assertEquals(JsonToken.START_OBJECT, p.next());
+		p.skipValue();
+		assertEquals(JsonToken.NUMBER, p.next());
+		assertEquals(JsonToken.END_ARRAY, p.next());
+		assertEquals(JsonToken.END, p.next());
+	}
+
+	@Test
+	public void testInvalidJson() {
+		for(String json : new String[]{"{\"a\":1", "[1,2", "{\"a\" 1}", "[1,2}", "{\"a\":[1}"}) {
+			try {
+				JsonPullParser p = JSON.createPullParser(new StringReader(json));
+				while(p.next() != JsonToken.END) {
+					;
+				}
+				fail("Should throw JsonParserException for '" + json + "'");
+			}catch(JsonParserException e) {
+
+			}
+		}
+	}
+
+	@Test
+	public void testReadValueSameAsParser() throws Exception {
+		for(Resource resource : Resources.scan("classpath:json/**/*.json")) {
+			if(!resource.exists()) {
+				continue;
+			}
+
+			InputStreamReader reader = resource.getInputStreamReader();
+			Object expected;
+			try {
+				expected = JSON.decode(reader);
+			}finally {
+				IO.close(reader);
+			}
+
+			reader = resource.getInputStreamReader();
+			try {
+				assertEquals(expected, JSON.createPullParser(reader).readValue());
+			}finally {
+				IO.close(reader);
+			}
+		}
+	}
+
+	@Test
+	public void testDecodeBean() {
+		String json = "{\"name\":\"n1\", \"AGE\":10, \"unknown\":{\"x\":[1,2]}, \"tags\":[\"a\",\"b\",\"a\"], " +
+					  "\"children\":[{\"name\":\"c1\",\"scores\":[1,2]}, {\"name\":\"c2\"}], " +
+					  "\"attrs\":{\"k1\":{\"name\":\"m1\"}}, \"scores\":[3,4], \"color\":\"RED\", \"nullValue\":null}";
+
+		Bean bean = JSON.decode(new StringReader(json), Bean.class);
+		assertEquals("n1", bean.name);
+		assertEquals(10, bean.age);
+		assertEquals(2, bean.tags.size());
+		assertEquals(2, bean.children.size());
+		assertEquals("c1", bean.children.get(0).name);
+		assertEquals(2, bean.children.get(0).scores.length);
+		assertEquals("c2", bean.children.get(1).name);
+		assertEquals("m1", bean.attrs.get("k1").name);
+		assertTrue(Arrays.equals(new int[]{3,4}, bean.scores));
+		assertEquals(Color.RED, bean.color);
+		assertNull(bean.nullValue);
+
+		Bean other = JSON.decode(json, Bean.class);
+		assertEquals(bean.name, other.name);
+		assertEquals(bean.age, other.age);
+		assertEquals(bean.tags, other.tags);
+	}
+
+	@Test
+	public void testDecodeBeanKeysSameAsConverter() {
+		String[][] cases = new String[][]{
+			{"{\"name\":\"a\", \"NAME\":\"b\"}", "a"},
+			{"{\"Name\":\"a\", \"name\":\"b\"}", "a"},
+			{"{\"NAME\":null, \"name\":\"b\"}",    null},
+			{"{\"name\":null, \"name\":\"b\"}",    "b"},
+		};
+
+		for(String[] c : cases) {
+			assertEquals(c[0], c[1], JSON.decode(new StringReader(c[0]), Bean.class).name);
+			assertEquals(c[0], c[1], JSON.decode(c[0], Bean.class).name);
+		}
+
+		String duplicate = "{\"name\":\"a\", \"name\":\"b\"}";
+		try {
+			JSON.decode(new StringReader(duplicate), Bean.class);
+			fail("Should throw JsonParserException");
+		}catch(JsonParserException e) {
+			assertEquals(JsonParserException.ERROR_UNEXPECTED_DUPLICATE_KEY, e.getErrorType());
+		}
+		try {
+			JSON.decode(duplicate, Bean.class);
+			fail("Should throw JsonParserException");
+		}catch(JsonParserException e) {
+			assertEquals(JsonParserException.ERROR_UNEXPECTED_DUPLICATE_KEY, e.getErrorType());
+		}
+	}
+
+	@Test
+	public void testDecodeEmptyAndScalar() {
+		assertNull(JSON.decode(new StringReader(""), Bean.class));
+		assertEquals(new Integer(100), JSON.decode(new StringReader("100"), Integer.class));
+		assertEquals("s", JSON.decode(new StringReader("\"s\""), String.class));
+	}
+
+	enum Color {
+		RED
+	}
+
+	public static class Bean {
+		public String             name;
+		public int                age;
+		public Set<String>        tags;
+		public List<Bean>         children;
+		public Map<String, Bean>  attrs;
+		public int[]              scores;
+		public Color              color;
+		public String             nullValue = "x";
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.reflect;
+
+import static leap.lang.asm.Opcodes.ACC_PUBLIC;
+import static leap.lang.asm.Opcodes.ACC_SUPER;
+import static leap.lang.asm.Opcodes.ACONST_NULL;
+import static leap.lang.asm.Opcodes.ALOAD;
+import static leap.lang.asm.Opcodes.ARETURN;
+import static leap.lang.asm.Opcodes.GETSTATIC;
+import static leap.lang.asm.Opcodes.INVOKESPECIAL;
+import static leap.lang.asm.Opcodes.RETURN;
+import static leap.lang.asm.Opcodes.V1_6;
+
+import java.util.function.Supplier;
+
+import leap.junit.TestBase;
+import leap.lang.asm.ClassWriter;
+import leap.lang.asm.MethodVisitor;
+import leap.lang.asm.Type;
+import org.junit.Test;
+
+public class ClassDefinerTest extends TestBase {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testDefineInPackage() throws Exception {
+		String name = ClassDefinerTest.class.getName() + "$InPackage";
+
+		Class<?> c = ClassDefiner.defineInPackage(Host.class, name, generate(name, true));
+		assertSame(Host.class.getClassLoader(), c.getClassLoader());
+		assertEquals("host", ((Supplier<Object>)c.getDeclaredConstructor().newInstance()).get());
+
+		try {
+			ClassDefiner.defineInPackage(Host.class, "other.InPackage", generate("other.InPackage", true));
+			fail("Should throw ReflectException");
+		}catch(ReflectException e) {
+			//expected
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testDefineInChildLoader() throws Exception {
+		ClassLoader parent = ClassDefinerTest.class.getClassLoader();
+
+		Class<?> c1 = ClassDefiner.define(parent, "leap.lang.reflect.Child1", generate("leap.lang.reflect.Child1", false));
+		Class<?> c2 = ClassDefiner.define(parent, "leap.lang.reflect.Child2", generate("leap.lang.reflect.Child2", false));
+
+		assertNotSame(parent, c1.getClassLoader());
+		assertSame(parent, c1.getClassLoader().getParent());
+		assertSame(c1.getClassLoader(), c2.getClassLoader());
+		assertNull(((Supplier<Object>)c1.getDeclaredConstructor().newInstance()).get());
+	}
+
+	/**
+	 * Generates a {@link Supplier} which returns {@link Host#value} (package-private) or null.
+	 */
+	private static byte[] generate(String className, boolean readHost) {
+		String name = className.replace('.', '/');
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(V1_6, ACC_PUBLIC | ACC_SUPER, name, null, "java/lang/Object", new String[]{Type.getInternalName(Supplier.class)});
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		mv = cw.visitMethod(ACC_PUBLIC, "get", "()Ljava/lang/Object;", null, null);
+		mv.visitCode();
+		if(readHost) {
+			mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Host.class), "value", "Ljava/lang/String;");
+		}else{
+			mv.visitInsn(ACONST_NULL);
+		}
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	static final class Host {
+		static String value = "host";
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.resource;
+
+import leap.junit.TestBase;
+import leap.lang.Charsets;
+import leap.lang.io.Files;
+import leap.lang.io.IO;
+import org.junit.Test;
+
+import static org.junit.Assume.assumeNotNull;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ResourceIndexProcessorTest extends TestBase {
+
+	@Test
+	public void testGenerateIndex() throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assumeNotNull(compiler);
+
+		File dir = new File("target/test-index-processor");
+		Files.deleteQuietly(dir);
+
+		File src     = file(dir, "src/tested/index/Hello.java");
+		File classes = new File(dir, "classes");
+
+		IO.writeString(src, "package tested.index; public class Hello { public static class Nested {} " +
+							"Runnable r = new Runnable() { public void run() {} }; }");
+		IO.writeString(file(classes, "META-INF/leap/framework/a.xml"), "a");
+
+		try(StandardJavaFileManager fm = compiler.getStandardFileManager(null, null, Charsets.UTF_8)) {
+			CompilationTask task = compiler.getTask(null, fm, null, Arrays.asList("-d", classes.getAbsolutePath(), "-Aleap.resources.index=true"), null,
+													fm.getJavaFileObjects(src));
+			task.setProcessors(Collections.singletonList(new ResourceIndexProcessor()));
+			assertTrue(task.call());
+		}
+
+		List<String> paths = Arrays.asList(IO.readString(new File(classes, ResourceIndex.LOCATION), Charsets.UTF_8).split("\n"));
+
+		assertEquals(ResourceIndex.HEADER, paths.get(0));
+		assertTrue(paths.contains("META-INF/"));
+		assertTrue(paths.contains("META-INF/leap/framework/"));
+		assertTrue(paths.contains("META-INF/leap/framework/a.xml"));
+		assertTrue(paths.contains("tested/"));
+		assertTrue(paths.contains("tested/index/"));
+		assertTrue(paths.contains("tested/index/Hello.class"));
+		assertTrue(paths.contains("tested/index/Hello$Nested.class"));
+		assertFalse(paths.contains(ResourceIndex.LOCATION));
+		assertFalse(paths.contains("tested/index/Hello$1.class"));
+		assertTrue(new File(classes, "tested/index/Hello$1.class").exists());
+
+		//the class files are written by javac after the index file.
+		ResourceIndex index = ResourceIndex.get(classes.toURI().toURL().toExternalForm());
+		assertTrue(index.isUpToDate(classes, ""));
+		assertTrue(index.isUpToDate(classes, "tested/index/"));
+		assertTrue(index.isUpToDate(classes, "META-INF/leap/"));
+
+		IO.writeString(file(classes, "tested/index/Other.class"), "");
+		assertFalse(index.isUpToDate(classes, ""));
+		assertFalse(index.isUpToDate(classes, "tested/index/"));
+		assertTrue(index.isUpToDate(classes, "META-INF/leap/"));
+	}
+
+	private static File file(File root, String path) {
+		File file = new File(root, path);
+		file.getParentFile().mkdirs();
+		return file;
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.resource;
+
+import leap.junit.TestBase;
+import leap.lang.Charsets;
+import leap.lang.io.Files;
+import leap.lang.io.IO;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+public class ResourceIndexTest extends TestBase {
+
+	private static final String LOCATION = "classpath*:/META-INF/leap/framework/**/*.xml";
+
+	@Test
+	public void testScanDirectoryWithIndex() throws Exception {
+		File root = new File("target/test-index/dir");
+		Files.deleteQuietly(root);
+
+		IO.writeString(file(root, "META-INF/leap/framework/a.xml"), "a");
+		IO.writeString(file(root, "META-INF/leap/framework/sub/b.xml"), "b");
+
+		writeIndex(root);
+
+		//the directories modified after the index file.
+		new File(root, ResourceIndex.LOCATION).setLastModified(System.currentTimeMillis() - 10000);
+		
+		ResourceIndex index = ResourceIndex.get(root.toURI().toURL().toExternalForm());
+		assertTrue(index.isUpToDate(root, ""));
+		assertTrue(index.isUpToDate(root, "META-INF/leap/framework/"));
+
+		assertScanned(scan(root.toURI().toURL()), "META-INF/leap/framework/a.xml", "META-INF/leap/framework/sub/b.xml");
+	}
+
+	@Test
+	public void testScanDirectoryWithOutOfDateIndex() throws Exception {
+		File root = new File("target/test-index/dir1");
+		Files.deleteQuietly(root);
+
+		IO.writeString(file(root, "META-INF/leap/framework/a.xml"), "a");
+		IO.writeString(file(root, "META-INF/leap/framework/sub/b.xml"), "b");
+
+		writeIndex(root);
+		ResourceIndex index = ResourceIndex.get(root.toURI().toURL().toExternalForm());
+
+		//added after the index generated.
+		IO.writeString(file(root, "META-INF/leap/framework/sub/c.xml"), "c");
+		assertFalse(index.isUpToDate(root, "META-INF/leap/framework/"));
+		assertTrue(index.isUpToDate(root, "META-INF/leap/framework/sub/b"));
+
+		assertScanned(scan(root.toURI().toURL()),
+					  "META-INF/leap/framework/a.xml", "META-INF/leap/framework/sub/b.xml", "META-INF/leap/framework/sub/c.xml");
+		
+		//removed after the index generated.
+		new File(root, "META-INF/leap/framework/sub/c.xml").delete();
+		new File(root, "META-INF/leap/framework/a.xml").delete();
+		assertFalse(index.isUpToDate(root, "META-INF/leap/framework/"));
+		
+		assertScanned(scan(root.toURI().toURL()), "META-INF/leap/framework/sub/b.xml");
+	}
+
+	@Test
+	public void testScanJarWithIndex() throws Exception {
+		File jar = writeJar("test.jar", ResourceIndex.HEADER, "META-INF/leap/framework/a.xml", "META-INF/leap/framework/b.xml");
+
+		Resource[] resources = scan(jar.toURI().toURL());
+		assertScanned(resources, "META-INF/leap/framework/a.xml", "META-INF/leap/framework/b.xml");
+		assertTrue(resources[0].getURL().toExternalForm().contains("!/META-INF/leap/framework/"));
+
+		ResourceIndex index = ResourceIndex.get("jar:" + jar.toURI().toURL().toExternalForm() + "!/");
+		assertEquals(Boolean.TRUE, index.getComplete());
+	}
+
+	@Test
+	public void testScanJarWithPartialIndex() throws Exception {
+		//e.g. a shaded jar keeps the index of one module.
+		File jar = writeJar("test-partial.jar", ResourceIndex.HEADER, "META-INF/leap/framework/a.xml");
+		assertScanned(scan(jar.toURI().toURL()), "META-INF/leap/framework/a.xml", "META-INF/leap/framework/b.xml");
+
+		//the indexed file not exists.
+		jar = writeJar("test-missing.jar", ResourceIndex.HEADER,
+					   "META-INF/leap/framework/a.xml", "META-INF/leap/framework/b.xml", "META-INF/leap/framework/c.xml");
+		assertScanned(scan(jar.toURI().toURL()), "META-INF/leap/framework/a.xml", "META-INF/leap/framework/b.xml");
+	}
+
+	@Test
+	public void testScanJarWithUnsupportedIndex() throws Exception {
+		File jar = writeJar("test-unsupported.jar", "#leap-resources-index 0", "META-INF/leap/framework/a.xml");
+		assertScanned(scan(jar.toURI().toURL()), "META-INF/leap/framework/a.xml", "META-INF/leap/framework/b.xml");
+
+		jar = writeJar("test-no-header.jar", null, "META-INF/leap/framework/a.xml");
+		assertScanned(scan(jar.toURI().toURL()), "META-INF/leap/framework/a.xml", "META-INF/leap/framework/b.xml");
+	}
+
+	//the jar contains a.xml, b.xml and the manifest.
+	private static File writeJar(String name, String header, String... indexed) throws Exception {
+		File jar = file(new File("target/test-index"), name);
+
+		try(JarOutputStream out = new JarOutputStream(new FileOutputStream(jar), new Manifest())) {
+			for(String dir : new String[]{"META-INF/leap/", "META-INF/leap/framework/"}) {
+				out.putNextEntry(new JarEntry(dir));
+				out.closeEntry();
+			}
+			for(String path : new String[]{"META-INF/leap/framework/a.xml", "META-INF/leap/framework/b.xml"}) {
+				out.putNextEntry(new JarEntry(path));
+				out.write(path.getBytes());
+				out.closeEntry();
+			}
+			out.putNextEntry(new JarEntry(ResourceIndex.LOCATION));
+			if(null != header) {
+				out.write((header + "\n").getBytes());
+			}
+			out.write("META-INF/\nMETA-INF/leap/\nMETA-INF/leap/framework/\n".getBytes());
+			for(String path : indexed) {
+				out.write((path + "\n").getBytes());
+			}
+			out.closeEntry();
+		}
+
+		return jar;
+	}
+
+	private static void writeIndex(File root) throws Exception {
+		try(Writer out = new OutputStreamWriter(new FileOutputStream(file(root, ResourceIndex.LOCATION)), Charsets.UTF_8)) {
+			ResourceIndex.write(out, ResourceIndex.list(root));
+		}
+	}
+
+	private static void assertScanned(Resource[] resources, String... paths) {
+		Set<String> classpaths = new TreeSet<>();
+		for(Resource r : resources) {
+			assertTrue(r.exists());
+			classpaths.add(r.getClasspath());
+		}
+		assertEquals(new TreeSet<>(Arrays.asList(paths)), classpaths);
+	}
+
+	private static Resource[] scan(URL url) throws Exception {
+		try(URLClassLoader loader = new URLClassLoader(new URL[]{url}, null)) {
+			return new DefaultResourceScanner(loader).scan(LOCATION);
+		}
+	}
+
+	private static File file(File root, String path) {
+		File file = new File(root, path);
+		file.getParentFile().mkdirs();
+		return file;
+	}
+}
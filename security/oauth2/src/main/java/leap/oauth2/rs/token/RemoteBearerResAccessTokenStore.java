@@ -16,40 +16,191 @@
 package leap.oauth2.rs.token;
 
 import leap.core.annotation.Inject;
+import leap.core.cache.CachePolicy;
+import leap.core.cache.ConcurrentCache;
 import leap.lang.Result;
 import leap.lang.Strings;
+import leap.lang.expirable.TimeExpirable;
 import leap.lang.http.ContentTypes;
 import leap.lang.http.client.HttpClient;
 import leap.lang.http.client.HttpRequest;
 import leap.lang.http.client.HttpResponse;
 import leap.lang.json.JSON;
-import leap.lang.json.JsonValue;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
+import leap.oauth2.OAuth2Errors;
 import leap.oauth2.OAuth2InternalServerException;
 import leap.oauth2.rs.OAuth2ResServerConfig;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Loads the details of access token from the token info endpoint of remote authz server.
+ *
+ * <p>
+ * The concurrent loadings of the same token are coalesced into one http request.
+ *
+ * <p>
+ * The valid token is cached for at most {@link #getMaxCacheExpiresInMs()} (60 seconds by default) so that
+ * a token revoked at the authz server stops working soon, it is cached until it expires only if the max
+ * cache time was explicitly set to 0.
+ * The invalid token is cached in a bounded negative cache for {@link #getInvalidCacheExpiresInMs()}.
+ * 
+ * <p>
+ * Only the token rejected by the authz server (see {@link #isInvalidTokenError(HttpResponse, String)}) is cached as invalid, 
+ * the server errors such as <code>server_error</code> or <code>temporarily_unavailable</code> are not cached.
+ */
 public class RemoteBearerResAccessTokenStore implements ResBearerAccessTokenStore {
     
-    private static final Log log = LogFactory.get(RemoteBearerResAccessTokenStore.class);;
+    private static final Log log = LogFactory.get(RemoteBearerResAccessTokenStore.class);
+
+    //The result of the token rejected by authz server, distinct from the empty result of a failed request.
+    private static final Result<ResAccessTokenDetails> INVALID = new InvalidResult();
 
     protected @Inject OAuth2ResServerConfig config;
     protected @Inject HttpClient            httpClient;
 
+    protected int  cacheSize               = 2048;
+    protected long maxCacheExpiresInMs     = 60 * 1000;
+    protected int  invalidCacheSize        = 10240;
+    protected long invalidCacheExpiresInMs = 30 * 1000;
+
+    private final ConcurrentMap<String, CompletableFuture<Result<ResAccessTokenDetails>>> loadings = new ConcurrentHashMap<>();
+
+    private volatile ConcurrentCache<String, ResAccessTokenDetails> cache;
+    private volatile ConcurrentCache<String, Boolean>               invalidCache;
+
+    public void setConfig(OAuth2ResServerConfig config) {
+        this.config = config;
+    }
+
     public void setHttpClient(HttpClient httpClient) {
         this.httpClient = httpClient;
     }
 
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Sets the max number of valid tokens in cache, 0 means disable the caching of valid tokens.
+     */
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+        this.cache     = null;
+    }
+
+    public long getMaxCacheExpiresInMs() {
+        return maxCacheExpiresInMs;
+    }
+
+    /**
+     * Sets the max time to live of a valid token in cache, default is 60 seconds.
+     *
+     * <p>
+     * 0 means the token is cached until it expires, a revoked token will keep working until then.
+     */
+    public void setMaxCacheExpiresInMs(long maxCacheExpiresInMs) {
+        this.maxCacheExpiresInMs = maxCacheExpiresInMs;
+    }
+
+    public int getInvalidCacheSize() {
+        return invalidCacheSize;
+    }
+
+    /**
+     * Sets the max number of invalid tokens in cache, 0 means disable the caching of invalid tokens.
+     */
+    public void setInvalidCacheSize(int invalidCacheSize) {
+        this.invalidCacheSize = invalidCacheSize;
+        this.invalidCache     = null;
+    }
+
+    public long getInvalidCacheExpiresInMs() {
+        return invalidCacheExpiresInMs;
+    }
+
+    /**
+     * Sets the time to live of an invalid token in cache, 0 means disable the caching of invalid tokens.
+     */
+    public void setInvalidCacheExpiresInMs(long invalidCacheExpiresInMs) {
+        this.invalidCacheExpiresInMs = invalidCacheExpiresInMs;
+    }
+
     @Override
     public Result<ResAccessTokenDetails> loadAccessTokenDetails(ResAccessToken credentials) {
         if(null == config.getRemoteTokenInfoEndpointUrl()) {
             throw new IllegalStateException("The tokenInfoEndpointUrl must not be configured when use remote authz server");
         }
-        
+
+        String token = credentials.getToken();
+
+        ConcurrentCache<String, ResAccessTokenDetails> cache = cache();
+        if(null != cache) {
+            ResAccessTokenDetails details = cache.get(token);
+            if(null != details) {
+                return Result.of(details);
+            }
+        }
+
+        ConcurrentCache<String, Boolean> invalidCache = invalidCache();
+        if(null != invalidCache && null != invalidCache.get(token)) {
+            log.debug("Access token '{}' is invalid (cached)", token);
+            return INVALID;
+        }
+
+        CompletableFuture<Result<ResAccessTokenDetails>> future  = new CompletableFuture<>();
+        CompletableFuture<Result<ResAccessTokenDetails>> loading = loadings.putIfAbsent(token, future);
+        if(null != loading) {
+            return join(loading);
+        }
+
+        try {
+            Result<ResAccessTokenDetails> result = requestAccessTokenDetails(token);
+
+            if(result == INVALID) {
+                if(null != invalidCache && invalidCacheExpiresInMs > 0) {
+                    invalidCache.put(token, Boolean.TRUE, invalidCacheExpiresInMs);
+                }
+            }else if(result.isPresent() && null != cache) {
+                long expiresInMs = getCacheExpiresInMs(result.get());
+                if(expiresInMs > 0) {
+                    cache.put(token, result.get(), expiresInMs);
+                }
+            }
+
+            future.complete(result);
+            return result;
+        }catch(RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }finally{
+            loadings.remove(token, future);
+        }
+    }
+
+    @Override
+    public void removeAccessToken(ResAccessToken token) {
+        ConcurrentCache<String, ResAccessTokenDetails> cache = this.cache;
+        if(null != cache) {
+            cache.remove(token.getToken());
+        }
+    }
+
+    /**
+     * Requests the token info endpoint.
+     *
+     * <p>
+     * Returns an empty result if the token is invalid or the response cannot be parsed,
+     * only the invalid token which reported by the authz server will be cached.
+     */
+    protected Result<ResAccessTokenDetails> requestAccessTokenDetails(String token) {
         HttpRequest request = httpClient.request(config.getRemoteTokenInfoEndpointUrl())
-                                         .addQueryParam("access_token", credentials.getToken());
+                                         .addQueryParam("access_token", token);
 
         HttpResponse response = request.get();
         
@@ -59,19 +210,14 @@ public class RemoteBearerResAccessTokenStore implements ResBearerAccessTokenStor
             log.debug("Received response : {}", content);
             
             try {
-                JsonValue json = JSON.decodeToJsonValue(content);
-                
-                if(!json.isMap()) {
-                    throw new OAuth2InternalServerException("Invalid response from auth server : not a json map");
+                Map<String, Object> map = JSON.decodeToMap(content);
+
+                String error = (String)map.get("error");
+                if(Strings.isEmpty(error)) {
+                    return Result.of(createAccessTokenDetails(map));
                 }else{
-                    Map<String, Object> map = json.asMap();
-                    String error = (String)map.get("error");
-                    if(Strings.isEmpty(error)) {
-                        return Result.of(createAccessTokenDetails(map));
-                    }else{
-                        log.info("{} : {}", error, map.get("error_description"));
-                        return Result.empty();
-                    }
+                    log.info("{} : {}, status {}", error, map.get("error_description"), response.getStatus());
+                    return isInvalidTokenError(response, error) ? INVALID : Result.empty();
                 }
             } catch (Exception e) {
                 log.error(e);
@@ -82,9 +228,18 @@ public class RemoteBearerResAccessTokenStore implements ResBearerAccessTokenStor
         }
     }
 
-    @Override
-    public void removeAccessToken(ResAccessToken token) {
-        //Do nothing.
+    /**
+     * Returns <code>true</code> if the error response means the token is invalid, i.e. the result can be cached.
+     *
+     * <p>
+     * The errors of 5xx responses are transient, the error <code>invalid_request</code> is returned by 
+     * the token info endpoint of leap authz server for an invalid token.
+     */
+    protected boolean isInvalidTokenError(HttpResponse response, String error) {
+        if(response.getStatus() >= 500) {
+            return false;
+        }
+        return OAuth2Errors.ERROR_INVALID_TOKEN.equals(error) || OAuth2Errors.ERROR_INVALID_REQUEST.equals(error);
     }
 
     protected ResAccessTokenDetails createAccessTokenDetails(Map<String, Object> map) {
@@ -92,10 +247,70 @@ public class RemoteBearerResAccessTokenStore implements ResBearerAccessTokenStor
         
         details.setClientId((String)map.remove("client_id"));
         details.setUserId((String)map.remove("user_id"));
-        details.setCreated((Long)map.remove("created"));
-        details.setExpiresIn(((Integer)map.remove("expires_in")) * 1000);
+        details.setCreated(((Number)map.remove("created")).longValue());
+        details.setExpiresIn(((Number)map.remove("expires_in")).intValue() * 1000);
         details.setScope((String)map.remove("scope"));
 
         return details;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the time to live of the token details in cache, 0 or negative means do not cache it.
+     */
+    protected long getCacheExpiresInMs(ResAccessTokenDetails details) {
+        if(!(details instanceof TimeExpirable)) {
+            return maxCacheExpiresInMs;
+        }
+
+        TimeExpirable expirable = (TimeExpirable)details;
+
+        long expiresInMs = expirable.getCreated() + expirable.getExpiresIn() - System.currentTimeMillis();
+        if(maxCacheExpiresInMs > 0 && expiresInMs > maxCacheExpiresInMs) {
+            return maxCacheExpiresInMs;
+        }
+        return expiresInMs;
+    }
+
+    private ConcurrentCache<String, ResAccessTokenDetails> cache() {
+        ConcurrentCache<String, ResAccessTokenDetails> c = cache;
+        if(null == c && cacheSize > 0) {
+            synchronized (this) {
+                if(null == (c = cache)) {
+                    cache = c = new ConcurrentCache<>(cacheSize, CachePolicy.TINY_LFU);
+                }
+            }
+        }
+        return c;
+    }
+
+    private ConcurrentCache<String, Boolean> invalidCache() {
+        ConcurrentCache<String, Boolean> c = invalidCache;
+        if(null == c && invalidCacheSize > 0) {
+            synchronized (this) {
+                if(null == (c = invalidCache)) {
+                    invalidCache = c = new ConcurrentCache<>(invalidCacheSize, CachePolicy.TINY_LFU);
+                }
+            }
+        }
+        return c;
+    }
+
+    private static final class InvalidResult implements Result<ResAccessTokenDetails> {
+        @Override
+        public ResAccessTokenDetails get() {
+            return null;
+        }
+    }
+
+    private static Result<ResAccessTokenDetails> join(CompletableFuture<Result<ResAccessTokenDetails>> loading) {
+        try {
+            return loading.join();
+        }catch(CompletionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw e;
+        }
+    }
+}
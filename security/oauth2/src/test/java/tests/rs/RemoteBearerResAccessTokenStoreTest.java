@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests.rs;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import leap.junit.TestBase;
+import leap.lang.Result;
+import leap.lang.http.HTTP;
+import leap.lang.http.MimeTypes;
+import leap.lang.http.client.HttpClient;
+import leap.lang.http.client.HttpRequest;
+import leap.lang.http.client.HttpResponse;
+import leap.oauth2.rs.OAuth2ResServerConfig;
+import leap.oauth2.rs.token.RemoteBearerResAccessTokenStore;
+import leap.oauth2.rs.token.ResAccessTokenDetails;
+import leap.oauth2.rs.token.SimpleResAccessToken;
+
+import org.junit.Test;
+
+public class RemoteBearerResAccessTokenStoreTest extends TestBase {
+	
+	private final AtomicInteger                   requests = new AtomicInteger();
+	private final RemoteBearerResAccessTokenStore store    = new RemoteBearerResAccessTokenStore();
+	
+	private volatile int            status  = HTTP.SC_OK;
+	private volatile String         content;
+	private volatile CountDownLatch blocker;
+	
+	@Override
+	protected void setUp() throws Exception {
+		store.setConfig(proxy(OAuth2ResServerConfig.class, (m, args) -> 
+			"getRemoteTokenInfoEndpointUrl".equals(m) ? "http://localhost/oauth2/tokeninfo" : null));
+		
+		store.setHttpClient(proxy(HttpClient.class, (m, args) -> new TestRequest().request));
+	}
+	
+	@Test
+	public void testCoalesceConcurrentLoadings() throws Exception {
+		content = validTokenInfo(3600);
+		blocker = new CountDownLatch(1);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(5);
+		try{
+			List<Future<Result<ResAccessTokenDetails>>> futures = new ArrayList<>();
+			for(int i=0;i<5;i++) {
+				futures.add(executor.submit(() -> load("t1")));
+			}
+			
+			Thread.sleep(100);
+			blocker.countDown();
+			
+			for(Future<Result<ResAccessTokenDetails>> future : futures) {
+				assertEquals("u1", future.get(5, TimeUnit.SECONDS).get().getUserId());
+			}
+			assertEquals(1, requests.get());
+		}finally{
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testValidTokenCache() throws Exception {
+		assertEquals(60 * 1000, store.getMaxCacheExpiresInMs());
+		
+		content = validTokenInfo(3600);
+		
+		assertTrue(load("t1").isPresent());
+		assertTrue(load("t1").isPresent());
+		assertEquals(1, requests.get());
+		
+		//expires by the max cache time.
+		store.setMaxCacheExpiresInMs(50);
+		assertTrue(load("t2").isPresent());
+		assertTrue(load("t2").isPresent());
+		assertEquals(2, requests.get());
+		Thread.sleep(100);
+		assertTrue(load("t2").isPresent());
+		assertEquals(3, requests.get());
+		
+		//expires by the token.
+		store.setMaxCacheExpiresInMs(0);
+		content = tokenInfo(System.currentTimeMillis() - 950, 1);
+		assertTrue(load("t3").isPresent());
+		assertTrue(load("t3").isPresent());
+		assertEquals(4, requests.get());
+		Thread.sleep(100);
+		load("t3");
+		assertEquals(5, requests.get());
+	}
+	
+	@Test
+	public void testInvalidTokenCache() throws Exception {
+		status  = HTTP.SC_UNAUTHORIZED;
+		content = "{\"error\":\"invalid_token\"}";
+		
+		store.setInvalidCacheExpiresInMs(50);
+		assertFalse(load("t1").isPresent());
+		assertFalse(load("t1").isPresent());
+		assertEquals(1, requests.get());
+		
+		Thread.sleep(100);
+		assertFalse(load("t1").isPresent());
+		assertEquals(2, requests.get());
+		
+		//the token info endpoint of leap authz server.
+		status  = HTTP.SC_BAD_REQUEST;
+		content = "{\"error\":\"invalid_request\",\"error_description\":\"invalid token\"}";
+		assertFalse(load("t2").isPresent());
+		assertFalse(load("t2").isPresent());
+		assertEquals(3, requests.get());
+	}
+	
+	@Test
+	public void testServerErrorNotCached() {
+		status  = HTTP.SC_SERVICE_UNAVAILABLE;
+		content = "{\"error\":\"temporarily_unavailable\"}";
+		
+		assertFalse(load("t1").isPresent());
+		assertFalse(load("t1").isPresent());
+		assertEquals(2, requests.get());
+		
+		status  = HTTP.SC_INTERNAL_SERVER_ERROR;
+		content = "{\"error\":\"invalid_token\"}";
+		assertFalse(load("t1").isPresent());
+		assertEquals(3, requests.get());
+		
+		//the server recovered, the valid token must not be rejected.
+		status  = HTTP.SC_OK;
+		content = validTokenInfo(3600);
+		assertTrue(load("t1").isPresent());
+		assertEquals(4, requests.get());
+	}
+	
+	private Result<ResAccessTokenDetails> load(String token) {
+		return store.loadAccessTokenDetails(new SimpleResAccessToken(null, token, null));
+	}
+	
+	private static String validTokenInfo(int expiresIn) {
+		return tokenInfo(System.currentTimeMillis(), expiresIn);
+	}
+	
+	private static String tokenInfo(long created, int expiresIn) {
+		return "{\"client_id\":\"c1\",\"user_id\":\"u1\",\"created\":" + created + ",\"expires_in\":" + expiresIn + "}";
+	}
+	
+	private final class TestRequest {
+		private final HttpRequest request = proxy(HttpRequest.class, (m, args) -> {
+			if("get".equals(m)) {
+				return get();
+			}
+			return TestRequest.this.request;
+		});
+		
+		private HttpResponse get() throws InterruptedException {
+			requests.incrementAndGet();
+			
+			CountDownLatch latch = blocker;
+			if(null != latch) {
+				latch.await(5, TimeUnit.SECONDS);
+			}
+			
+			final int    status  = RemoteBearerResAccessTokenStoreTest.this.status;
+			final String content = RemoteBearerResAccessTokenStoreTest.this.content;
+			return proxy(HttpResponse.class, (m, args) -> {
+				switch (m) {
+					case "getStatus":
+						return status;
+					case "getContentType":
+						return MimeTypes.APPLICATION_JSON_TYPE;
+					case "getString":
+						return content;
+					default:
+						return null;
+				}
+			});
+		}
+	}
+	
+	private interface Handler {
+		Object invoke(String method, Object[] args) throws Throwable;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, Handler handler) {
+		return (T)Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, 
+										 (proxy, method, args) -> handler.invoke(method.getName(), args));
+	}
+}
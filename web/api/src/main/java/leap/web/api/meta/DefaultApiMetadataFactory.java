@@ -226,8 +226,8 @@ public class DefaultApiMetadataFactory implements ApiMetadataFactory {
 	
 	protected void createApiResponses(ApiMetadataContext context, ApiMetadataBuilder m, Route route, ApiPathBuilder path, ApiOperationBuilder op) {
 		if(route.getAction().hasReturnValue()) {
-			Class<?> returnType        = route.getAction().getReturnType();
-			Type     genericReturnType = route.getAction().getGenericReturnType();
+			Class<?> returnType        = route.getAction().getResultType();
+			Type     genericReturnType = route.getAction().getGenericResultType();
 			
 			MType type = createMType(context, m, Types.getTypeInfo(returnType, genericReturnType));
 			ApiResponseBuilder resp = ApiResponseBuilder.ok();
@@ -15,13 +15,17 @@
  */
 package leap.web;
 
+import leap.core.AppContext;
 import leap.core.AppException;
+import leap.core.RequestContext;
 import leap.core.annotation.Inject;
 import leap.core.annotation.M;
 import leap.core.validation.SimpleErrors;
 import leap.core.validation.Validation;
 import leap.core.validation.ValidationManager;
 import leap.lang.Strings;
+import leap.lang.Try;
+import leap.lang.http.HTTP;
 import leap.lang.intercepting.State;
 import leap.lang.time.StopWatch;
 import leap.web.action.ActionContext;
@@ -47,12 +51,21 @@ import leap.web.view.View;
 import leap.web.view.ViewSource;
 import leap.web.view.WrappedViewData;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DefaultAppHandler extends AppHandlerBase implements AppHandler {
 	
@@ -491,14 +504,184 @@ public class DefaultAppHandler extends AppHandlerBase implements AppHandler {
 			return;
 		}
 
+		//async action
+		if(returnValue instanceof CompletionStage && null == result.getRenderable()) {
+			CompletionStage<?> stage = (CompletionStage<?>)returnValue;
+
+			if(!isDone(stage) && request.getServletRequest().isAsyncSupported()) {
+				AsyncState async = startAsync(request);
+				async.setStage(stage);
+
+				//renders the result in a container managed thread instead of the thread completing the stage.
+				stage.whenComplete((value, e) -> startAsyncTask(request, response, async, () -> {
+					if(null != e) {
+						throw e instanceof CompletionException && null != e.getCause() ? e.getCause() : e;
+					}
+					processAndRenderResult(request, response, ac, validation, value, result);
+				}));
+				return;
+			}
+
+			if(_debug && !isDone(stage)) {
+				log.debug("Async not supported by the request, waits the completion of action '{}'", ac.getAction());
+			}
+
+			try {
+				returnValue = stage.toCompletableFuture().get();
+			} catch (ExecutionException e) {
+				throw null == e.getCause() ? e : e.getCause();
+			}
+		}
+
+		processAndRenderResult(request, response, ac, validation, returnValue, result);
+	}
+
+	protected void processAndRenderResult(Request request, Response response, ActionContext ac, Validation validation,
+										  Object returnValue, Result result) throws Throwable {
 		if(null == result.getRenderable()){
 			//process the return value
 			processResult(ac, validation, returnValue, result);
 		}
+
+		//streaming content, writes it in a container managed thread.
+		if(result.getRenderable() instanceof StreamingContent) {
+			HttpServletRequest req = request.getServletRequest();
+			if(!req.isAsyncStarted() && req.isAsyncSupported()) {
+				AsyncState async = startAsync(request);
+				startAsyncTask(request, response, async, () -> renderResult(request, response, ac, result));
+				return;
+			}
+		}
 		
 		//render result
 		renderResult(request, response, ac, result);
 	}
+
+	protected AsyncState startAsync(Request request) {
+		HttpServletRequest req = request.getServletRequest();
+
+		AsyncState async = new AsyncState(req.isAsyncStarted() ? req.getAsyncContext() : req.startAsync());
+		if(_debug) {
+			log.debug("Async started for request '{}', timeout {}ms", request.getPath(), async.getContext().getTimeout());
+		}
+
+		async.getContext().addListener(new AsyncListener() {
+			@Override
+			public void onTimeout(AsyncEvent event) throws IOException {
+				log.warn("Async request '{}' timeout", request.getPath());
+				
+				//the response will be completed by the container if the task is running, do not touch it.
+				if(!async.timeout()) {
+					return;
+				}
+				
+				HttpServletResponse resp = (HttpServletResponse)event.getAsyncContext().getResponse();
+				if(!resp.isCommitted()) {
+					resp.sendError(HTTP.SC_SERVICE_UNAVAILABLE);
+				}
+				event.getAsyncContext().complete();
+			}
+
+			@Override
+			public void onError(AsyncEvent event) throws IOException {
+				log.warn("Async request '{}' error, {}", request.getPath(),
+						 null == event.getThrowable() ? null : event.getThrowable().getMessage());
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) throws IOException {
+			}
+
+			@Override
+			public void onComplete(AsyncEvent event) throws IOException {
+			}
+		});
+
+		return async;
+	}
+
+	/**
+	 * Runs the task of an async request in a container managed thread by {@link AsyncContext#start(Runnable)}.
+	 */
+	protected void startAsyncTask(Request request, Response response, AsyncState async, Try.CatchRunnable task) {
+		try {
+			async.getContext().start(() -> runAsync(request, response, async, task));
+		}catch(IllegalStateException e) {
+			log.debug("Async request '{}' already completed, {}", request.getPath(), e.getMessage());
+		}
+	}
+
+	/**
+	 * Runs the task of an async request in current thread and completes the async request at last.
+	 *
+	 * <p>
+	 * The app and request contexts of current thread are restored after running.
+	 * 
+	 * <p>
+	 * Does nothing if the async request was timed out, the response may be completed and recycled by the container.
+	 */
+	protected void runAsync(Request request, Response response, AsyncState async, Try.CatchRunnable task) {
+		if(!async.run()) {
+			log.debug("Async request '{}' was timed out, ignore the result", request.getPath());
+			return;
+		}
+		
+		AppContext     prevApp     = AppContext.tryGetCurrent();
+		RequestContext prevRequest = null == prevApp ? null : RequestContext.tryGetCurrent();
+
+		AppContext.setCurrent(app.context());
+		RequestContext.setCurrent(request);
+		try {
+			task.run();
+		}catch(Throwable e) {
+			handleAsyncError(request, response, e);
+		}finally{
+			try {
+				async.getContext().complete();
+			} catch (IllegalStateException e) {
+				log.debug("Async request '{}' already completed, {}", request.getPath(), e.getMessage());
+			}
+			if(null == prevRequest) {
+				RequestContext.removeCurrent();
+			}else{
+				RequestContext.setCurrent(prevRequest);
+			}
+			if(null == prevApp) {
+				AppContext.removeCurrent();
+			}else{
+				AppContext.setCurrent(prevApp);
+			}
+		}
+	}
+
+	protected void handleAsyncError(Request request, Response response, Throwable e) {
+		try {
+			if(e instanceof RequestIntercepted) {
+				log.debug("Caught a RequestIntercepted Exception, finish handling async request.");
+				return;
+			}
+
+			if(e instanceof ResponseException) {
+				renderResponseException(request, response, (ResponseException)e);
+				return;
+			}
+
+			log.error("Error handling async request '{}', {}", request.getPath(), e.getMessage(), e);
+			if(!handleError(request, response, e) && !response.isCommitted()) {
+				response.sendError(HTTP.SC_INTERNAL_SERVER_ERROR);
+			}
+		} catch (Throwable e1) {
+			log.error("Error handling the error of async request '{}', {}", request.getPath(), e1.getMessage(), e1);
+			try {
+				if(!response.isCommitted()) {
+					int status = e instanceof ResponseException ? ((ResponseException)e).getStatus() : HTTP.SC_INTERNAL_SERVER_ERROR;
+					response.getServletResponse().sendError(status);
+				}
+			} catch (Throwable e2) {
+				log.debug("Error sending the error of async request '{}', {}", request.getPath(), e2.getMessage());
+			}
+		}
+	}
 	
 	protected Object executeAction(ActionContext ac, Validation validation) throws Throwable {
 		return actionManager.executeAction(ac, validation);
@@ -545,4 +728,68 @@ public class DefaultAppHandler extends AppHandlerBase implements AppHandler {
 		//render
 		renderable.render(request, response);
 	}
-}
\ No newline at end of file
+
+	private static boolean isDone(CompletionStage<?> stage) {
+		return stage instanceof Future && ((Future<?>)stage).isDone();
+	}
+	
+	/**
+	 * The state of an async request, the result is rendered only if the request was not timed out.
+	 */
+	protected static class AsyncState {
+		
+		private static final int WAITING  = 0;
+		private static final int RUNNING  = 1;
+		private static final int TIMEOUT  = 2;
+		
+		private final AsyncContext  context;
+		private final AtomicInteger state = new AtomicInteger(WAITING);
+		
+		private volatile CompletionStage<?> stage;
+		
+		public AsyncState(AsyncContext context) {
+			this.context = context;
+		}
+		
+		public AsyncContext getContext() {
+			return context;
+		}
+		
+		/**
+		 * Sets the stage which will be cancelled on timeout.
+		 */
+		public void setStage(CompletionStage<?> stage) {
+			this.stage = stage;
+		}
+		
+		public boolean isTimeout() {
+			return state.get() == TIMEOUT;
+		}
+		
+		/**
+		 * Returns <code>true</code> if the task can run, i.e. the request was not timed out.
+		 */
+		boolean run() {
+			return state.compareAndSet(WAITING, RUNNING);
+		}
+		
+		/**
+		 * Returns <code>true</code> if the task was not running and the stage was cancelled.
+		 */
+		boolean timeout() {
+			if(!state.compareAndSet(WAITING, TIMEOUT)) {
+				return false;
+			}
+			
+			CompletionStage<?> stage = this.stage;
+			if(null != stage) {
+				try {
+					stage.toCompletableFuture().cancel(true);
+				}catch(UnsupportedOperationException e) {
+					//the stage can not be converted to a future, the result will be ignored.
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -104,6 +104,11 @@ public class DefaultResponse extends Response {
 		resp.setContentLength(length);
     }
 
+	@Override
+    public String getCharacterEncoding() {
+	    return resp.getCharacterEncoding();
+    }
+
 	@Override
     public void setCharacterEncoding(String charset) {
 		resp.setCharacterEncoding(charset);
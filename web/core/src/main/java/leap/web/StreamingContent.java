@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web;
+
+import java.io.OutputStream;
+
+import leap.lang.http.MimeTypes;
+
+/**
+ * A {@link Content} writes the response body to the output stream directly.
+ * 
+ * <p>
+ * If the request supports async, the content is written in a container managed thread by {@link javax.servlet.AsyncContext#start(Runnable)}
+ * and the request thread is released before writing.
+ */
+@FunctionalInterface
+public interface StreamingContent extends Content {
+
+	/**
+	 * Writes the content to the output stream of response.
+	 * 
+	 * <p>
+	 * The output stream must not be closed.
+	 */
+	void writeTo(OutputStream out) throws Throwable;
+	
+	@Override
+	default String getContentType(Request request) throws Throwable {
+		return MimeTypes.APPLICATION_OCTET_STREAM;
+	}
+
+	@Override
+	default void render(Request request, Response response) throws Throwable {
+		response.setContentType(getContentType(request));
+		writeTo(response.getOutputStream());
+	}
+}
@@ -56,6 +56,10 @@ public abstract class AbstractArgumentResolver implements ArgumentResolver {
 
 	protected final BiFunction<ActionContext, Argument, Object> func;
 
+    //The location and name of path or query parameter, can be read directly by the generated action invoker.
+    Location paramLocation;
+    String   paramName;
+
 	protected AbstractArgumentResolver(App app,RouteBase route,Argument arg) {
         this.func = func(route, arg);
 	}
@@ -68,10 +72,17 @@ public abstract class AbstractArgumentResolver implements ArgumentResolver {
         Location loc = arg.getLocation();
 
         if(Location.QUERY_PARAM == loc) {
+            paramLocation = loc;
+            paramName     = arg.getName();
             return query;
         }
 
         if(Location.PATH_PARAM == loc) {
+            String var = tryResolvePathVar(route, arg.getName());
+            if(null != var) {
+                paramLocation = loc;
+                paramName     = var;
+            }
             return (c,a) -> c.getPathParameters().get(resolvePathVar(route, arg.getName()));
         }
 
@@ -86,6 +97,8 @@ public abstract class AbstractArgumentResolver implements ArgumentResolver {
         if(arg.getTypeInfo().isSimpleType()) {
             String var = tryResolvePathVar(route, arg.getName());
             if(null != var) {
+                paramLocation = Location.PATH_PARAM;
+                paramName     = var;
                 return (c,a) -> c.getPathParameters().get(var);
             }
         }
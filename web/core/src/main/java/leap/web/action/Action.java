@@ -17,10 +17,13 @@ package leap.web.action;
 
 import leap.lang.Classes;
 import leap.lang.Named;
+import leap.lang.Types;
 import leap.lang.accessor.AnnotationsGetter;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.concurrent.CompletionStage;
 
 public interface Action extends Named,AnnotationsGetter {
 	
@@ -48,6 +51,43 @@ public interface Action extends Named,AnnotationsGetter {
 		return null;
 	}
 	
+	/**
+	 * Returns <code>true</code> if the action returns a {@link CompletionStage}.
+	 * 
+	 * <p>
+	 * The result of an async action will be processed and rendered when the {@link CompletionStage} completes.
+	 */
+	default boolean isAsync() {
+		Class<?> type = getReturnType();
+		return null != type && CompletionStage.class.isAssignableFrom(type);
+	}
+	
+	/**
+	 * Returns the type of result value, it is the value type of {@link CompletionStage} if the action is async.
+	 */
+	default Class<?> getResultType() {
+		if(isAsync()) {
+			Type genericType = getGenericReturnType();
+			return null == genericType ? Object.class : Types.getActualTypeArgument(genericType);
+		}
+		return getReturnType();
+	}
+	
+	/**
+	 * Returns the generic type of result value, it is the value type of {@link CompletionStage} if the action is async.
+	 */
+	default Type getGenericResultType() {
+		if(isAsync()) {
+			Type genericType = getGenericReturnType();
+			if(null == genericType) {
+				return Object.class;
+			}
+			Type type = Types.getTypeArgument(genericType);
+			return type instanceof Class || type instanceof ParameterizedType ? type : getResultType();
+		}
+		return getGenericReturnType();
+	}
+	
 	default Argument[] getArguments() {
 		return EMPTY_ARGUMENTS;
 	}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.action;
+
+import static leap.lang.asm.Opcodes.AALOAD;
+import static leap.lang.asm.Opcodes.AASTORE;
+import static leap.lang.asm.Opcodes.ACC_PUBLIC;
+import static leap.lang.asm.Opcodes.ACC_SUPER;
+import static leap.lang.asm.Opcodes.ACONST_NULL;
+import static leap.lang.asm.Opcodes.ALOAD;
+import static leap.lang.asm.Opcodes.ANEWARRAY;
+import static leap.lang.asm.Opcodes.ARETURN;
+import static leap.lang.asm.Opcodes.ASTORE;
+import static leap.lang.asm.Opcodes.CHECKCAST;
+import static leap.lang.asm.Opcodes.GETFIELD;
+import static leap.lang.asm.Opcodes.INVOKEINTERFACE;
+import static leap.lang.asm.Opcodes.INVOKESPECIAL;
+import static leap.lang.asm.Opcodes.INVOKESTATIC;
+import static leap.lang.asm.Opcodes.INVOKEVIRTUAL;
+import static leap.lang.asm.Opcodes.RETURN;
+import static leap.lang.asm.Opcodes.V1_6;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import leap.core.validation.Validation;
+import leap.lang.Primitives;
+import leap.lang.asm.ClassWriter;
+import leap.lang.asm.MethodVisitor;
+import leap.lang.asm.Type;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.lang.reflect.ClassDefiner;
+import leap.web.Request;
+import leap.web.action.Argument.Location;
+
+/**
+ * Generates a {@link GeneratedActionInvoker} class for a {@link MethodAction}.
+ *
+ * <p>
+ * The generated class is defined in the package and class loader of the controller class.
+ */
+final class ActionInvokerGenerator {
+
+	private static final Log log = LogFactory.get(ActionInvokerGenerator.class);
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	private static final String SUPER_NAME    = Type.getInternalName(GeneratedActionInvoker.class);
+	private static final String CONTEXT_NAME  = Type.getInternalName(ActionContext.class);
+	private static final String REQUEST_NAME  = Type.getInternalName(Request.class);
+	private static final String RESOLVER_NAME = Type.getInternalName(ArgumentResolver.class);
+	private static final String MAP_NAME      = Type.getInternalName(Map.class);
+	private static final String ARGUMENT_DESC = Type.getDescriptor(Argument.class);
+
+	/**
+	 * Returns the generated invoker or <code>null</code> if the action not supports.
+	 */
+	static GeneratedActionInvoker generate(MethodAction action, ArgumentResolver[] resolvers) {
+		Method   m     = action.getMethod().getReflectedMethod();
+		Class<?> c     = m.getDeclaringClass();
+		Object   owner = action.getController();
+
+		if(null == c.getClassLoader() || !isAccessible(c, m.getModifiers(), c) || !isAccessible(c, c.getModifiers(), c)) {
+			return null;
+		}
+
+		if(!Modifier.isStatic(m.getModifiers()) && (null == owner || !c.isInstance(owner))) {
+			return null;
+		}
+
+		for(Class<?> pt : m.getParameterTypes()) {
+			if(!isTypeAccessible(c, pt)) {
+				return null;
+			}
+		}
+
+		String className = c.getName() + "$LeapActionInvoker" + counter.incrementAndGet();
+
+		try {
+			byte[] data = generateClass(action, m, className.replace('.', '/'), resolvers);
+
+			GeneratedActionInvoker invoker =
+					(GeneratedActionInvoker)ClassDefiner.defineInPackage(c, className, data).getDeclaredConstructor().newInstance();
+
+			invoker.init(action, resolvers);
+			return invoker;
+		}catch(Throwable e) {
+			log.warn("Cannot generate invoker for action '{}', use the reflective invoker, {}", action, e.getMessage());
+			return null;
+		}
+	}
+
+	private static byte[] generateClass(MethodAction action, Method m, String className, ArgumentResolver[] resolvers) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(V1_6, ACC_PUBLIC | ACC_SUPER, className, null, SUPER_NAME, null);
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", "()V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		generateResolveArguments(cw, action.getArguments(), resolvers);
+		generateInvoke(cw, m);
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	//Object[] resolveArguments(ActionContext context, Validation validation)
+	private static void generateResolveArguments(ClassWriter cw, Argument[] arguments, ArgumentResolver[] resolvers) {
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "resolveArguments",
+										  "(L" + CONTEXT_NAME + ";" + Type.getDescriptor(Validation.class) + ")[Ljava/lang/Object;",
+										  null, null);
+		mv.visitCode();
+
+		//Object[] args = new Object[n]
+		mv.visitLdcInsn(arguments.length);
+		mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+		mv.visitVarInsn(ASTORE, 3);
+
+		for(int i=0;i<arguments.length;i++) {
+			Argument argument  = arguments[i];
+			String   converter = getInlineConverter(argument, resolvers[i]);
+
+			if(null != converter) {
+				AbstractArgumentResolver resolver = (AbstractArgumentResolver)resolvers[i];
+
+				mv.visitVarInsn(ALOAD, 1);
+				if(resolver.paramLocation == Location.PATH_PARAM) {
+					mv.visitMethodInsn(INVOKEINTERFACE, CONTEXT_NAME, "getPathParameters", "()Ljava/util/Map;", true);
+				}else{
+					mv.visitMethodInsn(INVOKEINTERFACE, CONTEXT_NAME, "getRequest", "()L" + REQUEST_NAME + ";", true);
+					mv.visitMethodInsn(INVOKEVIRTUAL, REQUEST_NAME, "getQueryParameters", "()Ljava/util/Map;", false);
+				}
+				mv.visitLdcInsn(resolver.paramName);
+				mv.visitMethodInsn(INVOKEINTERFACE, MAP_NAME, "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
+				loadArrayElement(mv, "arguments", "[" + ARGUMENT_DESC, i);
+				mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, converter, "(Ljava/lang/Object;" + ARGUMENT_DESC + ")Ljava/lang/Object;", false);
+			}else{
+				loadArrayElement(mv, "resolvers", "[L" + RESOLVER_NAME + ";", i);
+				mv.visitVarInsn(ALOAD, 1);
+				loadArrayElement(mv, "arguments", "[" + ARGUMENT_DESC, i);
+				mv.visitMethodInsn(INVOKEINTERFACE, RESOLVER_NAME, "resolveValue",
+								   "(L" + CONTEXT_NAME + ";" + ARGUMENT_DESC + ")Ljava/lang/Object;", true);
+			}
+			mv.visitVarInsn(ASTORE, 4);
+
+			if(argument.getValidators().length > 0) {
+				mv.visitVarInsn(ALOAD, 0);
+				mv.visitVarInsn(ALOAD, 2);
+				mv.visitLdcInsn(i);
+				mv.visitVarInsn(ALOAD, 4);
+				mv.visitMethodInsn(INVOKEVIRTUAL, SUPER_NAME, "validate", "(" + Type.getDescriptor(Validation.class) + "ILjava/lang/Object;)V", false);
+			}
+
+			mv.visitVarInsn(ALOAD, 3);
+			mv.visitLdcInsn(i);
+			mv.visitVarInsn(ALOAD, 4);
+			mv.visitInsn(AASTORE);
+		}
+
+		mv.visitVarInsn(ALOAD, 3);
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	//Object invoke(Object[] args)
+	private static void generateInvoke(ClassWriter cw, Method m) {
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", "([Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+		mv.visitCode();
+
+		String  owner    = Type.getInternalName(m.getDeclaringClass());
+		boolean isStatic = Modifier.isStatic(m.getModifiers());
+
+		if(!isStatic) {
+			mv.visitVarInsn(ALOAD, 0);
+			mv.visitFieldInsn(GETFIELD, SUPER_NAME, "controller", "Ljava/lang/Object;");
+			mv.visitTypeInsn(CHECKCAST, owner);
+		}
+
+		Class<?>[] types = m.getParameterTypes();
+		for(int i=0;i<types.length;i++) {
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitLdcInsn(i);
+			mv.visitInsn(AALOAD);
+			unbox(mv, types[i]);
+		}
+
+		mv.visitMethodInsn(isStatic ? INVOKESTATIC : INVOKEVIRTUAL, owner, m.getName(), Type.getMethodDescriptor(m), false);
+
+		Class<?> rt = m.getReturnType();
+		if(rt == void.class) {
+			mv.visitInsn(ACONST_NULL);
+		}else if(rt.isPrimitive()) {
+			Class<?> wrapper = Primitives.wrap(rt);
+			mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(wrapper), "valueOf",
+							   "(" + Type.getDescriptor(rt) + ")" + Type.getDescriptor(wrapper), false);
+		}
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	/**
+	 * Returns the name of converter method in {@link GeneratedActionInvoker} if the argument value can be resolved inline.
+	 */
+	private static String getInlineConverter(Argument argument, ArgumentResolver resolver) {
+		if(resolver.getClass() != SimpleArgumentResolver.class || null == ((AbstractArgumentResolver)resolver).paramLocation) {
+			return null;
+		}
+
+		Class<?> type = argument.getType();
+		if(type == String.class) {
+			return "toStringValue";
+		}
+		if(type == int.class || type == Integer.class) {
+			return "toIntValue";
+		}
+		if(type == long.class || type == Long.class) {
+			return "toLongValue";
+		}
+		return "convert";
+	}
+
+	private static void loadArrayElement(MethodVisitor mv, String field, String desc, int index) {
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, SUPER_NAME, field, desc);
+		mv.visitLdcInsn(index);
+		mv.visitInsn(AALOAD);
+	}
+
+	private static void unbox(MethodVisitor mv, Class<?> type) {
+		if(!type.isPrimitive()) {
+			if(type != Object.class) {
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+			}
+			return;
+		}
+
+		Class<?> wrapper = Primitives.wrap(type);
+		String   name    = Type.getInternalName(wrapper);
+		mv.visitTypeInsn(CHECKCAST, name);
+		mv.visitMethodInsn(INVOKEVIRTUAL, name, type.getName() + "Value", "()" + Type.getDescriptor(type), false);
+	}
+
+	private static boolean isTypeAccessible(Class<?> host, Class<?> type) {
+		while(type.isArray()) {
+			type = type.getComponentType();
+		}
+		return type.isPrimitive() || isAccessible(host, type.getModifiers(), type);
+	}
+
+	/**
+	 * Checks the member can be accessed from a class in the package of host class.
+	 */
+	private static boolean isAccessible(Class<?> host, int modifiers, Class<?> declaringClass) {
+		if(Modifier.isPublic(modifiers)) {
+			return null == declaringClass.getDeclaringClass() ||
+				   isAccessible(host, declaringClass.getDeclaringClass().getModifiers(), declaringClass.getDeclaringClass());
+		}
+
+		if(Modifier.isPrivate(modifiers)) {
+			return false;
+		}
+
+		return declaringClass.getClassLoader() == host.getClassLoader() &&
+			   declaringClass.getPackage() == host.getPackage();
+	}
+
+	private ActionInvokerGenerator() {
+
+	}
+}
@@ -32,6 +32,7 @@ import leap.web.action.Argument.Location;
 import leap.web.annotation.Consumes;
 import leap.web.annotation.RequestBean;
 import leap.web.annotation.RequestBody;
+import leap.web.config.WebConfig;
 import leap.web.config.WebInterceptors;
 import leap.web.exception.ResponseException;
 import leap.web.exception.ValidateFailureException;
@@ -68,6 +69,7 @@ public class DefaultActionManager implements ActionManager,AppListener {
 	protected @Inject ArgumentResolverProvider[] argumentResolverProviders;
 	protected @Inject ActionInitializable[]      actionInitializables;
 	protected @Inject WebInterceptors            interceptors;
+	protected @Inject WebConfig                  webConfig;
 
 	@Override
     public void postAppStart(App app) throws Throwable {
@@ -115,6 +117,11 @@ public class DefaultActionManager implements ActionManager,AppListener {
     	eas.supportedFormats = getSupportedFormats(route);
     	eas.action           = route.getAction();
     	
+    	//generate invoker
+    	if(webConfig.isActionInvokerEnabled()) {
+    		eas.invoker = createInvoker(route, eas);
+    	}
+    	
     	easList.add(eas);
     }
 	
@@ -134,7 +141,9 @@ public class DefaultActionManager implements ActionManager,AppListener {
             }
 
             //resolve argument values
-            Object[] args = resolveArgumentValues(context, validation, requestFormat, eas);
+            Object[] args = null != eas.invoker ?
+            					eas.invoker.resolveArguments(context, validation) :
+            					resolveArgumentValues(context, validation, requestFormat, eas);
             execution.setArgs(args);
 
             //expose arguments as view data
@@ -147,7 +156,9 @@ public class DefaultActionManager implements ActionManager,AppListener {
 
             //execute action
             Action action = context.getAction();
-            Object value = action.execute(context, args);
+            Object value = null != eas.invoker && action == eas.action ?
+            					eas.invoker.execute(context, args) :
+            					action.execute(context, args);
 
             execution.setReturnValue(value);
             execution.setStatus(Execution.Status.SUCCESS);
@@ -346,6 +357,27 @@ public class DefaultActionManager implements ActionManager,AppListener {
 		return args;
     }
 	
+    /**
+     * Returns the generated invoker of the route or <code>null</code> if the action not supports.
+     */
+    protected GeneratedActionInvoker createInvoker(RouteBuilder route, ExecutionAttributes eas) {
+    	Action action = route.getAction();
+    	if(null == action || action.getClass() != MethodAction.class) {
+    		return null;
+    	}
+    	
+    	ArgumentResolver[] resolvers = new ArgumentResolver[eas.executionArguments.length];
+    	for(int i=0;i<resolvers.length;i++) {
+    		resolvers[i] = eas.executionArguments[i].resolver;
+    	}
+    	
+    	GeneratedActionInvoker invoker = ActionInvokerGenerator.generate((MethodAction)action, resolvers);
+    	if(null != invoker) {
+    		log.trace("Generated invoker for action '{}'", action);
+    	}
+    	return invoker;
+    }
+    
     protected ResultProcessor getResultProcessor(RouteBuilder route) {
 		Args.notNull(route,"route");
 		Args.notNull(route.getAction(),"action");
@@ -362,7 +394,7 @@ public class DefaultActionManager implements ActionManager,AppListener {
 		
 		//Get internal processor.
 		if(action.hasReturnValue()){
-			Class<?> returnType = action.getReturnType();
+			Class<?> returnType = action.getResultType();
 			
 			//The return type is Result
 			if(Result.class.isAssignableFrom(returnType)){
@@ -585,6 +617,7 @@ public class DefaultActionManager implements ActionManager,AppListener {
     	public ExecutionArgument[] executionArguments;
 		public RequestFormat[] 	   annotatedFormats;
 		public RequestFormat[] 	   supportedFormats;
+		public GeneratedActionInvoker invoker;
     }
 	
 	public static final class ExecutionArgument {
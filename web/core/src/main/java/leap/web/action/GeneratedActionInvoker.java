@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.action;
+
+import leap.core.validation.Validation;
+import leap.lang.Classes;
+import leap.lang.convert.Converts;
+
+/**
+ * The base class of the invoker generated for a {@link MethodAction} of a route.
+ *
+ * <p>
+ * The generated invoker resolves the values of path and query parameters in simple types inline,
+ * calls the other {@link ArgumentResolver} at its own call site and invokes the controller method directly.
+ *
+ * @see leap.web.config.WebConfig#isActionInvokerEnabled()
+ */
+public abstract class GeneratedActionInvoker {
+
+	protected MethodAction       action;
+	protected Object             controller;
+	protected Argument[]         arguments;
+	protected ArgumentResolver[] resolvers;
+
+	final void init(MethodAction action, ArgumentResolver[] resolvers) {
+		this.action     = action;
+		this.controller = action.getController();
+		this.arguments  = action.getArguments();
+		this.resolvers  = resolvers;
+	}
+
+	/**
+	 * Resolves the argument values and validates them.
+	 */
+	public abstract Object[] resolveArguments(ActionContext context, Validation validation) throws Throwable;
+
+	/**
+	 * Invokes the controller method, the exceptions thrown by the method are not wrapped.
+	 */
+	protected abstract Object invoke(Object[] args) throws Throwable;
+
+	/**
+	 * Executes the action, same as {@link MethodAction#execute(ActionContext, Object[])}.
+	 */
+	public Object execute(ActionContext context, Object[] args) {
+		try {
+			return invoke(args);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			action.handleExecuteError(context, e);
+		}
+		return null;
+	}
+
+	protected final void validate(Validation validation, int index, Object value) {
+		Argument            argument   = arguments[index];
+		ArgumentValidator[] validators = argument.getValidators();
+		for(int i=0;i<validators.length;i++){
+			if(!validators[i].validate(validation, argument, value)) {
+				break;
+			}
+		}
+	}
+
+	protected static Object toStringValue(Object value, Argument arg) {
+		if(value instanceof String) {
+			return value;
+		}
+		return convert(value, arg);
+	}
+
+	protected static Object toIntValue(Object value, Argument arg) {
+		if(value instanceof String) {
+			try {
+				return Integer.valueOf((String)value);
+			} catch (NumberFormatException e) {
+				//converts it by Converts.
+			}
+		}
+		return convert(value, arg);
+	}
+
+	protected static Object toLongValue(Object value, Argument arg) {
+		if(value instanceof String) {
+			try {
+				return Long.valueOf((String)value);
+			} catch (NumberFormatException e) {
+				//converts it by Converts.
+			}
+		}
+		return convert(value, arg);
+	}
+
+	/**
+	 * Same as {@link SimpleArgumentResolver}.
+	 */
+	protected static Object convert(Object value, Argument arg) {
+		if(null == value) {
+			return Classes.getDefaultValue(arg.getType());
+		}
+		return Converts.convert(value, arg.getType(), arg.getGenericType());
+	}
+}
@@ -33,6 +33,9 @@ public class MethodAction implements Action {
 	private final Argument[]			 arguments;
 	private final boolean				 hasReturnValue;
 	private final boolean				 hasArguments;
+	private final boolean				 async;
+	private final Class<?>				 resultType;
+	private final Type					 genericResultType;
 	private final ActionInterceptor[]    interceptors;
 	private final Annotation[]			 mergedAnnotations;
 	
@@ -48,6 +51,9 @@ public class MethodAction implements Action {
 		this.arguments             = arguments;
 		this.hasReturnValue        = method.hasReturnValue();
 		this.hasArguments          = arguments.length > 0;
+		this.async                 = Action.super.isAsync();
+		this.resultType            = Action.super.getResultType();
+		this.genericResultType     = Action.super.getGenericResultType();
 		this.interceptors	       = null == interceptors ? EMPTY_INTERCEPTORS : interceptors;
 		this.mergedAnnotations     = mergeAnnotations();
 		
@@ -58,6 +64,17 @@ public class MethodAction implements Action {
 		*/
 	}
 	
+	/**
+	 * Returns the controller object or <code>null</code> if the method is static.
+	 */
+	public Object getController() {
+		return controller;
+	}
+	
+	public ReflectMethod getMethod() {
+		return method;
+	}
+	
 	@Override
     public String getName() {
 	    return method.getName();
@@ -83,6 +100,21 @@ public class MethodAction implements Action {
 	    return method.getReflectedMethod().getGenericReturnType();
     }
 
+	@Override
+	public boolean isAsync() {
+		return async;
+	}
+
+	@Override
+	public Class<?> getResultType() {
+		return resultType;
+	}
+
+	@Override
+	public Type getGenericResultType() {
+		return genericResultType;
+	}
+
 	@Override
     public Annotation[] getControllerAnnotations() {
 	    return method.getReflectClass().getAnnotations();
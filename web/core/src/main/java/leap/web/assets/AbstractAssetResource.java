@@ -28,6 +28,7 @@ import leap.lang.io.IO;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 import leap.lang.path.Paths;
+import leap.lang.resource.Resource;
 
 public abstract class AbstractAssetResource implements AssetResource {
     
@@ -116,6 +117,14 @@ public abstract class AbstractAssetResource implements AssetResource {
         } 
     }
 	
+    /**
+     * Returns the file of the resource or <code>null</code> if the resource is not a file in file system (e.g. in a jar).
+     */
+    protected File resolveFile(Resource resource) {
+        File file = resource.isFile() ? resource.getFile() : null;
+        return null != file && file.isFile() ? file : null;
+    }
+
     protected void resolveClientPathAndUrl() {
         this.path      = manager.getPathWithFingerprint(asset.getPath(), this.fingerprint);
         this.clientUrl = manager.getServletContext().getContextPath() + manager.getConfig().getPathPrefix() + path;
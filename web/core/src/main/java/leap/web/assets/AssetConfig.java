@@ -49,6 +49,23 @@ public interface AssetConfig {
 	 * If the content length less than minimum length, the asset will not be compressed.
 	 */
 	int getGzipMinLength();
+
+	/**
+	 * Returns the max number of compressed asset contents cached in memory.
+	 * 
+	 * <p>
+	 * The compressed content of a fingerprinted asset resource is cached, 0 means disable the caching.
+	 */
+	int getCompressedCacheSize();
+	
+	/**
+	 * Returns the max length in bytes of a compressed asset content can be cached,
+	 * the larger contents will be compressed at every request.
+	 * 
+	 * <p>
+	 * The memory used by the cache is bounded by {@link #getCompressedCacheSize()} * {@link #getCompressedCacheMaxLength()}.
+	 */
+	int getCompressedCacheMaxLength();
 	
 	/**
 	 * Returns the charset to processing asset resources.
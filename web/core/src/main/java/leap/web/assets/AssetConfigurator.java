@@ -28,6 +28,8 @@ public interface AssetConfigurator {
     long   DEFAULT_RELOAD_INTERVAL   = 2000; //2 seconds
     int    DEFAULT_CACHE_MAX_AGE	 = 365 * 24 * 60 * 60 ; //1 year in seconds
     int    DEFAULT_GZIP_MIN_LENGTH   = 512;  //512 bytes
+    int    DEFAULT_COMPRESSED_CACHE_SIZE = 1000;
+    int    DEFAULT_COMPRESSED_CACHE_MAX_LENGTH = 64 * 1024; //64k bytes
 
     /**
      * Disable web assets.
@@ -55,6 +57,22 @@ public interface AssetConfigurator {
      */
     AssetConfigurator setGzipMinLength(int length);
 
+    /**
+     * Sets the max number of compressed asset contents cached in memory, 0 means disable the caching.
+     *
+     * <p/>
+     * Default is {@link #DEFAULT_COMPRESSED_CACHE_SIZE}.
+     */
+    AssetConfigurator setCompressedCacheSize(int size);
+
+    /**
+     * Sets the max length in bytes of a compressed asset content can be cached.
+     *
+     * <p/>
+     * Default is {@link #DEFAULT_COMPRESSED_CACHE_MAX_LENGTH}.
+     */
+    AssetConfigurator setCompressedCacheMaxLength(int length);
+
     /**
      * Adds an asset folder.
      *
@@ -15,6 +15,7 @@
  */
 package leap.web.assets;
 
+import java.io.File;
 
 public interface AssetResource extends AssetContent {
 	
@@ -43,6 +44,13 @@ public interface AssetResource extends AssetContent {
 	 */
 	String getServerPath();
 	
+	/**
+	 * Returns the file of this resource or <code>null</code> if not a file in file system.
+	 */
+	default File getFile() {
+		return null;
+	}
+	
 	/**
 	 * Returns the fingerprint of this resource.
 	 */
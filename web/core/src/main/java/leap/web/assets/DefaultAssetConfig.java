@@ -46,6 +46,8 @@ public class DefaultAssetConfig implements AssetConfig, AssetConfigurator, AppCo
     protected Charset charset;
     protected boolean gzipEnabled      = true;
     protected int     gzipMinLength    = DEFAULT_GZIP_MIN_LENGTH;
+    protected int     compressedCacheSize = DEFAULT_COMPRESSED_CACHE_SIZE;
+    protected int     compressedCacheMaxLength = DEFAULT_COMPRESSED_CACHE_MAX_LENGTH;
     protected String  pathPrefix       = DEFAULT_PATH_PREFIX;
     protected String  sourceDirectory  = DEFAULT_SOURCE_DIRECTORY;
     protected String  publicDirectory  = DEFAULT_PUBLIC_DIRECTORY;
@@ -102,6 +104,28 @@ public class DefaultAssetConfig implements AssetConfig, AssetConfigurator, AppCo
         return this;
 	}
 
+	@Override
+	public int getCompressedCacheSize() {
+		return compressedCacheSize;
+	}
+
+	@ConfigProperty
+	public AssetConfigurator setCompressedCacheSize(int size) {
+		this.compressedCacheSize = size;
+		return this;
+	}
+
+	@Override
+	public int getCompressedCacheMaxLength() {
+		return compressedCacheMaxLength;
+	}
+
+	@ConfigProperty
+	public AssetConfigurator setCompressedCacheMaxLength(int length) {
+		this.compressedCacheMaxLength = length;
+		return this;
+	}
+
 	@ConfigProperty
 	public AssetConfigurator setGzipEnabled(boolean gzipEnabled) {
 		this.gzipEnabled = gzipEnabled;
@@ -15,11 +15,11 @@
  */
 package leap.web.assets;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.ServletException;
@@ -28,6 +28,8 @@ import leap.core.AppException;
 import leap.core.BeanFactory;
 import leap.core.annotation.Inject;
 import leap.core.annotation.M;
+import leap.core.cache.CachePolicy;
+import leap.core.cache.ConcurrentCache;
 import leap.core.ioc.LoadableBean;
 import leap.core.web.RequestBase;
 import leap.core.web.ResponseBase;
@@ -46,10 +48,15 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 	
 	private static final Log log = LogFactory.get(DefaultAssetHandler.class);
 	
+	protected static final String GZIP    = "gzip";
+	protected static final String DEFLATE = "deflate";
+	
     protected @Inject @M AssetConfig   config;
     protected @Inject @M AssetSource   source;
     protected @Inject @M AppHandler    appHandler;
     protected @Inject @M AssetStrategy strategy;
+    
+    protected ConcurrentCache<String, byte[]> compressedCache;
 	
 	@Override
     public boolean matches(RequestBase request) {
@@ -116,7 +123,7 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 		//check etag
 		String ifNoneMatch = request.getHeader(Headers.IF_NONE_MATCH);
 		if(!Strings.isEmpty(ifNoneMatch)){
-			return ifNoneMatch.equals("\"" + resource.getFingerprint() + "\"");
+			return matchesETag(ifNoneMatch, getETag(resource, getContentEncoding(request, resource)));
 		}
 
 		//check lastModified
@@ -161,13 +168,22 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 		
 		String fingerprint = pathAndFingerprint[1];
 		
+		boolean compressible = isCompressible(resource);
+		
 		if(null != fingerprint && fingerprint.length() > 0){
+			String encoding = compressible ? getContentEncoding(request) : null;
+			
 			response.setHeader(Headers.CACHE_CONTROL, "public, max-age=" + config.getCacheMaxAge());
-			response.setHeader(Headers.ETAG, "\"" + resource.getFingerprint() + "\"");
+			response.setHeader(Headers.ETAG, getETag(resource, encoding));
 		}else{
 			response.setHeader(Headers.CACHE_CONTROL, "public, must-revalidate");
 		}
 		
+		//The content of a compressible resource depends on the Accept-Encoding, includes the identity one.
+		if(compressible) {
+			response.setHeader(Headers.VARY, Headers.ACCEPT_ENCODING);
+		}
+		
 		if(resource.getLastModified() > 0){
 			response.setDateHeader(Headers.LAST_MODIFIED, resource.getLastModified());
 		}
@@ -192,25 +208,137 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 			throw new IOException("Resource content too long (beyond Integer.MAX_VALUE): " + resource.getServerPath());
 		}
 		
-		//Only zip text files
-		if(config.isGzipEnabled() && resource.getAsset().isText() && 
-		   resource.getContentLength() >= config.getGzipMinLength() &&
-		   request.isGzipSupport() ) {
-			writeGzipContent(request, response, resource);
-		}else{
-			writeRawContent(request, response, resource);
+		String encoding = getContentEncoding(request, resource);
+		if(null != encoding) {
+			writeCompressedContent(request, response, resource, encoding);
+			return;
+		}
+		
+		writeRawContent(request, response, resource);
+	}
+	
+	/**
+	 * Returns <code>true</code> if the content of the resource will be compressed for the clients accept the compression.
+	 * 
+	 * <p>
+	 * Only the text files are compressed.
+	 */
+	protected boolean isCompressible(AssetResource resource) {
+		return config.isGzipEnabled() && resource.getAsset().isText() && 
+			   resource.getContentLength() >= config.getGzipMinLength();
+	}
+	
+	/**
+	 * Returns the content encoding of the resource for the request, or <code>null</code> if the content will not be compressed.
+	 */
+	protected String getContentEncoding(RequestBase request, AssetResource resource) {
+		return isCompressible(resource) ? getContentEncoding(request) : null;
+	}
+	
+	/**
+	 * Returns the etag of the resource in the content encoding, the etag of a compressed content is suffixed by the encoding.
+	 */
+	protected String getETag(AssetResource resource, String encoding) {
+		return "\"" + resource.getFingerprint() + (null == encoding ? "" : "-" + encoding) + "\"";
+	}
+	
+	/**
+	 * Returns <code>true</code> if the value of <code>If-None-Match</code> header matches the etag.
+	 */
+	protected static boolean matchesETag(String ifNoneMatch, String etag) {
+		for(String item : Strings.split(ifNoneMatch, ',')) {
+			if(item.equals(etag) || item.equals("*") || (item.startsWith("W/") && item.substring(2).equals(etag))) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns the content encoding accepted by the client or <code>null</code> if the compression not supported.
+	 * 
+	 * <p>
+	 * The codings in the <code>Accept-Encoding</code> header are weighted by the q-values,
+	 * gzip is preferred if gzip and deflate have the same weight.
+	 */
+	protected String getContentEncoding(RequestBase request) {
+		return selectContentEncoding(request.getHeader(Headers.ACCEPT_ENCODING));
+	}
+	
+	/**
+	 * Returns the content encoding selected by the value of <code>Accept-Encoding</code> header.
+	 */
+	protected static String selectContentEncoding(String accept) {
+		if(Strings.isEmpty(accept)) {
+			return null;
+		}
+		
+		float gzip = -1, deflate = -1, any = -1;
+		
+		for(String item : Strings.split(accept, ',')) {
+			String[] parts  = Strings.split(item, ';');
+			String   coding = parts[0].toLowerCase();
+			float    q      = 1;
+			
+			for(int i=1;i<parts.length;i++) {
+				String param = parts[i];
+				if(param.startsWith("q=") || param.startsWith("Q=")) {
+					try {
+						q = Float.parseFloat(param.substring(2).trim());
+					}catch(NumberFormatException e) {
+						q = 0;
+					}
+				}
+			}
+			
+			if(GZIP.equals(coding) || "x-gzip".equals(coding)) {
+				gzip = Math.max(gzip, q);
+			}else if(DEFLATE.equals(coding)) {
+				deflate = Math.max(deflate, q);
+			}else if("*".equals(coding)) {
+				any = q;
+			}
+		}
+		
+		//the codings not listed explicitly are weighted by '*'.
+		if(gzip < 0) {
+			gzip = any;
+		}
+		if(deflate < 0) {
+			deflate = any;
+		}
+		
+		if(gzip > 0 && gzip >= deflate) {
+			return GZIP;
+		}
+		
+		if(deflate > 0) {
+			return DEFLATE;
 		}
+		
+		return null;
 	}
 	
 	protected void writeRawContent(RequestBase request, 
 								   ResponseBase response,
 								   AssetResource resource) throws ServletException, IOException {
 
+		//Set content-length
+		response.setContentLength((int) resource.getContentLength());
+		
+		File file = resource.getFile();
+		if(null != file) {
+			try {
+				IO.transferTo(file, 0, resource.getContentLength(), response.getOutputStream());
+			} catch (NestedIOException e) {
+				log.error("Error writting asset content,{}", e.getMessage(), e);
+				throw e;
+			}
+			return;
+		}
+		
 		try(InputStream is = resource.getInputStream()) {
 			try {
-				//Set content-length
-				response.setContentLength((int) resource.getContentLength());
-				
 				//Response
 	            IO.copy(is, response.getOutputStream());
             } catch (NestedIOException e) {
@@ -223,51 +351,89 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 	protected void writeGzipContent(RequestBase request, 
 									ResponseBase response,
 									AssetResource resource) throws ServletException, IOException {
-
+		writeCompressedContent(request, response, resource, GZIP);
+	}
+	
+	protected void writeCompressedContent(RequestBase request, 
+										  ResponseBase response,
+										  AssetResource resource,
+										  String encoding) throws ServletException, IOException {
+		
+		byte[] compressed = getCompressedContent(resource, encoding);
+		
+		//Set headers
+		response.setHeader(Headers.CONTENT_ENCODING, encoding);
+		response.setContentLength(compressed.length);
+		
+		//Response
+		try {
+			response.getOutputStream().write(compressed);
+		} catch (IOException e) {
+			log.error("Error writing asset content,{}", e.getMessage(), e);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Returns the compressed content of the resource, the content of a fingerprinted resource will be cached
+	 * if the compressed length not exceeds {@link AssetConfig#getCompressedCacheMaxLength()}.
+	 */
+	protected byte[] getCompressedContent(AssetResource resource, String encoding) throws IOException {
+		String key = null;
+		
+		if(null != compressedCache && !Strings.isEmpty(resource.getFingerprint())) {
+			key = encoding + ":" + resource.getPath();
+			
+			byte[] cached = compressedCache.get(key);
+			if(null != cached) {
+				return cached;
+			}
+		}
+		
+		byte[] compressed;
 		try(InputStream is = resource.getInputStream()) {
-			try {
-				//Compress
-	            byte[] compressed = gzip(is,resource.getContentLength());
-	            
-	            if(log.isDebugEnabled()) {
-	            	log.debug("Gzip assets '{}' : {} -> {}",resource.getServerPath(), resource.getContentLength(), compressed.length);
-	            }
-				
-	            //Set headers
-	            response.setHeader(Headers.CONTENT_ENCODING, "gzip");
-	            response.setContentLength(compressed.length);
-	            
-	            //Response
-	            try(ByteArrayInputStream gzipInputStream = new ByteArrayInputStream(compressed)) {
-	            	IO.copy(gzipInputStream, response.getOutputStream());
-	            }
-				
-            } catch (NestedIOException e) {
-            	log.error("Error writing asset content,{}", e.getMessage(), e);
-            	throw e;
-            }
+            compressed = compress(is, resource.getContentLength(), encoding);
 		}
+		
+        if(log.isDebugEnabled()) {
+        	log.debug("Compress({}) assets '{}' : {} -> {}", encoding, resource.getServerPath(), resource.getContentLength(), compressed.length);
+        }
+		
+		if(null != key && compressed.length <= config.getCompressedCacheMaxLength() && !resource.isExpired()) {
+			compressedCache.put(key, compressed);
+		}
+		
+		return compressed;
 	}
 
 	@Override
     public boolean load(BeanFactory factory) throws Exception {
-	    return config.isEnabled();
+		if(!config.isEnabled()) {
+			return false;
+		}
+		
+		if(config.getCompressedCacheSize() > 0) {
+			compressedCache = new ConcurrentCache<>(config.getCompressedCacheSize(), CachePolicy.TINY_LFU);
+		}
+		
+	    return true;
     }
 	
-	private final static byte[] gzip(InputStream is, long length) throws IOException {
+	private final static byte[] compress(InputStream is, long length, String encoding) throws IOException {
 
 		final ByteArrayOutputStream compressedOutputStream = new ByteArrayOutputStream((int) (length * 0.75));
 
-		final OutputStream gzipOutputStream = new GZIPOutputStream(compressedOutputStream);
+		final DeflaterOutputStream deflaterOutputStream = GZIP.equals(encoding) ? 
+									new GZIPOutputStream(compressedOutputStream) : new DeflaterOutputStream(compressedOutputStream);
 
 		final byte[] buf = new byte[5000];
 		int len;
 
 		while ((len = is.read(buf)) > 0) {
-			gzipOutputStream.write(buf, 0, len);
+			deflaterOutputStream.write(buf, 0, len);
 		}
 
-		gzipOutputStream.close();
+		deflaterOutputStream.close();
 
 		return compressedOutputStream.toByteArray();
 	}	
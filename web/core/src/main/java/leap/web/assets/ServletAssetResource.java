@@ -15,6 +15,7 @@
  */
 package leap.web.assets;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -29,6 +30,7 @@ public class ServletAssetResource extends AbstractAssetResource{
 	private static final Log log = LogFactory.get(ServletAssetResource.class);
 	
 	protected final ServletResource resource;
+	protected final File            file;
 	
 	public ServletAssetResource(AssetManager manager, Asset asset, ServletResource resource, boolean debug) throws IOException {
 		this(manager,asset,resource,debug,null);
@@ -42,6 +44,7 @@ public class ServletAssetResource extends AbstractAssetResource{
 		this.serverPath    = resource.getPathWithinContext();
 		this.lastModified  = resource.lastModified();
 		this.contentLength = resource.contentLength();
+		this.file          = resolveFile(resource);
 		
 		if(Strings.isEmpty(fingerprint)) {
 			this.generateFingerprint(resource.getPathWithinContext());
@@ -59,6 +62,11 @@ public class ServletAssetResource extends AbstractAssetResource{
 		return resource;
 	}
 	
+	@Override
+	public File getFile() {
+		return file;
+	}
+
 	@Override
     public InputStream getInputStream() throws IOException {
 	    return resource.getInputStream();
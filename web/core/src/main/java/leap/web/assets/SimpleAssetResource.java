@@ -21,6 +21,7 @@ import leap.lang.logging.LogFactory;
 import leap.lang.resource.Resource;
 import leap.lang.servlet.ServletResource;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -30,6 +31,7 @@ public class SimpleAssetResource extends AbstractAssetResource{
 	private static final Log log = LogFactory.get(SimpleAssetResource.class);
 
 	protected final Resource resource;
+	protected final File     file;
 
 	public SimpleAssetResource(AssetManager manager, Asset asset, Resource resource, boolean debug) throws IOException {
 		this(manager,asset,resource,debug,null);
@@ -42,6 +44,7 @@ public class SimpleAssetResource extends AbstractAssetResource{
 		this.resource      = resource;
 		this.lastModified  = resource.lastModified();
 		this.contentLength = resource.contentLength();
+		this.file          = resolveFile(resource);
 		
 		if(Strings.isEmpty(fingerprint)) {
 			this.generateFingerprint(resource.getFilepath());
@@ -59,6 +62,11 @@ public class SimpleAssetResource extends AbstractAssetResource{
         return resource;
     }
 	
+	@Override
+	public File getFile() {
+		return file;
+	}
+
 	@Override
     public InputStream getInputStream() throws IOException {
 	    return resource.getInputStream();
@@ -57,6 +57,7 @@ public class DefaultWebConfig implements WebConfig,WebConfigurator,PostCreateBea
 	protected @R boolean formatParameterEnabled = true;
 	protected @R boolean actionExtensionEnabled = true;
 	protected @R boolean corsEnabled            = false;
+	protected @R boolean actionInvokerEnabled   = false;
 	protected @N String  cookieDomain           = null;
 
     protected @Inject @M AppConfig       config;
@@ -155,6 +156,11 @@ public class DefaultWebConfig implements WebConfig,WebConfigurator,PostCreateBea
 		return autoTrimParameters;
 	}
 
+	@Override
+	public boolean isActionInvokerEnabled() {
+		return actionInvokerEnabled;
+	}
+
     @Override
     public String getHomeControllerName() {
         return homeControllerName;
@@ -268,6 +274,12 @@ public class DefaultWebConfig implements WebConfig,WebConfigurator,PostCreateBea
 		return this;
 	}
 	
+	@ConfigProperty
+	public WebConfigurator setActionInvokerEnabled(boolean enabled) {
+		this.actionInvokerEnabled = enabled;
+		return this;
+	}
+	
 	@ConfigProperty
 	public WebConfigurator setCookieDomain(String cookieDomain) {
 		this.cookieDomain = cookieDomain;
@@ -110,6 +110,17 @@ public interface WebConfig {
      */
     boolean isAutoTrimParameters();
 
+    /**
+     * Returns <code>true</code> if generates an invoker class for each action of controller method at startup.
+     *
+     * <p/>
+     * The generated invoker resolves the simple path and query parameters inline and invokes the controller method directly.
+     *
+     * <p/>
+     * Default is <code>false</code>.
+     */
+    boolean isActionInvokerEnabled();
+
     /**
      * Returns <code>true</code> if allow action extension(s) in request path, such as <code>.do</code>.
      *
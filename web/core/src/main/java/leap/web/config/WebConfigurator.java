@@ -157,6 +157,16 @@ public interface WebConfigurator {
      */
 	WebConfigurator setAutoTrimParameters(boolean enabled);
 
+    /**
+     * Optional.
+     *
+     * Sets enable or disable generating the invoker classes of actions at startup.
+     *
+     * <p/>
+     * Default is disabled.
+     */
+	WebConfigurator setActionInvokerEnabled(boolean enabled);
+
     /**
      * Optional.
      *
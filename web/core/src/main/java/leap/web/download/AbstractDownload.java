@@ -15,16 +15,21 @@
  */
 package leap.web.download;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URLEncoder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.ServletException;
 
+import leap.lang.Randoms;
 import leap.lang.Strings;
 import leap.lang.exception.NestedIOException;
 import leap.lang.http.HTTP;
@@ -46,6 +51,7 @@ public abstract class AbstractDownload implements Download {
 	protected String   etag;
 	protected boolean  gzip;
 	protected boolean  gzipped;
+	protected int      maxRanges     = ByteRange.DEFAULT_MAX_RANGES;
 	
 	@Override
     public String getFilename() {
@@ -105,6 +111,20 @@ public abstract class AbstractDownload implements Download {
 		this.contentLength = contentLength;
 	}
 
+	public int getMaxRanges() {
+		return maxRanges;
+	}
+
+	/**
+	 * Sets the max number of ranges in a range header, the range header will be ignored if exceeds.
+	 * 
+	 * <p>
+	 * Default is {@link ByteRange#DEFAULT_MAX_RANGES}.
+	 */
+	public void setMaxRanges(int maxRanges) {
+		this.maxRanges = maxRanges;
+	}
+
     @Override
 	public String getContentType(Request request) throws Throwable {
 		if(null == contentType) {
@@ -157,11 +177,71 @@ public abstract class AbstractDownload implements Download {
 		//Write content
 		if(gzip) {
 			writeGzipContent(request, response, resource, length);
+			return;
+		}
+		
+		response.setHeader(Headers.ACCEPT_RANGES, "bytes");
+		
+		List<ByteRange> ranges = getRanges(request, resource, length);
+		if(null == ranges) {
+			writeRawContent(request, response, resource, length);
+		}else if(ranges.isEmpty()) {
+			handleRangeNotSatisfiable(request, response, resource, length);
 		}else{
-			writeRawContent(request, response, resource, length);			
+			writeRangeContent(request, response, resource, length, ranges);
 		}
 	}
 	
+	/**
+	 * Returns the requested byte ranges or <code>null</code> if the full content should be responded.
+	 * 
+	 * <p>
+	 * Returns an empty list if the ranges are not satisfiable.
+	 */
+	protected List<ByteRange> getRanges(Request request, Resource resource, long length) throws Throwable {
+		String range = request.getHeader(Headers.RANGE);
+		if(Strings.isEmpty(range) || length < 0) {
+			return null;
+		}
+		
+		if(!checkIfRange(request, resource)) {
+			return null;
+		}
+		
+		return ByteRange.parse(range, length, maxRanges);
+	}
+	
+	//Returns <code>true</code> if the If-Range header not exists or matches the resource.
+	protected boolean checkIfRange(Request request, Resource resource) throws Throwable {
+		String ifRange = request.getHeader(Headers.IF_RANGE);
+		if(Strings.isEmpty(ifRange)) {
+			return true;
+		}
+		
+		//entity-tag
+		if(ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			return null != etag && ifRange.equals("\"" + etag + "\"");
+		}
+		
+		//http-date
+		long date;
+		try {
+			date = request.getDateHeader(Headers.IF_RANGE);
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+		
+		long lastModified = resource.lastModified();
+		return lastModified > 0 && lastModified / 1000 == date / 1000;
+	}
+	
+	protected void handleRangeNotSatisfiable(Request request, Response response, Resource resource, long length) throws Throwable {
+		log.trace("Requested range not satisfiable, returning 416");
+		response.setStatus(HTTP.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+		response.setHeader(Headers.CONTENT_RANGE, "bytes */" + length);
+		response.setContentLength(0);
+	}
+	
 	protected void handleNotFound(Request request,Response response) throws ServletException,IOException {
 		log.trace("No matching resource found, returning 404");
 		response.sendError(HTTP.SC_NOT_FOUND);
@@ -190,10 +270,13 @@ public abstract class AbstractDownload implements Download {
 			}
 		}
 
-		//check lastModified
+		//check lastModified, the http date is in seconds.
 		long ifModifiedSince = request.getDateHeader(Headers.IF_MODIFIED_SINCE);
-		if (ifModifiedSince > 0 && resource.lastModified() == ifModifiedSince) {
-			return true;
+		if (ifModifiedSince > 0) {
+			long lastModified = resource.lastModified();
+			if(lastModified > 0 && lastModified / 1000 <= ifModifiedSince / 1000) {
+				return true;
+			}
 		}
 
 		return false;
@@ -227,25 +310,15 @@ public abstract class AbstractDownload implements Download {
 	}
 	
 	protected void writeGzipContent(Request request, Response response, Resource resource,long contentLength) throws Throwable {
+		//Set headers, the content-length is unknown because of the compression.
+		response.setHeader(Headers.CONTENT_ENCODING, "gzip");
+		
 		try(InputStream is = resource.getInputStream()) {
 			try {
-				
-				//Compress
-	            byte[] compressed = gzip(is,contentLength);
-	            
-	            if(log.isDebugEnabled()) {
-	            	log.debug("Gzip resource '{}' : {} -> {}",resource.getURLString(), contentLength, compressed.length);
-	            }
-				
-	            //Set headers
-	            response.setHeader(Headers.CONTENT_ENCODING, "gzip");
-	            response.setContentLength(compressed.length);
-	            
-	            //Response
-	            try(ByteArrayInputStream gzipInputStream = new ByteArrayInputStream(compressed)) {
-	            	IO.copy(gzipInputStream, response.getOutputStream());
-	            }
-				
+				//Compress into the response directly.
+				try(GZIPOutputStream out = new GZIPOutputStream(new NonClosingOutputStream(response.getOutputStream()), 8192)) {
+					IO.copy(is, out);
+				}
             } catch (NestedIOException e) {
             	log.error("Error writting resource content,{}", e.getMessage(), e);
             	throw e;
@@ -258,11 +331,22 @@ public abstract class AbstractDownload implements Download {
             response.setHeader(Headers.CONTENT_ENCODING, "gzip");
 		}
 		
-		try(InputStream is = getResource(request, response).getInputStream()) {
+		//Set content-length
+		response.setContentLength((int) contentLength);
+		
+		File file = resource.isFile() ? resource.getFile() : null;
+		if(null != file && file.isFile()) {
+			try {
+				IO.transferTo(file, 0, contentLength, response.getOutputStream());
+            } catch (NestedIOException e) {
+            	log.error("Error writting resource content,{}", e.getMessage(), e);
+            	throw e;
+            }
+			return;
+		}
+		
+		try(InputStream is = resource.getInputStream()) {
 			try {
-				//Set content-length
-				response.setContentLength((int) contentLength);
-				
 				//Response
 	            IO.copy(is, response.getOutputStream());
             } catch (NestedIOException e) {
@@ -272,23 +356,137 @@ public abstract class AbstractDownload implements Download {
 		}		
 	}
 	
+	protected void writeRangeContent(Request request, Response response, Resource resource, long length, List<ByteRange> ranges) throws Throwable {
+		if(gzipped) {
+            response.setHeader(Headers.CONTENT_ENCODING, "gzip");
+		}
+		
+		response.setStatus(HTTP.SC_PARTIAL_CONTENT);
+		
+		if(ranges.size() == 1) {
+			ByteRange range = ranges.get(0);
+			
+			response.setHeader(Headers.CONTENT_RANGE, range.toContentRange(length));
+			response.setContentLength((int)range.getLength());
+			
+			writeRanges(response, resource, ranges, null, null);
+			return;
+		}
+		
+		//multipart/byteranges
+		String boundary    = Randoms.nextStringAlphanumeric(32);
+		String contentType = getContentType(request);
+		
+		byte[][] partHeaders = new byte[ranges.size()][];
+		byte[]   end         = Strings.getBytesUtf8("\r\n--" + boundary + "--\r\n");
+		
+		long contentLength = end.length;
+		for(int i=0;i<partHeaders.length;i++) {
+			ByteRange range = ranges.get(i);
+			
+			partHeaders[i] = Strings.getBytesUtf8("\r\n--" + boundary + "\r\n" +
+												  Headers.CONTENT_TYPE + ": " + contentType + "\r\n" +
+												  Headers.CONTENT_RANGE + ": " + range.toContentRange(length) + "\r\n\r\n");
+			
+			contentLength += partHeaders[i].length + range.getLength();
+		}
+		
+		response.setContentType("multipart/byteranges; boundary=" + boundary);
+		response.setContentLength((int)contentLength);
+		
+		writeRanges(response, resource, ranges, partHeaders, end);
+	}
+	
+	protected void writeRanges(Response response, Resource resource, List<ByteRange> ranges, byte[][] partHeaders, byte[] end) throws Throwable {
+		OutputStream out = response.getOutputStream();
+		
+		try {
+			File file = resource.isFile() ? resource.getFile() : null;
+			if(null != file && file.isFile()) {
+				//Reads the ranges from one channel of the file.
+				try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+					for(int i=0;i<ranges.size();i++) {
+						ByteRange range = ranges.get(i);
+						if(null != partHeaders) {
+							out.write(partHeaders[i]);
+						}
+						IO.transferTo(channel, range.first, range.getLength(), out);
+					}
+				}
+			}else{
+				//The ranges are sorted, so the stream will be read once.
+				try(InputStream is = resource.getInputStream()) {
+					long pos = 0;
+					for(int i=0;i<ranges.size();i++) {
+						ByteRange range = ranges.get(i);
+						if(null != partHeaders) {
+							out.write(partHeaders[i]);
+						}
+						skip(is, range.first - pos);
+						copy(is, out, range.getLength());
+						pos = range.last + 1;
+					}
+				}
+			}
+			
+			if(null != end) {
+				out.write(end);
+			}
+        } catch (NestedIOException e) {
+        	log.error("Error writting resource content,{}", e.getMessage(), e);
+        	throw e;
+        }
+	}
+	
+	private static void skip(InputStream is, long n) throws IOException {
+		while(n > 0) {
+			long skipped = is.skip(n);
+			if(skipped <= 0) {
+				if(is.read() < 0) {
+					throw new EOFException("Unexpected end of stream");
+				}
+				skipped = 1;
+			}
+			n -= skipped;
+		}
+	}
+	
+	private static void copy(InputStream is, OutputStream out, long n) throws IOException {
+		byte[] buf = new byte[(int)Math.min(8192, n)];
+		while(n > 0) {
+			int len = is.read(buf, 0, (int)Math.min(buf.length, n));
+			if(len < 0) {
+				throw new EOFException("Unexpected end of stream");
+			}
+			out.write(buf, 0, len);
+			n -= len;
+		}
+	}
+	
 	protected abstract Resource getResource(Request request, Response response) throws Throwable;
 	
-	private final static byte[] gzip(InputStream is, long length) throws IOException {
-
-		final ByteArrayOutputStream compressedOutputStream = new ByteArrayOutputStream((int) (length * 0.75));
-
-		final OutputStream gzipOutputStream = new GZIPOutputStream(compressedOutputStream);
-
-		final byte[] buf = new byte[5000];
-		int len;
+	/**
+	 * Do not close (and flush) the response output stream on closing the compression stream.
+	 */
+	private static final class NonClosingOutputStream extends FilterOutputStream {
+		
+		NonClosingOutputStream(OutputStream out) {
+			super(out);
+		}
 
-		while ((len = is.read(buf)) > 0) {
-			gzipOutputStream.write(buf, 0, len);
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
 		}
 
-		gzipOutputStream.close();
+		@Override
+		public void flush() throws IOException {
+			
+		}
 
-		return compressedOutputStream.toByteArray();
+		@Override
+		public void close() throws IOException {
+			
+		}
 	}
 }
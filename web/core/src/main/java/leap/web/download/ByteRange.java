@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.download;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A satisfiable byte range of the http header {@link leap.lang.http.Headers#RANGE}, both the first and last position are inclusive.
+ */
+public final class ByteRange {
+	
+	private static final String BYTES_UNIT = "bytes=";
+	
+	/**
+	 * The default max number of ranges in a range header.
+	 */
+	public static final int DEFAULT_MAX_RANGES = 16;
+
+	/**
+	 * Parses the value of range header.
+	 * 
+	 * <p>
+	 * Returns <code>null</code> if the value is not a valid byte ranges set, 
+	 * returns an empty list if none of the ranges is satisfiable.
+	 * 
+	 * <p>
+	 * Returns <code>null</code> if there are more than the given max number of ranges in the value, 
+	 * so a lot of tiny or overlapping ranges will not be amplified into a lot of parts.
+	 * 
+	 * <p>
+	 * The returned ranges are sorted and the overlapping (or adjacent) ranges are coalesced.
+	 */
+	public static List<ByteRange> parse(String value, long length, int maxRanges) {
+		if(!value.startsWith(BYTES_UNIT)) {
+			return null;
+		}
+		
+		String[] specs = value.substring(BYTES_UNIT.length()).split(",", maxRanges + 1);
+		if(specs.length > maxRanges) {
+			return null;
+		}
+		
+		List<ByteRange> ranges = new ArrayList<>();
+		
+		for(String spec : specs) {
+			spec = spec.trim();
+			
+			int dash = spec.indexOf('-');
+			if(dash < 0) {
+				return null;
+			}
+			
+			long first;
+			long last;
+			try {
+				if(dash == 0) {
+					//suffix-byte-range-spec : the last n bytes.
+					long suffix = Long.parseLong(spec.substring(1));
+					if(suffix < 0) {
+						return null;
+					}
+					if(suffix == 0) {
+						continue;
+					}
+					first = Math.max(0, length - suffix);
+					last  = length - 1;
+				}else{
+					first = Long.parseLong(spec.substring(0, dash));
+					last  = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+					if(first < 0 || last < first) {
+						return null;
+					}
+					last = Math.min(last, length - 1);
+				}
+			}catch(NumberFormatException e) {
+				return null;
+			}
+			
+			if(first >= length) {
+				continue;
+			}
+			
+			ranges.add(new ByteRange(first, last));
+		}
+		
+		return coalesce(ranges);
+	}
+	
+	private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+		if(ranges.size() < 2) {
+			return ranges;
+		}
+		
+		ranges.sort((r1, r2) -> Long.compare(r1.first, r2.first));
+		
+		List<ByteRange> list = new ArrayList<>(ranges.size());
+		
+		ByteRange prev = ranges.get(0);
+		for(int i=1;i<ranges.size();i++) {
+			ByteRange r = ranges.get(i);
+			if(r.first <= prev.last + 1) {
+				prev = new ByteRange(prev.first, Math.max(prev.last, r.last));
+			}else{
+				list.add(prev);
+				prev = r;
+			}
+		}
+		list.add(prev);
+		
+		return list;
+	}
+	
+	final long first;
+	final long last;
+	
+	ByteRange(long first, long last) {
+		this.first = first;
+		this.last  = last;
+	}
+	
+	/**
+	 * Returns the first byte position (inclusive).
+	 */
+	public long getFirst() {
+		return first;
+	}
+	
+	/**
+	 * Returns the last byte position (inclusive).
+	 */
+	public long getLast() {
+		return last;
+	}
+	
+	public long getLength() {
+		return last - first + 1;
+	}
+	
+	/**
+	 * Returns the value of header {@link leap.lang.http.Headers#CONTENT_RANGE}.
+	 */
+	public String toContentRange(long length) {
+		return "bytes " + first + "-" + last + "/" + length;
+	}
+
+	@Override
+	public String toString() {
+		return first + "-" + last;
+	}
+}
@@ -21,6 +21,7 @@ import leap.lang.Exceptions;
 import leap.lang.convert.Converts;
 import leap.lang.http.MimeTypes;
 import leap.lang.io.IO;
+import leap.lang.json.JsonParserException;
 import leap.lang.json.JsonValue;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
@@ -32,6 +33,7 @@ import leap.web.json.JsonConfig;
 import leap.web.json.Jsonp;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 
@@ -58,17 +60,17 @@ public class JsonFormat extends AbstractRequestFormat implements ResponseFormat,
 
 	@Override
     public Object readRequestBody(Request request, Class<?> type, Type genericType) throws IOException, IllegalStateException {
+		if(!log.isTraceEnabled()) {
+			return decodeRequestBody(request.getReader(), type, genericType);
+		}
+		
 		JsonValue jsonObject = null;
 		try {
-            if(log.isTraceEnabled()) {
-                String json = IO.readString(request.getReader());
+            String json = IO.readString(request.getReader());
 
-                log.trace("Json request body : \n{}", json);
+            log.trace("Json request body : \n{}", json);
 
-                jsonObject = leap.lang.json.JSON.decodeToJsonValue(json);
-            }else{
-                jsonObject = leap.lang.json.JSON.decodeToJsonValue(request.getReader());
-            }
+            jsonObject = leap.lang.json.JSON.decodeToJsonValue(json);
         } catch (Exception e) {
         	throw new InvalidFormatContentException("Error reading 'json' request body, " + e.getMessage(), e);
         }
@@ -79,6 +81,19 @@ public class JsonFormat extends AbstractRequestFormat implements ResponseFormat,
         	throw new InvalidFormatContentException("Error converting 'json' request body to type '" + type.getName() + "', " + e.getMessage(), e);
         }
 	}
+	
+	/**
+	 * Decodes the json to the given type while reading, the request body will not be held in memory as a whole.
+	 */
+	protected Object decodeRequestBody(Reader reader, Class<?> type, Type genericType) {
+		try {
+			return leap.lang.json.JSON.decode(reader, type, genericType);
+		} catch (JsonParserException e) {
+			throw new InvalidFormatContentException("Error reading 'json' request body, " + e.getMessage(), e);
+		} catch (Exception e) {
+			throw new InvalidFormatContentException("Error converting 'json' request body to type '" + type.getName() + "', " + e.getMessage(), e);
+		}
+	}
 
 	@Override
     public Content getContent(final Class<?> type,final Type genericType,final Annotation[] annotations,final Object value) throws Exception {
@@ -91,6 +106,20 @@ public class JsonFormat extends AbstractRequestFormat implements ResponseFormat,
 			
 			@Override
 			protected void doRender(Request request, Response response) throws Exception {
+				//writes the utf-8 bytes directly if the response encoding is utf-8 and the output stream is available.
+				if(writer instanceof JsonFormatWriter && Jsonp.isUtf8(response)) {
+					boolean written = Jsonp.writeBytes(request, response, jsonConfig, (out) -> {
+						try {
+							((JsonFormatWriter) writer).write(out, type, genericType, annotations, value);
+						} catch (Exception e) {
+							throw Exceptions.uncheck(e);
+						}
+					});
+					if(written) {
+						return;
+					}
+				}
+				
 				Jsonp.write(request, response, jsonConfig, (w) -> {
 					try {
 	                    writer.write(w, type, genericType, annotations, value);
@@ -18,17 +18,21 @@ package leap.web.format;
 import leap.core.annotation.Inject;
 import leap.lang.Classes;
 import leap.lang.json.JSON;
+import leap.lang.json.JsonByteWriter;
 import leap.lang.json.JsonSettings;
 import leap.lang.json.JsonStringable;
+import leap.lang.json.JsonWriter;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 import leap.web.json.JsonConfig;
 import leap.web.json.JsonSerialize;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 
 public class JsonFormatWriter implements FormatWriter {
 
@@ -46,13 +50,7 @@ public class JsonFormatWriter implements FormatWriter {
 			return;
 		}
 		
-		JsonSettings settings = getDefaultJsonSettings();
-		
-		JsonSerialize a = Classes.getAnnotation(annotations, JsonSerialize.class);
-		
-		if(null != a) {
-			settings = createJsonSettings(a);
-		}
+		JsonSettings settings = getJsonSettings(annotations);
 
         if(log.isTraceEnabled()) {
 
@@ -66,11 +64,54 @@ public class JsonFormatWriter implements FormatWriter {
         }
     }
 
+	/**
+	 * Writes the value as utf-8 encoded json bytes to the given {@link OutputStream} without building an intermediate string.
+	 *
+	 * <p>
+	 * The control chars and the keys are escaped, see {@link leap.lang.json.JsonByteWriter}.
+	 */
+	public void write(OutputStream out, Class<?> type, Type genericType, Annotation[] annotations, Object value) throws IOException {
+		if(log.isTraceEnabled()) {
+			StringBuilder json = new StringBuilder();
+			write(json, annotations, value);
+
+			log.trace("json output -> \n{}", json);
+
+			out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+			return;
+		}
+
+		if(value instanceof JsonStringable) {
+			JsonByteWriter w = new JsonByteWriter(out, true, true, false, false, false, true, true, JsonWriter.MAX_DEPTH,
+												  getJsonSettings(annotations).getNamingStyle());
+			((JsonStringable) value).toJson(w);
+			w.flush();
+			return;
+		}
+
+		JSON.createEncoder(value, getJsonSettings(annotations)).encode(out);
+	}
+
+	protected void write(StringBuilder out, Annotation[] annotations, Object value) {
+		if(value instanceof JsonStringable) {
+			((JsonStringable) value).toJson(out);
+		}else{
+			JSON.createEncoder(value, getJsonSettings(annotations)).encode(out);
+		}
+	}
+
+	protected JsonSettings getJsonSettings(Annotation[] annotations) {
+		JsonSerialize a = Classes.getAnnotation(annotations, JsonSerialize.class);
+
+		return null == a ? getDefaultJsonSettings() : createJsonSettings(a);
+	}
+
 	protected JsonSettings getDefaultJsonSettings() {
 		if(null == defaultJsonSettings) {
 			defaultJsonSettings = new JsonSettings(defaultJsonConfig.isDefaultSerializationKeyQuoted(),
 												   defaultJsonConfig.isDefaultSerializationIgnoreNull(),
-												   defaultJsonConfig.isDefaultSerializationIgnoreEmpty());
+												   defaultJsonConfig.isDefaultSerializationIgnoreEmpty(),
+												   defaultJsonConfig.isDefaultSerializationGenerateSerializer());
 		}
 		return defaultJsonSettings;
 	}
@@ -80,6 +121,6 @@ public class JsonFormatWriter implements FormatWriter {
 		boolean ignoreNull  = a.ignoreNull().isNone()  ? defaultJsonConfig.isDefaultSerializationIgnoreNull()  : a.ignoreNull().getValue();
 		boolean ignoreEmpty = a.ignoreEmpty().isNone() ? defaultJsonConfig.isDefaultSerializationIgnoreEmpty() : a.ignoreEmpty().getValue();
 		
-		return new JsonSettings(keyQuoted, ignoreNull, ignoreEmpty);
+		return new JsonSettings(keyQuoted, ignoreNull, ignoreEmpty, defaultJsonConfig.isDefaultSerializationGenerateSerializer());
 	}
 }
\ No newline at end of file
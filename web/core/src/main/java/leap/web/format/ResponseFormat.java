@@ -50,7 +50,7 @@ public interface ResponseFormat extends Named {
 	 */
 	default Content getContent(ActionContext context, Object result) throws Exception {
 		Action action = context.getAction();
-		return getContent(action.getReturnType(),action.getGenericReturnType(),action.getMergedAnnotations(),result);
+		return getContent(action.getResultType(),action.getGenericResultType(),action.getMergedAnnotations(),result);
 	}
 
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ public class DefaultJsonConfig implements JsonConfig,JsonConfigurator {
 	protected boolean defaultSerializationKeyQuoted   = true;
 	protected boolean defaultSerializationIgnoreNull  = false;
 	protected boolean defaultSerializationIgnoreEmpty = false;
+	protected boolean defaultSerializationGenerateSerializer = false;
 	protected boolean jsonpEnabled					  = true;
 	protected String  jsonpParameter				  = DEFAULT_JSONP_PARAMETER;
 	
@@ -67,6 +68,16 @@ public class DefaultJsonConfig implements JsonConfig,JsonConfigurator {
 		return this;
 	}
 
+	public boolean isDefaultSerializationGenerateSerializer() {
+		return defaultSerializationGenerateSerializer;
+	}
+
+	@ConfigProperty
+	public JsonConfigurator setDefaultSerializationGenerateSerializer(boolean generateSerializer) {
+		this.defaultSerializationGenerateSerializer = generateSerializer;
+		return this;
+	}
+
 	@ConfigProperty
 	public JsonConfigurator setJsonpEnabled(boolean enabled) {
 		this.jsonpEnabled = enabled;
@@ -23,6 +23,11 @@ public interface JsonConfig {
 	
 	boolean isDefaultSerializationIgnoreEmpty();
 	
+	/**
+	 * Returns true if the json serializers of beans will be generated at runtime.
+	 */
+	boolean isDefaultSerializationGenerateSerializer();
+	
 	boolean isJsonpEnabled();
 	
 	String getJsonpParameter();
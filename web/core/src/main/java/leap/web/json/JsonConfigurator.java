@@ -27,6 +27,8 @@ public interface JsonConfigurator {
 	
 	JsonConfigurator setDefaultSerializationIgnoreEmpty(boolean ignoreEmpty);
 	
+	JsonConfigurator setDefaultSerializationGenerateSerializer(boolean generateSerializer);
+	
 	JsonConfigurator setJsonpEnabled(boolean enabled);
 	
 	JsonConfigurator setJsonpParameter(String jsonpParameter);
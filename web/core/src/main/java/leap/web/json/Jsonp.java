@@ -16,7 +16,9 @@
 package leap.web.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.function.Consumer;
 
 import leap.lang.Strings;
@@ -51,4 +53,49 @@ public class Jsonp {
 		func.accept(writer);
 	}
 	
+	/**
+	 * Returns <code>true</code> if the character encoding of the response is utf-8,
+	 * so the json can be written as utf-8 bytes by {@link #writeBytes(Request, Response, JsonConfig, Consumer)}.
+	 */
+	public static boolean isUtf8(Response response) {
+		String encoding = response.getCharacterEncoding();
+		return null != encoding && (encoding.equalsIgnoreCase("UTF-8") || encoding.equalsIgnoreCase("UTF8"));
+	}
+
+	/**
+	 * Same as {@link #write(Request, Response, JsonConfig, Consumer)}, but writes the utf-8 bytes to the {@link OutputStream} of response.
+	 * 
+	 * <p>
+	 * The caller must make sure the character encoding of the response is utf-8, see {@link #isUtf8(Response)}.
+	 * 
+	 * <p>
+	 * Returns <code>false</code> and writes nothing if the output stream is not available
+	 * (the writer of the response has been obtained).
+	 */
+	public static boolean writeBytes(Request request, Response response, JsonConfig jc, Consumer<OutputStream> func) throws IOException {
+		OutputStream out;
+		try {
+			out = response.getOutputStream();
+		}catch(IllegalStateException e) {
+			return false;
+		}
+		
+		if(jc.isJsonpEnabled()){
+			String callback = request.getParameter(jc.getJsonpParameter());
+			if(!Strings.isEmpty(callback)){
+				if(!JS.isValidJavascriptFunction(callback)){
+					throw new BadRequestException("Invalid jsonp callback : " + callback);
+				}
+				out.write(callback.getBytes(StandardCharsets.UTF_8));
+				out.write('(');
+				func.accept(out);
+				out.write(')');
+				return true;
+			}
+		}
+		
+		func.accept(out);
+		return true;
+	}
+	
 }
@@ -38,6 +38,8 @@ public class DefaultRoutes implements Routes {
 	private Route[]    array = new Route[]{};
 	private Set<Route> set   = new TreeSet<Route>(Route.COMPARATOR);
 	
+	private volatile RouteTree tree;
+	
 	@Override
     public int size() {
 	    return array.length;
@@ -135,24 +137,15 @@ public class DefaultRoutes implements Routes {
 
 	@Override
     public Route match(String method, String path, Map<String,Object> inParameters,  Map<String, String> outVariables) {
-		Route[] routes = this.array;
+		RouteTree tree = this.tree;
 		
-		for(int i=0;i<routes.length;i++){
-			Route route = routes[i];
-			
-			if(null == method || route.getMethod().equals("*") || route.getMethod().equals(method)){
-				
-				if(!matchRequiredParameters(route.getRequiredParameters(), inParameters)){
-					continue;
-				}
-				
-				if(route.getPathTemplate().match(path, outVariables)){
-					return route;
-				}
-			}
+		if(null == tree) {
+			tree = compileTree();
 		}
 		
-		return null;
+		return tree.match(method, path, (route) -> 
+				matchRequiredParameters(route.getRequiredParameters(), inParameters) && 
+				route.getPathTemplate().match(path, outVariables));
     }
 	
 	protected boolean matchRequiredParameters(Map<String, String> requiredParameters,Map<String, Object> inParameters) {
@@ -178,5 +171,13 @@ public class DefaultRoutes implements Routes {
 
 	protected void setNewArray(){
 		this.array = set.toArray(new Route[set.size()]);
+		this.tree  = null;
+	}
+	
+	private synchronized RouteTree compileTree() {
+		if(null == tree) {
+			tree = new RouteTree(array);
+		}
+		return tree;
 	}
 }
\ No newline at end of file
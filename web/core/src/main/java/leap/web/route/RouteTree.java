@@ -0,0 +1,312 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.route;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Predicate;
+
+/**
+ * A compiled routing index of the sorted routes.
+ *
+ * <p>
+ * Every route is registered at the node of its leading literal path segments (the segments before the first variable),
+ * so a request path only needs to check the routes registered on the nodes it walks through.
+ *
+ * <p>
+ * The candidates are always visited in the order of the routes array, that is the order of {@link Route#COMPARATOR}.
+ */
+class RouteTree {
+
+	private static final int[] EMPTY = new int[0];
+
+	private final Route[] routes;
+	private final Node    root;
+	private final int     depth;
+
+	RouteTree(Route[] routes) {
+		this.routes = routes;
+		this.root   = new Node();
+
+		int depth = 0;
+		for(int i=0;i<routes.length;i++){
+			Node node = root;
+
+			List<String> segments = literalSegments(routes[i].getPathTemplate().getTemplate());
+			for(String segment : segments) {
+				node = node.child(segment);
+			}
+
+			if(segments.size() > depth) {
+				depth = segments.size();
+			}
+
+			node.add(i, routes[i].getMethod());
+		}
+
+		root.freeze();
+
+		this.depth = depth;
+	}
+
+	/**
+	 * Returns the first route (in the order of {@link Route#COMPARATOR}) which accepts the given method
+	 * and passes the given predicate.
+	 *
+	 * <p>
+	 * Returns <code>null</code> if no route matched.
+	 */
+	Route match(String method, String path, Predicate<Route> predicate) {
+		//Collects the candidates of all the nodes in the walking path.
+		int[][] buckets = new int[depth + 1][];
+		int     size    = 0;
+
+		Node node = root;
+		int  pos  = 0;
+
+		for(;;) {
+			int[] bucket = node.bucket(method);
+			if(bucket.length > 0) {
+				buckets[size++] = bucket;
+			}
+
+			if(null == node.children) {
+				break;
+			}
+
+			if(pos < path.length() && path.charAt(pos) == '/') {
+				pos++;
+			}
+
+			if(pos >= path.length()) {
+				break;
+			}
+
+			int end = path.indexOf('/', pos);
+			if(end < 0) {
+				end = path.length();
+			}
+
+			node = node.children.get(path.substring(pos, end));
+			if(null == node) {
+				break;
+			}
+
+			pos = end;
+		}
+
+		if(size == 0) {
+			return null;
+		}
+
+		if(size == 1) {
+			for(int index : buckets[0]) {
+				Route route = routes[index];
+				if(predicate.test(route)) {
+					return route;
+				}
+			}
+			return null;
+		}
+
+		//Merges the sorted buckets by the route's index.
+		int[] cursors = new int[size];
+		for(;;) {
+			int min = -1;
+			int idx = -1;
+
+			for(int i=0;i<size;i++) {
+				if(cursors[i] < buckets[i].length) {
+					int index = buckets[i][cursors[i]];
+					if(min < 0 || index < min) {
+						min = index;
+						idx = i;
+					}
+				}
+			}
+
+			if(idx < 0) {
+				return null;
+			}
+
+			cursors[idx]++;
+
+			Route route = routes[min];
+			if(predicate.test(route)) {
+				return route;
+			}
+		}
+	}
+
+	/**
+	 * Returns the leading literal segments of the path template.
+	 *
+	 * <p>
+	 * Stops at the first segment which contains variable or the characters may be encoded by the template.
+	 */
+	static List<String> literalSegments(String template) {
+		List<String> segments = new ArrayList<>();
+
+		int pos = 0;
+		if(template.length() > 0 && template.charAt(0) == '/') {
+			pos++;
+		}
+
+		while(pos < template.length()) {
+			int end = template.indexOf('/', pos);
+			if(end < 0) {
+				end = template.length();
+			}
+
+			if(end == pos || !isLiteral(template, pos, end)) {
+				break;
+			}
+
+			segments.add(template.substring(pos, end));
+			pos = end + 1;
+		}
+
+		return segments;
+	}
+
+	private static boolean isLiteral(String s, int start, int end) {
+		for(int i=start;i<end;i++) {
+			char c = s.charAt(i);
+
+			if((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') ||
+			   c == '-' || c == '.' || c == '_' || c == '~') {
+				continue;
+			}
+
+			return false;
+		}
+		return true;
+	}
+
+	private static final class Node {
+
+		private Map<String, Node> children;
+
+		//Routes of all methods.
+		private int[] all = EMPTY;
+
+		//Routes of '*' method.
+		private int[] any = EMPTY;
+
+		//Routes of the method and '*' method.
+		private Map<String, int[]> methods;
+
+		private List<Integer>       allList;
+		private Map<Integer,String> methodMap;
+
+		Node child(String segment) {
+			if(null == children) {
+				children = new HashMap<>();
+			}
+
+			Node child = children.get(segment);
+			if(null == child) {
+				child = new Node();
+				children.put(segment, child);
+			}
+			return child;
+		}
+
+		void add(int index, String method) {
+			if(null == allList) {
+				allList   = new ArrayList<>();
+				methodMap = new HashMap<>();
+			}
+			allList.add(index);
+			methodMap.put(index, method);
+		}
+
+		int[] bucket(String method) {
+			if(null == method) {
+				return all;
+			}
+
+			if(null != methods) {
+				int[] bucket = methods.get(method);
+				if(null != bucket) {
+					return bucket;
+				}
+			}
+
+			return any;
+		}
+
+		void freeze() {
+			if(null != allList) {
+				Map<String, List<Integer>> lists = new HashMap<>();
+				List<Integer> anyList = new ArrayList<>();
+
+				for(String method : methodMap.values()) {
+					if(!method.equals("*") && !lists.containsKey(method)) {
+						lists.put(method, new ArrayList<>());
+					}
+				}
+
+				for(Integer index : allList) {
+					String method = methodMap.get(index);
+
+					if(method.equals("*")) {
+						anyList.add(index);
+						for(List<Integer> list : lists.values()) {
+							list.add(index);
+						}
+					}else{
+						lists.get(method).add(index);
+					}
+				}
+
+				this.all = toArray(allList);
+				this.any = toArray(anyList);
+
+				if(!lists.isEmpty()) {
+					this.methods = new HashMap<>();
+					for(Entry<String, List<Integer>> entry : lists.entrySet()) {
+						methods.put(entry.getKey(), toArray(entry.getValue()));
+					}
+				}
+
+				this.allList   = null;
+				this.methodMap = null;
+			}
+
+			if(null != children) {
+				for(Node child : children.values()) {
+					child.freeze();
+				}
+			}
+		}
+
+		private static int[] toArray(List<Integer> list) {
+			if(list.isEmpty()) {
+				return EMPTY;
+			}
+
+			int[] a = new int[list.size()];
+			for(int i=0;i<a.length;i++) {
+				a[i] = list.get(i);
+			}
+			return a;
+		}
+	}
+}
@@ -21,9 +21,13 @@ import leap.lang.net.Urls;
 import leap.lang.resource.FileResource;
 import leap.web.WebTestCase;
 import leap.web.assets.AssetStrategy;
+import leap.webunit.client.THttpResponse;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.InputStream;
+
 public class AssetsTestControllerTest extends WebTestCase {
 	
 	protected static AssetStrategy fingerprintStrategy;
@@ -72,6 +76,18 @@ public class AssetsTestControllerTest extends WebTestCase {
 		get("/assets/plugins/pdfjs/web/locale/locale.properties").assertOk();
 	}
 
+	@Test
+	public void testFileContent() throws Exception {
+		File file = new File("src/test/webapps/root/static/plugins/pdfjs/web/images/toolbarButton-menuArrows.png");
+
+		THttpResponse response = get("/assets/plugins/pdfjs/web/images/toolbarButton-menuArrows.png").assertOk();
+		assertEquals(file.length(), response.getContentLength());
+
+		try(InputStream in = response.getInputStream()) {
+			assertArrayEquals(IO.readByteArray(file), IO.readByteArray(in));
+		}
+	}
+
     @Test
     public void testExternalAssets() {
         FileResource tempDir = app.getTempDir();
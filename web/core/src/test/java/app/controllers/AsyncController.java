@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package app.controllers;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import app.models.products.Product;
+import leap.lang.http.MimeTypes;
+import leap.web.Request;
+import leap.web.StreamingContent;
+import leap.web.action.ControllerBase;
+import leap.web.exception.NotFoundException;
+
+public class AsyncController extends ControllerBase {
+	
+	static volatile CompletableFuture<Product> timeoutFuture;
+
+	public CompletableFuture<Product> getProduct() {
+		return CompletableFuture.supplyAsync(() -> {
+			sleep();
+			return newProduct();
+		});
+	}
+	
+	public CompletionStage<Product> getCompletedProduct() {
+		return CompletableFuture.completedFuture(newProduct());
+	}
+	
+	public CompletableFuture<Product> getMissingProduct() {
+		return CompletableFuture.supplyAsync(() -> {
+			sleep();
+			throw new NotFoundException("Product not found");
+		});
+	}
+	
+	public CompletableFuture<Product> getTimeoutProduct(Request request) {
+		request.getServletRequest().startAsync().setTimeout(100);
+		
+		timeoutFuture = new CompletableFuture<>();
+		return timeoutFuture;
+	}
+	
+	public StreamingContent stream() {
+		return new StreamingContent() {
+			@Override
+			public String getContentType(Request request) throws Throwable {
+				return MimeTypes.TEXT_PLAIN;
+			}
+			
+			@Override
+			public void writeTo(OutputStream out) throws Throwable {
+				for(int i=0;i<3;i++) {
+					out.write(("chunk" + i).getBytes(StandardCharsets.UTF_8));
+				}
+			}
+		};
+	}
+	
+	private static Product newProduct() {
+		Product product = new Product();
+		product.setId(100);
+		product.setTitle("Iphone6");
+		return product;
+	}
+	
+	private static void sleep() {
+		try {
+			Thread.sleep(50);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package app.controllers;
+
+import app.models.products.Product;
+import leap.lang.http.HTTP;
+import leap.lang.json.JSON;
+import leap.web.WebTestCase;
+import org.junit.Test;
+
+public class AsyncControllerTest extends WebTestCase {
+
+	@Test
+	public void testGetProduct() {
+		assertProduct(get("/async/get_product").assertOk().getContent());
+		assertProduct(get("/async/get_completed_product").assertOk().getContent());
+	}
+	
+	@Test
+	public void testGetMissingProduct() {
+		get("/async/get_missing_product").assertNotFound();
+	}
+	
+	@Test
+	public void testTimeout() {
+		get("/async/get_timeout_product").assertStatusEquals(HTTP.SC_SERVICE_UNAVAILABLE);
+		
+		assertTrue(AsyncController.timeoutFuture.isCancelled());
+		assertFalse(AsyncController.timeoutFuture.complete(null));
+	}
+	
+	@Test
+	public void testStream() {
+		get("/async/stream").assertOk().assertContentEquals("chunk0chunk1chunk2");
+	}
+	
+	private static void assertProduct(String json) {
+		Product product = JSON.decode(json, Product.class);
+		assertEquals(new Integer(100), product.getId());
+		assertEquals("Iphone6", product.getTitle());
+	}
+}
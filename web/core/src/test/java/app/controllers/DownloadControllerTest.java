@@ -16,7 +16,11 @@
 package app.controllers;
 
 import java.net.URLEncoder;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 
+import leap.lang.http.HTTP;
 import leap.lang.http.Headers;
 import leap.web.WebTestCase;
 import leap.webunit.client.THttpResponse;
@@ -80,4 +84,74 @@ public class DownloadControllerTest extends WebTestCase {
 		*/
 	}
 	
+	@Test
+	public void testRange() {
+		THttpResponse response = forGet("/download/test").setHeader(Headers.RANGE, "bytes=0-2").send();
+		response.assertStatusEquals(HTTP.SC_PARTIAL_CONTENT);
+		response.assertHeaderEquals(Headers.CONTENT_RANGE, "bytes 0-2/6");
+		response.assertContentEquals("中");
+		
+		response = forGet("/download/test").setHeader(Headers.RANGE, "bytes=-3").send();
+		response.assertStatusEquals(HTTP.SC_PARTIAL_CONTENT);
+		response.assertHeaderEquals(Headers.CONTENT_RANGE, "bytes 3-5/6");
+		response.assertContentEquals("文");
+		
+		response = forGet("/download/test3").setHeader(Headers.RANGE, "bytes=3-100").send();
+		response.assertStatusEquals(HTTP.SC_PARTIAL_CONTENT);
+		response.assertHeaderEquals(Headers.CONTENT_RANGE, "bytes 3-8/9");
+		response.assertContentEquals("文流");
+	}
+	
+	@Test
+	public void testMultiRange() {
+		THttpResponse response = forGet("/download/test").setHeader(Headers.RANGE, "bytes=4-5,0-0").send();
+		response.assertStatusEquals(HTTP.SC_PARTIAL_CONTENT);
+		assertTrue(response.getContentType().toString().startsWith("multipart/byteranges"));
+		assertNull(response.getHeader(Headers.CONTENT_RANGE));
+		
+		//coalesced
+		response = forGet("/download/test").setHeader(Headers.RANGE, "bytes=0-2,1-5").send();
+		response.assertStatusEquals(HTTP.SC_PARTIAL_CONTENT);
+		response.assertHeaderEquals(Headers.CONTENT_RANGE, "bytes 0-5/6");
+		response.assertContentEquals("中文");
+	}
+	
+	@Test
+	public void testTooManyRanges() {
+		StringBuilder range = new StringBuilder("bytes=0-0");
+		for(int i=1;i<20;i++) {
+			range.append(",0-0");
+		}
+		
+		//ignored.
+		forGet("/download/test").setHeader(Headers.RANGE, range.toString()).send().assertOk().assertContentEquals("中文");
+	}
+	
+	@Test
+	public void testRangeNotSatisfiable() {
+		THttpResponse response = forGet("/download/test").setHeader(Headers.RANGE, "bytes=6-").send();
+		response.assertStatusEquals(HTTP.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+		response.assertHeaderEquals(Headers.CONTENT_RANGE, "bytes */6");
+		
+		//invalid range is ignored.
+		forGet("/download/test").setHeader(Headers.RANGE, "bytes=3-1").send().assertOk().assertContentEquals("中文");
+	}
+	
+	@Test
+	public void testIfRange() {
+		THttpResponse response = 
+				forGet("/download/test").setHeader(Headers.RANGE, "bytes=0-2").setHeader(Headers.IF_RANGE, "\"not-match\"").send();
+		
+		response.assertOk();
+		response.assertContentEquals("中文");
+	}
+	
+	@Test
+	public void testNotModified() {
+		String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusDays(1));
+		forGet("/download/test").setHeader(Headers.IF_MODIFIED_SINCE, date).send().assertStatusEquals(HTTP.SC_NOT_MODIFIED);
+		
+		date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.of(2000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+		forGet("/download/test").setHeader(Headers.IF_MODIFIED_SINCE, date).send().assertOk();
+	}
 }
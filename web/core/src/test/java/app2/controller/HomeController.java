@@ -15,7 +15,12 @@
  */
 package app2.controller;
 
+import java.io.IOException;
+
 import app.models.products.Product;
+import leap.web.Response;
+import leap.web.annotation.Path;
+import leap.web.exception.BadRequestException;
 
 public class HomeController {
 
@@ -31,4 +36,36 @@ public class HomeController {
 		
 		return product;
 	}
+	
+	@Path("/product/{id}")
+	public Product findProduct(int id, String title, Long version) {
+		Product product = new Product();
+		
+		product.setId(id);
+		product.setTitle(title + (null == version ? "" : version));
+		
+		return product;
+	}
+	
+	@Path("/sum")
+	public String sum(int a, long b, boolean negate, double ratio, Integer c) {
+		double sum = (a + b + (null == c ? 0 : c)) * ratio;
+		
+		return String.valueOf(negate ? -sum : sum);
+	}
+	
+	@Path("/echo")
+	public void echo(Response response, String text, int times) {
+		for(int i=0;i<times;i++) {
+			response.getWriter().write(text);
+		}
+	}
+	
+	@Path("/fail")
+	public void fail(String reason) throws IOException {
+		if("io".equals(reason)) {
+			throw new IOException(reason);
+		}
+		throw new BadRequestException(reason);
+	}
 }
@@ -17,11 +17,18 @@ package app2.controller;
 
 import java.util.Map;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.junit.Test;
 
 import app.models.products.Product;
 import leap.lang.json.JSON;
+import leap.web.AppBootstrap;
 import leap.web.WebTestCase;
+import leap.web.action.DefaultActionManager.ExecutionAttributes;
+import leap.web.action.GeneratedActionInvoker;
+import leap.web.action.MethodAction;
+import leap.web.route.Route;
 
 public class HomeControllerTest extends WebTestCase {
 
@@ -50,4 +57,54 @@ public class HomeControllerTest extends WebTestCase {
 		assertFalse(map.containsKey("summary"));
 	}
 	
-}
\ No newline at end of file
+	@Test
+	public void testGeneratedInvoker() {
+		Product product = JSON.decode(get("/app2/mvc/product/1?title=Iphone&version=6").getContent(), Product.class);
+		assertEquals(new Integer(1), product.getId());
+		assertEquals("Iphone6", product.getTitle());
+		
+		product = JSON.decode(get("/app2/mvc/product/2?title=Iphone").getContent(), Product.class);
+		assertEquals(new Integer(2), product.getId());
+		assertEquals("Iphone", product.getTitle());
+	}
+	
+	@Test
+	public void testGeneratedInvokerUsed() {
+		int count = 0;
+		for(Route route : AppBootstrap.getApp(server.tryGetServletContext("/app2")).routes()) {
+			if(!(route.getAction() instanceof MethodAction)) {
+				continue;
+			}
+			
+			String name = route.getAction().getName();
+			if(name.equals("findProduct") || name.equals("sum") || name.equals("echo") || name.equals("fail")) {
+				ExecutionAttributes eas = (ExecutionAttributes)route.getExecutionAttributes();
+				assertTrue("Invoker of '" + name + "' not generated", eas.invoker instanceof GeneratedActionInvoker);
+				count++;
+			}
+		}
+		assertEquals(4, count);
+	}
+	
+	@Test
+	public void testGeneratedInvokerWithPrimitives() {
+		assertEquals("6.0",   get("/app2/mvc/sum?a=1&b=2&negate=false&ratio=1&c=3").getContent());
+		assertEquals("-1.5",  get("/app2/mvc/sum?a=1&b=2&negate=true&ratio=0.5").getContent());
+		assertEquals("0.0",   get("/app2/mvc/sum").getContent());
+		
+		get("/app2/mvc/sum?a=x").assertNotOk();
+	}
+	
+	@Test
+	public void testGeneratedInvokerWithVoidAction() {
+		assertEquals("abab", get("/app2/mvc/echo?text=ab&times=2").assertOk().getContent());
+		assertEquals("",     get("/app2/mvc/echo?text=ab").getContent());
+	}
+	
+	@Test
+	public void testGeneratedInvokerWithException() {
+		get("/app2/mvc/fail?reason=bad").assertStatusEquals(HttpServletResponse.SC_BAD_REQUEST);
+		get("/app2/mvc/fail?reason=io").assertStatusEquals(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+	}
+	
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.assets;
+
+import leap.junit.TestBase;
+import leap.lang.io.IO;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+public class DefaultAssetHandlerTest extends TestBase {
+
+	private DefaultAssetConfig  config;
+	private DefaultAssetHandler handler;
+
+	@Before
+	public void setUp() throws Exception {
+		handler = new DefaultAssetHandler();
+		handler.config = config = new DefaultAssetConfig();
+		handler.load(null);
+	}
+
+	@Test
+	public void testSelectContentEncoding() {
+		assertNull(DefaultAssetHandler.selectContentEncoding(null));
+		assertNull(DefaultAssetHandler.selectContentEncoding(""));
+		assertNull(DefaultAssetHandler.selectContentEncoding("identity"));
+		assertNull(DefaultAssetHandler.selectContentEncoding("gzip;q=0, deflate;q=0"));
+		assertNull(DefaultAssetHandler.selectContentEncoding("*;q=0"));
+
+		assertEquals("gzip",    DefaultAssetHandler.selectContentEncoding("gzip"));
+		assertEquals("gzip",    DefaultAssetHandler.selectContentEncoding("gzip, deflate"));
+		assertEquals("gzip",    DefaultAssetHandler.selectContentEncoding("deflate, gzip"));
+		assertEquals("gzip",    DefaultAssetHandler.selectContentEncoding("x-gzip"));
+		assertEquals("gzip",    DefaultAssetHandler.selectContentEncoding("*"));
+		assertEquals("deflate", DefaultAssetHandler.selectContentEncoding("deflate"));
+		assertEquals("deflate", DefaultAssetHandler.selectContentEncoding("gzip;q=0.5, deflate"));
+		assertEquals("deflate", DefaultAssetHandler.selectContentEncoding("gzip;q=0, deflate;q=0.1"));
+		assertEquals("deflate", DefaultAssetHandler.selectContentEncoding("gzip;q=0, *"));
+		assertEquals("gzip",    DefaultAssetHandler.selectContentEncoding("deflate;q=0.2, gzip ; q=0.8"));
+	}
+
+	@Test
+	public void testETag() {
+		TestedAssetResource r = new TestedAssetResource("a.js", "f1", "var i=0;");
+
+		assertEquals("\"f1\"",         handler.getETag(r, null));
+		assertEquals("\"f1-gzip\"",    handler.getETag(r, "gzip"));
+		assertEquals("\"f1-deflate\"", handler.getETag(r, "deflate"));
+
+		assertTrue(DefaultAssetHandler.matchesETag("\"f1-gzip\"", "\"f1-gzip\""));
+		assertTrue(DefaultAssetHandler.matchesETag("\"f0\", \"f1-gzip\"", "\"f1-gzip\""));
+		assertTrue(DefaultAssetHandler.matchesETag("W/\"f1-gzip\"", "\"f1-gzip\""));
+		assertTrue(DefaultAssetHandler.matchesETag("*", "\"f1\""));
+
+		assertFalse(DefaultAssetHandler.matchesETag("\"f1\"", "\"f1-gzip\""));
+		assertFalse(DefaultAssetHandler.matchesETag("\"f1-gzip\"", "\"f1\""));
+	}
+
+	@Test
+	public void testCompressedContent() throws Exception {
+		String content = repeat("var i=0;\n", 100);
+
+		byte[] gzip = handler.getCompressedContent(new TestedAssetResource("a.js", "f1", content), "gzip");
+		try(InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+			assertEquals(content, new String(IO.readByteArray(in)));
+		}
+
+		byte[] deflate = handler.getCompressedContent(new TestedAssetResource("a.js", "f1", content), "deflate");
+		try(InputStream in = new InflaterInputStream(new ByteArrayInputStream(deflate))) {
+			assertEquals(content, new String(IO.readByteArray(in)));
+		}
+	}
+
+	@Test
+	public void testCompressedCache() throws Exception {
+		String content = repeat("var i=0;\n", 100);
+
+		//fingerprinted
+		TestedAssetResource r1 = new TestedAssetResource("a.js", "f1", content);
+		byte[] c1 = handler.getCompressedContent(r1, "gzip");
+		assertEquals(1, r1.reads);
+
+		TestedAssetResource r2 = new TestedAssetResource("a.js", "f1", content);
+		assertSame(c1, handler.getCompressedContent(r2, "gzip"));
+		assertEquals(0, r2.reads);
+
+		handler.getCompressedContent(r2, "deflate");
+		assertEquals(1, r2.reads);
+
+		//not fingerprinted
+		TestedAssetResource r3 = new TestedAssetResource("b.js", null, content);
+		handler.getCompressedContent(r3, "gzip");
+		handler.getCompressedContent(r3, "gzip");
+		assertEquals(2, r3.reads);
+	}
+
+	@Test
+	public void testCompressedCacheMaxLength() throws Exception {
+		config.setCompressedCacheMaxLength(1024);
+
+		//random content can not be compressed.
+		byte[] bytes = new byte[4096];
+		new Random().nextBytes(bytes);
+		String content = Arrays.toString(bytes);
+
+		TestedAssetResource r = new TestedAssetResource("c.js", "f1", content);
+		handler.getCompressedContent(r, "gzip");
+		handler.getCompressedContent(r, "gzip");
+		assertEquals(2, r.reads);
+	}
+
+	private static String repeat(String s, int times) {
+		StringBuilder sb = new StringBuilder();
+		for(int i=0;i<times;i++) {
+			sb.append(s);
+		}
+		return sb.toString();
+	}
+
+	private static final class TestedAssetResource extends AbstractAssetResource {
+
+		private final String content;
+		private int reads;
+
+		TestedAssetResource(String path, String fingerprint, String content) {
+			this.path          = path;
+			this.serverPath    = path;
+			this.fingerprint   = fingerprint;
+			this.content       = content;
+			this.contentLength = content.length();
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			reads++;
+			return new ByteArrayInputStream(content.getBytes());
+		}
+
+		@Override
+		public Reader getReader() {
+			return new StringReader(content);
+		}
+	}
+}
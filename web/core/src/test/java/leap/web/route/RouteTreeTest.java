@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.route;
+
+import leap.core.web.path.JerseyPathTemplateFactory;
+import leap.core.web.path.PathTemplateFactory;
+import leap.junit.TestBase;
+import leap.lang.New;
+import leap.web.action.RunnableAction;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+public class RouteTreeTest extends TestBase {
+
+	private static final PathTemplateFactory factory = new JerseyPathTemplateFactory();
+
+	private static final String[] METHODS = new String[]{null, "GET", "POST", "PUT", "DELETE"};
+
+	private static final String[] PATHS = new String[]{
+		"", "/", "//",
+		"/users", "/users/", "/USERS", "/users/1", "/users/abc", "/users/new", "/users/new/", "/users/1/edit", "/users/1/edit/x",
+		"/users.json", "/users.xml", "/users/1.json",
+		"/files", "/files/", "/files/**", "/files/a", "/files/a/b/c", "/files/a/**",
+		"/static/app.js", "/static/app.min.js", "/static/app.css", "/static/app", "/static/sub/app.js",
+		"/api/v1/orders", "/api/v2/orders", "/api/v1/orders/1", "/api/v1", "/api",
+		"/a-b/c_d.txt", "/a-b/c_d~txt", "/a%20b", "/a b",
+		"/x", "/x/y", "/x/y/z", "/x/y/z/w",
+	};
+
+	@Test
+	public void testStaticAndVariableSegments() {
+		assertSameAsLinearScan(routes("/", "/users", "/users/{id}", "/users/new", "/users/{id}/edit", "/users/{id:[0-9]+}",
+									  "/api/v1/orders", "/api/{version}/orders", "/api/{version}/orders/{id}",
+									  "/{controller}", "/{controller}/{action}", "/a-b/c_d.txt", "/a b", "/a%20b"));
+	}
+
+	@Test
+	public void testWildcardAndSuffixPatterns() {
+		assertSameAsLinearScan(routes("/files/**", "/files/{path:.+}", "/files/{path:.*}", "/files/a/**", "/**",
+									  "/users.json", "/users{format:(\\.json)?}", "/users/{id}.json", "/users/{id}.{ext}",
+									  "/static/{name}.js", "/static/{name}.min.js", "/static/{name}.{ext}", "/static/{path:.+}.js",
+									  "/{any:.*}"));
+	}
+
+	@Test
+	public void testPriorityAndOrderTies() {
+		//the same templates and the templates with the same priority are ordered by the adding order.
+		assertSameAsLinearScan(routes("/users/{id}", "/users/{name}", "/users/{id}", "/{a}/{b}", "/{c}/{d}",
+									  "/users/new", "/users/new", "/x/{y}", "/x/{z}/", "/x/{y}/{z}"));
+	}
+
+	@Test
+	public void testMethodFiltering() {
+		Set<Route> routes = new TreeSet<>(Route.COMPARATOR);
+		routes.add(route("GET",    "/users"));
+		routes.add(route("POST",   "/users"));
+		routes.add(route("*",      "/users"));
+		routes.add(route("PUT",    "/users/{id}"));
+		routes.add(route("DELETE", "/users/{id}"));
+		routes.add(route("GET",    "/users/{id}"));
+		routes.add(route("GET",    "/users/new"));
+		routes.add(route("*",      "/{controller}/{action}"));
+		routes.add(route("POST",   "/{any:.*}"));
+		routes.add(route("GET",    "/files/**"));
+
+		assertSameAsLinearScan(routes);
+	}
+
+	@Test
+	public void testExtraConditions() {
+		Set<Route> routes = new TreeSet<>(Route.COMPARATOR);
+		routes.add(route("GET", "/users", Collections.singletonMap("type", "a")));
+		routes.add(route("GET", "/users", Collections.singletonMap("type", "b")));
+		routes.add(route("GET", "/users"));
+		routes.add(route("*",   "/users/{id}", Collections.singletonMap("type", "a")));
+		routes.add(route("*",   "/{controller}/{action}", New.hashMap("type", "a", "x", "y")));
+		routes.add(route("*",   "/{controller}/{action}"));
+
+		assertSameAsLinearScan(routes);
+	}
+
+	@Test
+	public void testRecompileAfterAdding() {
+		DefaultRoutes routes = new DefaultRoutes();
+		routes.add(route("*", "/users/{id}"));
+		routes.add(route("*", "/{controller}"));
+
+		Map<String, Object> params = new HashMap<>();
+		assertEquals("/users/{id}", routes.match("GET", "/users/new", params, new HashMap<>()).getPathTemplate().getTemplate());
+		assertNull(routes.match("GET", "/files/a", params, new HashMap<>()));
+
+		routes.add(route("GET", "/users/new"));
+		routes.add(route("*",   "/files/{path:.+}"));
+
+		assertEquals("/users/new", routes.match("GET", "/users/new", params, new HashMap<>()).getPathTemplate().getTemplate());
+		assertEquals("/users/{id}", routes.match("POST", "/users/new", params, new HashMap<>()).getPathTemplate().getTemplate());
+		assertEquals("/files/{path:.+}", routes.match("GET", "/files/a", params, new HashMap<>()).getPathTemplate().getTemplate());
+		assertEquals("/{controller}", routes.match(null, "/files", params, new HashMap<>()).getPathTemplate().getTemplate());
+	}
+
+	private static Set<Route> routes(String... paths) {
+		Set<Route> routes = new TreeSet<>(Route.COMPARATOR);
+		for(String path : paths) {
+			routes.add(route("*", path));
+			routes.add(route("GET", path));
+		}
+		return routes;
+	}
+
+	private static Route route(String method, String path) {
+		return route(method, path, Collections.emptyMap());
+	}
+
+	private static Route route(String method, String path, Map<String, String> requiredParameters) {
+		RouteBuilder rb = new RouteBuilder();
+		rb.setMethod(method);
+		rb.setPathTemplate(factory.createPathTemplate(path));
+		rb.setAction(new RunnableAction(() -> {}));
+		rb.setRequiredParameters(requiredParameters);
+		return rb.build();
+	}
+
+	private void assertSameAsLinearScan(Set<Route> set) {
+		Route[]   routes = set.toArray(new Route[set.size()]);
+		RouteTree tree   = new RouteTree(routes);
+
+		DefaultRoutes defaultRoutes = new DefaultRoutes();
+		defaultRoutes.addAll(set);
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object>[] paramsList = new Map[]{
+			Collections.emptyMap(), Collections.singletonMap("type", "a"), Collections.singletonMap("type", "b"), New.hashMap("type", "a", "x", "y")
+		};
+
+		int matched = 0;
+		for(String method : METHODS) {
+			for(String path : PATHS) {
+				for(Map<String, Object> params : paramsList) {
+					Map<String, String> expectedVariables = new HashMap<>();
+					Map<String, String> actualVariables   = new HashMap<>();
+
+					Route expected = linearScan(routes, method, path, params, expectedVariables);
+					Route actual   = tree.match(method, path, predicate(defaultRoutes, path, params, actualVariables));
+
+					String message = method + " " + path + " " + params;
+					assertSame(message, expected, actual);
+					assertEquals(message, expectedVariables, actualVariables);
+
+					assertSame(message, expected, defaultRoutes.match(method, path, params, new HashMap<>()));
+
+					if(null != expected) {
+						matched++;
+					}
+				}
+			}
+		}
+		assertTrue(matched > 0);
+	}
+
+	private static Predicate<Route> predicate(DefaultRoutes routes, String path, Map<String, Object> params, Map<String, String> variables) {
+		return (route) -> routes.matchRequiredParameters(route.getRequiredParameters(), params) &&
+						  route.getPathTemplate().match(path, variables);
+	}
+
+	//The linear scan of all the sorted routes.
+	private static Route linearScan(Route[] routes, String method, String path, Map<String, Object> params, Map<String, String> variables) {
+		for(Route route : routes) {
+			if(null == method || route.getMethod().equals("*") || route.getMethod().equals(method)) {
+				if(!matchRequiredParameters(route.getRequiredParameters(), params)) {
+					continue;
+				}
+
+				if(route.getPathTemplate().match(path, variables)) {
+					return route;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean matchRequiredParameters(Map<String, String> required, Map<String, Object> params) {
+		for(Map.Entry<String, String> entry : required.entrySet()) {
+			if(!entry.getValue().equals(params.get(entry.getKey()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -27,6 +27,10 @@ public class DefaultHtplCompiled implements HtplCompiled {
 		Args.notNull(renderable,"renderable");
 		this.renderable = renderable;
 	}
+	
+	public HtplRenderable getRenderable() {
+		return renderable;
+	}
 
 	@Override
 	public void render(HtplTemplate tpl, HtplContext context, HtplWriter writer) throws IOException {
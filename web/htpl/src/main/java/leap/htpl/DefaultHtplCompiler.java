@@ -294,6 +294,14 @@ public class DefaultHtplCompiler implements HtplCompiler {
 			this.condition  = condition;
 			this.renderable = renderable;
 		}
+		
+		public Expression getCondition() {
+			return condition;
+		}
+
+		public HtplRenderable getRenderable() {
+			return renderable;
+		}
 
 		@Override
         public void render(HtplTemplate tpl, HtplContext context, HtplWriter writer) throws IOException {
@@ -319,6 +327,17 @@ public class DefaultHtplCompiler implements HtplCompiler {
 				this.autoEscape = true;
 			}
 		}
+		
+		public Expression getExpression() {
+			return expression;
+		}
+		
+		/**
+		 * Returns the escaper used to escape the evaluated string, or <code>null</code> if no escaping.
+		 */
+		public HtplEscaper getEscaper() {
+			return autoEscape ? escaper : null;
+		}
 
 		@Override
         public void render(HtplTemplate tpl, HtplContext context, HtplWriter writer) throws IOException {
@@ -23,6 +23,7 @@ import leap.core.validation.annotations.NotEmpty;
 public class DefaultHtplConfig implements HtplConfig {
 
 	protected @NotEmpty String prefix;
+	protected boolean          generateClasses = true;
 	
 	@Override
 	public String getPrefix() {
@@ -34,4 +35,14 @@ public class DefaultHtplConfig implements HtplConfig {
 		this.prefix = prefix;
 	}
 
+	@Override
+	public boolean isGenerateClasses() {
+		return generateClasses;
+	}
+
+	@ConfigProperty
+	public void setGenerateClasses(boolean generateClasses) {
+		this.generateClasses = generateClasses;
+	}
+
 }
\ No newline at end of file
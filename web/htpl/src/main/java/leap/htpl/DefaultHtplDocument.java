@@ -321,7 +321,17 @@ public class DefaultHtplDocument extends AbstractHtplObject implements PropertyG
 		
 		nodes.compile(engine, this, compiler);
 		
-		return new DefaultHtplCompiled(compiler.compile());
+		HtplRenderable renderable = compiler.compile();
+		
+		//the reloadable templates are interpreted, the generated classes are not reused by reloading.
+		if(!resource.reloadable() && engine.getConfig().isGenerateClasses()) {
+			HtplRenderable generated = HtplRenderableGenerator.generate(renderable);
+			if(null != generated) {
+				return new DefaultHtplCompiled(generated);
+			}
+		}
+		
+		return new DefaultHtplCompiled(renderable);
     }
 	
 	protected void processProperties(HtplEngine engine){
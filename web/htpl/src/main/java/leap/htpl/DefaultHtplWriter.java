@@ -87,6 +87,16 @@ public class DefaultHtplWriter implements HtplWriter {
 	    return this;
     }
 	
+	@Override
+    public HtplWriter write(char[] chars) throws NestedIOException {
+		try {
+			out.write(chars);
+		} catch (IOException e) {
+			throw new NestedIOException("Error writing chars : " + e.getMessage(),e);
+		}
+		return this;
+	}
+	
 	@Override
     public HtplWriter startElement(String prefix, String localName) {
 		write('<');
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.htpl;
+
+import java.io.IOException;
+
+import leap.htpl.escaping.HtplEscaper;
+import leap.lang.Strings;
+import leap.lang.expression.Expression;
+
+/**
+ * The base class of the renderable generated for a compiled template.
+ *
+ * <p>
+ * A generated class renders all the bodies of a template, the body to render by an instance is
+ * identified by the index given in constructor.
+ *
+ * @see HtplRenderableGenerator
+ */
+public abstract class GeneratedHtplRenderable implements HtplRenderable {
+
+	protected final Object[] constants;
+	protected final int      body;
+
+	protected GeneratedHtplRenderable(Object[] constants, int body) {
+		this.constants = constants;
+		this.body      = body;
+	}
+
+	/**
+	 * Writes the evaluated string of the expression without escaping.
+	 */
+	public static void writeExpr(HtplContext context, HtplWriter writer, Expression expr) {
+		String string = context.evalString(expr);
+		if(!Strings.isEmpty(string)){
+			writer.write(string);
+		}
+	}
+
+	/**
+	 * Writes the evaluated string of the expression escaped by the given escaper.
+	 */
+	public static void writeExpr(HtplContext context, HtplWriter writer, Expression expr, HtplEscaper escaper) throws IOException {
+		String string = context.evalString(expr);
+		if(!Strings.isEmpty(string)){
+			escaper.escapeAndAppend(string, writer);
+		}
+	}
+
+}
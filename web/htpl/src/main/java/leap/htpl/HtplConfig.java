@@ -18,5 +18,10 @@ package leap.htpl;
 public interface HtplConfig {
 	
 	String getPrefix();
+	
+	/**
+	 * Returns <code>true</code> if generates java classes to render the templates which are not reloadable.
+	 */
+	boolean isGenerateClasses();
 
 }
\ No newline at end of file
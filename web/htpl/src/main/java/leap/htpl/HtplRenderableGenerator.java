@@ -0,0 +1,368 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.htpl;
+
+import static leap.lang.asm.Opcodes.AALOAD;
+import static leap.lang.asm.Opcodes.ACC_FINAL;
+import static leap.lang.asm.Opcodes.ACC_PRIVATE;
+import static leap.lang.asm.Opcodes.ACC_PUBLIC;
+import static leap.lang.asm.Opcodes.ACC_SUPER;
+import static leap.lang.asm.Opcodes.ACONST_NULL;
+import static leap.lang.asm.Opcodes.ALOAD;
+import static leap.lang.asm.Opcodes.ASTORE;
+import static leap.lang.asm.Opcodes.CHECKCAST;
+import static leap.lang.asm.Opcodes.GETFIELD;
+import static leap.lang.asm.Opcodes.GOTO;
+import static leap.lang.asm.Opcodes.IFEQ;
+import static leap.lang.asm.Opcodes.ILOAD;
+import static leap.lang.asm.Opcodes.INVOKEINTERFACE;
+import static leap.lang.asm.Opcodes.INVOKESPECIAL;
+import static leap.lang.asm.Opcodes.INVOKESTATIC;
+import static leap.lang.asm.Opcodes.INVOKEVIRTUAL;
+import static leap.lang.asm.Opcodes.POP;
+import static leap.lang.asm.Opcodes.RETURN;
+import static leap.lang.asm.Opcodes.V1_6;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import leap.htpl.DefaultHtplCompiler.ConditionalRenderable;
+import leap.htpl.DefaultHtplCompiler.RenderableExpression;
+import leap.htpl.DefaultHtplCompiler.RenderableText;
+import leap.htpl.ast.For;
+import leap.htpl.ast.If;
+import leap.htpl.ast.IfCondition;
+import leap.htpl.escaping.HtplEscaper;
+import leap.lang.asm.ClassWriter;
+import leap.lang.asm.Label;
+import leap.lang.asm.MethodVisitor;
+import leap.lang.asm.Type;
+import leap.lang.expression.Expression;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.lang.reflect.ClassDefiner;
+
+/**
+ * Generates a {@link GeneratedHtplRenderable} class for the compiled renderable of a template.
+ *
+ * <p>
+ * The adjacent static markup (also across the nested containers) are merged into one precomputed chunk,
+ * the expressions, conditional attributes and <code>if</code> nodes are rendered by the generated code directly,
+ * the bodies of <code>for</code> nodes are generated as separated bodies of the same class.
+ *
+ * <p>
+ * The unknown renderables are rendered by invoking {@link HtplRenderable#render(HtplTemplate, HtplContext, HtplWriter)}.
+ */
+final class HtplRenderableGenerator {
+
+	private static final Log log = LogFactory.get(HtplRenderableGenerator.class);
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	private static final String SUPER_NAME      = Type.getInternalName(GeneratedHtplRenderable.class);
+	private static final String RENDERABLE_NAME = Type.getInternalName(HtplRenderable.class);
+	private static final String CONTEXT_NAME    = Type.getInternalName(HtplContext.class);
+	private static final String WRITER_NAME     = Type.getInternalName(HtplWriter.class);
+	private static final String EXPR_NAME       = Type.getInternalName(Expression.class);
+	private static final String ESCAPER_NAME    = Type.getInternalName(HtplEscaper.class);
+	private static final String FOR_NAME        = Type.getInternalName(For.class);
+	private static final String RENDER_DESC     = "(L" + Type.getInternalName(HtplTemplate.class) + ";L" + CONTEXT_NAME + ";L" + WRITER_NAME + ";)V";
+
+	/**
+	 * Returns the generated renderable or <code>null</code> if the class cannot be generated.
+	 */
+	static HtplRenderable generate(HtplRenderable renderable) {
+		try {
+			return new HtplRenderableGenerator().doGenerate(renderable);
+		}catch(Throwable e) {
+			log.warn("Cannot generate renderable class, use the interpreter, {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private final String               className = SUPER_NAME + "$" + counter.incrementAndGet();
+	private final ClassWriter          cw        = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+	private final List<Object>         constants = new ArrayList<>();
+	private final List<HtplRenderable> bodies    = new ArrayList<>();
+	private final List<Integer>        slots     = new ArrayList<>(); //the constant index of the body instance.
+	private final StringBuilder        text      = new StringBuilder();
+
+	private MethodVisitor mv;
+
+	private HtplRenderableGenerator() {
+
+	}
+
+	private HtplRenderable doGenerate(HtplRenderable root) throws Exception {
+		cw.visit(V1_6, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, SUPER_NAME, null);
+
+		bodies.add(root);
+		slots.add(-1);
+
+		//the bodies of for nodes are added while generating.
+		for(int i=0;i<bodies.size();i++) {
+			generateBody(i);
+		}
+
+		generateConstructor();
+		generateRender();
+
+		cw.visitEnd();
+
+		byte[]   data = cw.toByteArray();
+		Class<?> c    = ClassDefiner.define(GeneratedHtplRenderable.class.getClassLoader(), className.replace('/', '.'), data);
+
+		Constructor<?> constructor = c.getConstructor(Object[].class, int.class);
+
+		Object[] array = constants.toArray();
+		for(int i=1;i<bodies.size();i++) {
+			array[slots.get(i)] = constructor.newInstance(array, i);
+		}
+
+		return (HtplRenderable)constructor.newInstance(array, 0);
+	}
+
+	private void generateConstructor() {
+		mv = cw.visitMethod(ACC_PUBLIC, "<init>", "([Ljava/lang/Object;I)V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ILOAD, 2);
+		mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", "([Ljava/lang/Object;I)V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private void generateRender() {
+		mv = cw.visitMethod(ACC_PUBLIC, "render", RENDER_DESC, null, null);
+		mv.visitCode();
+
+		if(bodies.size() == 1) {
+			invokeBody(0);
+		}else{
+			Label[] labels = new Label[bodies.size()];
+			for(int i=0;i<labels.length;i++) {
+				labels[i] = new Label();
+			}
+			Label dflt = new Label();
+
+			mv.visitVarInsn(ALOAD, 0);
+			mv.visitFieldInsn(GETFIELD, SUPER_NAME, "body", "I");
+			mv.visitTableSwitchInsn(0, labels.length - 1, dflt, labels);
+
+			for(int i=0;i<labels.length;i++) {
+				mv.visitLabel(labels[i]);
+				invokeBody(i);
+			}
+
+			mv.visitLabel(dflt);
+			mv.visitInsn(RETURN);
+		}
+
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private void invokeBody(int i) {
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitVarInsn(ALOAD, 3);
+		mv.visitMethodInsn(INVOKESPECIAL, className, "body" + i, RENDER_DESC, false);
+		mv.visitInsn(RETURN);
+	}
+
+	private void generateBody(int i) {
+		mv = cw.visitMethod(ACC_PRIVATE, "body" + i, RENDER_DESC, null, null);
+		mv.visitCode();
+
+		//Object[] c = this.constants;
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, SUPER_NAME, "constants", "[Ljava/lang/Object;");
+		mv.visitVarInsn(ASTORE, 4);
+
+		generateNode(bodies.get(i));
+		flushText();
+
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private void generateNode(HtplRenderable r) {
+		if(null == r) {
+			return;
+		}
+
+		if(r instanceof RenderableText) {
+			text.append(r.toString());
+			return;
+		}
+
+		if(r.getClass() == HtplRenderableContainer.class) {
+			for(HtplRenderable node : ((HtplRenderableContainer) r).nodes) {
+				generateNode(node);
+			}
+			return;
+		}
+
+		flushText();
+
+		if(r.getClass() == RenderableExpression.class) {
+			generateExpression((RenderableExpression)r);
+		}else if(r.getClass() == ConditionalRenderable.class) {
+			generateConditional((ConditionalRenderable)r);
+		}else if(r.getClass() == If.class && isCompiled((If)r)) {
+			generateIf((If)r);
+		}else if(r.getClass() == For.class && null != ((For) r).getCompiledChildNodes()) {
+			generateFor((For)r);
+		}else{
+			loadConstant(r, RENDERABLE_NAME);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitVarInsn(ALOAD, 2);
+			mv.visitVarInsn(ALOAD, 3);
+			mv.visitMethodInsn(INVOKEINTERFACE, RENDERABLE_NAME, "render", RENDER_DESC, true);
+		}
+	}
+
+	private void generateExpression(RenderableExpression r) {
+		HtplEscaper escaper = r.getEscaper();
+
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitVarInsn(ALOAD, 3);
+		loadConstant(r.getExpression(), EXPR_NAME);
+
+		if(null == escaper) {
+			mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "writeExpr",
+							   "(L" + CONTEXT_NAME + ";L" + WRITER_NAME + ";L" + EXPR_NAME + ";)V", false);
+		}else{
+			loadConstant(escaper, ESCAPER_NAME);
+			mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "writeExpr",
+							   "(L" + CONTEXT_NAME + ";L" + WRITER_NAME + ";L" + EXPR_NAME + ";L" + ESCAPER_NAME + ";)V", false);
+		}
+	}
+
+	private void generateConditional(ConditionalRenderable r) {
+		Label end = new Label();
+
+		evalBoolean(r.getCondition());
+		mv.visitJumpInsn(IFEQ, end);
+
+		generateNode(r.getRenderable());
+		flushText();
+
+		mv.visitLabel(end);
+	}
+
+	private void generateIf(If r) {
+		Label end = new Label();
+
+		for(IfCondition condition : r.getConditions()) {
+			Label next = new Label();
+
+			evalBoolean(condition.getExpression());
+			mv.visitJumpInsn(IFEQ, next);
+
+			generateNode(condition.getCompiled());
+			flushText();
+
+			mv.visitJumpInsn(GOTO, end);
+			mv.visitLabel(next);
+		}
+
+		if(null != r.getElseBody()) {
+			generateNode(r.getElseBody().getCompiled());
+			flushText();
+		}
+
+		mv.visitLabel(end);
+	}
+
+	private void generateFor(For r) {
+		loadConstant(r, FOR_NAME);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitVarInsn(ALOAD, 3);
+
+		loadBody(r.getCompiledChildNodes());
+
+		if(null == r.getCompiledEmptyBody()) {
+			mv.visitInsn(ACONST_NULL);
+		}else{
+			loadBody(r.getCompiledEmptyBody());
+		}
+
+		mv.visitMethodInsn(INVOKEVIRTUAL, FOR_NAME, "render",
+						   "(L" + Type.getInternalName(HtplTemplate.class) + ";L" + CONTEXT_NAME + ";L" + WRITER_NAME +
+						   ";L" + RENDERABLE_NAME + ";L" + RENDERABLE_NAME + ";)V", false);
+	}
+
+	private void evalBoolean(Expression expr) {
+		mv.visitVarInsn(ALOAD, 2);
+		loadConstant(expr, EXPR_NAME);
+		mv.visitMethodInsn(INVOKEINTERFACE, CONTEXT_NAME, "evalBoolean", "(L" + EXPR_NAME + ";)Z", true);
+	}
+
+	/**
+	 * Adds a body to generate and loads the instance renders it, the instance is created after the class defined.
+	 */
+	private void loadBody(HtplRenderable body) {
+		int slot = constants.size();
+		constants.add(null);
+		bodies.add(body);
+		slots.add(slot);
+		loadSlot(slot, RENDERABLE_NAME);
+	}
+
+	private void flushText() {
+		if(text.length() > 0) {
+			char[] chars = new char[text.length()];
+			text.getChars(0, chars.length, chars, 0);
+			text.setLength(0);
+
+			mv.visitVarInsn(ALOAD, 3);
+			loadConstant(chars, "[C");
+			mv.visitMethodInsn(INVOKEINTERFACE, WRITER_NAME, "write", "([C)L" + WRITER_NAME + ";", true);
+			mv.visitInsn(POP);
+		}
+	}
+
+	private void loadConstant(Object value, String type) {
+		int slot = constants.size();
+		constants.add(value);
+		loadSlot(slot, type);
+	}
+
+	private void loadSlot(int slot, String type) {
+		mv.visitVarInsn(ALOAD, 4);
+		mv.visitLdcInsn(slot);
+		mv.visitInsn(AALOAD);
+		mv.visitTypeInsn(CHECKCAST, type);
+	}
+
+	private static boolean isCompiled(If r) {
+		for(IfCondition condition : r.getConditions()) {
+			if(null == condition.getCompiled()) {
+				return false;
+			}
+		}
+		return null == r.getElseBody() || null != r.getElseBody().getCompiled();
+	}
+
+}
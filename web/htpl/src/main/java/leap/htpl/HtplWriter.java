@@ -15,12 +15,21 @@
  */
 package leap.htpl;
 
+import java.nio.CharBuffer;
+
 public interface HtplWriter extends Appendable{
 	
 	HtplWriter write(CharSequence s);
 	
 	HtplWriter write(char c);
 	
+	/**
+	 * Writes the precomputed chars, the given array must not be modified by the writer.
+	 */
+	default HtplWriter write(char[] chars) {
+		return write(CharBuffer.wrap(chars));
+	}
+	
 	HtplWriter startElement(String prefix,String localName);
 	
 	HtplWriter attribute(String localName,String value);
@@ -83,6 +83,14 @@ public class For extends NodeContainer implements HtplRenderable {
 		this.emptyBody = emptyBody;
 	}
 	
+	public HtplRenderable getCompiledChildNodes() {
+		return compiledChildNodes;
+	}
+
+	public HtplRenderable getCompiledEmptyBody() {
+		return compiledEmptyBody;
+	}
+	
 	@Override
     protected Node doProcess(HtplEngine engine, HtplDocument doc, ProcessCallback callback) throws Throwable {
 		if(childNodes.size() > 0){
@@ -112,27 +120,41 @@ public class For extends NodeContainer implements HtplRenderable {
 	
 	@Override
     public void render(HtplTemplate tpl, HtplContext context, HtplWriter writer) throws IOException {
+		render(tpl, context, writer, compiledChildNodes, compiledEmptyBody);
+    }
+	
+	/**
+	 * Renders the loop with the given compiled child nodes and empty body (may be null).
+	 */
+	public void render(HtplTemplate tpl, HtplContext context, HtplWriter writer, HtplRenderable body, HtplRenderable emptyBody) throws IOException {
 		if(null != max) {
-			doRenderInteger(tpl, context, writer, max);
+			doRenderInteger(tpl, context, writer, max, body);
 			return;
 		}
 		
 		Object col = context.eval(collection);
 		
 		if(null == col){
-			doRenderEmpty(tpl,context,writer);
+			doRenderEmpty(tpl,context,writer,emptyBody);
 			return;
 		}
 		
 		if(col instanceof Integer) {
-			doRenderInteger(tpl, context, writer, (Integer)col);
+			doRenderInteger(tpl, context, writer, (Integer)col, body);
 			return;	
 		}
 
-		doRenderEnumerable(tpl, context, writer, Enumerables.of(col));
-    }
+		doRenderEnumerable(tpl, context, writer, Enumerables.of(col), body, emptyBody);
+	}
 	
+	/**
+	 * Renders the loop of an integer with the compiled child nodes, see {@link #doRenderInteger(HtplTemplate, HtplContext, HtplWriter, Integer, HtplRenderable)}.
+	 */
 	protected void doRenderInteger(HtplTemplate tpl, HtplContext context, HtplWriter writer, Integer max) throws IOException {
+		doRenderInteger(tpl, context, writer, max, compiledChildNodes);
+	}
+	
+	protected void doRenderInteger(HtplTemplate tpl, HtplContext context, HtplWriter writer, Integer max, HtplRenderable body) throws IOException {
 		int count = max;
 		
 		LoopVariable loopVariable = new LoopVariable(count);
@@ -147,7 +169,7 @@ public class For extends NodeContainer implements HtplRenderable {
 				
 				variables.put(name, i);
 				
-				compiledChildNodes.render(tpl, context, writer);
+				body.render(tpl, context, writer);
 			}
 		}catch(Break.BreakException e){
 			//broken,do nothing.
@@ -156,9 +178,16 @@ public class For extends NodeContainer implements HtplRenderable {
 		}
 	}
 	
+	/**
+	 * Renders the loop of an enumerable with the compiled child nodes and empty body.
+	 */
 	protected void doRenderEnumerable(HtplTemplate tpl, HtplContext context, HtplWriter writer, Enumerable<?> enumerable) throws IOException {
+		doRenderEnumerable(tpl, context, writer, enumerable, compiledChildNodes, compiledEmptyBody);
+	}
+	
+	protected void doRenderEnumerable(HtplTemplate tpl, HtplContext context, HtplWriter writer, Enumerable<?> enumerable, HtplRenderable body, HtplRenderable emptyBody) throws IOException {
 		if(enumerable.isEmpty()){
-			doRenderEmpty(tpl, context, writer);
+			doRenderEmpty(tpl, context, writer, emptyBody);
 			return;
 		}
 		
@@ -176,7 +205,7 @@ public class For extends NodeContainer implements HtplRenderable {
 				
 				variables.put(name, item);
 				
-				compiledChildNodes.render(tpl, context, writer);
+				body.render(tpl, context, writer);
 
 				i++;
 			}
@@ -187,9 +216,16 @@ public class For extends NodeContainer implements HtplRenderable {
 		}
 	}
 	
+	/**
+	 * Renders the compiled empty body.
+	 */
 	protected void doRenderEmpty(HtplTemplate tpl, HtplContext context, HtplWriter writer) throws IOException  {
-		if(null != compiledEmptyBody){
-			compiledEmptyBody.render(tpl, context, writer);
+		doRenderEmpty(tpl, context, writer, compiledEmptyBody);
+	}
+	
+	protected void doRenderEmpty(HtplTemplate tpl, HtplContext context, HtplWriter writer, HtplRenderable emptyBody) throws IOException  {
+		if(null != emptyBody){
+			emptyBody.render(tpl, context, writer);
 		}
 	}
 
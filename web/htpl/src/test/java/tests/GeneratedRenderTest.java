@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import leap.htpl.DefaultHtplCompiled;
+import leap.htpl.DefaultHtplConfig;
+import leap.htpl.DefaultHtplWriter;
+import leap.htpl.GeneratedHtplRenderable;
+import leap.htpl.HtplCompiled;
+import leap.htpl.HtplTemplate;
+import leap.htpl.resolver.StringHtplResource;
+import leap.lang.New;
+
+import org.junit.Test;
+
+public class GeneratedRenderTest extends HtplTestCase {
+
+	@Test
+	public void testGeneratedClass() {
+		HtplCompiled compiled = compile("<div>${a}</div>", true);
+		assertTrue(((DefaultHtplCompiled)compiled).getRenderable() instanceof GeneratedHtplRenderable);
+
+		compiled = compile("<div>${a}</div>", false);
+		assertFalse(((DefaultHtplCompiled)compiled).getRenderable() instanceof GeneratedHtplRenderable);
+	}
+
+	@Test
+	public void testSameAsInterpreter() throws IOException {
+		context.setLocalVariable("a", "<a>");
+		context.setLocalVariable("i", 1);
+		context.setLocalVariable("c", New.arrayList("1","2","3"));
+		context.setLocalVariable("e", New.arrayList());
+
+		assertSameRender("<div class=\"x\" title=\"<a>\">&lt;a&gt;<span>!{a}</span></div>",
+						 "<div class=\"x\" title=\"${a}\">${a}<span>!{a}</span></div>");
+		assertSameRender("<div class=\"a\">1</div><div>2</div>",
+						 "<div class=\"a\" ht-class-if=\"i > 0\">1</div><div class=\"b\" ht-class-if=\"i > 1\">2</div>");
+		assertSameRender("<b>1</b>end",
+						 "<!--#if(i == 0)-->0<!--#elseif(i == 1)--><b>${i}</b><!--#else-->2<!--#endif-->end");
+		assertSameRender("<ul><li>1:1</li><li>2:2!</li><li>3:3</li></ul>",
+						 "<ul><!--#for x : c--><li>${loop.index}:${x}<!--#if(x == '2')-->!<!--#endif--></li><!--#endfor--></ul>");
+		assertSameRender("11122122",
+						 "<!--#for x : c--><!--#for y : 2-->${x}${y}<!--#endfor--><!--#break(x == '2')--><!--#endfor-->");
+		assertSameRender("<i>empty</i>",
+						 "<!--#for x : e-->${x}<!--#empty--><i>empty</i><!--#endfor-->");
+		assertSameRender("<script>var a = '\\u003Ca\\u003E';</script>",
+						 "<script>var a = '${a}';</script>");
+	}
+
+	private void assertSameRender(String expected, String html) throws IOException {
+		assertEquals(expected, render(html, false));
+		assertEquals(expected, render(html, true));
+	}
+
+	private String render(String html, boolean generate) throws IOException {
+		HtplTemplate tpl      = parseTemplate(html);
+		HtplCompiled compiled = compile(html, generate);
+
+		StringWriter out = new StringWriter();
+		compiled.render(tpl, context, new DefaultHtplWriter(engine, out));
+		return out.toString();
+	}
+
+	private HtplCompiled compile(String html, boolean generate) {
+		DefaultHtplConfig config = (DefaultHtplConfig)engine.getConfig();
+		boolean old = config.isGenerateClasses();
+		try {
+			config.setGenerateClasses(generate);
+			return engine.parseDocument(new StringHtplResource(html)).process().compile();
+		}finally{
+			config.setGenerateClasses(old);
+		}
+	}
+}